@@ -18,7 +18,9 @@
 package org.jboss.pnc.coordinator.builder;
 
 import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
+import org.jboss.pnc.model.Base32LongID;
 import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.spi.coordinator.BuildSetTask;
 import org.jboss.pnc.spi.coordinator.BuildTask;
 import org.slf4j.Logger;
@@ -31,6 +33,8 @@ import io.opentelemetry.instrumentation.annotations.WithSpan;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -54,12 +58,21 @@ import java.util.stream.Collectors;
  * <li>readyTasks - queue of tasks that are ready to be executed but are waiting for a free executor (and throttling
  * mechanism)</li>
  * <li>waitingTasksWithCallbacks - tasks waiting for a dependency. As soon as their dependencies are built, they are
- * moved to readyTasks. The waiting tasks are mapped to callbacks that are executed upon the transfer</li>
- * <li>unfinishedTasks - tasks either waiting, ready or in progress. This collection is introduced to fix the race
- * condition in {@link #take(Consumer)}, where a task is taken from readyTask, and later put into tasksInProgress and
- * the method cannot be synchronized</li>
+ * moved to readyTasks. The waiting tasks are mapped to callbacks that are executed upon the transfer and to the set of
+ * their dependencies that are not completed yet</li>
+ * <li>unfinishedTasks - tasks either waiting, ready or in progress, indexed by the IdRev of their build configuration.
+ * This collection is introduced to fix the race condition in {@link #take(Consumer)}, where a task is taken from
+ * readyTask, and later put into tasksInProgress and the method cannot be synchronized</li>
  * </ul>
  *
+ * The waiting tasks are indexed by the dependencies they wait for, so when a task finishes only its direct dependants
+ * are checked, see {@link #executeNewReadyTasks(BuildTask)}.
+ *
+ * Unfinished tasks are additionally indexed by the build task id and by the BuildConfigSetRecord id. All the
+ * collections are concurrent, the modifications are serialized on the queue monitor to keep the indexes consistent
+ * with each other, but the lookups don't take any lock, so that status queries don't contend with the queue processing
+ * threads and with the other modifications.
+ *
  * The BuildQueue is MDC aware, the MDC values present in the thread context when the tasks is added are restored when
  * an operation is run on element using {@link #take(Consumer)} method.
  *
@@ -75,12 +88,15 @@ public class BuildQueue {
 
     private SystemConfig systemConfig;
 
-    private final Set<MDCAwareElement<BuildTask>> unfinishedTasks = new HashSet<>();
+    private final Map<IdRev, MDCAwareElement<BuildTask>> unfinishedTasks = new ConcurrentHashMap<>();
+    private final Map<String, BuildTask> unfinishedTasksById = new ConcurrentHashMap<>();
+    private final Map<Base32LongID, Set<BuildTask>> unfinishedTasksBySetId = new ConcurrentHashMap<>();
 
     private final BlockingQueue<MDCAwareElement<BuildTask>> readyTasks = new LinkedBlockingQueue<>();
-    private final Map<MDCAwareElement<BuildTask>, Runnable> waitingTasksWithCallbacks = new HashMap<>();
+    private final Map<MDCAwareElement<BuildTask>, WaitingTask> waitingTasksWithCallbacks = new ConcurrentHashMap<>();
+    private final Map<BuildTask, Set<MDCAwareElement<BuildTask>>> waitingDependants = new HashMap<>();
     private final Set<MDCAwareElement<BuildTask>> tasksInProgress = ConcurrentHashMap.newKeySet();
-    private final Set<BuildSetTask> taskSets = new HashSet<>();
+    private final Set<BuildSetTask> taskSets = ConcurrentHashMap.newKeySet();
 
     private final Semaphore availableBuildSlots = new Semaphore(0);
 
@@ -104,8 +120,8 @@ public class BuildQueue {
         if (!task.readyToBuild()) {
             throw new IllegalArgumentException("a not ready task added to the queue: " + task);
         }
-        MDCAwareElement element = new MDCAwareElement(task);
-        unfinishedTasks.add(element);
+        MDCAwareElement<BuildTask> element = new MDCAwareElement<>(task);
+        addUnfinished(element);
         log.debug("adding task: {} with contextMap: {}", task, element.getContextMap());
         readyTasks.add(element);
         return true;
@@ -119,10 +135,23 @@ public class BuildQueue {
      */
     @WithSpan()
     public synchronized void addWaitingTask(@SpanAttribute(value = "task") BuildTask task, Runnable taskReadyCallback) {
-        MDCAwareElement element = new MDCAwareElement(task);
-        unfinishedTasks.add(element);
+        MDCAwareElement<BuildTask> element = new MDCAwareElement<>(task);
+        addUnfinished(element);
+        Set<BuildTask> remainingDependencies = task.getDependencies()
+                .stream()
+                .filter(dependency -> !dependency.getStatus().isCompleted())
+                .collect(Collectors.toCollection(HashSet::new));
+        if (remainingDependencies.isEmpty()) {
+            // the dependencies completed while the task was being added
+            log.debug("adding no longer waiting task: {} with contextMap: {}", task, element.getContextMap());
+            taskReadyCallback.run();
+            readyTasks.add(element);
+            return;
+        }
         log.debug("adding waiting task: {} with contextMap: {}", task, element.getContextMap());
-        waitingTasksWithCallbacks.put(element, taskReadyCallback);
+        waitingTasksWithCallbacks.put(element, new WaitingTask(taskReadyCallback, remainingDependencies));
+        remainingDependencies
+                .forEach(dependency -> waitingDependants.computeIfAbsent(dependency, d -> new HashSet<>()).add(element));
     }
 
     /**
@@ -131,7 +160,7 @@ public class BuildQueue {
      * @param taskSet task set to be built
      */
     @WithSpan()
-    public synchronized void enqueueTaskSet(@SpanAttribute(value = "taskSet") BuildSetTask taskSet) {
+    public void enqueueTaskSet(@SpanAttribute(value = "taskSet") BuildSetTask taskSet) {
         log.debug("adding task set: {}", taskSet);
         taskSets.add(taskSet);
     }
@@ -142,7 +171,7 @@ public class BuildQueue {
      * @param taskSet processed task set
      */
     @WithSpan()
-    public synchronized void removeSet(@SpanAttribute(value = "taskSet") BuildSetTask taskSet) {
+    public void removeSet(@SpanAttribute(value = "taskSet") BuildSetTask taskSet) {
         log.debug("removing task set: {}", taskSet);
         taskSets.remove(taskSet);
     }
@@ -156,30 +185,38 @@ public class BuildQueue {
     @WithSpan()
     public synchronized void removeTask(@SpanAttribute(value = "task") BuildTask task) {
         log.debug("removing task: {}", task);
-        MDCAwareElement element = new MDCAwareElement(task);
+        MDCAwareElement<BuildTask> element = new MDCAwareElement<>(task);
+        boolean found = false;
         if (tasksInProgress.remove(element)) {
             availableBuildSlots.release();
+            found = true;
         }
-        if (readyTasks.remove(element)) {
-            log.debug("The task {} has been removed from readyTasks.", task);
-        }
-
-        if (waitingTasksWithCallbacks.remove(element) != null) {
+        WaitingTask waitingTask = waitingTasksWithCallbacks.remove(element);
+        if (waitingTask != null) {
+            removeFromWaitingDependants(element, waitingTask);
             log.debug("The task {} has been removed from waitingTasks.", task);
+            found = true;
+        }
+        // a task is in exactly one of the collections, avoid the linear scan of readyTasks when it's not needed
+        if (!found && readyTasks.remove(element)) {
+            log.debug("The task {} has been removed from readyTasks.", task);
         }
 
-        if (unfinishedTasks.remove(element)) {
+        if (removeUnfinished(task)) {
             log.debug("The task {} has been removed from unfinishedTasks.", task);
         }
     }
 
     /**
-     * Trigger searching for ready tasks in the waiting queue. This method should be invoked if one task has finished
-     * and there's a possibility that other tasks became ready to be built.
+     * Release the tasks waiting for the finished task. This method should be invoked if one task has finished and
+     * there's a possibility that its dependants became ready to be built. Only the direct dependants of the finished
+     * task are checked.
+     *
+     * @param finishedTask the task that has finished
      */
     @WithSpan()
-    public synchronized void executeNewReadyTasks() {
-        List<MDCAwareElement<BuildTask>> newReadyTasks = extractReadyTasks();
+    public synchronized void executeNewReadyTasks(@SpanAttribute(value = "finishedTask") BuildTask finishedTask) {
+        List<MDCAwareElement<BuildTask>> newReadyTasks = extractReadyTasks(finishedTask);
         log.debug("starting new ready tasks. New ready tasks: {}", newReadyTasks);
         readyTasks.addAll(newReadyTasks);
     }
@@ -191,21 +228,8 @@ public class BuildQueue {
      * @return Optional.of(build task for the systemConfig) if build task is enqueued/in progress, Optional.empty()
      *         otherwise
      */
-    public synchronized Optional<BuildTask> getTask(BuildConfigurationAudited buildConfigAudited) {
-        Optional<BuildTask> ready = readyTasks.stream()
-                .map(MDCAwareElement::get)
-                .filter(bt -> bt.getBuildConfigurationAudited().equals(buildConfigAudited))
-                .findAny();
-        Optional<BuildTask> waiting = waitingTasksWithCallbacks.keySet()
-                .stream()
-                .map(MDCAwareElement::get)
-                .filter(bt -> bt.getBuildConfigurationAudited().equals(buildConfigAudited))
-                .findAny();
-        Optional<BuildTask> inProgress = tasksInProgress.stream()
-                .map(MDCAwareElement::get)
-                .filter(bt -> bt.getBuildConfigurationAudited().equals(buildConfigAudited))
-                .findAny();
-        return ready.isPresent() ? ready : waiting.isPresent() ? waiting : inProgress;
+    public Optional<BuildTask> getTask(BuildConfigurationAudited buildConfigAudited) {
+        return getUnfinishedTask(buildConfigAudited);
     }
 
     /**
@@ -213,8 +237,29 @@ public class BuildQueue {
      *
      * @return list of all build tasks in the queue
      */
-    public synchronized List<BuildTask> getSubmittedBuildTasks() {
-        return unfinishedTasks.stream().map(MDCAwareElement::get).collect(Collectors.toList());
+    public List<BuildTask> getSubmittedBuildTasks() {
+        return unfinishedTasks.values().stream().map(MDCAwareElement::get).collect(Collectors.toList());
+    }
+
+    /**
+     * Get waiting, ready or in progress task by its id
+     *
+     * @param buildTaskId id of the build task
+     * @return Optional.of(build task) if the task is in the queue, Optional.empty() otherwise
+     */
+    public Optional<BuildTask> getSubmittedBuildTask(String buildTaskId) {
+        return Optional.ofNullable(unfinishedTasksById.get(buildTaskId));
+    }
+
+    /**
+     * List all waiting, ready and in progress tasks belonging to the given BuildConfigSetRecord
+     *
+     * @param buildConfigSetRecordId id of the BuildConfigSetRecord
+     * @return list of the build tasks of the set that are in the queue
+     */
+    public List<BuildTask> getSubmittedBuildTasksBySetId(Base32LongID buildConfigSetRecordId) {
+        Set<BuildTask> tasks = unfinishedTasksBySetId.get(buildConfigSetRecordId);
+        return tasks == null ? Collections.emptyList() : new ArrayList<>(tasks);
     }
 
     private MDCAwareElement<BuildTask> take() throws InterruptedException {
@@ -253,35 +298,83 @@ public class BuildQueue {
         }
     }
 
-    public synchronized boolean isBuildAlreadySubmitted(BuildTask buildTask) {
-        return unfinishedTasks.contains(buildTask);
+    public boolean isBuildAlreadySubmitted(BuildTask buildTask) {
+        return unfinishedTasks.containsKey(buildTask.getBuildConfigurationAudited().getIdRev());
     }
 
-    public synchronized Optional<BuildTask> getUnfinishedTask(BuildConfigurationAudited buildConfigurationAudited) {
-        return unfinishedTasks.stream()
-                .map(MDCAwareElement::get)
-                .filter(buildTask -> buildTask.getBuildConfigurationAudited().equals(buildConfigurationAudited))
-                .findFirst();
+    public Optional<BuildTask> getUnfinishedTask(BuildConfigurationAudited buildConfigurationAudited) {
+        return Optional.ofNullable(unfinishedTasks.get(buildConfigurationAudited.getIdRev()))
+                .map(MDCAwareElement::get);
     }
 
-    public synchronized Set<BuildTask> getUnfinishedTasks() {
-        return unfinishedTasks.stream().map(MDCAwareElement::get).collect(Collectors.toSet());
+    public Set<BuildTask> getUnfinishedTasks() {
+        return unfinishedTasks.values().stream().map(MDCAwareElement::get).collect(Collectors.toSet());
     }
 
-    private List<MDCAwareElement<BuildTask>> extractReadyTasks() {
-        List<MDCAwareElement<BuildTask>> noLongerWaitingTasks = waitingTasksWithCallbacks.keySet()
-                .stream()
-                .filter(e -> e.get().readyToBuild())
-                .collect(Collectors.toList());
+    private void addUnfinished(MDCAwareElement<BuildTask> element) {
+        BuildTask task = element.get();
+        if (unfinishedTasks.putIfAbsent(task.getBuildConfigurationAudited().getIdRev(), element) != null) {
+            return;
+        }
+        unfinishedTasksById.put(task.getId(), task);
+        Base32LongID setId = task.getBuildConfigSetRecordId();
+        if (setId != null) {
+            unfinishedTasksBySetId.computeIfAbsent(setId, id -> ConcurrentHashMap.newKeySet()).add(task);
+        }
+    }
 
-        noLongerWaitingTasks.forEach(task -> {
-            waitingTasksWithCallbacks.get(task).run();
-            waitingTasksWithCallbacks.remove(task);
-        });
+    private boolean removeUnfinished(BuildTask task) {
+        MDCAwareElement<BuildTask> removed = unfinishedTasks.remove(task.getBuildConfigurationAudited().getIdRev());
+        if (removed == null) {
+            return false;
+        }
+        // the stored instance may differ from the given one, clean up the indexes using the stored instance
+        BuildTask storedTask = removed.get();
+        unfinishedTasksById.remove(storedTask.getId());
+        Base32LongID setId = storedTask.getBuildConfigSetRecordId();
+        if (setId != null) {
+            unfinishedTasksBySetId.computeIfPresent(setId, (id, tasks) -> {
+                tasks.remove(storedTask);
+                return tasks.isEmpty() ? null : tasks;
+            });
+        }
+        return true;
+    }
+
+    private List<MDCAwareElement<BuildTask>> extractReadyTasks(BuildTask finishedTask) {
+        Set<MDCAwareElement<BuildTask>> dependants = waitingDependants.remove(finishedTask);
+        if (dependants == null) {
+            return Collections.emptyList();
+        }
 
+        List<MDCAwareElement<BuildTask>> noLongerWaitingTasks = new ArrayList<>();
+        for (MDCAwareElement<BuildTask> dependant : dependants) {
+            WaitingTask waitingTask = waitingTasksWithCallbacks.get(dependant);
+            if (waitingTask == null) {
+                continue;
+            }
+            waitingTask.remainingDependencies.remove(finishedTask);
+            if (waitingTask.remainingDependencies.isEmpty()) {
+                waitingTask.taskReadyCallback.run();
+                waitingTasksWithCallbacks.remove(dependant);
+                noLongerWaitingTasks.add(dependant);
+            }
+        }
         return noLongerWaitingTasks;
     }
 
+    private void removeFromWaitingDependants(MDCAwareElement<BuildTask> element, WaitingTask waitingTask) {
+        for (BuildTask dependency : waitingTask.remainingDependencies) {
+            Set<MDCAwareElement<BuildTask>> dependants = waitingDependants.get(dependency);
+            if (dependants != null) {
+                dependants.remove(element);
+                if (dependants.isEmpty()) {
+                    waitingDependants.remove(dependency);
+                }
+            }
+        }
+    }
+
     @PostConstruct
     public void initSemaphore() {
         int maxConcurrentBuilds = 10;
@@ -300,6 +393,21 @@ public class BuildQueue {
                 && unfinishedTasks.isEmpty() && taskSets.isEmpty();
     }
 
+    private static class WaitingTask {
+        private final Runnable taskReadyCallback;
+        private final Set<BuildTask> remainingDependencies;
+
+        private WaitingTask(Runnable taskReadyCallback, Set<BuildTask> remainingDependencies) {
+            this.taskReadyCallback = taskReadyCallback;
+            this.remainingDependencies = remainingDependencies;
+        }
+
+        @Override
+        public String toString() {
+            return "remainingDependencies=" + remainingDependencies.size();
+        }
+    }
+
     public synchronized String getDebugInfo() {
         String info = "=====================\nQUEUE STATE:\n=====================\n" + "Available build slots: "
                 + availableBuildSlots.availablePermits() + "\n" + "Queue length:" + availableBuildSlots.getQueueLength()
@@ -307,7 +415,7 @@ public class BuildQueue {
                 + "\n=====================\nREADY TASKS:\n=====================\n" + readyTasks
                 + "\n=====================\nWAITING TASKS:\n=====================\n"
                 + waitingTasksWithCallbacks.keySet()
-                + "\n=====================\nALL UNFINISHED TASKS:\n=====================\n" + unfinishedTasks
+                + "\n=====================\nALL UNFINISHED TASKS:\n=====================\n" + unfinishedTasks.values()
                 + "\n=====================\nTASK SETS:\n=====================\n" + taskSets;
 
         return info;
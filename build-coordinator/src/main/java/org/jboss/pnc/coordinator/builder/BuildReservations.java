@@ -0,0 +1,82 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder;
+
+import org.jboss.pnc.model.BuildConfigurationAudited;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reservations of build configuration revisions held while the build tasks of a submission are linked to the already
+ * submitted tasks and added to the {@link BuildQueue}. Submissions of different revisions don't block each other.
+ *
+ * The revisions are mapped to a fixed number of lock stripes, the stripes are always acquired in the same order to
+ * avoid deadlocks between submissions sharing some of the revisions.
+ */
+class BuildReservations {
+
+    private static final int DEFAULT_STRIPES = 128;
+
+    private final ReentrantLock[] stripes;
+
+    BuildReservations() {
+        this(DEFAULT_STRIPES);
+    }
+
+    BuildReservations(int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Reserve the revisions, blocks until all the conflicting reservations are released.
+     *
+     * @param buildConfigurationAuditeds revisions to reserve
+     * @return reservation to be released once the build tasks are enqueued
+     */
+    Reservation reserve(Collection<BuildConfigurationAudited> buildConfigurationAuditeds) {
+        int[] indexes = buildConfigurationAuditeds.stream()
+                .mapToInt(bca -> Math.floorMod(bca.getIdRev().hashCode(), stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int index : indexes) {
+            stripes[index].lock();
+        }
+        return new Reservation(indexes);
+    }
+
+    class Reservation implements AutoCloseable {
+
+        private final int[] indexes;
+
+        private Reservation(int[] indexes) {
+            this.indexes = indexes;
+        }
+
+        @Override
+        public void close() {
+            for (int i = indexes.length - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+}
@@ -33,16 +33,19 @@ import org.jboss.pnc.spi.BuildOptions;
 import org.jboss.pnc.spi.coordinator.BuildSetTask;
 import org.jboss.pnc.spi.coordinator.BuildTask;
 import org.jboss.pnc.spi.datastore.DatastoreException;
+import org.jboss.pnc.spi.datastore.RebuildCheckCache;
 import org.jboss.pnc.spi.exception.CoreException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -69,17 +72,8 @@ public class BuildTasksInitializer {
             Supplier<String> buildTaskIdProvider,
             Set<BuildTask> submittedBuildTasks) {
 
-        BuildSetTask buildSetTask = BuildSetTask.Builder.newBuilder()
-                .buildOptions(buildOptions)
-                .startTime(new Date())
-                .build();
-
-        Set<BuildConfigurationAudited> toBuild = new HashSet<>();
-        collectBuildTasks(buildConfigurationAudited, buildOptions, toBuild);
-        log.debug(
-                "Collected build tasks for the BuildConfigurationAudited: {}. Collected: {}.",
-                buildConfigurationAudited,
-                toBuild.stream().map(BuildConfigurationAudited::toString).collect(Collectors.joining(", ")));
+        BuildSetTask buildSetTask = initBuildSetTask(buildOptions);
+        Set<BuildConfigurationAudited> toBuild = collectBuildConfigurations(buildConfigurationAudited, buildOptions);
 
         fillBuildTaskSet(
                 buildSetTask,
@@ -87,12 +81,42 @@ public class BuildTasksInitializer {
                 buildTaskIdProvider,
                 buildConfigurationAudited.getBuildConfiguration().getCurrentProductMilestone(),
                 toBuild,
-                submittedBuildTasks,
+                lookupOf(submittedBuildTasks),
                 buildOptions);
 
         return buildSetTask;
     }
 
+    /**
+     * Create an empty BuildSetTask for a build of a single BuildConfiguration
+     *
+     * @param buildOptions Build options
+     * @return BuildSetTask without any build task
+     */
+    public BuildSetTask initBuildSetTask(BuildOptions buildOptions) {
+        return BuildSetTask.Builder.newBuilder().buildOptions(buildOptions).startTime(new Date()).build();
+    }
+
+    /**
+     * Collects the BuildConfigurationAudited entities that need to be built when building the given one, including the
+     * dependencies that require a rebuild (if requested by the build options).
+     *
+     * @param buildConfigurationAudited Revision of a BuildConfiguration to be built
+     * @param buildOptions Build options
+     * @return Set of BuildConfigurationAudited entities planned to be built
+     */
+    public Set<BuildConfigurationAudited> collectBuildConfigurations(
+            BuildConfigurationAudited buildConfigurationAudited,
+            BuildOptions buildOptions) {
+        Set<BuildConfigurationAudited> toBuild = new HashSet<>();
+        collectBuildTasks(buildConfigurationAudited, buildOptions, toBuild);
+        log.debug(
+                "Collected build tasks for the BuildConfigurationAudited: {}. Collected: {}.",
+                buildConfigurationAudited,
+                toBuild.stream().map(BuildConfigurationAudited::toString).collect(Collectors.joining(", ")));
+        return toBuild;
+    }
+
     private void collectBuildTasks(
             BuildConfigurationAudited buildConfigurationAudited,
             BuildOptions buildOptions,
@@ -109,7 +133,7 @@ public class BuildTasksInitializer {
         toBuild.add(buildConfigurationAudited);
         if (buildOptions.isBuildDependencies()) {
 
-            Set<Integer> processedDependenciesCache = new HashSet<>();
+            RebuildCheckCache rebuildCheckCache = new RebuildCheckCache();
             buildConfigurationAudited.getBuildConfiguration()
                     .getDependencies()
                     .forEach(
@@ -123,7 +147,8 @@ public class BuildTasksInitializer {
                                     buildOptions.isForceRebuild(),
                                     buildOptions.isTemporaryBuild(),
                                     buildOptions.getAlignmentPreference(),
-                                    processedDependenciesCache));
+                                    rebuildCheckCache));
+            rebuildCheckCache.logStatistics(buildConfigurationAudited.getIdRev());
         }
     }
 
@@ -138,8 +163,7 @@ public class BuildTasksInitializer {
      * @param checkImplicitDependencies if implicit check of dependencies needs to be done
      * @param forceRebuild if force build is required
      * @param temporaryBuild if build is temporary
-     * @param processedDependenciesCache list containing any dependency which was already processed in previous
-     *        iterations
+     * @param rebuildCheckCache lookups shared by the checks of the submission
      * @return Returns true, if the buildConfiguration should be rebuilt, otherwise returns false.
      */
     private boolean collectDependentConfigurations(
@@ -151,7 +175,7 @@ public class BuildTasksInitializer {
             boolean forceRebuild,
             boolean temporaryBuild,
             AlignmentPreference alignmentPreference,
-            Set<Integer> processedDependenciesCache) {
+            RebuildCheckCache rebuildCheckCache) {
         if (visited.contains(buildConfiguration)) {
             return toBuild.contains(buildConfigurationAudited);
         }
@@ -162,7 +186,7 @@ public class BuildTasksInitializer {
                 checkImplicitDependencies,
                 temporaryBuild,
                 alignmentPreference,
-                processedDependenciesCache);
+                rebuildCheckCache);
         for (BuildConfiguration dependency : buildConfiguration.getDependencies()) {
             boolean dependencyRequiresRebuild = collectDependentConfigurations(
                     dependency,
@@ -173,7 +197,7 @@ public class BuildTasksInitializer {
                     forceRebuild,
                     temporaryBuild,
                     alignmentPreference,
-                    processedDependenciesCache);
+                    rebuildCheckCache);
 
             requiresRebuild = requiresRebuild || dependencyRequiresRebuild;
 
@@ -238,7 +262,33 @@ public class BuildTasksInitializer {
             Supplier<String> buildTaskIdProvider,
             Set<BuildTask> submittedBuildTasks) throws CoreException {
         BuildSetTask buildSetTask = initBuildSetTask(buildConfigurationSet, user, buildOptions);
+        Set<BuildConfigurationAudited> buildConfigurationAuditeds = collectBuildConfigurations(
+                buildConfigurationSet,
+                buildConfigurationAuditedsMap);
 
+        fillBuildTaskSet(
+                buildSetTask,
+                user,
+                buildTaskIdProvider,
+                buildConfigurationSet.getCurrentProductMilestone(),
+                buildConfigurationAuditeds,
+                lookupOf(submittedBuildTasks),
+                buildOptions);
+        return buildSetTask;
+    }
+
+    /**
+     * Collects the revisions of the BuildConfigurations contained in the BuildConfigurationSet. A specific revision is
+     * used, if it's available in the buildConfigurationAuditedsMap parameter, otherwise the latest revision is used.
+     *
+     * @param buildConfigurationSet BuildConfigurationSet to be built
+     * @param buildConfigurationAuditedsMap A map BuildConfiguration::id:BuildConfigurationAudited of specific revisions
+     *        of BuildConfigurations contained in the buildConfigurationSet
+     * @return Set of BuildConfigurationAudited entities planned to be built
+     */
+    public Set<BuildConfigurationAudited> collectBuildConfigurations(
+            BuildConfigurationSet buildConfigurationSet,
+            Map<Integer, BuildConfigurationAudited> buildConfigurationAuditedsMap) {
         Set<BuildConfigurationAudited> buildConfigurationAuditeds = new HashSet<>();
         for (BuildConfiguration buildConfiguration : datastoreAdapter.getBuildConfigurations(buildConfigurationSet)) {
             BuildConfigurationAudited buildConfigurationAudited = buildConfigurationAuditedsMap
@@ -256,18 +306,19 @@ public class BuildTasksInitializer {
                 buildConfigurationAuditeds.stream()
                         .map(BuildConfigurationAudited::toString)
                         .collect(Collectors.joining("; ")));
-        fillBuildTaskSet(
-                buildSetTask,
-                user,
-                buildTaskIdProvider,
-                buildConfigurationSet.getCurrentProductMilestone(),
-                buildConfigurationAuditeds,
-                submittedBuildTasks,
-                buildOptions);
-        return buildSetTask;
+        return buildConfigurationAuditeds;
     }
 
-    private BuildSetTask initBuildSetTask(
+    /**
+     * Create a BuildSetTask for a build of the BuildConfigurationSet and store its BuildConfigSetRecord
+     *
+     * @param buildConfigurationSet BuildConfigurationSet to be built
+     * @param user A user, who triggered the build
+     * @param buildOptions Build options
+     * @return BuildSetTask without any build task
+     * @throws CoreException Thrown if the BuildConfigSetRecord cannot be stored
+     */
+    public BuildSetTask initBuildSetTask(
             BuildConfigurationSet buildConfigurationSet,
             User user,
             BuildOptions buildOptions) throws CoreException {
@@ -296,23 +347,24 @@ public class BuildTasksInitializer {
     }
 
     /**
-     * Creates build tasks and sets up the appropriate dependency relations
+     * Creates build tasks and sets up the appropriate dependency relations. The configurations which are already being
+     * built are linked to the submitted build tasks. No database operation is done, the method is meant to be invoked
+     * while the configurations are reserved, so that the submitted tasks can't change.
      *
      * @param buildSetTask The build set task which will contain the build tasks. This must already have initialized the
      *        BuildConfigSet, BuildConfigSetRecord, Milestone, etc.
+     * @param submittedBuildTaskLookup Function returning already submitted build task of a configuration
      */
-    private void fillBuildTaskSet(
+    public void fillBuildTaskSet(
             BuildSetTask buildSetTask,
             User user,
             Supplier<String> buildTaskIdProvider,
             ProductMilestone productMilestone,
             Set<BuildConfigurationAudited> toBuild,
-            Set<BuildTask> alreadySubmittedBuildTasks,
+            Function<BuildConfigurationAudited, Optional<BuildTask>> submittedBuildTaskLookup,
             BuildOptions buildOptions) {
         for (BuildConfigurationAudited buildConfigAudited : toBuild) {
-            Optional<BuildTask> taskOptional = alreadySubmittedBuildTasks.stream()
-                    .filter(bt -> bt.getBuildConfigurationAudited().equals(buildConfigAudited))
-                    .findAny();
+            Optional<BuildTask> taskOptional = submittedBuildTaskLookup.apply(buildConfigAudited);
 
             BuildTask buildTask;
             if (taskOptional.isPresent()) {
@@ -362,6 +414,12 @@ public class BuildTasksInitializer {
         }
     }
 
+    private static Function<BuildConfigurationAudited, Optional<BuildTask>> lookupOf(Set<BuildTask> buildTasks) {
+        Map<BuildConfigurationAudited, BuildTask> byConfig = new HashMap<>();
+        buildTasks.forEach(buildTask -> byConfig.putIfAbsent(buildTask.getBuildConfigurationAudited(), buildTask));
+        return buildConfigAudited -> Optional.ofNullable(byConfig.get(buildConfigAudited));
+    }
+
     /**
      * Save the build config set record using a single thread for all db operations. This ensures that database
      * operations are done in the correct sequence, for example in the case of a build config set.
@@ -22,12 +22,12 @@ import org.jboss.pnc.common.Date.ExpiresDate;
 import org.jboss.pnc.common.concurrent.NamedThreadFactory;
 import org.jboss.pnc.common.concurrent.Sequence;
 import org.jboss.pnc.common.concurrent.mdc.MDCExecutors;
+import org.jboss.pnc.common.graph.TopologicalOrder;
 import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
 import org.jboss.pnc.common.logging.BuildTaskContext;
 import org.jboss.pnc.common.logging.MDCUtils;
 import org.jboss.pnc.common.monitor.PollingMonitor;
 import org.jboss.pnc.common.util.ProcessStageUtils;
-import org.jboss.pnc.common.util.Quicksort;
 import org.jboss.pnc.coordinator.BuildCoordinationException;
 import org.jboss.pnc.coordinator.builder.datastore.DatastoreAdapter;
 import org.jboss.pnc.dto.Build;
@@ -56,6 +56,7 @@ import org.jboss.pnc.spi.coordinator.ProcessException;
 import org.jboss.pnc.spi.coordinator.events.DefaultBuildSetStatusChangedEvent;
 import org.jboss.pnc.spi.coordinator.events.DefaultBuildStatusChangedEvent;
 import org.jboss.pnc.spi.datastore.DatastoreException;
+import org.jboss.pnc.spi.datastore.RebuildCheckCache;
 import org.jboss.pnc.spi.events.BuildSetStatusChangedEvent;
 import org.jboss.pnc.spi.events.BuildStatusChangedEvent;
 import org.jboss.pnc.spi.exception.BuildConflictException;
@@ -71,14 +72,13 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -86,9 +86,6 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import static org.jboss.pnc.common.util.CollectionUtils.hasCycle;
-import static org.jboss.pnc.common.util.StreamHelper.nullableStreamOf;
-
 /**
  *
  * Created by <a href="mailto:matejonnet@gmail.com">Matej Lazar</a> on 2014-12-20.
@@ -126,8 +123,8 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
 
     private BuildTasksInitializer buildTasksInitializer;
 
-    // Lock so that only one build method is active at any time
-    private final Object buildMethodLock = new Object();
+    // Reservations so that only one build method is linking and enqueuing tasks of the same configuration revision
+    private final BuildReservations buildReservations = new BuildReservations();
     private GroupBuildMapper groupBuildMapper;
     private BuildMapper buildMapper;
 
@@ -182,21 +179,32 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
             User user,
             BuildOptions buildOptions,
             BuildConfigurationAudited buildConfigurationAudited) throws BuildConflictException {
-        synchronized (buildMethodLock) {
+        // fail fast before the rebuild checks
+        checkNotRunning(buildConfigurationAudited);
+
+        // the graph construction and rebuild checks hit the DB, do them outside of the reservation
+        BuildSetTask buildSetTask = buildTasksInitializer.initBuildSetTask(buildOptions);
+        Set<BuildConfigurationAudited> toBuild = buildTasksInitializer
+                .collectBuildConfigurations(buildConfigurationAudited, buildOptions);
+
+        try (BuildReservations.Reservation reservation = buildReservations.reserve(toBuild)) {
             checkNotRunning(buildConfigurationAudited);
 
-            BuildSetTask buildSetTask = buildTasksInitializer.createBuildSetTask(
-                    buildConfigurationAudited,
+            buildTasksInitializer.fillBuildTaskSet(
+                    buildSetTask,
                     user,
-                    buildOptions,
                     this::buildRecordIdSupplier,
-                    buildQueue.getUnfinishedTasks());
+                    buildConfigurationAudited.getBuildConfiguration().getCurrentProductMilestone(),
+                    toBuild,
+                    buildQueue::getUnfinishedTask,
+                    buildOptions);
 
             buildQueue.enqueueTaskSet(buildSetTask);
-            buildSetTask.getBuildTasks().stream().sorted(this::dependantsFirst).forEach(this::addTaskToBuildQueue);
-
-            return buildSetTask;
+            TopologicalOrder.of(buildSetTask.getBuildTasks(), BuildTask::getDependencies)
+                    .dependantsFirst()
+                    .forEach(this::addTaskToBuildQueue);
         }
+        return buildSetTask;
     }
 
     private void checkNotRunning(BuildConfigurationAudited buildConfigurationAudited) throws BuildConflictException {
@@ -246,18 +254,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
     @Deprecated
     public BuildSetTask buildSet(BuildConfigurationSet buildConfigurationSet, User user, BuildOptions buildOptions)
             throws CoreException {
-        synchronized (buildMethodLock) {
-            BuildSetTask buildSetTask = buildTasksInitializer.createBuildSetTask(
-                    buildConfigurationSet,
-                    user,
-                    buildOptions,
-                    this::buildRecordIdSupplier,
-                    buildQueue.getUnfinishedTasks());
-            updateBuildSetTaskStatus(buildSetTask, BuildSetStatus.NEW);
-
-            validateAndEnqueueBuildConfigurationSetTasks(buildConfigurationSet, buildOptions, buildSetTask);
-            return buildSetTask;
-        }
+        return buildSet(buildConfigurationSet, Collections.emptyMap(), user, buildOptions);
     }
 
     /**
@@ -282,27 +279,14 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
             Map<Integer, BuildConfigurationAudited> buildConfigurationAuditedsMap,
             User user,
             BuildOptions buildOptions) throws CoreException {
-
-        synchronized (buildMethodLock) {
-            BuildSetTask buildSetTask = buildTasksInitializer.createBuildSetTask(
-                    buildConfigurationSet,
-                    buildConfigurationAuditedsMap,
-                    user,
-                    buildOptions,
-                    this::buildRecordIdSupplier,
-                    buildQueue.getUnfinishedTasks());
-            updateBuildSetTaskStatus(buildSetTask, BuildSetStatus.NEW);
-
-            validateAndEnqueueBuildConfigurationSetTasks(buildConfigurationSet, buildOptions, buildSetTask);
-            return buildSetTask;
-        }
-    }
-
-    private void validateAndEnqueueBuildConfigurationSetTasks(
-            BuildConfigurationSet buildConfigurationSet,
-            BuildOptions buildOptions,
-            BuildSetTask buildSetTask) {
-        checkForEmptyBuildSetTask(buildSetTask);
+        // the DB heavy part: store the set record, load the revisions and check if a rebuild is needed
+        BuildSetTask buildSetTask = buildTasksInitializer
+                .initBuildSetTask(buildConfigurationSet, user, buildOptions);
+        Set<BuildConfigurationAudited> buildConfigurationAuditeds = buildTasksInitializer
+                .collectBuildConfigurations(buildConfigurationSet, buildConfigurationAuditedsMap);
+        updateBuildSetTaskStatus(buildSetTask, BuildSetStatus.NEW);
+
+        checkForEmptyBuildSetTask(buildSetTask, buildConfigurationAuditeds);
         if (!buildOptions.isForceRebuild()) {
             checkIfAnyBuildConfigurationNeedsARebuild(
                     buildSetTask,
@@ -312,8 +296,23 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
                     buildOptions.getAlignmentPreference());
         }
 
-        checkForCyclicDependencies(buildSetTask);
-        build(buildSetTask);
+        try (BuildReservations.Reservation reservation = buildReservations.reserve(buildConfigurationAuditeds)) {
+            buildTasksInitializer.fillBuildTaskSet(
+                    buildSetTask,
+                    user,
+                    this::buildRecordIdSupplier,
+                    buildConfigurationSet.getCurrentProductMilestone(),
+                    buildConfigurationAuditeds,
+                    buildQueue::getUnfinishedTask,
+                    buildOptions);
+
+            // order and validate the tasks in one pass
+            TopologicalOrder<BuildTask> order = TopologicalOrder
+                    .of(buildSetTask.getBuildTasks(), BuildTask::getDependencies);
+            checkForCyclicDependencies(buildSetTask, order);
+            build(buildSetTask, order);
+        }
+        return buildSetTask;
     }
 
     private void checkIfAnyBuildConfigurationNeedsARebuild(
@@ -326,7 +325,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         int requiresRebuild = buildConfigurations.size();
         log.debug("There are {} configurations in a set {}.", requiresRebuild, buildConfigurationSet.getId());
 
-        Set<Integer> processedDependenciesCache = new HashSet<>();
+        RebuildCheckCache rebuildCheckCache = new RebuildCheckCache();
         for (BuildConfiguration buildConfiguration : buildConfigurations) {
             BuildConfigurationAudited buildConfigurationAudited = datastoreAdapter
                     .getLatestBuildConfigurationAuditedInitializeBCDependencies(buildConfiguration.getId());
@@ -335,10 +334,11 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
                     checkImplicitDependencies,
                     temporaryBuild,
                     alignmentPreference,
-                    processedDependenciesCache)) {
+                    rebuildCheckCache)) {
                 requiresRebuild--;
             }
         }
+        rebuildCheckCache.logStatistics(buildConfigurationSet.getName());
         if (requiresRebuild == 0) {
             updateBuildSetTaskStatus(
                     buildSetTask,
@@ -347,48 +347,17 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         }
     }
 
-    private void build(BuildSetTask buildSetTask) {
-        synchronized (buildMethodLock) {
-            // if the set is rejected stop further processing but process when NO_REBUILD_REQUIRED to create build
-            // records
-            if (!BuildSetStatus.REJECTED.equals(buildSetTask.getStatus())) {
-                buildQueue.enqueueTaskSet(buildSetTask);
-                List<BuildTask> toSort = new ArrayList<>(buildSetTask.getBuildTasks());
-                // [NCLSUP-393] Don't use default Java Timsort because our Comparator method is not stable. We use
-                // our homemade quicksort instead that doesn't check if our comparator is stable
-                Quicksort.quicksort(toSort, this::dependantsFirst);
-                toSort.forEach(this::addTaskToBuildQueue);
-            }
-        }
-    }
-
     /**
-     * Compare between tasks to put dependants at the beginning. This method is unfortunately not stable since it allows
-     * this scenario: if task1 depends on task2, and task3 doesn't depend on any tasks, then this comparator allows for
-     * this:
-     * <ul>
-     * <li>task1 = task3</li>
-     * <li>task2 = task3</li>
-     * <li>task1 &lt; task3</li>
-     * </ul>
-     *
-     * If both task1 and task2 = task3, it would infer that task1 = task3. Alas, this is not the case for this
-     * comparison and it makes Java's default sort implementation upset (Error is: Comparison method violates its
-     * general contract!) NCLSUP-393 describes the issue.
-     *
-     * @param task1 first task to compare
-     * @param task2 second task to compare
-     * @return -1 if task1 should be before task2, 0 if task1 = task2, 1 if task1 should be after task2
-     *
+     * Enqueue the tasks of the set. Must be invoked with the configurations of the set reserved.
      */
-    private int dependantsFirst(BuildTask task1, BuildTask task2) {
-        if (task1.getDependencies().contains(task2)) {
-            return -1;
-        }
-        if (task1.getDependants().contains(task2)) {
-            return 1;
+    private void build(BuildSetTask buildSetTask, TopologicalOrder<BuildTask> order) {
+        // if the set is rejected stop further processing but process when NO_REBUILD_REQUIRED to create build
+        // records
+        if (!BuildSetStatus.REJECTED.equals(buildSetTask.getStatus())) {
+            buildQueue.enqueueTaskSet(buildSetTask);
+            // dependants are added first, so that they are waiting before their dependencies can finish
+            order.dependantsFirst().forEach(this::addTaskToBuildQueue);
         }
-        return 0;
     }
 
     private void addTaskToBuildQueue(BuildTask buildTask) {
@@ -453,9 +422,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
     @Override
     public boolean cancel(String buildTaskId) throws CoreException {
         // Logging MDC must be set before calling
-        Optional<BuildTask> taskOptional = getSubmittedBuildTasks().stream()
-                .filter(buildTask -> buildTask.getId().equals(buildTaskId))
-                .findAny();
+        Optional<BuildTask> taskOptional = getSubmittedBuildTask(buildTaskId);
         if (taskOptional.isPresent()) {
             log.debug("Cancelling task {}.", taskOptional.get());
             try {
@@ -492,11 +459,9 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
             return false;
         }
         log.debug("Cancelling Build Configuration Set: {}", buildSetTaskId);
-        getSubmittedBuildTasks().stream()
-                .filter(Objects::nonNull)
-                .filter(
-                        t -> t.getBuildSetTask() != null && t.getBuildSetTask().getId() != null
-                                && t.getBuildSetTask().getId().equals(buildSetTaskId))
+        buildQueue.getSubmittedBuildTasksBySetId(buildSetTaskId)
+                .stream()
+                .filter(t -> t.getBuildSetTask() != null)
                 .forEach(buildTask -> {
                     try {
                         MDCUtils.addBuildContext(getMDCMeta(buildTask));
@@ -553,9 +518,8 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         log.info("Task {} canceled internally.", buildTask.getId());
     }
 
-    private void checkForCyclicDependencies(BuildSetTask buildSetTask) {
-        Set<BuildTask> buildTasks = buildSetTask.getBuildTasks();
-        if (hasCycle(buildTasks, BuildTask::getDependencies)) {
+    private void checkForCyclicDependencies(BuildSetTask buildSetTask, TopologicalOrder<BuildTask> order) {
+        if (order.hasCycle()) {
             updateBuildSetTaskStatus(buildSetTask, BuildSetStatus.REJECTED, "Build config set has a cycle");
         }
     }
@@ -563,8 +527,10 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
     /**
      * Check if the given build set task is empty and update the status message appropriately
      */
-    private void checkForEmptyBuildSetTask(BuildSetTask buildSetTask) {
-        if (buildSetTask.getBuildTasks() == null || buildSetTask.getBuildTasks().isEmpty()) {
+    private void checkForEmptyBuildSetTask(
+            BuildSetTask buildSetTask,
+            Set<BuildConfigurationAudited> buildConfigurationAuditeds) {
+        if (buildConfigurationAuditeds.isEmpty()) {
             updateBuildSetTaskStatus(buildSetTask, BuildSetStatus.REJECTED, "Build config set is empty");
         }
     }
@@ -852,7 +818,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
         switch (status) {
             case DONE:
             case REJECTED_ALREADY_BUILT:
-                buildQueue.executeNewReadyTasks();
+                buildQueue.executeNewReadyTasks(task);
                 break;
             case REJECTED:
             case REJECTED_FAILED_DEPENDENCIES:
@@ -860,6 +826,8 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
             case DONE_WITH_ERRORS:
             case CANCELLED:
                 handleErroneousFinish(task);
+                // dependants outside of the task set are not finished by the failure, release them
+                buildQueue.executeNewReadyTasks(task);
                 break;
             default:
                 throw new IllegalArgumentException(
@@ -944,10 +912,7 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
 
     @Override
     public Optional<BuildTask> getSubmittedBuildTask(String buildId) {
-        return buildQueue.getSubmittedBuildTasks()
-                .stream()
-                .filter(buildTask -> buildTask.getId().equals(buildId))
-                .findAny();
+        return buildQueue.getSubmittedBuildTask(buildId);
     }
 
     public List<BuildTask> getSubmittedBuildTasks() {
@@ -956,10 +921,9 @@ public class DefaultBuildCoordinator implements BuildCoordinator {
 
     @Override
     public List<BuildTask> getSubmittedBuildTasksBySetId(Base32LongID buildConfigSetRecordId) {
-        return nullableStreamOf(buildQueue.getSubmittedBuildTasks()).filter(Objects::nonNull)
-                .filter(
-                        t -> t.getBuildSetTask() != null
-                                && buildConfigSetRecordId.equals(t.getBuildConfigSetRecordId()))
+        return buildQueue.getSubmittedBuildTasksBySetId(buildConfigSetRecordId)
+                .stream()
+                .filter(t -> t.getBuildSetTask() != null)
                 .sorted(Comparator.comparing(bt -> bt.getBuildConfigurationAudited().getName()))
                 .collect(Collectors.toList());
     }
@@ -41,6 +41,7 @@ import org.jboss.pnc.spi.coordinator.BuildTask;
 import org.jboss.pnc.api.enums.orch.CompletionStatus;
 import org.jboss.pnc.spi.datastore.Datastore;
 import org.jboss.pnc.spi.datastore.DatastoreException;
+import org.jboss.pnc.spi.datastore.RebuildCheckCache;
 import org.jboss.pnc.spi.environment.EnvironmentDriverResult;
 import org.jboss.pnc.spi.executor.BuildExecutionConfiguration;
 import org.jboss.pnc.spi.repositorymanager.RepositoryManagerResult;
@@ -561,13 +562,13 @@ public class DatastoreAdapter {
             boolean checkImplicitDependencies,
             boolean temporaryBuild,
             AlignmentPreference alignmentPreference,
-            Set<Integer> processedDependenciesCache) {
+            RebuildCheckCache rebuildCheckCache) {
         return datastore.requiresRebuild(
                 buildConfigurationAudited,
                 checkImplicitDependencies,
                 temporaryBuild,
                 alignmentPreference,
-                processedDependenciesCache);
+                rebuildCheckCache);
     }
 
     public boolean requiresRebuild(BuildTask task, Set<Integer> processedDependenciesCache) {
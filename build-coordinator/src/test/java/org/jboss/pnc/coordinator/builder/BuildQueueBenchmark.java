@@ -0,0 +1,179 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder;
+
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.spi.BuildOptions;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the indexed {@link BuildQueue} with the previous implementation guarded by a single monitor and scanning
+ * the unfinished tasks on every lookup. Lookups are run from several threads to show the lock contention.
+ *
+ * Not run as part of the test suite, run the {@link #main(String[])} method with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class BuildQueueBenchmark {
+
+    private static final BuildOptions BUILD_OPTIONS = new BuildOptions();
+
+    @Param({ "100", "1000", "5000" })
+    public int queuedTasks;
+
+    private BuildTask[] tasks;
+
+    private BuildQueue indexedQueue;
+
+    private ScanningBuildQueue scanningQueue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new BuildTask[queuedTasks];
+        indexedQueue = new BuildQueue(null);
+        scanningQueue = new ScanningBuildQueue();
+        // a dependency that never finishes keeps the tasks waiting
+        BuildTask dependency = buildTask(-1);
+        for (int i = 0; i < queuedTasks; i++) {
+            BuildTask task = buildTask(i);
+            task.addDependency(dependency);
+            tasks[i] = task;
+            indexedQueue.addWaitingTask(task, () -> {});
+            scanningQueue.addWaitingTask(task);
+        }
+    }
+
+    @Benchmark
+    public Optional<BuildTask> indexedGetUnfinishedTask() {
+        return indexedQueue.getUnfinishedTask(randomTask().getBuildConfigurationAudited());
+    }
+
+    @Benchmark
+    public Optional<BuildTask> scanningGetUnfinishedTask() {
+        return scanningQueue.getUnfinishedTask(randomTask().getBuildConfigurationAudited());
+    }
+
+    @Benchmark
+    public Optional<BuildTask> indexedGetSubmittedBuildTask() {
+        return indexedQueue.getSubmittedBuildTask(randomTask().getId());
+    }
+
+    @Benchmark
+    public Optional<BuildTask> scanningGetSubmittedBuildTask() {
+        return scanningQueue.getSubmittedBuildTask(randomTask().getId());
+    }
+
+    @Benchmark
+    public void indexedRemoveAndAdd() {
+        BuildTask task = randomTask();
+        indexedQueue.removeTask(task);
+        indexedQueue.addWaitingTask(task, () -> {});
+    }
+
+    @Benchmark
+    public void scanningRemoveAndAdd() {
+        BuildTask task = randomTask();
+        scanningQueue.removeTask(task);
+        scanningQueue.addWaitingTask(task);
+    }
+
+    private BuildTask randomTask() {
+        return tasks[ThreadLocalRandom.current().nextInt(tasks.length)];
+    }
+
+    private static BuildTask buildTask(int id) {
+        BuildConfigurationAudited bca = new BuildConfigurationAudited();
+        IdRev idRev = new IdRev(id, 1);
+        bca.setIdRev(idRev);
+        bca.setId(idRev.getId());
+        bca.setRev(idRev.getRev());
+        return BuildTask.build(
+                bca,
+                BUILD_OPTIONS,
+                null,
+                Integer.toString(id),
+                null,
+                new Date(),
+                null,
+                "content-" + id,
+                null);
+    }
+
+    /**
+     * The lookups of the BuildQueue before the indexes were introduced.
+     */
+    private static class ScanningBuildQueue {
+
+        private final Set<MDCAwareElement<BuildTask>> unfinishedTasks = new HashSet<>();
+
+        synchronized void addWaitingTask(BuildTask task) {
+            unfinishedTasks.add(new MDCAwareElement<>(task));
+        }
+
+        synchronized void removeTask(BuildTask task) {
+            unfinishedTasks.remove(new MDCAwareElement<>(task));
+        }
+
+        synchronized Optional<BuildTask> getUnfinishedTask(BuildConfigurationAudited buildConfigurationAudited) {
+            return unfinishedTasks.stream()
+                    .map(MDCAwareElement::get)
+                    .filter(buildTask -> buildTask.getBuildConfigurationAudited().equals(buildConfigurationAudited))
+                    .findFirst();
+        }
+
+        synchronized Optional<BuildTask> getSubmittedBuildTask(String buildTaskId) {
+            return unfinishedTasks.stream()
+                    .map(MDCAwareElement::get)
+                    .filter(buildTask -> buildTask.getId().equals(buildTaskId))
+                    .findAny();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BuildQueueBenchmark.class.getSimpleName()).build()).run();
+    }
+}
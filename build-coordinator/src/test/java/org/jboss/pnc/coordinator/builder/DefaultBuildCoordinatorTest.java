@@ -51,6 +51,7 @@ import org.jboss.pnc.spi.coordinator.BuildTask;
 import org.jboss.pnc.api.enums.orch.CompletionStatus;
 import org.jboss.pnc.spi.datastore.Datastore;
 import org.jboss.pnc.spi.datastore.DatastoreException;
+import org.jboss.pnc.spi.datastore.RebuildCheckCache;
 import org.jboss.pnc.spi.environment.EnvironmentDriverResult;
 import org.jboss.pnc.spi.events.BuildSetStatusChangedEvent;
 import org.jboss.pnc.spi.events.BuildStatusChangedEvent;
@@ -87,7 +88,6 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -173,7 +173,7 @@ public class DefaultBuildCoordinatorTest {
                         any(Boolean.class),
                         any(Boolean.class),
                         nullable(AlignmentPreference.class),
-                        anySet())).thenReturn(true);
+                        any(RebuildCheckCache.class))).thenReturn(true);
         when(datastore.saveBuildConfigSetRecord(any())).thenAnswer(new SaveBuildConfigSetRecordAnswer());
 
         USER.setId(1);
@@ -235,7 +235,7 @@ public class DefaultBuildCoordinatorTest {
                         any(Boolean.class),
                         any(Boolean.class),
                         nullable(AlignmentPreference.class),
-                        anySet())).thenReturn(false);
+                        any(RebuildCheckCache.class))).thenReturn(false);
 
         BuildConfigurationAudited bca1 = new BuildConfigurationAudited();
         IdRev idRev1 = new IdRev(BC_1.getId(), BC_1.getId() * 1000 + 1);
@@ -30,6 +30,7 @@ import org.jboss.pnc.coordinator.builder.BuildQueue;
 import org.jboss.pnc.coordinator.builder.BuildSchedulerFactory;
 import org.jboss.pnc.coordinator.builder.DefaultBuildCoordinator;
 import org.jboss.pnc.coordinator.builder.datastore.DatastoreAdapter;
+import org.jboss.pnc.datastore.BuiltArtifactFilter;
 import org.jboss.pnc.datastore.DefaultDatastore;
 import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.mapper.api.BuildMapper;
@@ -155,7 +156,8 @@ public abstract class AbstractDependentBuildTest {
                 new BuildConfigSetRecordRepositoryMock(),
                 new UserRepositoryMock(),
                 targetRepositoryRepository,
-                new AttachmentRepositoryMock());
+                new AttachmentRepositoryMock(),
+                new BuiltArtifactFilter());
         DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore, mock(BifrostLogUploader.class));
 
         if (buildSchedulerFactory == null) {
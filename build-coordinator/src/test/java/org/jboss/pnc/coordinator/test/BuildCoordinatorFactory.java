@@ -122,6 +122,7 @@ public class BuildCoordinatorFactory {
                 "false",
                 null,
                 null,
+                null,
                 null);
     }
 
@@ -0,0 +1,112 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.test;
+
+import org.jboss.pnc.common.json.ConfigurationParseException;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.datastore.DatastoreException;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Submits hundreds of builds in parallel. Each build depends on one of a few shared configurations, so the submissions
+ * link to the tasks of the other submissions while they are being enqueued.
+ */
+public class ParallelSubmissionStressTest extends AbstractDependentBuildTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelSubmissionStressTest.class);
+
+    private static final int SHARED_DEPENDENCIES = 10;
+    private static final int SUBMISSIONS = 300;
+    private static final int SUBMITTING_THREADS = 16;
+
+    private List<BuildConfiguration> sharedDependencies;
+    private List<BuildConfiguration> submittedConfigs;
+
+    @Before
+    public void initialize() throws DatastoreException, ConfigurationParseException {
+        super.initialize();
+
+        sharedDependencies = new ArrayList<>();
+        for (int i = 0; i < SHARED_DEPENDENCIES; i++) {
+            sharedDependencies.add(config("shared-" + i));
+        }
+        submittedConfigs = new ArrayList<>();
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            submittedConfigs.add(config("submitted-" + i, sharedDependencies.get(i % SHARED_DEPENDENCIES)));
+        }
+    }
+
+    @Test
+    public void shouldBuildAllParallelSubmissions() throws Exception {
+        List<Callable<Void>> submissions = submittedConfigs.stream().map(config -> (Callable<Void>) () -> {
+            build(config);
+            return null;
+        }).collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(SUBMITTING_THREADS);
+        long start = System.nanoTime();
+        try {
+            for (Future<Void> submission : executor.invokeAll(submissions)) {
+                submission.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long submitMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info(
+                "Submitted {} builds from {} threads in {} ms, throughput: {} submissions/s.",
+                SUBMISSIONS,
+                SUBMITTING_THREADS,
+                submitMillis,
+                SUBMISSIONS * 1000 / submitMillis);
+
+        waitForEmptyBuildQueue();
+
+        // one task per configuration, no shared dependency was enqueued twice
+        assertThat(builtTasks).hasSize(SUBMISSIONS + SHARED_DEPENDENCIES);
+        Map<BuildConfiguration, List<BuildTask>> tasks = builtTasks.stream()
+                .collect(Collectors.groupingBy(task -> task.getBuildConfigurationAudited().getBuildConfiguration()));
+        submittedConfigs.forEach(config -> assertThat(tasks.get(config)).as("tasks of %s", config).hasSize(1));
+        sharedDependencies.forEach(config -> assertThat(tasks.get(config)).as("tasks of %s", config).hasSize(1));
+
+        // every submission linked to the single task of its shared dependency
+        for (BuildConfiguration dependency : sharedDependencies) {
+            BuildTask dependencyTask = tasks.get(dependency).get(0);
+            submittedConfigs.stream()
+                    .filter(config -> config.getDependencies().contains(dependency))
+                    .map(config -> tasks.get(config).get(0))
+                    .flatMap(task -> task.getDependencies().stream())
+                    .forEach(task -> assertThat(task).as("dependency task of %s", dependency).isSameAs(dependencyTask));
+        }
+    }
+}
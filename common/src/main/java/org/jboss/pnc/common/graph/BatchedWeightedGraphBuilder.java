@@ -0,0 +1,136 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.graph;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jboss.util.graph.Graph;
+import org.jboss.util.graph.Vertex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.jboss.pnc.common.util.CollectionUtils.nullSafeCollection;
+
+/**
+ * Builds the same graph as {@link WeightedGraphBuilder}, but level by level: the neighbors of all the vertices of one
+ * depth level are fetched at once, and so are the nodes of the newly discovered vertices. The number of supplier calls
+ * is proportional to the depth limit instead of the number of vertices.
+ *
+ * @param <T> type of the nodes
+ * @param <S> type of the node ids
+ */
+@Slf4j
+public class BatchedWeightedGraphBuilder<T, S> {
+
+    private final Function<Collection<S>, Map<S, T>> nodesSupplier;
+
+    private final Function<Collection<S>, Map<S, Collection<VertexNeighbor<S>>>> dependenciesSupplier;
+
+    private final Function<Collection<S>, Map<S, Collection<VertexNeighbor<S>>>> dependantsSupplier;
+
+    /**
+     * @param nodesSupplier returns the nodes of the given ids, mapped by their ids
+     * @param dependenciesSupplier returns the dependencies of the nodes of the given ids, mapped by the node ids
+     * @param dependantsSupplier returns the dependants of the nodes of the given ids, mapped by the node ids
+     */
+    public BatchedWeightedGraphBuilder(
+            Function<Collection<S>, Map<S, T>> nodesSupplier,
+            Function<Collection<S>, Map<S, Collection<VertexNeighbor<S>>>> dependenciesSupplier,
+            Function<Collection<S>, Map<S, Collection<VertexNeighbor<S>>>> dependantsSupplier) {
+        this.nodesSupplier = nodesSupplier;
+        this.dependenciesSupplier = dependenciesSupplier;
+        this.dependantsSupplier = dependantsSupplier;
+    }
+
+    public void buildGraph(Graph<T> graph, S nodeId, int depthLimit) {
+        List<S> root = addVertices(graph, Collections.singleton(nodeId));
+        if (root.isEmpty()) {
+            return;
+        }
+        expand(graph, root, depthLimit, dependenciesSupplier, false);
+        expand(graph, root, depthLimit, dependantsSupplier, true);
+    }
+
+    private void expand(
+            Graph<T> graph,
+            List<S> root,
+            int depthLimit,
+            Function<Collection<S>, Map<S, Collection<VertexNeighbor<S>>>> neighborsSupplier,
+            boolean dependants) {
+        List<S> frontier = root;
+        for (int depth = 0; depth < depthLimit && !frontier.isEmpty(); depth++) {
+            Map<S, Collection<VertexNeighbor<S>>> neighbors = neighborsSupplier.apply(frontier);
+
+            Set<S> discovered = new LinkedHashSet<>();
+            for (S id : frontier) {
+                for (VertexNeighbor<S> neighbor : nullSafeCollection(neighbors.get(id))) {
+                    if (getGraphVertex(graph, neighbor.getNeighborId()) == null) {
+                        discovered.add(neighbor.getNeighborId());
+                    }
+                }
+            }
+            List<S> added = addVertices(graph, discovered);
+            log.trace("Depth {}: expanded {} vertices, added {} vertices.", depth, frontier.size(), added.size());
+
+            for (S id : frontier) {
+                Vertex<T> vertex = getGraphVertex(graph, id);
+                for (VertexNeighbor<S> neighbor : nullSafeCollection(neighbors.get(id))) {
+                    Vertex<T> neighborVertex = getGraphVertex(graph, neighbor.getNeighborId());
+                    if (neighborVertex == null) {
+                        continue;
+                    }
+                    if (dependants) {
+                        graph.addEdge(neighborVertex, vertex, neighbor.getCost());
+                    } else {
+                        graph.addEdge(vertex, neighborVertex, neighbor.getCost());
+                    }
+                }
+            }
+            frontier = added;
+        }
+    }
+
+    /**
+     * @return ids of the added vertices, nodes that were not found are left out
+     */
+    private List<S> addVertices(Graph<T> graph, Collection<S> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<S, T> nodes = nodesSupplier.apply(ids);
+        List<S> added = new ArrayList<>();
+        for (S id : ids) {
+            T node = nodes.get(id);
+            if (node != null) {
+                graph.addVertex(new NameUniqueVertex<>(id.toString(), node));
+                added.add(id);
+            }
+        }
+        return added;
+    }
+
+    private Vertex<T> getGraphVertex(Graph<T> graph, S nodeId) {
+        return graph.findVertexByName(nodeId.toString());
+    }
+}
@@ -23,10 +23,13 @@ import org.jboss.util.graph.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -42,26 +45,33 @@ public class GraphUtils {
      * Adds all elements from toMerge to target.
      */
     public static <T> void merge(Graph<T> target, Graph<T> toMerge) {
+        if (target instanceof IndexedGraph) {
+            ((IndexedGraph<T>) target).merge(toMerge);
+            return;
+        }
         for (Vertex<T> vertex : toMerge.getVerticies()) {
             target.addVertex(vertex);
         }
 
         // merge edges
         List<Edge<T>> edges = target.getEdges();
-        for (Edge newEdge : toMerge.getEdges()) {
-            Optional<Edge<T>> any = edges.stream()
-                    .filter(
-                            existing -> existing.getFrom().getName().equals(newEdge.getFrom().getName())
-                                    && existing.getTo().getName().equals(newEdge.getTo().getName()))
-                    .findAny();
-            if (!any.isPresent()) {
+        Set<String> edgeNames = new HashSet<>();
+        for (Edge<T> existing : edges) {
+            edgeNames.add(edgeName(existing));
+        }
+        for (Edge<T> newEdge : toMerge.getEdges()) {
+            if (edgeNames.add(edgeName(newEdge))) {
                 edges.add(newEdge);
             }
         }
     }
 
+    private static String edgeName(Edge<?> edge) {
+        return edge.getFrom().getName() + "->" + edge.getTo().getName();
+    }
+
     public static <T> Graph<T> clone(Graph<T> graph) {
-        Graph<T> clone = new Graph<>();
+        Graph<T> clone = new IndexedGraph<>();
         for (Vertex<T> vertex : graph.getVerticies()) {
             clone.addVertex(new Vertex<>(vertex.getName(), vertex.getData()));
         }
@@ -74,7 +84,7 @@ public class GraphUtils {
         }
 
         if (graph.getRootVertex() != null) {
-            clone.setRootVertex(new Vertex<>(graph.getRootVertex().getName(), graph.getRootVertex().getData()));
+            clone.setRootVertex(clone.findVertexByName(graph.getRootVertex().getName()));
         }
         return clone;
     }
@@ -98,55 +108,24 @@ public class GraphUtils {
     }
 
     public static <T> boolean hasCycle(Graph<T> graph) {
-        List<Vertex<T>> vertices = graph.getVerticies();
-        Set<String> notVisited = vertices.stream().map(Vertex::getName).collect(Collectors.toSet());
-        List<String> visiting = new ArrayList<>();
-        Set<String> visited = new HashSet<>();
-
-        while (notVisited.size() > 0) {
-            String current = notVisited.iterator().next();
-            if (dfs(graph, current, notVisited, visiting, visited)) {
-                return true;
+        Map<String, Vertex<T>> vertices = new LinkedHashMap<>();
+        Deque<Vertex<T>> toVisit = new ArrayDeque<>(graph.getVerticies());
+        while (!toVisit.isEmpty()) {
+            Vertex<T> vertex = toVisit.poll();
+            if (vertices.putIfAbsent(vertex.getName(), vertex) == null) {
+                // attached dependencies are not in the builder declaration, therefore they are discovered by the edges
+                for (Edge<T> edge : vertex.getOutgoingEdges()) {
+                    toVisit.add(edge.getTo());
+                }
             }
         }
-        return false;
-    }
-
-    private static <T> boolean dfs(
-            Graph<T> graph,
-            String current,
-            Set<String> notVisited,
-            List<String> visiting,
-            Set<String> visited) {
-        move(current, notVisited, visiting);
-        Vertex<T> currentTask = graph.findVertexByName(current);
-        for (Object edge : currentTask.getOutgoingEdges()) {
-            String dependency = ((Edge<T>) edge).getTo().getName();
-            // attached dependencies are not in the builder declaration, therefore if discovered, they have to be add as
-            // notVisited
-            if (!notVisited.contains(dependency) && !visiting.contains(dependency) && !visited.contains(dependency)) {
-                notVisited.add(dependency);
-            }
-            // already explored, continue
-            if (visited.contains(dependency)) {
-                continue;
-            }
-            // visiting again, cycle found
-            if (visiting.contains(dependency)) {
-                return true;
-            }
-            // recursive call
-            if (dfs(graph, dependency, notVisited, visiting, visited)) {
-                return true;
-            }
-        }
-        move(current, visiting, visited);
-        return false;
-    }
-
-    private static void move(String name, Collection<String> sourceSet, Collection<String> destinationSet) {
-        sourceSet.remove(name);
-        destinationSet.add(name);
+        return TopologicalOrder
+                .of(
+                        vertices.keySet(),
+                        name -> getToVerticies(vertices.get(name).getOutgoingEdges()).stream()
+                                .map(Vertex::getName)
+                                .collect(Collectors.toList()))
+                .hasCycle();
     }
 
     public static <T> List<Vertex<T>> getFromVerticies(List<Edge<T>> edges) {
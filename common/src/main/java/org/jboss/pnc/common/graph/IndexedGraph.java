@@ -0,0 +1,146 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.graph;
+
+import lombok.Value;
+import org.jboss.util.graph.Edge;
+import org.jboss.util.graph.Graph;
+import org.jboss.util.graph.Vertex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Graph} with hash indexes of the vertices by name and of the edges by the names of their vertices, so that
+ * vertex lookups and adding of vertices and edges take constant time instead of scanning the whole graph.
+ *
+ * Vertices are identified by their names, like {@link NameUniqueVertex}: a vertex with the name of a vertex already in
+ * the graph is not added.
+ *
+ * @param <T> type of the vertex data
+ */
+public class IndexedGraph<T> extends Graph<T> {
+
+    private final Map<String, Vertex<T>> verticesByName = new HashMap<>();
+
+    private final Map<EdgeKey, Edge<T>> edgesByKey = new HashMap<>();
+
+    @Override
+    public boolean addVertex(Vertex<T> vertex) {
+        if (verticesByName.putIfAbsent(vertex.getName(), vertex) != null) {
+            return false;
+        }
+        return getVerticies().add(vertex);
+    }
+
+    @Override
+    public boolean addEdge(Vertex<T> from, Vertex<T> to, int cost) throws IllegalArgumentException {
+        if (!contains(from)) {
+            throw new IllegalArgumentException("from is not in graph");
+        }
+        if (!contains(to)) {
+            throw new IllegalArgumentException("to is not in graph");
+        }
+        EdgeKey key = new EdgeKey(from.getName(), to.getName());
+        if (edgesByKey.containsKey(key) || from.findEdge(to) != null) {
+            return false;
+        }
+        Edge<T> edge = new Edge<>(from, to, cost);
+        from.addEdge(edge);
+        to.addEdge(edge);
+        getEdges().add(edge);
+        edgesByKey.put(key, edge);
+        return true;
+    }
+
+    @Override
+    public boolean removeVertex(Vertex<T> vertex) {
+        if (!contains(vertex)) {
+            return false;
+        }
+        List<Edge<T>> vertexEdges = new ArrayList<>(vertex.getOutgoingEdges());
+        vertexEdges.addAll(vertex.getIncomingEdges());
+        boolean removed = super.removeVertex(vertex);
+        verticesByName.remove(vertex.getName());
+        vertexEdges.forEach(edge -> edgesByKey.remove(EdgeKey.of(edge)));
+        return removed;
+    }
+
+    @Override
+    public boolean removeEdge(Vertex<T> from, Vertex<T> to) {
+        boolean removed = super.removeEdge(from, to);
+        if (removed) {
+            edgesByKey.remove(new EdgeKey(from.getName(), to.getName()));
+        }
+        return removed;
+    }
+
+    @Override
+    public Vertex<T> findVertexByName(String name) {
+        return verticesByName.get(name);
+    }
+
+    /**
+     * @return the edge between the vertices of given names or null if there is no such edge
+     */
+    public Edge<T> findEdge(String fromName, String toName) {
+        return edgesByKey.get(new EdgeKey(fromName, toName));
+    }
+
+    /**
+     * Adds the vertices and the edges of the other graph which are not in this graph yet. The merged edges connect the
+     * vertices of this graph.
+     */
+    public void merge(Graph<T> toMerge) {
+        for (Vertex<T> vertex : toMerge.getVerticies()) {
+            addVertex(vertex);
+        }
+        for (Edge<T> edge : toMerge.getEdges()) {
+            EdgeKey key = EdgeKey.of(edge);
+            if (edgesByKey.containsKey(key)) {
+                continue;
+            }
+            Vertex<T> from = findVertexByName(key.getFrom());
+            Vertex<T> to = findVertexByName(key.getTo());
+            Edge<T> existing = from.findEdge(to);
+            if (existing != null) {
+                // the vertex is shared with the merged graph, which already connected it
+                getEdges().add(existing);
+                edgesByKey.put(key, existing);
+            } else {
+                addEdge(from, to, edge.getCost());
+            }
+        }
+    }
+
+    private boolean contains(Vertex<T> vertex) {
+        return vertex != null && vertex.equals(verticesByName.get(vertex.getName()));
+    }
+
+    @Value
+    private static class EdgeKey {
+        String from;
+        String to;
+
+        static EdgeKey of(Edge<?> edge) {
+            return new EdgeKey(edge.getFrom().getName(), edge.getTo().getName());
+        }
+    }
+}
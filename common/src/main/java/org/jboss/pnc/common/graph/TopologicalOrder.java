@@ -0,0 +1,139 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.jboss.pnc.common.util.CollectionUtils.nullSafeCollection;
+
+/**
+ * Topological order of a directed graph, computed with Kahn's algorithm in O(V+E). Cycles are detected in the same
+ * pass: the vertices on a cycle, and the vertices depending on them, can't be ordered.
+ *
+ * Dependencies which are not among the ordered vertices are ignored. Independent vertices keep the order in which they
+ * were given.
+ *
+ * @param <T> type of the vertices, identified by equals/hashCode
+ */
+public class TopologicalOrder<T> {
+
+    private final List<T> ordered;
+
+    private final List<T> unordered;
+
+    private TopologicalOrder(List<T> ordered, List<T> unordered) {
+        this.ordered = ordered;
+        this.unordered = unordered;
+    }
+
+    /**
+     * Order the vertices so that every vertex comes after its dependencies.
+     *
+     * @param vertices vertices to order
+     * @param dependencyExtractor function returning the dependencies of a vertex
+     * @param <T> type of the vertices
+     * @return the topological order
+     */
+    public static <T> TopologicalOrder<T> of(Collection<T> vertices, Function<T, Collection<T>> dependencyExtractor) {
+        Map<T, Integer> remainingDependencies = new LinkedHashMap<>();
+        Map<T, List<T>> dependants = new HashMap<>();
+        for (T vertex : vertices) {
+            remainingDependencies.put(vertex, 0);
+            dependants.put(vertex, new ArrayList<>());
+        }
+        for (T vertex : remainingDependencies.keySet()) {
+            for (T dependency : nullSafeCollection(dependencyExtractor.apply(vertex))) {
+                List<T> dependencyDependants = dependants.get(dependency);
+                if (dependencyDependants != null) {
+                    dependencyDependants.add(vertex);
+                    remainingDependencies.merge(vertex, 1, Integer::sum);
+                }
+            }
+        }
+
+        Deque<T> ready = new ArrayDeque<>();
+        remainingDependencies.forEach((vertex, count) -> {
+            if (count == 0) {
+                ready.add(vertex);
+            }
+        });
+
+        List<T> ordered = new ArrayList<>(remainingDependencies.size());
+        while (!ready.isEmpty()) {
+            T vertex = ready.poll();
+            ordered.add(vertex);
+            for (T dependant : dependants.get(vertex)) {
+                if (remainingDependencies.merge(dependant, -1, Integer::sum) == 0) {
+                    ready.add(dependant);
+                }
+            }
+        }
+
+        List<T> unordered = new ArrayList<>();
+        remainingDependencies.forEach((vertex, count) -> {
+            if (count > 0) {
+                unordered.add(vertex);
+            }
+        });
+        return new TopologicalOrder<>(ordered, unordered);
+    }
+
+    /**
+     * @return true if the graph has a cycle
+     */
+    public boolean hasCycle() {
+        return !unordered.isEmpty();
+    }
+
+    /**
+     * @return the vertices that can't be ordered because they are on a cycle or depend on a vertex on a cycle
+     */
+    public List<T> getUnordered() {
+        return Collections.unmodifiableList(unordered);
+    }
+
+    /**
+     * @return all the vertices, every vertex is after its dependencies. The vertices that can't be ordered are at the
+     *         end.
+     */
+    public List<T> dependenciesFirst() {
+        List<T> result = new ArrayList<>(ordered.size() + unordered.size());
+        result.addAll(ordered);
+        result.addAll(unordered);
+        return result;
+    }
+
+    /**
+     * @return all the vertices, every vertex is before its dependencies. The vertices that can't be ordered are at the
+     *         beginning.
+     */
+    public List<T> dependantsFirst() {
+        List<T> result = dependenciesFirst();
+        Collections.reverse(result);
+        return result;
+    }
+}
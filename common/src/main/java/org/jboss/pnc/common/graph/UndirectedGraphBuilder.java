@@ -70,9 +70,7 @@ public class UndirectedGraphBuilder<T, S> {
             Vertex<T> neighborVertex = buildGraph(graph, neighborId, depthLimit - 1);
 
             // add A->B edge only if B->A edge does not exist
-            if (graph.getEdges()
-                    .stream()
-                    .noneMatch(edge -> edge.getFrom().equals(neighborVertex) && edge.getTo().equals(newVertex))) {
+            if (neighborVertex.findEdge(newVertex) == null) {
                 logger.trace("Creating new neighbor edge from {} to {}.", newVertex, neighborVertex);
                 graph.addEdge(newVertex, neighborVertex, vertexNeighbor.getCost());
             }
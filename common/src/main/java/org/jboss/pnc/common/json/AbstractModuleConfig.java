@@ -18,7 +18,49 @@
 package org.jboss.pnc.common.json;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "@module-config")
 public abstract class AbstractModuleConfig {
-}
\ No newline at end of file
+
+    private final static Logger log = LoggerFactory.getLogger(AbstractModuleConfig.class);
+
+    protected static int toIntWithDefault(String fieldName, String numberAsString, int defaultValue) {
+        int result = defaultValue;
+        if (numberAsString == null) {
+            log.warn("Value in field: " + fieldName + " not set. Will use default value: {}", defaultValue);
+        } else {
+            try {
+                result = Integer.parseInt(numberAsString);
+            } catch (NumberFormatException nfe) {
+                log.warn(
+                        "Invalid value in field: " + fieldName
+                                + ". Expected an integer, got: {}. Will use default value: {}",
+                        numberAsString,
+                        defaultValue,
+                        nfe);
+            }
+        }
+        return result;
+    }
+
+    protected static long toLongWithDefault(String fieldName, String numberAsString, long defaultValue) {
+        long result = defaultValue;
+        if (numberAsString == null) {
+            log.warn("Value in field: " + fieldName + " not set. Will use default value: {}", defaultValue);
+        } else {
+            try {
+                result = Long.parseLong(numberAsString);
+            } catch (NumberFormatException nfe) {
+                log.warn(
+                        "Invalid value in field: " + fieldName
+                                + ". Expected a long, got: {}. Will use default value: {}",
+                        numberAsString,
+                        defaultValue,
+                        nfe);
+            }
+        }
+        return result;
+    }
+}
@@ -22,7 +22,11 @@ import java.util.List;
 
 /**
  * Quicksort implementation with a Comparator object used for comparison.
+ *
+ * @deprecated was used to order build tasks by a non-transitive comparator (NCLSUP-393), use
+ *             {@link org.jboss.pnc.common.graph.TopologicalOrder} instead
  */
+@Deprecated
 public class Quicksort<T> {
 
     /**
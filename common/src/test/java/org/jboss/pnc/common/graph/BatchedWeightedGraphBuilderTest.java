@@ -0,0 +1,147 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.graph;
+
+import org.jboss.util.graph.Edge;
+import org.jboss.util.graph.Graph;
+import org.jboss.util.graph.Vertex;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchedWeightedGraphBuilderTest {
+
+    private final Map<String, List<VertexNeighbor<String>>> dependencies = new HashMap<>();
+
+    private final Map<String, List<VertexNeighbor<String>>> dependants = new HashMap<>();
+
+    private final AtomicInteger nodeLookups = new AtomicInteger();
+
+    @Test
+    public void shouldBuildSameGraphAsWeightedGraphBuilder() {
+        dependsOn("root", "a", 2);
+        dependsOn("root", "b", 1);
+        dependsOn("a", "c", 3);
+        dependsOn("b", "c", 1);
+        dependsOn("c", "d", 1);
+        dependsOn("x", "root", 5);
+        dependsOn("y", "x", 1);
+
+        for (int depthLimit = 0; depthLimit <= 3; depthLimit++) {
+            Graph<String> expected = new IndexedGraph<>();
+            new WeightedGraphBuilder<String, String>(
+                    id -> id,
+                    node -> neighbors(dependencies, node),
+                    node -> neighbors(dependants, node)).buildGraph(expected, "root", depthLimit);
+
+            Graph<String> graph = new IndexedGraph<>();
+            batchedBuilder().buildGraph(graph, "root", depthLimit);
+
+            assertThat(vertexNames(graph)).as("vertices at depth %s", depthLimit)
+                    .containsExactlyInAnyOrderElementsOf(vertexNames(expected));
+            assertThat(edgeNames(graph)).as("edges at depth %s", depthLimit)
+                    .containsExactlyInAnyOrderElementsOf(edgeNames(expected));
+        }
+    }
+
+    @Test
+    public void shouldLookUpNodesOncePerLevel() {
+        for (int i = 0; i < 50; i++) {
+            dependsOn("root", "a" + i, 1);
+            dependsOn("a" + i, "b" + i, 1);
+        }
+
+        Graph<String> graph = new IndexedGraph<>();
+        batchedBuilder().buildGraph(graph, "root", 2);
+
+        assertThat(graph.size()).isEqualTo(101);
+        assertThat(graph.getEdges()).hasSize(100);
+        // the root and one lookup per depth level
+        assertThat(nodeLookups.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldLeaveOutMissingNodes() {
+        dependsOn("root", "missing", 1);
+        dependsOn("root", "a", 1);
+
+        Graph<String> graph = new IndexedGraph<>();
+        new BatchedWeightedGraphBuilder<String, String>(
+                ids -> ids.stream().filter(id -> !id.equals("missing")).collect(Collectors.toMap(id -> id, id -> id)),
+                ids -> neighbors(dependencies, ids),
+                ids -> neighbors(dependants, ids)).buildGraph(graph, "root", 1);
+
+        assertThat(vertexNames(graph)).containsExactlyInAnyOrder("root", "a");
+        assertThat(edgeNames(graph)).containsExactly("root->a");
+    }
+
+    private BatchedWeightedGraphBuilder<String, String> batchedBuilder() {
+        return new BatchedWeightedGraphBuilder<>(ids -> {
+            nodeLookups.incrementAndGet();
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> id));
+        }, ids -> neighbors(dependencies, ids), ids -> neighbors(dependants, ids));
+    }
+
+    private void dependsOn(String dependant, String dependency, int cost) {
+        dependencies.computeIfAbsent(dependant, id -> new ArrayList<>()).add(neighbor(dependency, cost));
+        dependants.computeIfAbsent(dependency, id -> new ArrayList<>()).add(neighbor(dependant, cost));
+    }
+
+    private static VertexNeighbor<String> neighbor(String id, int cost) {
+        return VertexNeighbor.<String> builder().neighborId(id).cost(cost).build();
+    }
+
+    private static Collection<VertexNeighbor<String>> neighbors(
+            Map<String, List<VertexNeighbor<String>>> neighbors,
+            String id) {
+        return neighbors.getOrDefault(id, Collections.emptyList());
+    }
+
+    private static Map<String, Collection<VertexNeighbor<String>>> neighbors(
+            Map<String, List<VertexNeighbor<String>>> neighbors,
+            Collection<String> ids) {
+        Map<String, Collection<VertexNeighbor<String>>> result = new HashMap<>();
+        ids.forEach(id -> result.put(id, neighbors(neighbors, id)));
+        return result;
+    }
+
+    private static Set<String> vertexNames(Graph<String> graph) {
+        return graph.getVerticies().stream().map(Vertex::getName).collect(Collectors.toSet());
+    }
+
+    private static List<String> edgeNames(Graph<String> graph) {
+        return graph.getEdges()
+                .stream()
+                .map(edge -> edgeName(edge) + (edge.getCost() == 1 ? "" : ":" + edge.getCost()))
+                .collect(Collectors.toList());
+    }
+
+    private static String edgeName(Edge<String> edge) {
+        return edge.getFrom().getName() + "->" + edge.getTo().getName();
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.graph;
+
+import org.jboss.util.graph.Graph;
+import org.jboss.util.graph.Vertex;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IndexedGraphTest {
+
+    @Test
+    public void shouldFindVerticesAndEdges() {
+        IndexedGraph<String> graph = new IndexedGraph<>();
+        Vertex<String> a = vertex(graph, "a");
+        Vertex<String> b = vertex(graph, "b");
+
+        assertThat(graph.addVertex(new NameUniqueVertex<>("a", "other"))).isFalse();
+        assertThat(graph.addEdge(a, b, 1)).isTrue();
+        assertThat(graph.addEdge(a, b, 2)).isFalse();
+
+        assertThat(graph.size()).isEqualTo(2);
+        assertThat(graph.findVertexByName("a")).isSameAs(a);
+        assertThat(graph.findVertexByName("c")).isNull();
+        assertThat(graph.findEdge("a", "b").getCost()).isEqualTo(1);
+        assertThat(graph.findEdge("b", "a")).isNull();
+        assertThat(graph.getEdges()).hasSize(1);
+        assertThat(a.getOutgoingEdgeCount()).isEqualTo(1);
+        assertThat(b.getIncomingEdgeCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRejectEdgeToVertexNotInGraph() {
+        IndexedGraph<String> graph = new IndexedGraph<>();
+        Vertex<String> a = vertex(graph, "a");
+
+        assertThatThrownBy(() -> graph.addEdge(a, new NameUniqueVertex<>("b", "b"), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldRemoveVertexWithItsEdges() {
+        IndexedGraph<String> graph = new IndexedGraph<>();
+        Vertex<String> a = vertex(graph, "a");
+        Vertex<String> b = vertex(graph, "b");
+        Vertex<String> c = vertex(graph, "c");
+        graph.addEdge(a, b, 1);
+        graph.addEdge(b, c, 1);
+
+        assertThat(graph.removeVertex(b)).isTrue();
+
+        assertThat(graph.findVertexByName("b")).isNull();
+        assertThat(graph.findEdge("a", "b")).isNull();
+        assertThat(graph.findEdge("b", "c")).isNull();
+        assertThat(graph.getEdges()).isEmpty();
+
+        Vertex<String> newB = vertex(graph, "b");
+        assertThat(graph.addEdge(a, newB, 1)).isTrue();
+        assertThat(graph.removeEdge(a, newB)).isTrue();
+        assertThat(graph.findEdge("a", "b")).isNull();
+    }
+
+    @Test
+    public void shouldMergeGraphs() {
+        IndexedGraph<String> target = new IndexedGraph<>();
+        Vertex<String> a = vertex(target, "a");
+        Vertex<String> b = vertex(target, "b");
+        target.addEdge(a, b, 1);
+
+        Graph<String> toMerge = new Graph<>();
+        Vertex<String> otherB = new NameUniqueVertex<>("b", "b");
+        Vertex<String> c = new NameUniqueVertex<>("c", "c");
+        Vertex<String> otherA = new NameUniqueVertex<>("a", "a");
+        toMerge.addVertex(otherA);
+        toMerge.addVertex(otherB);
+        toMerge.addVertex(c);
+        toMerge.addEdge(otherA, otherB, 1);
+        toMerge.addEdge(otherB, c, 1);
+
+        GraphUtils.merge(target, toMerge);
+
+        assertThat(target.size()).isEqualTo(3);
+        assertThat(target.getEdges()).hasSize(2);
+        assertThat(target.findVertexByName("b")).isSameAs(b);
+        assertThat(target.findEdge("b", "c").getFrom()).isSameAs(b);
+        assertThat(b.getOutgoingEdge(0).getTo()).isSameAs(c);
+    }
+
+    @Test
+    public void shouldCloneGraph() {
+        IndexedGraph<String> graph = new IndexedGraph<>();
+        Vertex<String> a = vertex(graph, "a");
+        Vertex<String> b = vertex(graph, "b");
+        graph.addEdge(a, b, 1);
+        graph.setRootVertex(a);
+
+        Graph<String> clone = GraphUtils.clone(graph);
+
+        assertThat(clone.size()).isEqualTo(2);
+        assertThat(clone.getEdges()).hasSize(1);
+        assertThat(clone.getRootVertex()).isSameAs(clone.findVertexByName("a"));
+        assertThat(clone.findVertexByName("a")).isNotSameAs(a);
+    }
+
+    private static Vertex<String> vertex(Graph<String> graph, String name) {
+        Vertex<String> vertex = new NameUniqueVertex<>(name, name);
+        graph.addVertex(vertex);
+        return vertex;
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.graph;
+
+import org.jboss.util.graph.Graph;
+import org.jboss.util.graph.Vertex;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TopologicalOrderTest {
+
+    private final Map<String, List<String>> dependencies = new HashMap<>();
+
+    @Test
+    public void shouldOrderEmpty() {
+        TopologicalOrder<String> order = TopologicalOrder.of(Collections.<String> emptyList(), this::dependenciesOf);
+
+        assertThat(order.hasCycle()).isFalse();
+        assertThat(order.dependenciesFirst()).isEmpty();
+    }
+
+    @Test
+    public void shouldPutDependenciesFirst() {
+        dependsOn("e", "a", "c", "d");
+        dependsOn("d", "a", "b");
+        dependsOn("c", "b");
+
+        TopologicalOrder<String> order = TopologicalOrder.of(asList("e", "d", "c", "b", "a"), this::dependenciesOf);
+
+        assertThat(order.hasCycle()).isFalse();
+        assertDependenciesFirst(order.dependenciesFirst());
+        List<String> dependantsFirst = new ArrayList<>(order.dependantsFirst());
+        Collections.reverse(dependantsFirst);
+        assertDependenciesFirst(dependantsFirst);
+    }
+
+    @Test
+    public void shouldKeepOrderOfIndependentVertices() {
+        TopologicalOrder<String> order = TopologicalOrder.of(asList("c", "a", "b"), this::dependenciesOf);
+
+        assertThat(order.dependenciesFirst()).containsExactly("c", "a", "b");
+    }
+
+    @Test
+    public void shouldIgnoreDependenciesOutsideOfTheVertices() {
+        dependsOn("a", "x");
+        dependsOn("b", "a", "y");
+
+        TopologicalOrder<String> order = TopologicalOrder.of(asList("b", "a"), this::dependenciesOf);
+
+        assertThat(order.hasCycle()).isFalse();
+        assertThat(order.dependenciesFirst()).containsExactly("a", "b");
+    }
+
+    @Test
+    public void shouldFindCycle() {
+        dependsOn("a", "b");
+        dependsOn("b", "c");
+        dependsOn("c", "a");
+        dependsOn("d", "c");
+
+        TopologicalOrder<String> order = TopologicalOrder.of(asList("a", "b", "c", "d", "e"), this::dependenciesOf);
+
+        assertThat(order.hasCycle()).isTrue();
+        assertThat(order.getUnordered()).containsExactlyInAnyOrder("a", "b", "c", "d");
+        assertThat(order.dependenciesFirst()).containsExactly("e", "a", "b", "c", "d");
+    }
+
+    @Test
+    public void shouldFindSelfDependency() {
+        dependsOn("a", "a");
+
+        assertThat(TopologicalOrder.of(asList("a", "b"), this::dependenciesOf).hasCycle()).isTrue();
+    }
+
+    @Test
+    public void shouldOrderLargeGraph() {
+        int size = 5000;
+        List<String> vertices = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String vertex = Integer.toString(i);
+            vertices.add(vertex);
+            for (int dependency = i + 1; dependency < Math.min(size, i + 4); dependency++) {
+                dependsOn(vertex, Integer.toString(dependency));
+            }
+        }
+
+        TopologicalOrder<String> order = TopologicalOrder.of(vertices, this::dependenciesOf);
+
+        assertThat(order.hasCycle()).isFalse();
+        assertDependenciesFirst(order.dependenciesFirst());
+    }
+
+    @Test
+    public void shouldFindCycleInGraph() {
+        Graph<String> graph = new Graph<>();
+        Vertex<String> a = new NameUniqueVertex<>("a", "a");
+        Vertex<String> b = new NameUniqueVertex<>("b", "b");
+        Vertex<String> c = new NameUniqueVertex<>("c", "c");
+        graph.addVertex(a);
+        graph.addVertex(b);
+        graph.addVertex(c);
+        graph.addEdge(a, b, 1);
+        graph.addEdge(b, c, 1);
+
+        assertThat(GraphUtils.hasCycle(graph)).isFalse();
+
+        graph.addEdge(c, a, 1);
+
+        assertThat(GraphUtils.hasCycle(graph)).isTrue();
+    }
+
+    private void dependsOn(String vertex, String... vertexDependencies) {
+        dependencies.computeIfAbsent(vertex, v -> new ArrayList<>()).addAll(asList(vertexDependencies));
+    }
+
+    private Collection<String> dependenciesOf(String vertex) {
+        return dependencies.get(vertex);
+    }
+
+    private void assertDependenciesFirst(List<String> ordered) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            positions.put(ordered.get(i), i);
+        }
+        dependencies.forEach(
+                (vertex, vertexDependencies) -> vertexDependencies.stream()
+                        .filter(positions::containsKey)
+                        .forEach(
+                                dependency -> assertThat(positions.get(dependency))
+                                        .as("position of %s, dependency of %s", dependency, vertex)
+                                        .isLessThan(positions.get(vertex))));
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.hibernate.annotations.QueryHints;
+import org.jboss.pnc.common.Configuration;
+import org.jboss.pnc.common.json.ConfigurationParseException;
+import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
+import org.jboss.pnc.common.json.moduleprovider.PncConfigProvider;
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.Base32LongID;
+import org.jboss.pnc.model.utils.HibernateMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Node-local filter of the identifiers of the built {@link Artifact}s, used by the check for already built artifacts to
+ * query the database only for the identifiers that might have been built. The filter is optional, when it's disabled
+ * or not built yet every identifier is reported as possibly built.
+ *
+ * The filter is not built at startup, the first build streams the identifiers of all the built artifacts in the
+ * background and the filter is rebuilt periodically, so that it recovers from any missed update, see
+ * {@link #rebuild()}. This node adds the identifiers of the artifacts it marks as built once the transaction is
+ * committed, see {@link #putAfterCommit(Collection)}. The artifacts built by the other nodes are added by
+ * {@link #putBuiltBy(Base32LongID)} when the node is notified that the build finished, which also covers the
+ * identifiers stored by this node while the filter was rebuilt. The artifacts marked as built outside of a build are
+ * distributed to the other nodes, see {@link #putAfterCommitAndDistribute(Collection)}.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class BuiltArtifactFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuiltArtifactFilter.class);
+
+    /**
+     * A build result has up to thousands of artifacts, a single false positive makes the check query the database.
+     */
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+
+    /**
+     * The filter is sized for twice the number of the built artifacts at the time it's built, but at least for this
+     * number.
+     */
+    private static final long MIN_EXPECTED_INSERTIONS = 1_000_000;
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String BUILT_COUNT = "SELECT count(a) FROM Artifact a WHERE a.buildRecord IS NOT NULL";
+
+    private static final String BUILT_IDENTIFIERS = "SELECT a.identifier FROM Artifact a"
+            + " WHERE a.buildRecord IS NOT NULL";
+
+    private static final String BUILD_COUNT = "SELECT count(br) FROM BuildRecord br WHERE br.id = :id";
+
+    private static final String BUILT_BY_IDENTIFIERS = "SELECT a.identifier FROM Artifact a"
+            + " WHERE a.buildRecord.id = :id";
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private Configuration configuration;
+
+    @Inject
+    private Event<BuiltIdentifiers> builtIdentifiersEvent;
+
+    private boolean enabled;
+
+    private volatile IdentifierBloomFilter filter;
+
+    /**
+     * Filter being built, guarded by this. The added identifiers go to both filters, so that the ones stored while the
+     * rebuild streams the identifiers are not lost.
+     */
+    private IdentifierBloomFilter rebuilding;
+
+    private final LongAdder skippedChecks = new LongAdder();
+
+    private final LongAdder possibleDuplicates = new LongAdder();
+
+    public BuiltArtifactFilter() {
+    }
+
+    /**
+     * Creates an enabled filter of the given identifiers, which is not backed by the database.
+     */
+    BuiltArtifactFilter(IdentifierBloomFilter filter) {
+        this.enabled = true;
+        this.filter = filter;
+    }
+
+    @PostConstruct
+    void start() {
+        try {
+            enabled = configuration.getModuleConfig(new PncConfigProvider<>(SystemConfig.class))
+                    .isBuiltArtifactFilterEnabled();
+        } catch (ConfigurationParseException e) {
+            logger.warn("Cannot read the system config.", e);
+        }
+        if (!enabled) {
+            logger.info("The filter of built artifacts is disabled.");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replaces the filter with a new one sized for the current number of the built artifacts. It streams the whole
+     * artifact table, so it must not be called in the startup of the application.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long builtCount = entityManager.createQuery(BUILT_COUNT, Long.class).getSingleResult();
+        IdentifierBloomFilter rebuilt = new IdentifierBloomFilter(
+                Math.max(MIN_EXPECTED_INSERTIONS, 2 * builtCount),
+                FALSE_POSITIVE_PROBABILITY);
+        synchronized (this) {
+            rebuilding = rebuilt;
+        }
+        try (Stream<String> identifiers = entityManager.createQuery(BUILT_IDENTIFIERS, String.class)
+                .setHint(QueryHints.FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()) {
+            identifiers.forEach(rebuilt::put);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuilding = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            filter = rebuilt;
+            rebuilding = null;
+        }
+        logger.info(
+                "Built the filter of built artifacts with {} identifiers, {} bits, fill ratio {}.",
+                rebuilt.getInsertions(),
+                rebuilt.getBitCount(),
+                String.format("%.3f", rebuilt.getFillRatio()));
+    }
+
+    /**
+     * @return false if the artifact with the identifier was definitely not built, true if it might have been
+     */
+    public boolean mightBeBuilt(String identifier) {
+        IdentifierBloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(identifier)) {
+            possibleDuplicates.increment();
+            return true;
+        }
+        skippedChecks.increment();
+        return false;
+    }
+
+    /**
+     * Adds the identifier of an artifact stored as built.
+     */
+    public void put(String identifier) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (filter != null) {
+                filter.put(identifier);
+            }
+            if (rebuilding != null) {
+                rebuilding.put(identifier);
+            }
+        }
+    }
+
+    /**
+     * Adds the identifiers of the artifacts marked as built in the current transaction once it's committed, an
+     * identifier added before the commit would not be found by the other nodes.
+     */
+    public void putAfterCommit(Collection<String> identifiers) {
+        fireAfterCommit(identifiers, false);
+    }
+
+    /**
+     * Adds the identifiers of the artifacts marked as built outside of a build (eg. by the REST API) once the
+     * transaction is committed. The other nodes are not notified about a finished build in this case, so the
+     * identifiers are distributed to them as well.
+     */
+    public void putAfterCommitAndDistribute(Collection<String> identifiers) {
+        fireAfterCommit(identifiers, true);
+    }
+
+    private void fireAfterCommit(Collection<String> identifiers, boolean distribute) {
+        if (!enabled || identifiers.isEmpty()) {
+            return;
+        }
+        builtIdentifiersEvent.fire(new BuiltIdentifiers(List.copyOf(identifiers), distribute));
+    }
+
+    public void onBuiltIdentifiers(@Observes(during = TransactionPhase.AFTER_SUCCESS) BuiltIdentifiers event) {
+        event.getIdentifiers().forEach(this::put);
+    }
+
+    /**
+     * Adds the identifiers of the artifacts built by the build. The build and its artifacts are stored in a single
+     * transaction, so the identifiers are added only if the build is already visible.
+     *
+     * @return false if the build is not stored yet, eg. when the transaction storing it is not committed
+     */
+    public boolean putBuiltBy(Base32LongID buildRecordId) {
+        if (!enabled) {
+            return true;
+        }
+        long builds = entityManager.createQuery(BUILD_COUNT, Long.class)
+                .setParameter("id", buildRecordId)
+                .getSingleResult();
+        if (builds == 0) {
+            return false;
+        }
+        entityManager.createQuery(BUILT_BY_IDENTIFIERS, String.class)
+                .setParameter("id", buildRecordId)
+                .getResultList()
+                .forEach(this::put);
+        return true;
+    }
+
+    public SortedMap<String, HibernateMetric> getStats() {
+        SortedMap<String, HibernateMetric> stats = new TreeMap<>();
+        IdentifierBloomFilter current = filter;
+        if (current == null) {
+            return stats;
+        }
+        stats.put(
+                "artifact.built-filter.fill-ratio",
+                new HibernateMetric(
+                        "fillRatio",
+                        "Ratio of the bits set in the filter of built artifacts, it should stay below 0.5.",
+                        current.getFillRatio()));
+        stats.put(
+                "artifact.built-filter.false-positive-probability",
+                new HibernateMetric(
+                        "falsePositiveProbability",
+                        "Probability of a false positive of the filter of built artifacts estimated from the fill"
+                                + " ratio.",
+                        current.getFalsePositiveProbability()));
+        stats.put(
+                "artifact.built-filter.insertion.count",
+                new HibernateMetric(
+                        "insertionCount",
+                        "Number of identifiers added to the filter of built artifacts, the filter is sized for "
+                                + current.getExpectedInsertions() + ".",
+                        current.getInsertions()));
+        stats.put(
+                "artifact.built-filter.skipped-check.count",
+                new HibernateMetric(
+                        "skippedCheckCount",
+                        "Number of artifacts not checked in the database as they were definitely not built.",
+                        skippedChecks.sum()));
+        stats.put(
+                "artifact.built-filter.possible-duplicate.count",
+                new HibernateMetric(
+                        "possibleDuplicateCount",
+                        "Number of artifacts checked in the database as they might have been built.",
+                        possibleDuplicates.sum()));
+        return stats;
+    }
+
+    /**
+     * Identifiers of the artifacts marked as built in a transaction.
+     */
+    public static class BuiltIdentifiers {
+
+        private final List<String> identifiers;
+
+        private final boolean distribute;
+
+        public BuiltIdentifiers(List<String> identifiers, boolean distribute) {
+            this.identifiers = identifiers;
+            this.distribute = distribute;
+        }
+
+        public List<String> getIdentifiers() {
+            return identifiers;
+        }
+
+        /**
+         * @return true if the identifiers have to be distributed to the other nodes of the cluster
+         */
+        public boolean isDistribute() {
+            return distribute;
+        }
+    }
+}
@@ -32,6 +32,7 @@ import org.jboss.pnc.model.TargetRepository;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.coordinator.BuildTask;
 import org.jboss.pnc.spi.datastore.Datastore;
+import org.jboss.pnc.spi.datastore.RebuildCheckCache;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.AttachmentRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigSetRecordRepository;
@@ -47,6 +48,7 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -56,6 +58,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.jboss.pnc.common.util.CollectionUtils.ofNullableCollection;
@@ -84,6 +87,8 @@ public class DefaultDatastore implements Datastore {
 
     private AttachmentRepository attachmentRepository;
 
+    private BuiltArtifactFilter builtArtifactFilter;
+
     public DefaultDatastore() {
     }
 
@@ -96,7 +101,8 @@ public class DefaultDatastore implements Datastore {
             BuildConfigSetRecordRepository buildConfigSetRecordRepository,
             UserRepository userRepository,
             TargetRepositoryRepository targetRepositoryRepository,
-            AttachmentRepository attachmentRepository) {
+            AttachmentRepository attachmentRepository,
+            BuiltArtifactFilter builtArtifactFilter) {
         this.artifactRepository = artifactRepository;
         this.buildRecordRepository = buildRecordRepository;
         this.buildConfigurationRepository = buildConfigurationRepository;
@@ -105,6 +111,7 @@ public class DefaultDatastore implements Datastore {
         this.userRepository = userRepository;
         this.targetRepositoryRepository = targetRepositoryRepository;
         this.attachmentRepository = attachmentRepository;
+        this.builtArtifactFilter = builtArtifactFilter;
     }
 
     private static final String ARTIFACT_ALREADY_BUILT_CONFLICT_MESSAGE = "This artifact was already built in build #";
@@ -113,6 +120,10 @@ public class DefaultDatastore implements Datastore {
     public Map<Artifact, String> checkForBuiltArtifacts(Collection<Artifact> artifacts) {
         Map<RepositoryType, Map<String, Artifact>> repoTypes = new HashMap<>();
         for (Artifact artifact : artifacts) {
+            // only the artifacts that might have been built are checked in the database
+            if (!builtArtifactFilter.mightBeBuilt(artifact.getIdentifier())) {
+                continue;
+            }
             RepositoryType repoType = artifact.getTargetRepository().getRepositoryType();
             repoTypes.computeIfAbsent(repoType, ignored -> new HashMap<>()).put(artifact.getIdentifier(), artifact);
         }
@@ -176,6 +187,8 @@ public class DefaultDatastore implements Datastore {
         for (Artifact builtArtifact : savedBuiltArtifacts) {
             builtArtifact.setBuildRecord(buildRecord);
         }
+        builtArtifactFilter.putAfterCommit(
+                savedBuiltArtifacts.stream().map(Artifact::getIdentifier).collect(Collectors.toList()));
 
         logger.trace("Adding attachments to a build.");
         for (Attachment attachment : savedAttachments) {
@@ -211,10 +224,11 @@ public class DefaultDatastore implements Datastore {
 
     /**
      * Checks the given list against the existing database and creates a new list containing artifacts which have been
-     * saved to or loaded from the database.
+     * saved to or loaded from the database. The new artifacts are stored in bulk, see
+     * {@link ArtifactRepository#getOrSave(Collection)}.
      *
      * @param artifacts of in-memory artifacts to either insert to the database or find the matching record in the db
-     * @param artifactCache
+     * @param artifactCache artifacts already saved to or loaded from the database
      * @return Set of up to date JPA artifact entities
      */
     private Set<Artifact> saveArtifacts(
@@ -223,44 +237,26 @@ public class DefaultDatastore implements Datastore {
             Map<Artifact.IdentifierSha256TargetRepository, Artifact> artifactCache) {
         logger.debug("Saving {} artifacts.", artifacts.size());
 
-        Set<Artifact> savedArtifacts = new HashSet<>();
-
         fetchOrSaveRequiredTargetRepositories(artifacts, storedTargetRepositories);
 
-        Set<Artifact.IdentifierSha256TargetRepository> artifactConstraints = new HashSet<>();
+        List<Artifact> uncachedArtifacts = new ArrayList<>();
         for (Artifact artifact : artifacts) {
-            // None of the generic proxy artifacts can be in the db because of per-build repos
-            if (!isGenericProxy(artifact)) {
-                // link managed targetRepository before creating the constraint
-                artifact.setTargetRepository(
-                        storedTargetRepositories.get(artifact.getTargetRepository().getIdentifierPath()));
-                artifactConstraints.add(artifact.getIdentifierSha256TargetRepository());
+            // link managed targetRepository before creating the constraint
+            artifact.setTargetRepository(
+                    storedTargetRepositories.get(artifact.getTargetRepository().getIdentifierPath()));
+            // the same artifact may appear in both builtArtifacts and dependencies
+            if (!artifactCache.containsKey(artifact.getIdentifierSha256TargetRepository())) {
+                uncachedArtifacts.add(artifact);
             }
         }
 
-        if (artifactConstraints.size() > 0) {
-            logger.debug("Searching artifacts by {} constraints.", artifactConstraints.size());
-            Set<Artifact> artifactsInDb = artifactRepository
-                    .withIdentifierAndSha256AndTargetRepository(artifactConstraints);
-            for (Artifact artifact : artifactsInDb) {
-                logger.trace("Found in DB, adding to cache. Artifact {}", artifact);
-                artifactCache.put(artifact.getIdentifierSha256TargetRepository(), artifact);
-            }
+        if (!uncachedArtifacts.isEmpty()) {
+            artifactCache.putAll(artifactRepository.getOrSave(uncachedArtifacts));
         }
 
+        Set<Artifact> savedArtifacts = new HashSet<>();
         for (Artifact artifact : artifacts) {
-            // link managed targetRepository (may already be set above for non-generic-proxy artifacts)
-            artifact.setTargetRepository(
-                    storedTargetRepositories.get(artifact.getTargetRepository().getIdentifierPath()));
-
-            Artifact artifactFromDb;
-            if (isGenericProxy(artifact)) {
-                artifactFromDb = saveHttpArtifact(artifact);
-            } else {
-                artifactFromDb = getOrSaveRepositoryArtifact(artifact, artifactCache);
-            }
-
-            savedArtifacts.add(artifactFromDb);
+            savedArtifacts.add(artifactCache.get(artifact.getIdentifierSha256TargetRepository()));
         }
 
         logger.debug("Artifacts saved: {}.", artifacts);
@@ -280,10 +276,6 @@ public class DefaultDatastore implements Datastore {
         return savedAttachments;
     }
 
-    private boolean isGenericProxy(Artifact artifact) {
-        return RepositoryType.GENERIC_PROXY.equals(artifact.getTargetRepository().getRepositoryType());
-    }
-
     private void fetchOrSaveRequiredTargetRepositories(
             Collection<Artifact> artifacts,
             Map<TargetRepository.IdentifierPath, TargetRepository> storedTargetRepositories) {
@@ -298,63 +290,11 @@ public class DefaultDatastore implements Datastore {
         }
 
         if (requiredTargetRepositories.size() > 0) {
-            List<TargetRepository> targetRepositoriesInDB = targetRepositoryRepository
-                    .queryByIdentifiersAndPaths(requiredTargetRepositories.keySet());
-
-            for (TargetRepository targetRepository : targetRepositoriesInDB) {
-                storedTargetRepositories.put(targetRepository.getIdentifierPath(), targetRepository);
-                requiredTargetRepositories.remove(targetRepository.getIdentifierPath());
-            }
-
-            logger.debug("Saving {} target repositories.", requiredTargetRepositories.size());
-            for (TargetRepository targetRepository : requiredTargetRepositories.values()) {
-                // NCL-5474: This can potentionally cause unique constraint violation if two builds finish at the same
-                // time, both with the same new target repository. This is unlikely to happen, so we take the risk.
-                TargetRepository savedTargetRepository = targetRepositoryRepository.save(targetRepository);
-                storedTargetRepositories.put(targetRepository.getIdentifierPath(), savedTargetRepository);
-            }
+            logger.debug("Fetching or saving {} target repositories.", requiredTargetRepositories.size());
+            storedTargetRepositories.putAll(targetRepositoryRepository.getOrSave(requiredTargetRepositories.values()));
         }
     }
 
-    private Artifact getOrSaveRepositoryArtifact(
-            Artifact artifact,
-            Map<Artifact.IdentifierSha256TargetRepository, Artifact> artifactCache) {
-        logger.trace("Saving repository artifact {}.", artifact);
-        Artifact artifactFromDb = artifactCache.get(artifact.getIdentifierSha256TargetRepository());
-
-        if (artifactFromDb == null) {
-            logger.trace("Artifact is not in DB. Saving artifact {}.", artifact);
-
-            // Relation owner (BuildRecord) must be saved first, the relation is saved when the BR is saved
-            artifact.setDependantBuildRecords(Collections.emptySet());
-            artifactFromDb = artifactRepository.save(artifact);
-
-            // Add newly saved artifact to cache to prevent duplicate saves when same artifact
-            // appears in both builtArtifacts and dependencies
-            artifactCache.put(artifactFromDb.getIdentifierSha256TargetRepository(), artifactFromDb);
-
-            logger.trace("Saved new artifact {}.", artifactFromDb);
-        } else {
-            logger.trace("Artifact already present in DB {}", artifactFromDb);
-        }
-
-        return artifactFromDb;
-    }
-
-    private Artifact saveHttpArtifact(Artifact artifact) {
-        logger.trace("Saving http artifact {}.", artifact);
-        // NONE OF THE ARTIFACTS CAN BE IN THE DB BECAUSE OF PER-BUILD REPOS
-        logger.trace("Artifact is not in DB. Saving artifact {}.", artifact);
-
-        // Relation owner (BuildRecord) must be saved first, the relation is saved when the BR is saved
-        artifact.setDependantBuildRecords(Collections.emptySet());
-        Artifact artifactFromDb = artifactRepository.save(artifact);
-
-        logger.trace("Saved new artifact {}.", artifactFromDb);
-
-        return artifactFromDb;
-    }
-
     @Override
     public User retrieveUserByUsername(String username) {
         return userRepository.queryByPredicates(withUserName(username));
@@ -439,11 +379,31 @@ public class DefaultDatastore implements Datastore {
             AlignmentPreference alignmentPreference,
             Set<Integer> processedDependenciesCache,
             Consumer<BuildRecord> nonRebuildCauseSetter) {
+        return requiresRebuild(
+                buildConfigurationAudited,
+                checkImplicitDependencies,
+                temporaryBuild,
+                alignmentPreference,
+                new RebuildCheckCache(processedDependenciesCache),
+                nonRebuildCauseSetter);
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRED)
+    public boolean requiresRebuild(
+            BuildConfigurationAudited buildConfigurationAudited,
+            boolean checkImplicitDependencies,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference,
+            RebuildCheckCache rebuildCheckCache,
+            Consumer<BuildRecord> nonRebuildCauseSetter) {
 
         IdRev idRev = buildConfigurationAudited.getIdRev();
         // Step 1 - Check the existence of a build with the same revision
-        BuildRecord latestSuccessfulBuildRecord = buildRecordRepository
-                .getAnyLatestSuccessfulBuildRecordWithRevision(idRev, temporaryBuild);
+        BuildRecord latestSuccessfulBuildRecord = rebuildCheckCache.getAnyLatestSuccessfulWithRevision(
+                idRev,
+                temporaryBuild,
+                () -> buildRecordRepository.getAnyLatestSuccessfulBuildRecordWithRevision(idRev, temporaryBuild));
         if (latestSuccessfulBuildRecord == null) {
             logger.debug(
                     "Rebuild of buildConfiguration.idRev: {} required as there is no successful BuildRecord.",
@@ -451,17 +411,25 @@ public class DefaultDatastore implements Datastore {
             return true;
         }
         // Step 2 - Check the existence of more recent builds with different revision
-        if (!isLatestSuccessBRFromThisBCA(buildConfigurationAudited, temporaryBuild)) {
+        if (!isLatestSuccessBRFromThisBCA(buildConfigurationAudited, temporaryBuild, rebuildCheckCache)) {
             return true;
         }
         // Step 3 - check implicit dependencies
+        Function<Integer, BuildRecord> preferredLatestSuccessfulBuildRecord = configurationId -> rebuildCheckCache
+                .getPreferredLatestSuccessfulWithBuildConfig(
+                        configurationId,
+                        temporaryBuild,
+                        alignmentPreference,
+                        () -> buildRecordRepository.getPreferredLatestSuccessfulBuildRecordWithBuildConfig(
+                                configurationId,
+                                temporaryBuild,
+                                alignmentPreference));
         if (checkImplicitDependencies) {
             logger.debug("Checking if BCA: {} has implicit dependencies that need rebuild", idRev);
             boolean rebuild = hasARebuiltImplicitDependency(
                     latestSuccessfulBuildRecord,
-                    temporaryBuild,
-                    alignmentPreference,
-                    processedDependenciesCache);
+                    getRecordsUsedFor(latestSuccessfulBuildRecord, rebuildCheckCache.getProcessedDependencies()),
+                    preferredLatestSuccessfulBuildRecord);
             logger.debug(
                     "Implicit dependency check for rebuild of buildConfiguration.idRev: {} required: {}.",
                     idRev,
@@ -471,12 +439,15 @@ public class DefaultDatastore implements Datastore {
             }
         }
         // Step 4 - check explicit dependencies
-        Set<BuildConfiguration> dependencies = buildConfigurationAudited.getBuildConfiguration().getDependencies();
+        Set<Integer> dependencyIds = buildConfigurationAudited.getBuildConfiguration()
+                .getDependencies()
+                .stream()
+                .map(BuildConfiguration::getId)
+                .collect(Collectors.toSet());
         boolean rebuild = hasARebuiltExplicitDependency(
                 latestSuccessfulBuildRecord,
-                dependencies,
-                temporaryBuild,
-                alignmentPreference);
+                dependencyIds,
+                preferredLatestSuccessfulBuildRecord);
         logger.debug(
                 "Explicit dependency check for rebuild of buildConfiguration.idRev: {} required: {}.",
                 idRev,
@@ -487,6 +458,111 @@ public class DefaultDatastore implements Datastore {
         return rebuild;
     }
 
+    /**
+     * Evaluates the same steps as the single configuration check, but fetches the latest successful BuildRecords of all
+     * the configurations, their explicit and implicit dependencies in a few set-based queries.
+     */
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRED)
+    public Map<IdRev, BuildRecord> requiresRebuild(
+            Collection<BuildConfigurationAudited> buildConfigurationAuditeds,
+            boolean checkImplicitDependencies,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference) {
+        Map<IdRev, Set<Integer>> dependencyIds = new HashMap<>();
+        for (BuildConfigurationAudited buildConfigurationAudited : buildConfigurationAuditeds) {
+            dependencyIds.put(
+                    buildConfigurationAudited.getIdRev(),
+                    buildConfigurationAudited.getBuildConfiguration()
+                            .getDependencies()
+                            .stream()
+                            .map(BuildConfiguration::getId)
+                            .collect(Collectors.toSet()));
+        }
+        return requiresRebuild(dependencyIds, checkImplicitDependencies, temporaryBuild, alignmentPreference);
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRED)
+    public Map<IdRev, BuildRecord> requiresRebuild(
+            Map<IdRev, Set<Integer>> dependencyIds,
+            boolean checkImplicitDependencies,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference) {
+
+        Set<Integer> configurationIds = new HashSet<>();
+        for (Map.Entry<IdRev, Set<Integer>> configuration : dependencyIds.entrySet()) {
+            configurationIds.add(configuration.getKey().getId());
+            configurationIds.addAll(configuration.getValue());
+        }
+        LatestSuccessfulBuildRecords latestRecords = new LatestSuccessfulBuildRecords();
+        latestRecords.addAll(buildRecordRepository.getLatestSuccessfulBuildRecordsOfRevisions(configurationIds));
+        Function<Integer, BuildRecord> preferredLatestSuccessfulBuildRecord = configurationId -> latestRecords
+                .getPreferredWithBuildConfig(configurationId, temporaryBuild, alignmentPreference);
+
+        Map<IdRev, BuildRecord> noRebuildCauses = new HashMap<>();
+        for (Map.Entry<IdRev, Set<Integer>> configuration : dependencyIds.entrySet()) {
+            IdRev idRev = configuration.getKey();
+            // Step 1 - Check the existence of a build with the same revision
+            BuildRecord latestSuccessfulBuildRecord = latestRecords.getAnyWithRevision(idRev, temporaryBuild);
+            if (latestSuccessfulBuildRecord == null) {
+                logger.debug(
+                        "Rebuild of buildConfiguration.idRev: {} required as there is no successful BuildRecord.",
+                        idRev);
+                continue;
+            }
+            // Step 2 - Check the existence of more recent builds with different revision
+            BuildRecord latestOfBuildConfig = latestRecords.getAnyWithBuildConfig(idRev.getId(), temporaryBuild);
+            if (!latestOfBuildConfig.getBuildConfigurationAuditedIdRev().equals(idRev)) {
+                logger.debug(
+                        "Last successful BuildRecord id {} is not from this BuildConfigurationAudited idRev {}.",
+                        latestOfBuildConfig.getId(),
+                        idRev);
+                continue;
+            }
+            // Step 4 - check explicit dependencies, done first as it needs no further queries
+            if (hasARebuiltExplicitDependency(
+                    latestSuccessfulBuildRecord,
+                    configuration.getValue(),
+                    preferredLatestSuccessfulBuildRecord)) {
+                logger.debug("Explicit dependency check for rebuild of buildConfiguration.idRev: {} required.", idRev);
+                continue;
+            }
+            noRebuildCauses.put(idRev, latestSuccessfulBuildRecord);
+        }
+
+        // Step 3 - check implicit dependencies of the configurations which still don't require a rebuild
+        if (checkImplicitDependencies && !noRebuildCauses.isEmpty()) {
+            Map<Base32LongID, Set<BuildRecord>> usedRecords = buildRecordRepository.getBuildsProducingDependencies(
+                    noRebuildCauses.values().stream().map(BuildRecord::getId).collect(Collectors.toSet()));
+            Set<Integer> implicitConfigurationIds = usedRecords.values()
+                    .stream()
+                    .flatMap(Set::stream)
+                    .map(BuildRecord::getBuildConfigurationId)
+                    .filter(configurationId -> !latestRecords.containsBuildConfig(configurationId))
+                    .collect(Collectors.toSet());
+            latestRecords
+                    .addAll(buildRecordRepository.getLatestSuccessfulBuildRecordsOfRevisions(implicitConfigurationIds));
+
+            noRebuildCauses.entrySet().removeIf(noRebuildCause -> {
+                boolean rebuild = hasARebuiltImplicitDependency(
+                        noRebuildCause.getValue(),
+                        usedRecords.getOrDefault(noRebuildCause.getValue().getId(), Collections.emptySet()),
+                        preferredLatestSuccessfulBuildRecord);
+                logger.debug(
+                        "Implicit dependency check for rebuild of buildConfiguration.idRev: {} required: {}.",
+                        noRebuildCause.getKey(),
+                        rebuild);
+                return rebuild;
+            });
+        }
+        logger.debug(
+                "{} of {} configurations require a rebuild.",
+                dependencyIds.size() - noRebuildCauses.size(),
+                dependencyIds.size());
+        return noRebuildCauses;
+    }
+
     @Deprecated
     @Override
     @TransactionAttribute(TransactionAttributeType.REQUIRED)
@@ -506,9 +582,15 @@ public class DefaultDatastore implements Datastore {
      */
     private boolean isLatestSuccessBRFromThisBCA(
             BuildConfigurationAudited buildConfigurationAudited,
-            boolean temporaryBuild) {
-        BuildRecord latestSuccessfulBuildRecord = buildRecordRepository
-                .getAnyLatestSuccessfulBuildRecordWithBuildConfig(buildConfigurationAudited.getId(), temporaryBuild);
+            boolean temporaryBuild,
+            RebuildCheckCache rebuildCheckCache) {
+        Integer configurationId = buildConfigurationAudited.getId();
+        BuildRecord latestSuccessfulBuildRecord = rebuildCheckCache.getAnyLatestSuccessfulWithBuildConfig(
+                configurationId,
+                temporaryBuild,
+                () -> buildRecordRepository.getAnyLatestSuccessfulBuildRecordWithBuildConfig(
+                        configurationId,
+                        temporaryBuild));
         if (latestSuccessfulBuildRecord == null) {
             if (!temporaryBuild) { // When building temporary, there might be only persistent builds done before.
                 logger.warn(
@@ -532,19 +614,14 @@ public class DefaultDatastore implements Datastore {
 
     /**
      * Check is some of the dependencies from the previous build were rebuild. Checking is done based on captured
-     * dependencies which are stored in the Build Record. Dependencies which have already been processed and are
-     * contained in the provided cache processedDependenciesCache (if any), are not processed again
+     * dependencies which are stored in the Build Record.
      */
     private boolean hasARebuiltImplicitDependency(
             BuildRecord latestSuccessfulBuildRecord,
-            boolean temporaryBuild,
-            AlignmentPreference alignmentPreference,
-            Set<Integer> processedDependenciesCache) {
-        Collection<BuildRecord> lastBuiltFrom = getRecordsUsedFor(
-                latestSuccessfulBuildRecord,
-                processedDependenciesCache);
+            Collection<BuildRecord> lastBuiltFrom,
+            Function<Integer, BuildRecord> preferredLatestSuccessfulBuildRecord) {
         return lastBuiltFrom.stream().anyMatch(br -> {
-            if (hasNewerVersion(br, temporaryBuild, alignmentPreference)) {
+            if (hasNewerVersion(br, preferredLatestSuccessfulBuildRecord)) {
                 logger.debug(
                         "Latest successful BuildRecord: {} has implicitly dependent BR: {} that requires rebuild.",
                         latestSuccessfulBuildRecord.getId(),
@@ -560,15 +637,11 @@ public class DefaultDatastore implements Datastore {
      */
     private boolean hasARebuiltExplicitDependency(
             BuildRecord latestSuccessfulBuildRecord,
-            Set<BuildConfiguration> dependencies,
-            boolean temporaryBuild,
-            AlignmentPreference alignmentPreference) {
-        for (BuildConfiguration dependencyBuildConfiguration : dependencies) {
-            BuildRecord dependencyLatestSuccessfulBuildRecord = buildRecordRepository
-                    .getPreferredLatestSuccessfulBuildRecordWithBuildConfig(
-                            dependencyBuildConfiguration.getId(),
-                            temporaryBuild,
-                            alignmentPreference);
+            Set<Integer> dependencyIds,
+            Function<Integer, BuildRecord> preferredLatestSuccessfulBuildRecord) {
+        for (Integer dependencyId : dependencyIds) {
+            BuildRecord dependencyLatestSuccessfulBuildRecord = preferredLatestSuccessfulBuildRecord
+                    .apply(dependencyId);
             if (dependencyLatestSuccessfulBuildRecord == null) {
                 return true;
             }
@@ -586,17 +659,14 @@ public class DefaultDatastore implements Datastore {
      */
     private boolean hasNewerVersion(
             BuildRecord buildRecord,
-            boolean temporaryBuild,
-            AlignmentPreference alignmentPreference) {
-        BuildRecord latestSuccessfulBuildRecord = buildRecordRepository
-                .getPreferredLatestSuccessfulBuildRecordWithBuildConfig(
-                        buildRecord.getBuildConfigurationId(),
-                        temporaryBuild,
-                        alignmentPreference);
+            Function<Integer, BuildRecord> preferredLatestSuccessfulBuildRecord) {
+        BuildRecord latestSuccessfulBuildRecord = preferredLatestSuccessfulBuildRecord
+                .apply(buildRecord.getBuildConfigurationId());
         if (latestSuccessfulBuildRecord == null) {
             logger.error(
                     "Something went wrong, the buildRecord {} should be successful (to this latest or the BuildRecord that produced artifacts.).",
                     buildRecord.getId());
+            return true;
         }
         return !buildRecord.getId().equals(latestSuccessfulBuildRecord.getId());
     }
@@ -0,0 +1,150 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of strings, safe for concurrent use without locking. It answers whether an identifier might have been
+ * added: a negative answer is definite, a positive answer is wrong with a probability that grows as the filter fills
+ * up. The filter has a fixed size, sized for the expected number of identifiers and the target false positive
+ * probability.
+ *
+ * The bit indexes are derived from a single 128-bit murmur3 hash by double hashing.
+ */
+final class IdentifierBloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private final long expectedInsertions;
+
+    private final LongAdder setBits = new LongAdder();
+
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions number of identifiers the filter is sized for
+     * @param falsePositiveProbability target probability of a false positive when filled with the expected number of
+     *        identifiers
+     */
+    IdentifierBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive, was " + expectedInsertions);
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException(
+                    "False positive probability must be between 0 and 1, was " + falsePositiveProbability);
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (ln2 * ln2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    void put(String identifier) {
+        long[] hash = hash(identifier);
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            setBit((combined & Long.MAX_VALUE) % bitCount);
+            combined += hash[1];
+        }
+        insertions.increment();
+    }
+
+    boolean mightContain(String identifier) {
+        long[] hash = hash(identifier);
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            if (!getBit((combined & Long.MAX_VALUE) % bitCount)) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    /**
+     * @return ratio of the bits set, the false positive probability is close to the target one at about 0.5
+     */
+    double getFillRatio() {
+        return (double) setBits.sum() / bitCount;
+    }
+
+    /**
+     * @return current probability of a false positive estimated from the fill ratio
+     */
+    double getFalsePositiveProbability() {
+        return Math.pow(getFillRatio(), hashCount);
+    }
+
+    /**
+     * @return number of the additions, including the repeated ones
+     */
+    long getInsertions() {
+        return insertions.sum();
+    }
+
+    long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    long getBitCount() {
+        return bitCount;
+    }
+
+    int getHashCount() {
+        return hashCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long value;
+        do {
+            value = words.get(word);
+            if ((value & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, value, value | mask));
+        setBits.increment();
+    }
+
+    private boolean getBit(long index) {
+        return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    private static long[] hash(String identifier) {
+        HashCode hashCode = Hashing.murmur3_128().hashString(identifier, StandardCharsets.UTF_8);
+        ByteBuffer bytes = ByteBuffer.wrap(hashCode.asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        return new long[] { bytes.getLong(0), bytes.getLong(8) };
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.jboss.pnc.api.enums.AlignmentPreference;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.IdRev;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of the latest successful BuildRecords of build configuration revisions, separately for temporary and
+ * persistent builds. Answers the same lookups as the latest successful BuildRecord queries of the
+ * {@link org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository}, so that whole build graphs can be evaluated
+ * after fetching the records in bulk.
+ */
+class LatestSuccessfulBuildRecords {
+
+    private static final Comparator<BuildRecord> SUBMIT_TIME = Comparator.comparing(BuildRecord::getSubmitTime);
+
+    private final Map<Integer, List<BuildRecord>> byBuildConfig = new HashMap<>();
+
+    private final Map<IdRev, List<BuildRecord>> byRevision = new HashMap<>();
+
+    void addAll(Collection<BuildRecord> buildRecords) {
+        for (BuildRecord buildRecord : buildRecords) {
+            byBuildConfig.computeIfAbsent(buildRecord.getBuildConfigurationId(), id -> new ArrayList<>())
+                    .add(buildRecord);
+            byRevision.computeIfAbsent(buildRecord.getBuildConfigurationAuditedIdRev(), idRev -> new ArrayList<>())
+                    .add(buildRecord);
+        }
+    }
+
+    boolean containsBuildConfig(Integer configurationId) {
+        return byBuildConfig.containsKey(configurationId);
+    }
+
+    /**
+     * @see org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository#getAnyLatestSuccessfulBuildRecordWithRevision
+     */
+    BuildRecord getAnyWithRevision(IdRev idRev, boolean temporaryBuild) {
+        return latest(byRevision.getOrDefault(idRev, Collections.emptyList()), includeTemporary(temporaryBuild));
+    }
+
+    /**
+     * @see org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository#getAnyLatestSuccessfulBuildRecordWithBuildConfig
+     */
+    BuildRecord getAnyWithBuildConfig(Integer configurationId, boolean temporaryBuild) {
+        return latest(
+                byBuildConfig.getOrDefault(configurationId, Collections.emptyList()),
+                includeTemporary(temporaryBuild));
+    }
+
+    /**
+     * @see org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository#getPreferredLatestSuccessfulBuildRecordWithBuildConfig
+     */
+    BuildRecord getPreferredWithBuildConfig(
+            Integer configurationId,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference) {
+        List<BuildRecord> buildRecords = byBuildConfig.getOrDefault(configurationId, Collections.emptyList());
+        if (!temporaryBuild) {
+            return latest(buildRecords, br -> !br.isTemporaryBuild());
+        }
+        boolean preferTemporary = AlignmentPreference.PREFER_TEMPORARY.equals(alignmentPreference);
+        BuildRecord preferred = latest(buildRecords, br -> br.isTemporaryBuild() == preferTemporary);
+        return preferred != null ? preferred : latest(buildRecords, br -> true);
+    }
+
+    private static Predicate<BuildRecord> includeTemporary(boolean temporaryBuild) {
+        return br -> temporaryBuild || !br.isTemporaryBuild();
+    }
+
+    private static BuildRecord latest(List<BuildRecord> buildRecords, Predicate<BuildRecord> filter) {
+        return buildRecords.stream().filter(filter).max(SUBMIT_TIME).orElse(null);
+    }
+}
@@ -19,16 +19,30 @@ package org.jboss.pnc.datastore.repositories;
 
 import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.DefaultRevisionEntity;
 import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
 import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 
 import javax.ejb.Stateless;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Stateless
@@ -40,6 +54,33 @@ public class ArtifactRepositoryImpl extends AbstractRepository<Artifact, Integer
      */
     public static final int QUERY_ARTIFACT_PARITION_SIZE = 1000;
 
+    /**
+     * Number of artifacts inserted in one JDBC batch.
+     */
+    static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * Inserts an artifact unless it's already stored and the audit record of the inserted artifact, as Hibernate Envers
+     * doesn't see the inserts done by JDBC.
+     */
+    private static final String INSERT_ARTIFACT = "WITH inserted AS ("
+            + "INSERT INTO artifact (id, identifier, purl, md5, sha1, sha256, size, artifactquality, buildcategory,"
+            + " targetrepository_id, filename, deploypath, originurl, importdate, creationuser_id,"
+            + " modificationuser_id, creationtime, modificationtime, qualitylevelreason)"
+            + " VALUES (nextval('" + Artifact.SEQUENCE_NAME + "'),"
+            + " ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+            + " ON CONFLICT (identifier, sha256, targetrepository_id) DO NOTHING"
+            + " RETURNING id, artifactquality, buildcategory, modificationuser_id, modificationtime,"
+            + " qualitylevelreason)"
+            + " INSERT INTO artifact_aud (id, rev, revtype, artifactquality, buildcategory, modificationuser_id,"
+            + " modificationtime, qualitylevelreason)"
+            + " SELECT id, ?, 0, artifactquality, buildcategory, modificationuser_id, modificationtime,"
+            + " qualitylevelreason FROM inserted";
+
+    private static final Comparator<Artifact> INSERT_ORDER = Comparator.comparing(Artifact::getIdentifier)
+            .thenComparing(Artifact::getSha256)
+            .thenComparing(artifact -> artifact.getTargetRepository().getId());
+
     public ArtifactRepositoryImpl() {
         super(Artifact.class, Integer.class);
     }
@@ -90,7 +131,117 @@ public class ArtifactRepositoryImpl extends AbstractRepository<Artifact, Integer
 
     @Override
     public List<Artifact> withSha256In(Set<String> sha256) {
-        return queryWithPredicates(ArtifactPredicates.withSha256In(sha256));
+        // partition the constraints as in withIdentifierAndSha256, the set can hold all the artifacts of a distribution
+        List<Artifact> artifacts = new ArrayList<>();
+        for (List<String> partition : Lists.partition(new ArrayList<>(sha256), QUERY_ARTIFACT_PARITION_SIZE)) {
+            artifacts.addAll(queryWithPredicates(ArtifactPredicates.withSha256In(new HashSet<>(partition))));
+        }
+        return artifacts;
+    }
+
+    @Override
+    public Map<Artifact.IdentifierSha256TargetRepository, Artifact> getOrSave(Collection<Artifact> artifacts) {
+        // the generic proxy artifacts are deduplicated too, they are not inserted again for every build
+        Map<Artifact.IdentifierSha256TargetRepository, Artifact> requested = new LinkedHashMap<>();
+        for (Artifact artifact : artifacts) {
+            requested.putIfAbsent(artifact.getIdentifierSha256TargetRepository(), artifact);
+        }
+
+        Map<Artifact.IdentifierSha256TargetRepository, Artifact> stored = new HashMap<>();
+        withIdentifierAndSha256AndTargetRepository(requested.keySet())
+                .forEach(artifact -> stored.put(artifact.getIdentifierSha256TargetRepository(), artifact));
+
+        List<Artifact> missing = new ArrayList<>();
+        requested.forEach((key, artifact) -> {
+            if (!stored.containsKey(key)) {
+                missing.add(artifact);
+            }
+        });
+        if (missing.isEmpty()) {
+            return stored;
+        }
+
+        log.debug("Saving {} new artifacts.", missing.size());
+        if (isPostgreSQL()) {
+            insert(missing);
+            // the artifacts inserted concurrently by other transactions are selected as well
+            Set<Artifact.IdentifierSha256TargetRepository> missingKeys = new HashSet<>();
+            missing.forEach(artifact -> missingKeys.add(artifact.getIdentifierSha256TargetRepository()));
+            withIdentifierAndSha256AndTargetRepository(missingKeys)
+                    .forEach(artifact -> stored.put(artifact.getIdentifierSha256TargetRepository(), artifact));
+        } else {
+            for (Artifact artifact : missing) {
+                // Relation owner (BuildRecord) must be saved first, the relation is saved when the BR is saved
+                artifact.setDependantBuildRecords(Collections.emptySet());
+                Artifact saved = save(artifact);
+                stored.put(saved.getIdentifierSha256TargetRepository(), saved);
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Inserts the artifacts by JDBC batches. The artifacts are inserted in a stable order, so that concurrent
+     * transactions inserting the same artifacts wait for each other instead of deadlocking.
+     */
+    private void insert(List<Artifact> artifacts) {
+        // the referenced target repositories and the revision have to be in the database
+        int revision = AuditReaderFactory.get(entityManager)
+                .getCurrentRevision(DefaultRevisionEntity.class, true)
+                .getId();
+        entityManager.flush();
+
+        artifacts.sort(INSERT_ORDER);
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ARTIFACT)) {
+                int inserted = 0;
+                for (List<Artifact> batch : Lists.partition(artifacts, INSERT_BATCH_SIZE)) {
+                    for (Artifact artifact : batch) {
+                        setParameters(statement, artifact, revision);
+                        statement.addBatch();
+                    }
+                    for (int count : statement.executeBatch()) {
+                        inserted += Math.max(count, 0);
+                    }
+                }
+                log.debug("Inserted {} of {} artifacts.", inserted, artifacts.size());
+            }
+        });
     }
 
+    private static void setParameters(PreparedStatement statement, Artifact artifact, int revision)
+            throws SQLException {
+        int i = 1;
+        statement.setString(i++, artifact.getIdentifier());
+        statement.setString(i++, artifact.getPurl());
+        statement.setString(i++, artifact.getMd5());
+        statement.setString(i++, artifact.getSha1());
+        statement.setString(i++, artifact.getSha256());
+        statement.setObject(i++, artifact.getSize(), Types.BIGINT);
+        statement.setString(i++, name(artifact.getArtifactQuality()));
+        statement.setString(i++, name(artifact.getBuildCategory()));
+        statement.setInt(i++, artifact.getTargetRepository().getId());
+        statement.setString(i++, artifact.getFilename());
+        statement.setString(i++, artifact.getDeployPath());
+        statement.setString(i++, artifact.getOriginUrl());
+        statement.setTimestamp(i++, timestamp(artifact.getImportDate()));
+        statement.setObject(i++, id(artifact.getCreationUser()), Types.INTEGER);
+        statement.setObject(i++, id(artifact.getModificationUser()), Types.INTEGER);
+        statement.setTimestamp(i++, timestamp(artifact.getCreationTime()));
+        statement.setTimestamp(i++, timestamp(artifact.getModificationTime()));
+        statement.setString(i++, artifact.getQualityLevelReason());
+        statement.setInt(i, revision);
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    private static Timestamp timestamp(Date date) {
+        return date == null ? null : new Timestamp(date.getTime());
+    }
+
+    private static Integer id(GenericEntity<Integer> entity) {
+        return entity == null ? null : entity.getId();
+    }
 }
@@ -0,0 +1,235 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.model.RepositoryConfiguration;
+import org.jboss.pnc.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Infinispan cache of the {@link BuildConfigurationAudited} snapshots keyed by their {@link IdRev}. The audited state
+ * of a revision never changes once it's written, so the entries are never invalidated and every node of the cluster
+ * can keep its own local copy without any coordination. The cache is bounded and evicts the least recently used
+ * revisions.
+ *
+ * The project, repository configuration, build environment and users are not audited, a revision always refers to
+ * their current state. The snapshots keep only the ids of these entities and they are found again in the session of
+ * the caller on every lookup, so the changes of these entities show up in the cached revisions. Every caller gets its
+ * own copy of the snapshot, so setting the fields of a returned revision (eg. the current build configuration when a
+ * build is triggered) doesn't leak into the next lookups. Revisions that are not found are not cached.
+ */
+@ApplicationScoped
+public class BuildConfigurationAuditedCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuildConfigurationAuditedCache.class);
+
+    private static final String CACHE_NAME = "build-configuration-audited";
+
+    private static final long MAX_ENTRIES = 10_000;
+
+    private EmbeddedCacheManager cacheManager;
+
+    private Cache<IdRev, Snapshot> cache;
+
+    @PostConstruct
+    void start() {
+        start(MAX_ENTRIES);
+    }
+
+    void start(long maxEntries) {
+        cacheManager = new DefaultCacheManager(new GlobalConfigurationBuilder().nonClusteredDefault().build());
+        cacheManager.defineConfiguration(
+                CACHE_NAME,
+                new ConfigurationBuilder().clustering()
+                        .cacheMode(CacheMode.LOCAL)
+                        .memory()
+                        .maxCount(maxEntries)
+                        .build());
+        cache = cacheManager.getCache(CACHE_NAME, true);
+        logger.info("Started the cache of audited build configurations, max entries: {}.", maxEntries);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (cacheManager != null) {
+            cacheManager.stop();
+        }
+    }
+
+    /**
+     * @param idRev revision to get
+     * @param loader loads the revision on a cache miss, returns null if the revision doesn't exist
+     * @param finder finds the associations, which are not audited, in the session of the caller
+     * @return the revision or null if it doesn't exist
+     */
+    public BuildConfigurationAudited get(
+            IdRev idRev,
+            Function<IdRev, BuildConfigurationAudited> loader,
+            EntityFinder finder) {
+        Snapshot cached = cache.get(idRev);
+        if (cached != null) {
+            return cached.restore(finder);
+        }
+        BuildConfigurationAudited loaded = loader.apply(idRev);
+        if (loaded == null) {
+            return null;
+        }
+        Snapshot snapshot = Snapshot.of(loaded);
+        cache.putIfAbsent(idRev, snapshot);
+        return snapshot.restore(finder);
+    }
+
+    /**
+     * Gets all the revisions, the revisions missing in the cache are loaded at once.
+     *
+     * @param idRevs revisions to get
+     * @param loader loads the missing revisions, the revisions that don't exist are left out of the result
+     * @param finder finds the associations, which are not audited, in the session of the caller
+     * @return map of the found revisions
+     */
+    public Map<IdRev, BuildConfigurationAudited> getAll(
+            Set<IdRev> idRevs,
+            Function<Set<IdRev>, Map<IdRev, BuildConfigurationAudited>> loader,
+            EntityFinder finder) {
+        Map<IdRev, BuildConfigurationAudited> result = new HashMap<>();
+        cache.getAdvancedCache().getAll(idRevs).forEach((idRev, cached) -> result.put(idRev, cached.restore(finder)));
+        if (result.size() == idRevs.size()) {
+            return result;
+        }
+        Set<IdRev> missing = new HashSet<>(idRevs);
+        missing.removeAll(result.keySet());
+        logger.trace(
+                "Loading {} of {} audited build configurations missing in the cache.",
+                missing.size(),
+                idRevs.size());
+
+        Map<IdRev, BuildConfigurationAudited> loaded = loader.apply(missing);
+        loaded.forEach((idRev, revision) -> {
+            Snapshot snapshot = Snapshot.of(revision);
+            cache.putIfAbsent(idRev, snapshot);
+            result.put(idRev, snapshot.restore(finder));
+        });
+        return result;
+    }
+
+    private static BuildConfigurationAudited copy(BuildConfigurationAudited snapshot) {
+        BuildConfigurationAudited copy = new BuildConfigurationAudited();
+        copy.setId(snapshot.getId());
+        copy.setRev(snapshot.getRev());
+        copy.setIdRev(snapshot.getIdRev());
+        copy.setName(snapshot.getName());
+        copy.setBuildScript(snapshot.getBuildScript());
+        copy.setScmRevision(snapshot.getScmRevision());
+        copy.setBuildType(snapshot.getBuildType());
+        copy.setCreationTime(copy(snapshot.getCreationTime()));
+        copy.setLastModificationTime(copy(snapshot.getLastModificationTime()));
+        copy.setDefaultAlignmentParams(snapshot.getDefaultAlignmentParams());
+        copy.setBuildConfiguration(snapshot.getBuildConfiguration());
+        copy.setBrewPullActive(snapshot.isBrewPullActive());
+        if (snapshot.getGenericParameters() != null) {
+            copy.setGenericParameters(new HashMap<>(snapshot.getGenericParameters()));
+        }
+        return copy;
+    }
+
+    private static Date copy(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    /**
+     * Finds the current state of an entity, eg. {@code entityManager::find}.
+     */
+    @FunctionalInterface
+    public interface EntityFinder {
+        <T> T find(Class<T> entityClass, Object id);
+    }
+
+    /**
+     * Audited state of a revision without the associations, which are not audited, and the ids of these associations.
+     */
+    private static class Snapshot {
+
+        private final BuildConfigurationAudited audited;
+
+        private final Integer projectId;
+
+        private final Integer repositoryConfigurationId;
+
+        private final Integer buildEnvironmentId;
+
+        private final Integer creationUserId;
+
+        private final Integer lastModificationUserId;
+
+        private Snapshot(BuildConfigurationAudited revision) {
+            audited = copy(revision);
+            projectId = revision.getProject() == null ? null : revision.getProject().getId();
+            repositoryConfigurationId = revision.getRepositoryConfiguration() == null ? null
+                    : revision.getRepositoryConfiguration().getId();
+            buildEnvironmentId = revision.getBuildEnvironment() == null ? null
+                    : revision.getBuildEnvironment().getId();
+            creationUserId = revision.getCreationUser() == null ? null : revision.getCreationUser().getId();
+            lastModificationUserId = revision.getLastModificationUser() == null ? null
+                    : revision.getLastModificationUser().getId();
+        }
+
+        static Snapshot of(BuildConfigurationAudited revision) {
+            return new Snapshot(revision);
+        }
+
+        BuildConfigurationAudited restore(EntityFinder finder) {
+            BuildConfigurationAudited revision = copy(audited);
+            revision.setProject(find(finder, Project.class, projectId));
+            revision.setRepositoryConfiguration(
+                    find(finder, RepositoryConfiguration.class, repositoryConfigurationId));
+            revision.setBuildEnvironment(find(finder, BuildEnvironment.class, buildEnvironmentId));
+            revision.setCreationUser(find(finder, User.class, creationUserId));
+            revision.setLastModificationUser(find(finder, User.class, lastModificationUserId));
+            return revision;
+        }
+
+        private static <T> T find(EntityFinder finder, Class<T> entityClass, Integer id) {
+            return id == null ? null : finder.find(entityClass, id);
+        }
+    }
+}
@@ -39,6 +39,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -53,6 +54,8 @@ public class BuildConfigurationAuditedRepositoryImpl implements BuildConfigurati
 
     BuildRecordRepository buildRecordRepository;
 
+    BuildConfigurationAuditedCache cache;
+
     @Deprecated // CDI workaround
     public BuildConfigurationAuditedRepositoryImpl() {
     }
@@ -60,9 +63,11 @@ public class BuildConfigurationAuditedRepositoryImpl implements BuildConfigurati
     @Inject
     public BuildConfigurationAuditedRepositoryImpl(
             EntityManager entityManager,
-            BuildRecordRepository buildRecordRepository) {
+            BuildRecordRepository buildRecordRepository,
+            BuildConfigurationAuditedCache cache) {
         this.entityManager = entityManager;
         this.buildRecordRepository = buildRecordRepository;
+        this.cache = cache;
     }
 
     @Override
@@ -105,8 +110,21 @@ public class BuildConfigurationAuditedRepositoryImpl implements BuildConfigurati
         return BuildConfigurationAudited.fromBuildConfiguration(buildConfiguration, revisionEntity.getId());
     }
 
+    /**
+     * Initializes the audited state, so that the revision can be cached. The associations, which are not audited, are
+     * found again in the session of the caller by the cache.
+     */
+    private static void initialize(BuildConfiguration buildConfiguration) {
+        // preload generic parameters
+        buildConfiguration.getGenericParameters().forEach((k, v) -> k.equals(null));
+    }
+
     @Override
     public BuildConfigurationAudited queryById(IdRev idRev) {
+        return cache.get(idRev, this::loadById, entityManager::find);
+    }
+
+    private BuildConfigurationAudited loadById(IdRev idRev) {
         logger.trace("Querying for BuildConfigurationAudited.idRev: {}.", idRev);
         BuildConfiguration buildConfiguration = AuditReaderFactory.get(entityManager)
                 .find(BuildConfiguration.class, idRev.getId(), idRev.getRev());
@@ -115,27 +133,26 @@ public class BuildConfigurationAuditedRepositoryImpl implements BuildConfigurati
             return null;
         }
 
-        // preload generic parameters
-        buildConfiguration.getGenericParameters().forEach((k, v) -> k.equals(null));
+        initialize(buildConfiguration);
 
         return BuildConfigurationAudited.fromBuildConfiguration(buildConfiguration, idRev.getRev());
     }
 
     @Override
     public Map<IdRev, BuildConfigurationAudited> queryById(Set<IdRev> idRevs) {
-        logger.trace("Querying for BuildConfigurationAudited.idRevs: {}.", idRevs);
         if (idRevs.isEmpty()) {
             return Map.of();
         }
+        return cache.getAll(idRevs, this::loadByIds, entityManager::find);
+    }
 
-        List<String> idRevConcatenated = idRevs.stream()
-                .map(idRev -> idRev.getId() + "-" + idRev.getRev())
-                .collect(Collectors.toList());
+    private Map<IdRev, BuildConfigurationAudited> loadByIds(Set<IdRev> idRevs) {
+        logger.trace("Querying for BuildConfigurationAudited.idRevs: {}.", idRevs);
 
         // WORKAROUND: as I cannot concatenate AuditEntity property to match
-        // `AuditEntity.property("id")-AuditEntity.property("rev")` in idRevConcatenated list
+        // `AuditEntity.property("id")-AuditEntity.property("rev")` in idRevs set
         // I can query all BuildConfigurationAudited with the only id and later on filter id and rev
-        List<Integer> bcaRevIds = idRevs.stream().map(IdRev::getRev).collect(Collectors.toList());
+        Set<Integer> bcaRevIds = idRevs.stream().map(IdRev::getRev).collect(Collectors.toCollection(HashSet::new));
         // Getting all revisions of BuildConfiguration with specified list of IDs
         List<Object[]> result = AuditReaderFactory.get(entityManager)
                 .createQuery()
@@ -147,12 +164,8 @@ public class BuildConfigurationAuditedRepositoryImpl implements BuildConfigurati
         return result.stream().filter(res -> {
             BuildConfiguration buildConfiguration = (BuildConfiguration) res[0];
             DefaultRevisionEntity revisionEntity = (DefaultRevisionEntity) res[1];
-            return idRevConcatenated.contains(buildConfiguration.getId() + "-" + revisionEntity.getId());
-        }).peek(res -> {
-            BuildConfiguration buildConfiguration = (BuildConfiguration) res[0];
-            // preload generic parameters
-            buildConfiguration.getGenericParameters().forEach((k, v) -> k.equals(null));
-        }).map(res -> {
+            return idRevs.contains(new IdRev(buildConfiguration.getId(), revisionEntity.getId()));
+        }).peek(res -> initialize((BuildConfiguration) res[0])).map(res -> {
             BuildConfiguration buildConfiguration = (BuildConfiguration) res[0];
             DefaultRevisionEntity revisionEntity = (DefaultRevisionEntity) res[1];
             return BuildConfigurationAudited.fromBuildConfiguration(buildConfiguration, revisionEntity.getId());
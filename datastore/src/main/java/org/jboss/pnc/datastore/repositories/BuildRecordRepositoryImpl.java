@@ -17,8 +17,13 @@
  */
 package org.jboss.pnc.datastore.repositories;
 
+import com.google.common.collect.Lists;
 import org.jboss.pnc.api.enums.AlignmentPreference;
+import org.jboss.pnc.common.pnc.LongBase32IdConverter;
+import org.jboss.pnc.common.util.TimeUtils;
 import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
+import org.jboss.pnc.dto.insights.BuildRecordInsights;
+import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.model.Artifact;
 import org.jboss.pnc.model.Artifact_;
 import org.jboss.pnc.model.Base32LongID;
@@ -52,9 +57,14 @@ import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Root;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -73,8 +83,22 @@ import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.witho
 public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, Base32LongID>
         implements BuildRecordRepository {
 
+    private static final String INSIGHTS_SELECT = "SELECT buildrecord_id, buildcontentid, submittime, starttime, endtime,"
+            + " lastupdatetime, submit_year, submit_month, submit_quarter,"
+            + " status, temporarybuild, autoalign, brewpullactive, buildtype,"
+            + " executionrootname, executionrootversion, user_id, username,"
+            + " buildconfiguration_id, buildconfiguration_rev, buildconfiguration_name,"
+            + " buildconfigsetrecord_id, productmilestone_id, productmilestone_version,"
+            + " project_id, project_name, productversion_id, product_version, product_id, product_name"
+            + " FROM _archived_buildrecords";
+
     private static final Logger logger = LoggerFactory.getLogger(BuildRecordRepositoryImpl.class);
 
+    /**
+     * Partition the IN constraints of the bulk queries by this size to keep the number of query parameters bounded.
+     */
+    private static final int QUERY_PARTITION_SIZE = 1000;
+
     private BuildConfigurationAuditedRepository buildConfigurationAuditedRepository;
 
     /**
@@ -122,6 +146,34 @@ public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, B
         }
     }
 
+    @Override
+    public List<BuildRecord> findByIdsFetchProperties(Collection<Base32LongID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<BuildRecord> buildRecords = new ArrayList<>();
+        for (List<Base32LongID> partition : Lists.partition(new ArrayList<>(ids), QUERY_PARTITION_SIZE)) {
+            TypedQuery<BuildRecord> query = entityManager.createQuery(
+                    "select distinct br from BuildRecord br "
+                            + "left join fetch br.productMilestone left join fetch br.buildConfigSetRecord left join fetch br.user "
+                            + "where br.id in (:ids)",
+                    BuildRecord.class);
+            query.setParameter("ids", partition);
+            buildRecords.addAll(query.getResultList());
+        }
+
+        Set<IdRev> idRevs = buildRecords.stream()
+                .map(BuildRecord::getBuildConfigurationAuditedIdRev)
+                .collect(Collectors.toSet());
+        Map<IdRev, BuildConfigurationAudited> buildConfigurationAuditeds = buildConfigurationAuditedRepository
+                .queryById(idRevs);
+        for (BuildRecord buildRecord : buildRecords) {
+            buildRecord.setBuildConfigurationAudited(
+                    buildConfigurationAuditeds.get(buildRecord.getBuildConfigurationAuditedIdRev()));
+        }
+        return buildRecords;
+    }
+
     private void fetchBuildConfigurationAudited(BuildRecord buildRecord) {
         Integer revision = buildRecord.getBuildConfigurationRev();
         BuildConfigurationAudited buildConfigurationAudited = buildConfigurationAuditedRepository
@@ -270,6 +322,46 @@ public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, B
         return query.getResultList();
     }
 
+    @Override
+    public List<BuildRecord> getLatestSuccessfulBuildRecordsOfRevisions(Collection<Integer> configurationIds) {
+        if (configurationIds == null || configurationIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<BuildRecord> buildRecords = new ArrayList<>();
+        for (List<Integer> partition : Lists.partition(new ArrayList<>(configurationIds), QUERY_PARTITION_SIZE)) {
+            TypedQuery<BuildRecord> query = entityManager.createQuery(
+                    "SELECT br FROM BuildRecord br WHERE br.status = :status AND br.buildConfigurationId IN (:ids)"
+                            + " AND br.submitTime = (SELECT max(latest.submitTime) FROM BuildRecord latest"
+                            + "   WHERE latest.buildConfigurationId = br.buildConfigurationId"
+                            + "   AND latest.buildConfigurationRev = br.buildConfigurationRev"
+                            + "   AND latest.temporaryBuild = br.temporaryBuild AND latest.status = :status)",
+                    BuildRecord.class);
+            query.setParameter("status", BuildStatus.SUCCESS);
+            query.setParameter("ids", partition);
+            buildRecords.addAll(query.getResultList());
+        }
+        return buildRecords;
+    }
+
+    @Override
+    public Map<Base32LongID, Set<BuildRecord>> getBuildsProducingDependencies(Collection<Base32LongID> buildIds) {
+        if (buildIds == null || buildIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Base32LongID, Set<BuildRecord>> producers = new HashMap<>();
+        for (List<Base32LongID> partition : Lists.partition(new ArrayList<>(buildIds), QUERY_PARTITION_SIZE)) {
+            TypedQuery<Object[]> query = entityManager.createQuery(
+                    "SELECT DISTINCT br.id, producer FROM BuildRecord br JOIN br.dependencies dependency"
+                            + " JOIN dependency.buildRecord producer WHERE br.id IN (:ids)",
+                    Object[].class);
+            query.setParameter("ids", partition);
+            for (Object[] row : query.getResultList()) {
+                producers.computeIfAbsent((Base32LongID) row[0], id -> new HashSet<>()).add((BuildRecord) row[1]);
+            }
+        }
+        return producers;
+    }
+
     @Override
     public Set<BuildRecord> findByBuiltArtifacts(Set<Integer> artifactsIds) {
         if (artifactsIds == null || artifactsIds.isEmpty()) {
@@ -289,21 +381,81 @@ public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, B
     }
 
     @Override
-    public List<Object[]> getAllBuildRecordInsightsNewerThanTimestamp(Date lastupdatetime, int pageSize, int offset) {
+    public List<BuildRecordInsights> getAllBuildRecordInsightsNewerThanTimestamp(
+            Date lastupdatetime,
+            int pageSize,
+            int offset) {
         Query query = entityManager.createNativeQuery(
-                "SELECT buildrecord_id, buildcontentid, submittime, starttime, endtime, lastupdatetime,"
-                        + " submit_year, submit_month, submit_quarter,"
-                        + " status, temporarybuild, autoalign, brewpullactive, buildtype,"
-                        + " executionrootname, executionrootversion, user_id, username,"
-                        + " buildconfiguration_id, buildconfiguration_rev, buildconfiguration_name,"
-                        + " buildconfigsetrecord_id, productmilestone_id, productmilestone_version,"
-                        + " project_id, project_name, productversion_id, product_version, product_id, product_name"
-                        + " FROM _archived_buildrecords WHERE lastupdatetime > :lastupdatetime "
-                        + " ORDER BY lastupdatetime ASC LIMIT :pageSize OFFSET :offset");
+                INSIGHTS_SELECT + " WHERE lastupdatetime > :lastupdatetime "
+                        + " ORDER BY lastupdatetime ASC, buildrecord_id ASC LIMIT :pageSize OFFSET :offset");
         query.setParameter("lastupdatetime", lastupdatetime);
         query.setParameter("pageSize", pageSize);
         query.setParameter("offset", offset);
-        return query.getResultList();
+        return toBuildRecordInsights(query.getResultList());
+    }
+
+    @Override
+    public List<BuildRecordInsights> getBuildRecordInsightsAfter(Date lastupdatetime, Long buildId, int limit) {
+        Query query;
+        if (buildId == null) {
+            query = entityManager.createNativeQuery(
+                    INSIGHTS_SELECT + " WHERE lastupdatetime > :lastupdatetime "
+                            + " ORDER BY lastupdatetime ASC, buildrecord_id ASC LIMIT :limit");
+        } else {
+            query = entityManager.createNativeQuery(
+                    // row-value comparison, so that the seek is a single range scan of the (lastupdatetime, id) index
+                    INSIGHTS_SELECT + " WHERE (lastupdatetime, buildrecord_id) > (:lastupdatetime, :buildId) "
+                            + " ORDER BY lastupdatetime ASC, buildrecord_id ASC LIMIT :limit");
+            query.setParameter("buildId", buildId);
+        }
+        query.setParameter("lastupdatetime", lastupdatetime);
+        query.setParameter("limit", limit);
+        return toBuildRecordInsights(query.getResultList());
+    }
+
+    private static List<BuildRecordInsights> toBuildRecordInsights(List<Object[]> rows) {
+        List<BuildRecordInsights> insights = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long buildRecordId = ((Number) row[0]).longValue();
+            String buildContentId = (String) row[1];
+            insights.add(
+                    BuildRecordInsights.builder()
+                            .buildId(buildRecordId)
+                            .buildContentId(
+                                    buildContentId == null || buildContentId.isEmpty()
+                                            ? LongBase32IdConverter.toString(buildRecordId)
+                                            : buildContentId)
+                            .submitTime(TimeUtils.toInstant((Date) row[2]))
+                            .startTime(TimeUtils.toInstant((Date) row[3]))
+                            .endTime(TimeUtils.toInstant((Date) row[4]))
+                            .lastUpdateTime(TimeUtils.toInstant((Date) row[5]))
+                            .submitYear((Integer) row[6])
+                            .submitMonth((Integer) row[7])
+                            .submitQuarter((Integer) row[8])
+                            .status((String) row[9])
+                            .temporarybuild((Boolean) row[10])
+                            .autoalign((Boolean) row[11])
+                            .brewpullactive((Boolean) row[12])
+                            .buildType((String) row[13])
+                            .executionRootName((String) row[14])
+                            .executionRootVersion((String) row[15])
+                            .userId((Integer) row[16])
+                            .username((String) row[17])
+                            .buildConfigurationId((Integer) row[18])
+                            .buildConfigurationRev((Integer) row[19])
+                            .buildConfigurationName((String) row[20])
+                            .buildConfigSetRecordId(row[21] == null ? null : ((Number) row[21]).longValue())
+                            .productMilestoneId((Integer) row[22])
+                            .productMilestoneVersion((String) row[23])
+                            .projectId((Integer) row[24])
+                            .projectName((String) row[25])
+                            .productVersionId((Integer) row[26])
+                            .productVersionVersion((String) row[27])
+                            .productId((Integer) row[28])
+                            .productName((String) row[29])
+                            .build());
+        }
+        return insights;
     }
 
     @Override
@@ -357,6 +509,58 @@ public class BuildRecordRepositoryImpl extends AbstractRepository<BuildRecord, B
         return entityManager.createQuery(query).getResultList();
     }
 
+    @Override
+    public List<Tuple> getImplicitDependencies(Collection<Base32LongID> buildIds) {
+        if (buildIds == null || buildIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Tuple> tuples = new ArrayList<>();
+        for (List<Base32LongID> partition : Lists.partition(new ArrayList<>(buildIds), QUERY_PARTITION_SIZE)) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createQuery(Tuple.class);
+
+            Root<BuildRecord> builds = query.from(BuildRecord.class);
+            Join<BuildRecord, Artifact> dependencyArtifacts = builds.join(BuildRecord_.dependencies);
+            Join<Artifact, BuildRecord> dependencyBuilds = dependencyArtifacts.join(Artifact_.buildRecord);
+
+            query.multiselect(
+                    builds.get(BuildRecord_.id),
+                    dependencyBuilds.get(BuildRecord_.id),
+                    cb.count(dependencyArtifacts.get(Artifact_.id)).as(Integer.class));
+            query.where(builds.get(BuildRecord_.id).in(partition));
+            query.groupBy(builds.get(BuildRecord_.id), dependencyBuilds.get(BuildRecord_.id));
+
+            tuples.addAll(entityManager.createQuery(query).getResultList());
+        }
+        return tuples;
+    }
+
+    @Override
+    public List<Tuple> getImplicitDependants(Collection<Base32LongID> buildIds) {
+        if (buildIds == null || buildIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Tuple> tuples = new ArrayList<>();
+        for (List<Base32LongID> partition : Lists.partition(new ArrayList<>(buildIds), QUERY_PARTITION_SIZE)) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createQuery(Tuple.class);
+
+            Root<BuildRecord> builds = query.from(BuildRecord.class);
+            Join<BuildRecord, Artifact> builtArtifacts = builds.join(BuildRecord_.builtArtifacts);
+            Join<Artifact, BuildRecord> dependentBuilds = builtArtifacts.join(Artifact_.dependantBuildRecords);
+
+            query.multiselect(
+                    builds.get(BuildRecord_.id),
+                    dependentBuilds.get(BuildRecord_.id),
+                    cb.count(builtArtifacts.get(Artifact_.id)).as(Integer.class));
+            query.where(builds.get(BuildRecord_.id).in(partition));
+            query.groupBy(builds.get(BuildRecord_.id), dependentBuilds.get(BuildRecord_.id));
+
+            tuples.addAll(entityManager.createQuery(query).getResultList());
+        }
+        return tuples;
+    }
+
     @Override
     protected void joinFetch(Root<BuildRecord> root) {
         root.fetch(BuildRecord_.user, JoinType.LEFT);
@@ -23,8 +23,10 @@ import org.jboss.pnc.enums.ArtifactQuality;
 import org.jboss.pnc.enums.RepositoryType;
 import org.jboss.pnc.model.Artifact;
 import org.jboss.pnc.model.Artifact_;
+import org.jboss.pnc.model.Base32LongID;
 import org.jboss.pnc.model.BuildRecord;
 import org.jboss.pnc.model.BuildRecord_;
+import org.jboss.pnc.model.DeliverableAnalyzerDistribution_;
 import org.jboss.pnc.model.DeliverableAnalyzerOperation;
 import org.jboss.pnc.model.DeliverableAnalyzerOperation_;
 import org.jboss.pnc.model.DeliverableAnalyzerReport;
@@ -49,13 +51,16 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Root;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import static org.jboss.pnc.spi.datastore.predicates.DeliverableAnalyzerReportPredicates.notFromScratchAnalysis;
 import static org.jboss.pnc.spi.datastore.predicates.DeliverableAnalyzerReportPredicates.notFromDeletedAnalysis;
+import static org.jboss.pnc.spi.datastore.predicates.DeliverableAnalyzerReportPredicates.notFromIncompleteAnalysis;
 import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.notProducedInBuild;
 
 @Stateless
@@ -88,10 +93,12 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
                 // 2) only built delivered artifacts built in this milestone
                 // 3) delivered artifacts *not* from scratch analysis
                 // 4) delivered artifacts *not* from deleted analysis
+                // 5) delivered artifacts *not* from incomplete analysis
                 cb.equal(deliverableArtifactsMilestone.get(ProductMilestone_.id), productMilestoneId),
                 cb.equal(builtDeliveredArtifactsMilestone.get(ProductMilestone_.id), productMilestoneId),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -126,11 +133,13 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
                 // 3) only built delivered artifacts *not* built in this milestone
                 // 4) delivered artifacts *not* from scratch analysis
                 // 5) delivered artifacts *not* from deleted analysis
+                // 6) delivered artifacts *not* from incomplete analysis
                 cb.equal(deliverableArtifactsMilestone.get(ProductMilestone_.id), productMilestoneId),
                 cb.equal(builtDeliveredArtifactsProduct.get(Product_.id), deliverableArtifactsProduct.get(Product_.id)),
                 cb.notEqual(builtDeliveredArtifactsMilestone.get(ProductMilestone_.id), productMilestoneId),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -160,12 +169,14 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
                 // 2) only built delivered artifacts *not* from this product
                 // 3) delivered artifacts *not* from scratch analysis
                 // 4) delivered artifacts *not* from deleted analysis
+                // 5) delivered artifacts *not* from incomplete analysis
                 cb.equal(deliverableArtifactsMilestone.get(ProductMilestone_.id), productMilestoneId),
                 cb.notEqual(
                         builtDeliveredArtifactsVersion.get(ProductVersion_.product),
                         deliverableArtifactsProductVersion.get(ProductVersion_.product)),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -191,10 +202,12 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
                 // 2) only built delivered artifacts with no milestone
                 // 3) delivered artifacts *not* from scratch analysis
                 // 4) delivered artifacts *not* from deleted analysis
+                // 5) delivered artifacts *not* from incomplete analysis
                 cb.equal(deliverableArtifactsMilestone.get(ProductMilestone_.id), productMilestoneId),
                 cb.isNull(deliveredArtifactsBuild.get(BuildRecord_.productMilestone)),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -219,10 +232,12 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
                 // 2) only delivered artifacts which were *not* built
                 // 3) delivered artifacts *not* from scratch analysis
                 // 4) delivered artifacts *not* from deleted analysis
+                // 5) delivered artifacts *not* from incomplete analysis
                 cb.equal(deliverableArtifactsMilestone.get(ProductMilestone_.id), productMilestoneId),
                 notProducedInBuild(cb, deliveredArtifacts),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -247,7 +262,8 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
         query.where(
                 cb.equal(deliverableArtifactsMilestone.get(ProductMilestone_.id), productMilestoneId),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
         query.groupBy(deliveredArtifacts.get(Artifact_.artifactQuality));
 
         List<Tuple> tuples = entityManager.createQuery(query).getResultList();
@@ -275,7 +291,8 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
         query.where(
                 cb.equal(deliverableArtifactsMilestone.get(ProductMilestone_.id), productMilestoneId),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
         query.groupBy(targetRepositories.get(TargetRepository_.repositoryType));
 
         List<Tuple> tuples = entityManager.createQuery(query).getResultList();
@@ -317,7 +334,8 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
         query.where(
                 cb.equal(deliverableArtifactsProductVersion.get(ProductVersion_.id), productVersionId),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -345,7 +363,8 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
         query.where(
                 cb.equal(deliverableArtifactsProductVersion.get(ProductVersion_.id), productVersionId),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -375,10 +394,12 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
                 // 2) delivered built artifacts, which were built in this version
                 // 3) delivered artifacts *not* from scratch analysis
                 // 4) delivered artifacts *not* from deleted analysis
+                // 5) delivered artifacts *not* from incomplete analysis
                 cb.equal(deliverableArtifactsProductVersion.get(ProductVersion_.id), productVersionId),
                 cb.equal(builtDeliveredArtifactProductVersionId, productVersionId),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -409,13 +430,15 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
                 // 3) delivered built artifacts, which are from other version
                 // 4) delivered artifacts *not* from scratch analysis
                 // 5) delivered artifacts *not* from deleted analysis
+                // 6) delivered artifacts *not* from incomplete analysis
                 cb.equal(deliverableArtifactsProductVersion.get(ProductVersion_.id), productVersionId),
                 cb.equal(
                         deliveredArtifactsBuildProductVersion.get(ProductVersion_.product),
                         deliverableArtifactsProductVersion.get(ProductVersion_.product)),
                 cb.notEqual(deliveredArtifactsBuildProductVersion.get(ProductVersion_.id), productVersionId),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -445,12 +468,14 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
                 // 2) delivered built artifacts, which were built by other products
                 // 3) delivered artifacts *not* from scratch analysis
                 // 4) delivered artifacts *not* from deleted analysis
+                // 5) delivered artifacts *not* from incomplete analysis
                 cb.equal(deliverableArtifactsProductVersion.get(ProductVersion_.id), productVersionId),
                 cb.notEqual(
                         deliveredArtifactsBuildProductVersion.get(ProductVersion_.product),
                         deliverableArtifactsProductVersion.get(ProductVersion_.product)),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -477,10 +502,12 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
                 // 2) delivered built artifacts, which were built in no milestone
                 // 3) delivered artifacts *not* from scratch analysis
                 // 4) delivered artifacts *not* from deleted analysis
+                // 5) delivered artifacts *not* from incomplete analysis
                 cb.equal(deliverableArtifactsProductVersion.get(ProductVersion_.id), productVersionId),
                 cb.isNull(deliveredArtifactsBuild.get(BuildRecord_.productMilestone)),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -506,10 +533,12 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
                 // 2) delivered artifacts, which were not built
                 // 3) delivered artifacts *not* from scratch analysis
                 // 4) delivered artifacts *not* from deleted analysis
+                // 5) delivered artifacts *not* from incomplete analysis
                 cb.equal(deliverableArtifactsProductVersion.get(ProductVersion_.id), productVersionId),
                 notProducedInBuild(cb, deliveredArtifacts),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
 
         return entityManager.createQuery(query).getSingleResult();
     }
@@ -541,7 +570,8 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
         query.where(
                 deliverableArtifactsMilestone.get(ProductMilestone_.id).in(milestoneIds),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
         query.groupBy(deliverableArtifactsMilestone.get(ProductMilestone_.id), artifactQuality);
 
         return entityManager.createQuery(query).getResultList();
@@ -574,9 +604,37 @@ public class DeliverableArtifactRepositoryImpl extends AbstractRepository<Delive
         query.where(
                 deliverableArtifactsMilestone.get(ProductMilestone_.id).in(milestoneIds),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
         query.groupBy(deliverableArtifactsMilestone.get(ProductMilestone_.id), repositoryType);
 
         return entityManager.createQuery(query).getResultList();
     }
+
+    @Override
+    public Set<Integer> getDeliveredArtifactIds(Base32LongID reportId, Base32LongID distributionId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+
+        Root<DeliverableArtifact> deliverableArtifacts = query.from(DeliverableArtifact.class);
+        query.select(deliverableArtifacts.get(DeliverableArtifact_.artifact).get(Artifact_.id));
+        query.where(
+                cb.equal(
+                        deliverableArtifacts.get(DeliverableArtifact_.report).get(DeliverableAnalyzerReport_.id),
+                        reportId),
+                cb.equal(
+                        deliverableArtifacts.get(DeliverableArtifact_.distribution)
+                                .get(DeliverableAnalyzerDistribution_.id),
+                        distributionId));
+
+        return new HashSet<>(entityManager.createQuery(query).getResultList());
+    }
+
+    @Override
+    public void persist(Collection<DeliverableArtifact> deliverableArtifacts) {
+        // the licenses are persisted by cascade, hibernate.order_inserts groups the inserts of each table in batches
+        for (DeliverableArtifact deliverableArtifact : deliverableArtifacts) {
+            entityManager.persist(deliverableArtifact);
+        }
+    }
 }
@@ -39,6 +39,7 @@ import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneRepository;
 import javax.ejb.Stateless;
 import javax.persistence.Tuple;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.AbstractQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
@@ -53,6 +54,7 @@ import java.util.stream.Collectors;
 
 import static org.jboss.pnc.spi.datastore.predicates.DeliverableAnalyzerReportPredicates.notFromScratchAnalysis;
 import static org.jboss.pnc.spi.datastore.predicates.DeliverableAnalyzerReportPredicates.notFromDeletedAnalysis;
+import static org.jboss.pnc.spi.datastore.predicates.DeliverableAnalyzerReportPredicates.notFromIncompleteAnalysis;
 
 @Stateless
 public class ProductMilestoneRepositoryImpl extends AbstractRepository<ProductMilestone, Integer>
@@ -108,6 +110,7 @@ public class ProductMilestoneRepositoryImpl extends AbstractRepository<ProductMi
         query.where(
                 getMavenOrNpmArtifactsInMilestonesPredicate(
                         cb,
+                        query,
                         targetRepositories,
                         productMilestones,
                         deliverableAnalyzerReports,
@@ -135,6 +138,7 @@ public class ProductMilestoneRepositoryImpl extends AbstractRepository<ProductMi
 
     private Predicate getMavenOrNpmArtifactsInMilestonesPredicate(
             CriteriaBuilder cb,
+            AbstractQuery<?> query,
             Path<TargetRepository> targetRepositories,
             Path<ProductMilestone> productMilestones,
             Path<DeliverableAnalyzerReport> deliverableAnalyzerReports,
@@ -146,7 +150,8 @@ public class ProductMilestoneRepositoryImpl extends AbstractRepository<ProductMi
                 isMavenOrNpmArtifact,
                 productMilestones.get(ProductMilestone_.id).in(milestoneIds),
                 notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                notFromDeletedAnalysis(cb, deliverableAnalyzerReports));
+                notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReports));
     }
 
     @Override
@@ -181,7 +186,8 @@ public class ProductMilestoneRepositoryImpl extends AbstractRepository<ProductMi
                 cb.and(
                         cb.equal(productMilestonesInner.get(ProductMilestone_.id), milestoneId),
                         notFromScratchAnalysis(cb, deliverableAnalyzerReportsInner),
-                        notFromDeletedAnalysis(cb, deliverableAnalyzerReportsInner)));
+                        notFromDeletedAnalysis(cb, deliverableAnalyzerReportsInner),
+                        notFromIncompleteAnalysis(cb, subquery, deliverableAnalyzerReportsInner)));
 
         query.multiselect(
                 productMilestonesOuter.get(ProductMilestone_.id),
@@ -191,7 +197,8 @@ public class ProductMilestoneRepositoryImpl extends AbstractRepository<ProductMi
                         cb.notEqual(productMilestonesOuter.get(ProductMilestone_.id), milestoneId),
                         artifactsOuter.get(Artifact_.id).in(subquery),
                         notFromScratchAnalysis(cb, deliverableAnalyzerReportsOuter),
-                        notFromDeletedAnalysis(cb, deliverableAnalyzerReportsOuter)));
+                        notFromDeletedAnalysis(cb, deliverableAnalyzerReportsOuter),
+                        notFromIncompleteAnalysis(cb, query, deliverableAnalyzerReportsOuter)));
         query.groupBy(productMilestonesOuter.get(ProductMilestone_.id));
 
         return entityManager.createQuery(query).getResultList();
@@ -0,0 +1,111 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import org.jboss.pnc.enums.RepositoryType;
+import org.jboss.pnc.model.TargetRepository;
+import org.jboss.pnc.model.TargetRepository_;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of the {@link TargetRepository}s keyed by their identifier and path. The identifier, path and type of a target
+ * repository can't be updated, so the ids are cached without any invalidation on every node of the cluster, a deleted
+ * target repository is evicted when it's not found by its id.
+ *
+ * Only the target repositories shared by the builds are cached, the temporary and the generic proxy repositories are
+ * created per build and caching them would grow the cache forever. The cache is warmed with the shared repositories at
+ * startup.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class TargetRepositoryIdCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TargetRepositoryIdCache.class);
+
+    @Inject
+    private EntityManager entityManager;
+
+    private final Map<TargetRepository.IdentifierPath, Integer> ids = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void warmUp() {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<TargetRepository> root = query.from(TargetRepository.class);
+        query.multiselect(
+                root.get(TargetRepository_.id),
+                root.get(TargetRepository_.identifier),
+                root.get(TargetRepository_.repositoryPath));
+        query.where(
+                builder.isFalse(root.get(TargetRepository_.temporaryRepo)),
+                builder.notEqual(root.get(TargetRepository_.repositoryType), RepositoryType.GENERIC_PROXY));
+
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            TargetRepository.IdentifierPath identifierPath = new TargetRepository.IdentifierPath(
+                    tuple.get(1, String.class),
+                    tuple.get(2, String.class));
+            ids.put(identifierPath, tuple.get(0, Integer.class));
+        }
+        logger.info("Warmed up the cache of target repository ids with {} repositories.", ids.size());
+    }
+
+    /**
+     * @return id of the target repository or null if not cached
+     */
+    public Integer get(TargetRepository.IdentifierPath identifierPath) {
+        return ids.get(identifierPath);
+    }
+
+    /**
+     * Caches the id of the target repository unless it's a repository created per build.
+     */
+    public void put(TargetRepository targetRepository) {
+        if (isShared(targetRepository)) {
+            ids.put(targetRepository.getIdentifierPath(), targetRepository.getId());
+        }
+    }
+
+    public void evict(TargetRepository.IdentifierPath identifierPath) {
+        ids.remove(identifierPath);
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    static boolean isShared(TargetRepository targetRepository) {
+        return !Boolean.TRUE.equals(targetRepository.getTemporaryRepo())
+                && targetRepository.getRepositoryType() != RepositoryType.GENERIC_PROXY;
+    }
+}
@@ -17,13 +17,25 @@
  */
 package org.jboss.pnc.datastore.repositories;
 
+import org.hibernate.Session;
 import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
 import org.jboss.pnc.model.TargetRepository;
 import org.jboss.pnc.spi.datastore.predicates.TargetRepositoryPredicates;
 import org.jboss.pnc.spi.datastore.repositories.TargetRepositoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.ejb.Stateless;
+import javax.inject.Inject;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -33,6 +45,20 @@ import java.util.Set;
 public class TargetRepositoryRepositoryImpl extends AbstractRepository<TargetRepository, Integer>
         implements TargetRepositoryRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(TargetRepositoryRepositoryImpl.class);
+
+    private static final String INSERT_TARGET_REPOSITORY = "INSERT INTO targetrepository"
+            + " (id, identifier, repositorypath, repositorytype, temporaryrepo)"
+            + " VALUES (nextval('" + TargetRepository.SEQUENCE_NAME + "'), ?, ?, ?, ?)"
+            + " ON CONFLICT (identifier, repositorypath) DO NOTHING";
+
+    private static final Comparator<TargetRepository> INSERT_ORDER = Comparator
+            .comparing(TargetRepository::getIdentifier)
+            .thenComparing(TargetRepository::getRepositoryPath);
+
+    @Inject
+    private TargetRepositoryIdCache idCache;
+
     public TargetRepositoryRepositoryImpl() {
         super(TargetRepository.class, Integer.class);
     }
@@ -46,4 +72,91 @@ public class TargetRepositoryRepositoryImpl extends AbstractRepository<TargetRep
     public List<TargetRepository> queryByIdentifiersAndPaths(Set<TargetRepository.IdentifierPath> identifiersAndPaths) {
         return queryWithPredicates(TargetRepositoryPredicates.withIdentifierAndPathIn(identifiersAndPaths));
     }
+
+    /**
+     * Known target repositories are looked up by their cached ids, which are served by the second-level cache. The rest
+     * is selected in one query and the missing ones are inserted at once.
+     */
+    @Override
+    public Map<TargetRepository.IdentifierPath, TargetRepository> getOrSave(
+            Collection<TargetRepository> targetRepositories) {
+        Map<TargetRepository.IdentifierPath, TargetRepository> requested = new LinkedHashMap<>();
+        for (TargetRepository targetRepository : targetRepositories) {
+            requested.putIfAbsent(targetRepository.getIdentifierPath(), targetRepository);
+        }
+
+        Map<TargetRepository.IdentifierPath, TargetRepository> stored = new HashMap<>();
+        Set<TargetRepository.IdentifierPath> uncached = new HashSet<>();
+        for (TargetRepository.IdentifierPath identifierPath : requested.keySet()) {
+            Integer id = idCache.get(identifierPath);
+            TargetRepository targetRepository = id == null ? null : entityManager.find(TargetRepository.class, id);
+            if (targetRepository != null) {
+                stored.put(identifierPath, targetRepository);
+            } else {
+                if (id != null) {
+                    idCache.evict(identifierPath);
+                }
+                uncached.add(identifierPath);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return stored;
+        }
+
+        queryAndCache(uncached, stored);
+        List<TargetRepository> missing = new ArrayList<>();
+        for (TargetRepository.IdentifierPath identifierPath : uncached) {
+            if (!stored.containsKey(identifierPath)) {
+                missing.add(requested.get(identifierPath));
+            }
+        }
+        if (missing.isEmpty()) {
+            return stored;
+        }
+
+        logger.debug("Saving {} target repositories.", missing.size());
+        if (isPostgreSQL()) {
+            insert(missing);
+            // the target repositories inserted concurrently by other transactions are selected as well
+            Set<TargetRepository.IdentifierPath> missingKeys = new HashSet<>();
+            missing.forEach(targetRepository -> missingKeys.add(targetRepository.getIdentifierPath()));
+            queryAndCache(missingKeys, stored);
+        } else {
+            for (TargetRepository targetRepository : missing) {
+                TargetRepository saved = save(targetRepository);
+                stored.put(saved.getIdentifierPath(), saved);
+                idCache.put(saved);
+            }
+        }
+        return stored;
+    }
+
+    private void queryAndCache(
+            Set<TargetRepository.IdentifierPath> identifiersAndPaths,
+            Map<TargetRepository.IdentifierPath, TargetRepository> stored) {
+        for (TargetRepository targetRepository : queryByIdentifiersAndPaths(identifiersAndPaths)) {
+            stored.put(targetRepository.getIdentifierPath(), targetRepository);
+            idCache.put(targetRepository);
+        }
+    }
+
+    /**
+     * Inserts the target repositories by one JDBC batch. They are inserted in a stable order, so that concurrent
+     * transactions inserting the same target repositories wait for each other instead of deadlocking.
+     */
+    private void insert(List<TargetRepository> targetRepositories) {
+        targetRepositories.sort(INSERT_ORDER);
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TARGET_REPOSITORY)) {
+                for (TargetRepository targetRepository : targetRepositories) {
+                    statement.setString(1, targetRepository.getIdentifier());
+                    statement.setString(2, targetRepository.getRepositoryPath());
+                    statement.setString(3, targetRepository.getRepositoryType().name());
+                    statement.setBoolean(4, targetRepository.getTemporaryRepo());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
 }
@@ -17,11 +17,17 @@
  */
 package org.jboss.pnc.datastore.repositories.internal;
 
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
 import org.jboss.pnc.model.GenericEntity;
+import org.jboss.pnc.spi.datastore.repositories.api.CursorPage;
+import org.jboss.pnc.spi.datastore.repositories.api.PageCursor;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.KeysetSortInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,12 +35,16 @@ import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
 import javax.persistence.NoResultException;
+import javax.persistence.Tuple;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Selection;
 import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -44,6 +54,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toMap;
@@ -60,6 +72,10 @@ public abstract class AbstractRepository<T extends GenericEntity<ID>, ID extends
         implements Repository<T, ID> {
     private static final Logger log = LoggerFactory.getLogger(AbstractRepository.class);
 
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
     @Inject
     protected EntityManager entityManager;
 
@@ -158,6 +174,42 @@ public abstract class AbstractRepository<T extends GenericEntity<ID>, ID extends
         return (int) countAsLong;
     }
 
+    @Override
+    public int estimateCount() {
+        String table = ((AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMetamodel()
+                .entityPersister(entityClass)).getTableName();
+        if (!isPostgreSQL()) {
+            return -1;
+        }
+        Long estimate = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            // the planner estimate is based on the table statistics, the table is not scanned
+            try (Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) SELECT 1 FROM " + table)) {
+                if (resultSet.next()) {
+                    Matcher matcher = PLAN_ROWS.matcher(resultSet.getString(1));
+                    if (matcher.find()) {
+                        return Long.valueOf(matcher.group(1));
+                    }
+                }
+                return null;
+            }
+        });
+        if (estimate == null) {
+            return -1;
+        }
+        return (int) Math.min(estimate, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return true if the database supports the PostgreSQL specific statements
+     */
+    protected boolean isPostgreSQL() {
+        return entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName()));
+    }
+
     protected List<ID> queryIdsWithPredicates(Function<Root<T>, Selection<ID>> idSelector, Predicate<T>... predicates) {
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<ID> query = builder.createQuery(idClass);
@@ -188,6 +240,46 @@ public abstract class AbstractRepository<T extends GenericEntity<ID>, ID extends
         return findAll(pageInfo, sortInfo, predicates);
     }
 
+    @Override
+    public CursorPage<T> queryWithPredicates(
+            PageCursor pageCursor,
+            int pageSize,
+            SortInfo<T> sortInfo,
+            Predicate<T>... predicates) {
+        if (pageSize == 0) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+        if (!(sortInfo instanceof KeysetSortInfo)) {
+            sortInfo = new KeysetSortInfo<>(sortInfo);
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+
+        Root<T> root = applySpecificationToCriteria(query, predicates);
+        KeysetPagination<T> keyset = new KeysetPagination<>(sortInfo, root);
+        if (!pageCursor.isFirst()) {
+            javax.persistence.criteria.Predicate after = keyset.after(pageCursor, builder);
+            javax.persistence.criteria.Predicate restriction = query.getRestriction();
+            query.where(restriction == null ? after : builder.and(restriction, after));
+        }
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root);
+        selections.addAll(keyset.getExpressions());
+        query.multiselect(selections);
+        query.orderBy(keyset.toOrders(builder));
+
+        // one row more to find out if there is a next page
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(pageSize + 1).getResultList();
+        boolean hasNextPage = rows.size() > pageSize;
+        if (hasNextPage) {
+            rows = rows.subList(0, pageSize);
+        }
+        List<T> content = rows.stream().map(row -> row.get(0, entityClass)).collect(Collectors.toList());
+        PageCursor nextPageCursor = hasNextPage ? keyset.cursorOf(rows.get(rows.size() - 1)) : null;
+        return new CursorPage<>(content, nextPageCursor);
+    }
+
     /**
      * @param managedNonOwning current version of entity from DB (MUST be Hibernate managed (due to LAZY fetching))
      * @param updatedNonOwning proposed version of entity from request
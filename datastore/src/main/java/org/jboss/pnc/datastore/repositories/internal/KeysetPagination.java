@@ -0,0 +1,245 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories.internal;
+
+import org.jboss.pnc.model.GenericEntity;
+import org.jboss.pnc.spi.datastore.repositories.api.OrderInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.PageCursor;
+import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates the {@link PageCursor} of the keyset pagination to the criteria predicate selecting the rows after the
+ * cursor position, and the sort key values of the last row of a page back to the cursor.
+ *
+ * The predicate is the lexicographic comparison (k1, k2, ..., id) > (v1, v2, ..., vId) expanded to
+ * {@code k1 > v1 OR (k1 = v1 AND k2 > v2) OR ...}, as the row value comparison is not available in the criteria API and
+ * it doesn't support mixed directions. Null values are ordered as in PostgreSQL: last in the ascending order and first
+ * in the descending order.
+ */
+class KeysetPagination<T extends GenericEntity<?>> {
+
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_WRAPPERS = Map.of(
+            int.class,
+            Integer.class,
+            long.class,
+            Long.class,
+            short.class,
+            Short.class,
+            byte.class,
+            Byte.class,
+            double.class,
+            Double.class,
+            float.class,
+            Float.class,
+            boolean.class,
+            Boolean.class);
+
+    private final List<SortKey> keys = new ArrayList<>();
+
+    KeysetPagination(SortInfo<T> sortInfo, Root<T> root) {
+        for (OrderInfo<T> order : sortInfo.orders()) {
+            SortKey key = new SortKey(order.getExpression(root), order.getDirection());
+            if (!isSupported(key.type)) {
+                throw new IllegalArgumentException("Keyset pagination doesn't support sorting by " + key.type);
+            }
+            keys.add(key);
+        }
+    }
+
+    List<Expression<?>> getExpressions() {
+        List<Expression<?>> expressions = new ArrayList<>(keys.size());
+        keys.forEach(key -> expressions.add(key.expression));
+        return expressions;
+    }
+
+    List<Order> toOrders(CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>(keys.size());
+        for (SortKey key : keys) {
+            orders.add(
+                    key.direction == OrderInfo.SortingDirection.ASC ? cb.asc(key.expression)
+                            : cb.desc(key.expression));
+        }
+        return orders;
+    }
+
+    /**
+     * @return predicate matching the rows after the cursor position
+     * @throws IllegalArgumentException if the cursor doesn't match the sort keys
+     */
+    Predicate after(PageCursor cursor, CriteriaBuilder cb) {
+        List<String> values = cursor.getValues();
+        if (values.size() != keys.size()) {
+            throw new IllegalArgumentException("Page cursor doesn't match the sorting.");
+        }
+
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalPrefix = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            SortKey key = keys.get(i);
+            Object value = parse(values.get(i), key.type);
+
+            Predicate beyond = key.beyond(value, cb);
+            if (beyond != null) {
+                List<Predicate> alternative = new ArrayList<>(equalPrefix);
+                alternative.add(beyond);
+                alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+            }
+            equalPrefix.add(key.equalTo(value, cb));
+        }
+        return cb.or(alternatives.toArray(new Predicate[0]));
+    }
+
+    /**
+     * @param row row with the sort key values selected after the first element
+     */
+    PageCursor cursorOf(Tuple row) {
+        List<String> values = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            values.add(format(row.get(i + 1)));
+        }
+        return PageCursor.after(values);
+    }
+
+    static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Date) {
+            // keep the sub-millisecond precision of the database timestamps
+            Instant instant = value instanceof Timestamp ? ((Timestamp) value).toInstant()
+                    : Instant.ofEpochMilli(((Date) value).getTime());
+            return instant.toString();
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return value.toString();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static Object parse(String value, Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (type == String.class) {
+                return value;
+            } else if (type == Integer.class) {
+                return Integer.valueOf(value);
+            } else if (type == Long.class) {
+                return Long.valueOf(value);
+            } else if (type == Short.class) {
+                return Short.valueOf(value);
+            } else if (type == Byte.class) {
+                return Byte.valueOf(value);
+            } else if (type == Double.class) {
+                return Double.valueOf(value);
+            } else if (type == Float.class) {
+                return Float.valueOf(value);
+            } else if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            } else if (type == BigInteger.class) {
+                return new BigInteger(value);
+            } else if (type == Boolean.class) {
+                return Boolean.valueOf(value);
+            } else if (type == Instant.class) {
+                return Instant.parse(value);
+            } else if (type == java.sql.Date.class) {
+                return new java.sql.Date(Instant.parse(value).toEpochMilli());
+            } else if (Date.class.isAssignableFrom(type)) {
+                return Timestamp.from(Instant.parse(value));
+            } else if (type.isEnum()) {
+                return Enum.valueOf((Class<Enum>) type, value);
+            }
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor value: " + value, e);
+        }
+        throw new IllegalArgumentException("Keyset pagination doesn't support sorting by " + type);
+    }
+
+    private static boolean isSupported(Class<?> type) {
+        return type == String.class || Number.class.isAssignableFrom(type) || type == Boolean.class
+                || type == Instant.class || Date.class.isAssignableFrom(type) || type.isEnum();
+    }
+
+    private static class SortKey {
+        private final Expression<?> expression;
+        private final OrderInfo.SortingDirection direction;
+        private final Class<?> type;
+        private final boolean nullable;
+
+        SortKey(Expression<?> expression, OrderInfo.SortingDirection direction) {
+            this.expression = expression;
+            this.direction = direction;
+            Class<?> javaType = expression.getJavaType();
+            this.type = PRIMITIVE_WRAPPERS.getOrDefault(javaType, javaType);
+            this.nullable = !isMandatory(expression);
+        }
+
+        private static boolean isMandatory(Expression<?> expression) {
+            if (expression instanceof Path && ((Path<?>) expression).getModel() instanceof SingularAttribute) {
+                SingularAttribute<?, ?> attribute = (SingularAttribute<?, ?>) ((Path<?>) expression).getModel();
+                return !attribute.isOptional() || attribute.isId();
+            }
+            return false;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Predicate equalTo(Object value, CriteriaBuilder cb) {
+            return value == null ? cb.isNull(expression) : cb.equal(expression, value);
+        }
+
+        /**
+         * @return predicate matching the values ordered after the value, null if there are no such values
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Predicate beyond(Object value, CriteriaBuilder cb) {
+            Expression<Comparable> comparable = (Expression<Comparable>) expression;
+            if (direction == OrderInfo.SortingDirection.ASC) {
+                if (value == null) {
+                    return null;
+                }
+                Predicate greater = cb.greaterThan(comparable, (Comparable) value);
+                return nullable ? cb.or(greater, cb.isNull(expression)) : greater;
+            } else {
+                if (value == null) {
+                    return cb.isNotNull(expression);
+                }
+                return cb.lessThan(comparable, (Comparable) value);
+            }
+        }
+    }
+}
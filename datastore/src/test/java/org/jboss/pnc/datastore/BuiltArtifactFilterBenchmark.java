@@ -0,0 +1,176 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.jboss.pnc.enums.RepositoryType;
+import org.jboss.pnc.mock.repository.ArtifactRepositoryMock;
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.TargetRepository;
+import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the check for already built artifacts of a build result with and without the filter of built artifacts. The
+ * filter holds a million synthetic identifiers and the artifact repository simulates the latency of the query: a fixed
+ * round trip plus a cost per identifier passed by the filter. The query is skipped when no identifier passes.
+ *
+ * Not run as part of the test suite, run the {@link #main(String[])} method with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuiltArtifactFilterBenchmark {
+
+    private static final int BUILT_ARTIFACTS = 1_000_000;
+
+    private static final long ROUND_TRIP_MICROS = 1_000;
+
+    private static final long PER_IDENTIFIER_MICROS = 2;
+
+    private static final TargetRepository TARGET_REPOSITORY = TargetRepository.newBuilder()
+            .id(1)
+            .identifier("indy-maven")
+            .repositoryPath("/api/content/maven/hosted/pnc-builds/")
+            .repositoryType(RepositoryType.MAVEN)
+            .temporaryRepo(false)
+            .build();
+
+    @Param({ "100", "1000" })
+    public int artifactsPerBuild;
+
+    @Param({ "0", "1" })
+    public int alreadyBuilt;
+
+    @Param({ "false", "true" })
+    public boolean filterEnabled;
+
+    private List<Artifact> builtArtifacts;
+
+    private CountingFilter filter;
+
+    private DefaultDatastore datastore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filter = new CountingFilter(null);
+        if (filterEnabled) {
+            IdentifierBloomFilter identifiers = new IdentifierBloomFilter(2L * BUILT_ARTIFACTS, 0.001);
+            for (int i = 0; i < BUILT_ARTIFACTS; i++) {
+                identifiers.put(identifier(i));
+            }
+            System.out.printf(
+                    "%nFilter of %d identifiers: %d bits, %d hashes, fill ratio %.3f, false positives %.4f%n",
+                    identifiers.getInsertions(),
+                    identifiers.getBitCount(),
+                    identifiers.getHashCount(),
+                    identifiers.getFillRatio(),
+                    identifiers.getFalsePositiveProbability());
+            filter = new CountingFilter(identifiers);
+        }
+
+        builtArtifacts = new ArrayList<>(artifactsPerBuild);
+        for (int i = 0; i < artifactsPerBuild; i++) {
+            int index = i < alreadyBuilt ? i : BUILT_ARTIFACTS + i;
+            builtArtifacts.add(
+                    Artifact.builder()
+                            .identifier(identifier(index))
+                            .sha256(Integer.toHexString(index))
+                            .targetRepository(TARGET_REPOSITORY)
+                            .build());
+        }
+
+        datastore = new DefaultDatastore(
+                new SlowQueryArtifactRepository(),
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                filter);
+    }
+
+    @Benchmark
+    public Map<Artifact, String> checkForBuiltArtifacts() {
+        filter.passed = 0;
+        return datastore.checkForBuiltArtifacts(builtArtifacts);
+    }
+
+    private static String identifier(int i) {
+        return "org.jboss.pnc.synthetic:artifact-" + (i / 10) + ":jar:1.0." + (i % 10);
+    }
+
+    private static class CountingFilter extends BuiltArtifactFilter {
+
+        private int passed;
+
+        private CountingFilter(IdentifierBloomFilter identifiers) {
+            super(identifiers);
+        }
+
+        @Override
+        public boolean mightBeBuilt(String identifier) {
+            boolean mightBeBuilt = super.mightBeBuilt(identifier);
+            if (mightBeBuilt) {
+                passed++;
+            }
+            return mightBeBuilt;
+        }
+    }
+
+    private class SlowQueryArtifactRepository extends ArtifactRepositoryMock {
+
+        @Override
+        public List<Artifact> queryWithPredicates(Predicate<Artifact>... predicates) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(ROUND_TRIP_MICROS + PER_IDENTIFIER_MICROS * filter.passed);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.emptyList();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BuiltArtifactFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuiltArtifactFilterTest {
+
+    @Test
+    public void shouldReportEverythingAsPossiblyBuiltWhenDisabled() {
+        BuiltArtifactFilter filter = new BuiltArtifactFilter();
+
+        filter.put("org.jboss.pnc:built:jar:1.0");
+
+        assertThat(filter.isEnabled()).isFalse();
+        assertThat(filter.mightBeBuilt("org.jboss.pnc:built:jar:1.0")).isTrue();
+        assertThat(filter.mightBeBuilt("org.jboss.pnc:new:jar:1.0")).isTrue();
+        assertThat(filter.getStats()).isEmpty();
+    }
+
+    @Test
+    public void shouldSkipIdentifiersThatWereNotBuilt() {
+        BuiltArtifactFilter filter = new BuiltArtifactFilter(new IdentifierBloomFilter(1_000, 0.001));
+
+        filter.put("org.jboss.pnc:built:jar:1.0");
+
+        assertThat(filter.mightBeBuilt("org.jboss.pnc:built:jar:1.0")).isTrue();
+        assertThat(filter.mightBeBuilt("org.jboss.pnc:new:jar:1.0")).isFalse();
+        assertThat(filter.getStats().get("artifact.built-filter.insertion.count").getValue()).isEqualTo("1.0");
+        assertThat(filter.getStats().get("artifact.built-filter.skipped-check.count").getValue()).isEqualTo("1.0");
+        assertThat(filter.getStats().get("artifact.built-filter.possible-duplicate.count").getValue())
+                .isEqualTo("1.0");
+        assertThat(filter.getStats()).containsKey("artifact.built-filter.fill-ratio");
+    }
+}
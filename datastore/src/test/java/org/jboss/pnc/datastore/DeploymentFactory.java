@@ -91,7 +91,11 @@ public class DeploymentFactory {
                 .addAsLibrary(mockJar)
                 .addAsLibrary(modelJar, "model.jar");
 
-        addManifestDependencies(enterpriseArchive, "com.google.guava  export meta-inf");
+        addManifestDependencies(
+                enterpriseArchive,
+                "com.google.guava  export meta-inf",
+                "org.infinispan",
+                "org.infinispan.commons");
 
         logger.info("Deployment: {}", enterpriseArchive.toString(true));
 
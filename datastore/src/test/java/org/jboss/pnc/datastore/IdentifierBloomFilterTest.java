@@ -0,0 +1,83 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IdentifierBloomFilterTest {
+
+    @Test
+    public void shouldContainAllAddedIdentifiers() {
+        IdentifierBloomFilter filter = new IdentifierBloomFilter(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(identifier(i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(identifier(i))).as(identifier(i)).isTrue();
+        }
+        assertThat(filter.getInsertions()).isEqualTo(10_000);
+    }
+
+    @Test
+    public void shouldKeepFalsePositivesCloseToTarget() {
+        IdentifierBloomFilter filter = new IdentifierBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(identifier(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(identifier(i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.getFillRatio()).isBetween(0.4, 0.6);
+        assertThat(filter.getFalsePositiveProbability()).isLessThan(0.02);
+    }
+
+    @Test
+    public void shouldTrackFillRatio() {
+        IdentifierBloomFilter filter = new IdentifierBloomFilter(1_000, 0.01);
+        assertThat(filter.getFillRatio()).isZero();
+        assertThat(filter.mightContain(identifier(1))).isFalse();
+
+        filter.put(identifier(1));
+        double fillRatio = filter.getFillRatio();
+        filter.put(identifier(1));
+
+        assertThat(fillRatio).isPositive().isLessThanOrEqualTo((double) filter.getHashCount() / filter.getBitCount());
+        assertThat(filter.getFillRatio()).isEqualTo(fillRatio);
+    }
+
+    @Test
+    public void shouldRejectInvalidSize() {
+        assertThatThrownBy(() -> new IdentifierBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new IdentifierBloomFilter(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static String identifier(int i) {
+        return "org.jboss.pnc:artifact-" + i + ":jar:1.0." + (i % 100);
+    }
+}
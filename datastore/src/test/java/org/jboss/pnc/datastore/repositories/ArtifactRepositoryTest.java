@@ -0,0 +1,211 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.pnc.common.concurrent.Sequence;
+import org.jboss.pnc.constants.ReposiotryIdentifier;
+import org.jboss.pnc.datastore.DeploymentFactory;
+import org.jboss.pnc.enums.RepositoryType;
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.TargetRepository;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.Datastore;
+import org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates;
+import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.jboss.pnc.spi.datastore.repositories.TargetRepositoryRepository;
+import org.jboss.pnc.spi.datastore.repositories.UserRepository;
+import org.jboss.pnc.test.category.ContainerTest;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.inject.Inject;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Arquillian.class)
+@Category(ContainerTest.class)
+public class ArtifactRepositoryTest {
+
+    @Inject
+    private ArtifactRepository artifactRepository;
+
+    @Inject
+    private TargetRepositoryRepository targetRepositoryRepository;
+
+    @Inject
+    private BuildConfigurationRepository buildConfigurationRepository;
+
+    @Inject
+    private BuildConfigurationAuditedRepository buildConfigurationAuditedRepository;
+
+    @Inject
+    private UserRepository userRepository;
+
+    @Inject
+    private Datastore datastore;
+
+    @Inject
+    Producers producers;
+
+    @Deployment
+    public static Archive<?> getDeployment() {
+        return DeploymentFactory.createDatastoreDeployment();
+    }
+
+    @Test
+    public void shouldStoreRepeatedArtifactOnce() {
+        // given
+        TargetRepository targetRepository = targetRepository(RepositoryType.MAVEN);
+        String identifier = randomAlphabetic(20);
+
+        // when
+        Map<Artifact.IdentifierSha256TargetRepository, Artifact> stored = artifactRepository.getOrSave(
+                List.of(
+                        artifact(identifier, targetRepository),
+                        artifact(identifier, targetRepository),
+                        artifact(randomAlphabetic(20), targetRepository)));
+
+        // then
+        assertThat(stored).hasSize(2);
+        assertThat(stored.values()).allSatisfy(artifact -> assertThat(artifact.getId()).isNotNull());
+        assertThat(artifactRepository.withIdentifierAndSha256(identifier, sha256(identifier))).hasSize(1);
+    }
+
+    @Test
+    public void shouldReuseStoredArtifacts() {
+        // given
+        TargetRepository mavenRepository = targetRepository(RepositoryType.MAVEN);
+        TargetRepository proxyRepository = targetRepository(RepositoryType.GENERIC_PROXY);
+        String identifier = randomAlphabetic(20);
+        String proxyIdentifier = randomAlphabetic(20);
+        Map<Artifact.IdentifierSha256TargetRepository, Artifact> first = artifactRepository
+                .getOrSave(List.of(artifact(identifier, mavenRepository), artifact(proxyIdentifier, proxyRepository)));
+
+        // when
+        Artifact newArtifact = artifact(randomAlphabetic(20), mavenRepository);
+        Map<Artifact.IdentifierSha256TargetRepository, Artifact> second = artifactRepository.getOrSave(
+                List.of(
+                        artifact(identifier, mavenRepository),
+                        artifact(proxyIdentifier, proxyRepository),
+                        newArtifact));
+
+        // then
+        assertThat(second).hasSize(3);
+        first.forEach((key, artifact) -> assertThat(second.get(key).getId()).isEqualTo(artifact.getId()));
+        assertThat(second.get(newArtifact.getIdentifierSha256TargetRepository()).getId()).isNotNull();
+        // the artifacts downloaded through the generic proxy are deduplicated as well
+        assertThat(artifactRepository.withIdentifierAndSha256(proxyIdentifier, sha256(proxyIdentifier))).hasSize(1);
+    }
+
+    @Test
+    public void shouldLinkStoredArtifactsToCompletedBuild() {
+        // given
+        TargetRepository targetRepository = targetRepository(RepositoryType.MAVEN);
+        String storedIdentifier = randomAlphabetic(20);
+        Artifact stored = artifactRepository.getOrSave(List.of(artifact(storedIdentifier, targetRepository)))
+                .values()
+                .iterator()
+                .next();
+        String dependencyIdentifier = randomAlphabetic(20);
+        Artifact storedDependency = artifactRepository
+                .getOrSave(List.of(artifact(dependencyIdentifier, targetRepository)))
+                .values()
+                .iterator()
+                .next();
+
+        // when
+        BuildRecord buildRecord = datastore.storeCompletedBuild(
+                buildRecord(),
+                List.of(artifact(storedIdentifier, targetRepository), artifact(randomAlphabetic(20), targetRepository)),
+                List.of(artifact(dependencyIdentifier, targetRepository)),
+                List.of());
+
+        // then
+        List<Integer> builtIds = artifactRepository
+                .queryWithPredicates(ArtifactPredicates.withBuildRecordId(buildRecord.getId()))
+                .stream()
+                .map(Artifact::getId)
+                .collect(Collectors.toList());
+        assertThat(builtIds).hasSize(2).contains(stored.getId());
+        assertThat(
+                artifactRepository
+                        .queryWithPredicates(ArtifactPredicates.withDependantBuildRecordId(buildRecord.getId())))
+                .extracting(Artifact::getId)
+                .containsExactly(storedDependency.getId());
+    }
+
+    private TargetRepository targetRepository(RepositoryType repositoryType) {
+        return targetRepositoryRepository.save(
+                TargetRepository.newBuilder()
+                        .repositoryType(repositoryType)
+                        .repositoryPath(randomAlphabetic(20))
+                        .identifier(ReposiotryIdentifier.INDY_MAVEN)
+                        .temporaryRepo(false)
+                        .build());
+    }
+
+    private BuildRecord.Builder buildRecord() {
+        BuildConfiguration buildConfiguration = buildConfigurationRepository
+                .save(producers.createValidBuildConfiguration(randomAlphabetic(10)));
+        BuildConfigurationAudited buildConfigurationAudited = buildConfigurationAuditedRepository
+                .findLatestById(buildConfiguration.getId());
+        User user = userRepository.save(
+                User.Builder.newBuilder()
+                        .username(randomAlphabetic(10))
+                        .email(randomAlphabetic(10) + "@example.com")
+                        .build());
+        return BuildRecord.Builder.newBuilder()
+                .id(Sequence.nextBase32Id())
+                .buildConfigurationAudited(buildConfigurationAudited)
+                .submitTime(Date.from(Instant.now()))
+                .startTime(Date.from(Instant.now()))
+                .endTime(Date.from(Instant.now()))
+                .user(user)
+                .temporaryBuild(false);
+    }
+
+    private static Artifact artifact(String identifier, TargetRepository targetRepository) {
+        return Artifact.Builder.newBuilder()
+                .identifier(identifier)
+                .md5("md5-" + identifier)
+                .sha1("sha1-" + identifier)
+                .sha256(sha256(identifier))
+                .size(1L)
+                .targetRepository(targetRepository)
+                .build();
+    }
+
+    private static String sha256(String identifier) {
+        return "sha256-" + identifier;
+    }
+}
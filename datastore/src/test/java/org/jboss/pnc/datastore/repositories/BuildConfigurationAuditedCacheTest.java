@@ -0,0 +1,166 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import org.jboss.pnc.datastore.repositories.BuildConfigurationAuditedCache.EntityFinder;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.RepositoryConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class BuildConfigurationAuditedCacheTest {
+
+    private final BuildConfigurationAuditedCache cache = new BuildConfigurationAuditedCache();
+
+    private final List<Set<IdRev>> loads = new CopyOnWriteArrayList<>();
+
+    private final Map<Integer, RepositoryConfiguration> repositoryConfigurations = new HashMap<>();
+
+    private final EntityFinder finder = new EntityFinder() {
+        @Override
+        public <T> T find(Class<T> entityClass, Object id) {
+            return entityClass.cast(repositoryConfigurations.get(id));
+        }
+    };
+
+    @Before
+    public void start() {
+        cache.start(100);
+    }
+
+    @After
+    public void stop() {
+        cache.stop();
+    }
+
+    @Test
+    public void shouldLoadRevisionOnce() {
+        IdRev idRev = new IdRev(1, 10);
+
+        BuildConfigurationAudited first = cache.get(idRev, this::load, finder);
+        BuildConfigurationAudited second = cache.get(idRev, this::load, finder);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(loads).hasSize(1);
+    }
+
+    @Test
+    public void shouldNotShareReturnedRevisions() {
+        IdRev idRev = new IdRev(1, 10);
+        BuildConfiguration current = BuildConfiguration.Builder.newBuilder().id(1).name("current").build();
+
+        BuildConfigurationAudited loaded = cache.get(idRev, this::load, finder);
+        loaded.setBuildConfiguration(current);
+        loaded.setName("modified");
+        loaded.getGenericParameters().put("KEY", "modified");
+        cache.getAll(Set.of(idRev), this::loadAll, finder).get(idRev).setBuildConfiguration(current);
+
+        BuildConfigurationAudited cached = cache.get(idRev, this::load, finder);
+        assertThat(cached).isNotSameAs(loaded);
+        assertThat(cached.getBuildConfiguration()).isNull();
+        assertThat(cached.getName()).isEqualTo("audited");
+        assertThat(cached.getGenericParameters()).containsOnly(entry("KEY", "audited"));
+        assertThat(cache.getAll(Set.of(idRev), this::loadAll, finder).get(idRev).getBuildConfiguration()).isNull();
+        assertThat(loads).hasSize(1);
+    }
+
+    @Test
+    public void shouldFindCurrentRepositoryConfiguration() {
+        IdRev idRev = new IdRev(1, 10);
+        repositoryConfigurations.put(100, repositoryConfiguration("original"));
+        cache.get(idRev, this::load, finder);
+
+        repositoryConfigurations.put(100, repositoryConfiguration("changed"));
+
+        assertThat(cache.get(idRev, this::load, finder).getRepositoryConfiguration().getInternalUrl())
+                .isEqualTo("changed");
+        assertThat(cache.getAll(Set.of(idRev), this::loadAll, finder).get(idRev).getRepositoryConfiguration())
+                .extracting(RepositoryConfiguration::getInternalUrl)
+                .isEqualTo("changed");
+        assertThat(loads).hasSize(1);
+    }
+
+    @Test
+    public void shouldNotCacheMissingRevision() {
+        IdRev idRev = new IdRev(1, 10);
+
+        assertThat(cache.get(idRev, id -> null, finder)).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.get(idRev, this::load, finder)).isNotNull();
+    }
+
+    @Test
+    public void shouldLoadOnlyMissingRevisionsAtOnce() {
+        cache.get(new IdRev(1, 10), this::load, finder);
+
+        Set<IdRev> idRevs = Set.of(new IdRev(1, 10), new IdRev(2, 11), new IdRev(3, 12), new IdRev(4, 404));
+        Map<IdRev, BuildConfigurationAudited> result = cache.getAll(idRevs, this::loadAll, finder);
+
+        assertThat(result).containsOnlyKeys(new IdRev(1, 10), new IdRev(2, 11), new IdRev(3, 12));
+        assertThat(loads).hasSize(2);
+        assertThat(loads.get(1)).containsExactlyInAnyOrder(new IdRev(2, 11), new IdRev(3, 12), new IdRev(4, 404));
+
+        // everything found is cached now
+        cache.getAll(Set.of(new IdRev(2, 11), new IdRev(3, 12)), this::loadAll, finder);
+        assertThat(loads).hasSize(2);
+    }
+
+    private BuildConfigurationAudited load(IdRev idRev) {
+        loads.add(Set.of(idRev));
+        return audited(idRev);
+    }
+
+    private Map<IdRev, BuildConfigurationAudited> loadAll(Set<IdRev> idRevs) {
+        loads.add(new HashSet<>(idRevs));
+        Map<IdRev, BuildConfigurationAudited> loaded = new HashMap<>();
+        for (IdRev idRev : idRevs) {
+            if (idRev.getRev() != 404) {
+                loaded.put(idRev, audited(idRev));
+            }
+        }
+        return loaded;
+    }
+
+    private static BuildConfigurationAudited audited(IdRev idRev) {
+        BuildConfigurationAudited audited = new BuildConfigurationAudited();
+        audited.setId(idRev.getId());
+        audited.setRev(idRev.getRev());
+        audited.setIdRev(idRev);
+        audited.setName("audited");
+        audited.getGenericParameters().put("KEY", "audited");
+        audited.setRepositoryConfiguration(repositoryConfiguration("audited"));
+        return audited;
+    }
+
+    private static RepositoryConfiguration repositoryConfiguration(String internalUrl) {
+        return RepositoryConfiguration.Builder.newBuilder().id(100).internalUrl(internalUrl).build();
+    }
+}
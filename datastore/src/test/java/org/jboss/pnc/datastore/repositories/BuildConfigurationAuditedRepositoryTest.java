@@ -0,0 +1,90 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.pnc.datastore.DeploymentFactory;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.RepositoryConfiguration;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.jboss.pnc.spi.datastore.repositories.RepositoryConfigurationRepository;
+import org.jboss.pnc.test.category.ContainerTest;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.inject.Inject;
+import java.util.Set;
+
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Arquillian.class)
+@Category(ContainerTest.class)
+public class BuildConfigurationAuditedRepositoryTest {
+
+    @Inject
+    private BuildConfigurationRepository buildConfigurationRepository;
+
+    @Inject
+    private BuildConfigurationAuditedRepository buildConfigurationAuditedRepository;
+
+    @Inject
+    private RepositoryConfigurationRepository repositoryConfigurationRepository;
+
+    @Inject
+    Producers producers;
+
+    @Deployment
+    public static Archive<?> getDeployment() {
+        return DeploymentFactory.createDatastoreDeployment();
+    }
+
+    @Test
+    public void shouldSeeRepositoryConfigurationChangesInCachedRevision() {
+        // given
+        BuildConfiguration buildConfiguration = buildConfigurationRepository
+                .save(producers.createValidBuildConfiguration(randomAlphabetic(10)));
+        IdRev idRev = buildConfigurationAuditedRepository.findLatestById(buildConfiguration.getId()).getIdRev();
+        RepositoryConfiguration repositoryConfiguration = repositoryConfigurationRepository
+                .queryById(buildConfiguration.getRepositoryConfiguration().getId());
+        String originalUrl = repositoryConfiguration.getInternalUrl();
+        assertThat(buildConfigurationAuditedRepository.queryById(idRev).getRepositoryConfiguration().getInternalUrl())
+                .isEqualTo(originalUrl);
+
+        // when
+        String changedUrl = randomAlphabetic(20);
+        repositoryConfiguration.setInternalUrl(changedUrl);
+        repositoryConfigurationRepository.save(repositoryConfiguration);
+
+        // then
+        assertThat(buildConfigurationAuditedRepository.queryById(idRev).getRepositoryConfiguration().getInternalUrl())
+                .isEqualTo(changedUrl);
+        assertThat(
+                buildConfigurationAuditedRepository.queryById(Set.of(idRev))
+                        .get(idRev)
+                        .getRepositoryConfiguration()
+                        .getInternalUrl()).isEqualTo(changedUrl);
+        assertThat(buildConfigurationAuditedRepository.queryById(idRev).getName())
+                .isEqualTo(buildConfiguration.getName());
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import org.jboss.pnc.constants.ReposiotryIdentifier;
+import org.jboss.pnc.enums.RepositoryType;
+import org.jboss.pnc.model.TargetRepository;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TargetRepositoryIdCacheTest {
+
+    private final TargetRepositoryIdCache cache = new TargetRepositoryIdCache();
+
+    @Test
+    public void shouldCacheSharedRepository() {
+        TargetRepository targetRepository = targetRepository(1, RepositoryType.MAVEN, false);
+
+        cache.put(targetRepository);
+
+        assertThat(cache.get(targetRepository.getIdentifierPath())).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCacheRepositoriesCreatedPerBuild() {
+        TargetRepository temporary = targetRepository(1, RepositoryType.MAVEN, true);
+        TargetRepository genericProxy = targetRepository(2, RepositoryType.GENERIC_PROXY, false);
+
+        cache.put(temporary);
+        cache.put(genericProxy);
+
+        assertThat(cache.get(temporary.getIdentifierPath())).isNull();
+        assertThat(cache.get(genericProxy.getIdentifierPath())).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldCacheNewIdAfterEviction() {
+        TargetRepository deleted = targetRepository(1, RepositoryType.MAVEN, false);
+        cache.put(deleted);
+
+        cache.evict(deleted.getIdentifierPath());
+        assertThat(cache.get(deleted.getIdentifierPath())).isNull();
+
+        TargetRepository recreated = targetRepository(2, RepositoryType.MAVEN, false);
+        cache.put(recreated);
+        assertThat(cache.get(deleted.getIdentifierPath())).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    private static TargetRepository targetRepository(int id, RepositoryType repositoryType, boolean temporary) {
+        return TargetRepository.newBuilder()
+                .id(id)
+                .identifier(ReposiotryIdentifier.INDY_MAVEN)
+                .repositoryPath("repository-path")
+                .repositoryType(repositoryType)
+                .temporaryRepo(temporary)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.pnc.constants.ReposiotryIdentifier;
+import org.jboss.pnc.datastore.DeploymentFactory;
+import org.jboss.pnc.enums.RepositoryType;
+import org.jboss.pnc.model.TargetRepository;
+import org.jboss.pnc.spi.datastore.predicates.TargetRepositoryPredicates;
+import org.jboss.pnc.spi.datastore.repositories.TargetRepositoryRepository;
+import org.jboss.pnc.test.category.ContainerTest;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Arquillian.class)
+@Category(ContainerTest.class)
+public class TargetRepositoryRepositoryTest {
+
+    @Inject
+    private TargetRepositoryRepository targetRepositoryRepository;
+
+    @Deployment
+    public static Archive<?> getDeployment() {
+        return DeploymentFactory.createDatastoreDeployment();
+    }
+
+    @Test
+    public void shouldStoreRepeatedRepositoryOnce() {
+        // given
+        String path = randomAlphabetic(20);
+
+        // when
+        Map<TargetRepository.IdentifierPath, TargetRepository> stored = targetRepositoryRepository.getOrSave(
+                List.of(
+                        targetRepository(path, RepositoryType.MAVEN),
+                        targetRepository(path, RepositoryType.MAVEN),
+                        targetRepository(randomAlphabetic(20), RepositoryType.GENERIC_PROXY)));
+
+        // then
+        assertThat(stored).hasSize(2);
+        assertThat(stored.values()).allSatisfy(targetRepository -> assertThat(targetRepository.getId()).isNotNull());
+        assertThat(
+                targetRepositoryRepository.queryWithPredicates(
+                        TargetRepositoryPredicates.byIdentifierAndPath(ReposiotryIdentifier.INDY_MAVEN, path)))
+                .hasSize(1);
+    }
+
+    @Test
+    public void shouldReuseStoredRepositories() {
+        // given
+        TargetRepository saved = targetRepositoryRepository
+                .save(targetRepository(randomAlphabetic(20), RepositoryType.MAVEN));
+        TargetRepository proxy = targetRepository(randomAlphabetic(20), RepositoryType.GENERIC_PROXY);
+        Integer proxyId = targetRepositoryRepository.getOrSave(List.of(proxy)).get(proxy.getIdentifierPath()).getId();
+
+        // when
+        Map<TargetRepository.IdentifierPath, TargetRepository> stored = targetRepositoryRepository.getOrSave(
+                List.of(
+                        targetRepository(saved.getRepositoryPath(), RepositoryType.MAVEN),
+                        targetRepository(proxy.getRepositoryPath(), RepositoryType.GENERIC_PROXY)));
+
+        // then
+        assertThat(stored.get(saved.getIdentifierPath()).getId()).isEqualTo(saved.getId());
+        assertThat(stored.get(proxy.getIdentifierPath()).getId()).isEqualTo(proxyId);
+    }
+
+    @Test
+    public void shouldQueryAgainDeletedRepository() {
+        // given
+        TargetRepository targetRepository = targetRepository(randomAlphabetic(20), RepositoryType.MAVEN);
+        TargetRepository deleted = targetRepositoryRepository.getOrSave(List.of(targetRepository))
+                .get(targetRepository.getIdentifierPath());
+        targetRepositoryRepository.delete(deleted.getId());
+
+        // when
+        TargetRepository recreated = targetRepositoryRepository
+                .getOrSave(List.of(targetRepository(targetRepository.getRepositoryPath(), RepositoryType.MAVEN)))
+                .get(targetRepository.getIdentifierPath());
+
+        // then
+        assertThat(recreated.getId()).isNotNull().isNotEqualTo(deleted.getId());
+        assertThat(targetRepositoryRepository.queryById(recreated.getId())).isNotNull();
+    }
+
+    private static TargetRepository targetRepository(String path, RepositoryType repositoryType) {
+        return TargetRepository.newBuilder()
+                .identifier(ReposiotryIdentifier.INDY_MAVEN)
+                .repositoryPath(path)
+                .repositoryType(repositoryType)
+                .temporaryRepo(false)
+                .build();
+    }
+}
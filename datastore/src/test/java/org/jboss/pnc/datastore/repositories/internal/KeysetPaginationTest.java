@@ -0,0 +1,68 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories.internal;
+
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.spi.datastore.repositories.api.PageCursor;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KeysetPaginationTest {
+
+    @Test
+    public void shouldRoundTripSortKeyValues() {
+        Timestamp timestamp = Timestamp.from(Instant.parse("2022-03-01T10:15:30.123456Z"));
+
+        assertThat(roundTrip(timestamp, Date.class)).isEqualTo(timestamp);
+        assertThat(roundTrip(42, Integer.class)).isEqualTo(42);
+        assertThat(roundTrip(42L, Long.class)).isEqualTo(42L);
+        assertThat(roundTrip("a.b~c", String.class)).isEqualTo("a.b~c");
+        assertThat(roundTrip(BuildStatus.SUCCESS, BuildStatus.class)).isEqualTo(BuildStatus.SUCCESS);
+        assertThat(roundTrip(null, String.class)).isNull();
+    }
+
+    @Test
+    public void shouldEncodeCursorValues() {
+        PageCursor cursor = PageCursor.after(Arrays.asList("2022-03-01T10:15:30Z", null, "a.b~c"));
+
+        PageCursor decoded = PageCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.getValues()).containsExactly("2022-03-01T10:15:30Z", null, "a.b~c");
+        assertThat(PageCursor.decode("").isFirst()).isTrue();
+    }
+
+    @Test
+    public void shouldRejectMalformedValues() {
+        assertThatThrownBy(() -> KeysetPagination.parse("yesterday", Date.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetPagination.parse("x", Long.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode("!")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Object roundTrip(Object value, Class<?> type) {
+        return KeysetPagination.parse(KeysetPagination.format(value), type);
+    }
+}
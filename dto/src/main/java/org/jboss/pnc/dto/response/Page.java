@@ -17,7 +17,7 @@
  */
 package org.jboss.pnc.dto.response;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import java.util.Collection;
@@ -29,11 +29,10 @@ import java.util.Collections;
  * @author Honza Brázdil &lt;jbrazdil@redhat.com&gt;
  */
 @Data
-@AllArgsConstructor
 public class Page<T> {
 
     /**
-     * Page index.
+     * Page index or -1 if unknown, when paging by the cursor.
      */
     private int pageIndex;
 
@@ -48,7 +47,8 @@ public class Page<T> {
     private int totalPages;
 
     /**
-     * Number of all hits (not only this page).
+     * Number of all hits (not only this page) or -1 if unknown, when paging by the cursor or when not requested, see
+     * {@link TotalHitsMode}.
      */
     private int totalHits;
 
@@ -57,10 +57,25 @@ public class Page<T> {
      */
     private Collection<T> content;
 
+    /**
+     * Opaque cursor of the next page when paging by the cursor, null if this is the last page or if paging by the
+     * index.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextPageCursor;
+
     public Page() {
         content = Collections.emptyList();
     }
 
+    public Page(int pageIndex, int pageSize, int totalPages, int totalHits, Collection<T> content) {
+        this.pageIndex = pageIndex;
+        this.pageSize = pageSize;
+        this.totalPages = totalPages;
+        this.totalHits = totalHits;
+        this.content = content;
+    }
+
     public Page(int pageIndex, int pageSize, int totalHits, Collection<T> content) {
         this.pageIndex = pageIndex;
         this.pageSize = pageSize;
@@ -68,4 +83,23 @@ public class Page<T> {
         this.totalHits = totalHits;
         this.content = content;
     }
+
+    /**
+     * How the total hits of a page are computed.
+     */
+    public enum TotalHitsMode {
+        /**
+         * Count the hits of the query.
+         */
+        EXACT,
+        /**
+         * Use the row estimate of the database for unfiltered queries, count the hits of the filtered ones.
+         */
+        ESTIMATED,
+        /**
+         * Don't count the hits, the total hits and total pages are -1 unless the page is the last one. The last page is
+         * the first page with less records than the page size.
+         */
+        NONE
+    }
 }
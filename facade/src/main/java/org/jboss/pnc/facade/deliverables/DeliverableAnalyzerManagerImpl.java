@@ -20,6 +20,7 @@ package org.jboss.pnc.facade.deliverables;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import com.github.packageurl.PackageURLBuilder;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.jboss.pnc.api.deliverablesanalyzer.dto.Artifact;
 import org.jboss.pnc.api.deliverablesanalyzer.dto.Build;
@@ -68,7 +69,6 @@ import org.jboss.pnc.spi.datastore.repositories.DeliverableAnalyzerDistributionR
 import org.jboss.pnc.spi.datastore.repositories.DeliverableAnalyzerLabelEntryRepository;
 import org.jboss.pnc.spi.datastore.repositories.DeliverableAnalyzerOperationRepository;
 import org.jboss.pnc.spi.datastore.repositories.DeliverableAnalyzerReportRepository;
-import org.jboss.pnc.spi.datastore.repositories.DeliverableArtifactLicenseInfoRepository;
 import org.jboss.pnc.spi.datastore.repositories.DeliverableArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.TargetRepositoryRepository;
 import org.jboss.pnc.spi.events.OperationChangedEvent;
@@ -93,6 +93,7 @@ import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -110,6 +111,7 @@ import java.util.stream.Stream;
 
 import static org.jboss.pnc.constants.ReposiotryIdentifier.DISTRIBUTION_ARCHIVE;
 import static org.jboss.pnc.constants.ReposiotryIdentifier.INDY_MAVEN;
+import static org.jboss.pnc.model.DeliverableAnalyzerOperation.INCOMPLETE_REPORT_PARAMETER;
 
 /**
  *
@@ -125,6 +127,21 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
 
     public static final String URL_PARAMETER_PREFIX = "url-";
 
+    /**
+     * Operation parameter with the number of delivered artifacts in the analysis result.
+     */
+    public static final String TOTAL_ARTIFACTS_PARAMETER = "total-artifacts";
+
+    /**
+     * Operation parameter with the number of delivered artifacts already processed and stored in the report.
+     */
+    public static final String PROCESSED_ARTIFACTS_PARAMETER = "processed-artifacts";
+
+    /**
+     * Number of delivered artifacts stored in one transaction.
+     */
+    private static final int DELIVERED_ARTIFACTS_CHUNK_SIZE = 1000;
+
     @Inject
     private ArtifactRepository artifactRepository;
     @Inject
@@ -140,8 +157,6 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
     @Inject
     private DeliverableAnalyzerLabelEntryRepository deliverableAnalyzerLabelEntryRepository;
     @Inject
-    private DeliverableArtifactLicenseInfoRepository deliverableArtifactLicenseInfoRepository;
-    @Inject
     private ArtifactMapper artifactMapper;
     @Inject
     private OperationsManager operationsManager;
@@ -162,6 +177,8 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
     private Event<DeliverableAnalysisStatusChangedEvent> analysisStatusChangedEventNotifier;
     @Inject
     private DingroguClient dingroguClient;
+    @Inject
+    private DeliverableAnalyzerManagerImpl self;
 
     @Override
     public DeliverableAnalyzerOperation analyzeDeliverables(
@@ -221,24 +238,44 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
         }
     }
 
+    /**
+     * Stores the results of the analysis. The delivered artifacts are stored in chunks, each in its own transaction,
+     * and the number of processed artifacts is recorded in the operation parameters. The report is marked incomplete
+     * until the last chunk is committed, so the statistics exclude it. When the processing fails, the stored chunks are
+     * kept, the report stays incomplete and the processing of the same result continues with the artifacts not stored
+     * yet.
+     */
     @Override
-    @Transactional
     public void completeAnalysis(AnalysisResult analysisResult) {
         log.info(
                 "Processing deliverables of operation with id={} in {} results.",
                 analysisResult.getDeliverableAnalyzerOperationId(),
                 analysisResult.getResults().size());
 
-        DeliverableAnalyzerReport report = createReportForCompletedAnalysis(
+        int totalArtifacts = analysisResult.getResults()
+                .stream()
+                .mapToInt(
+                        result -> result.getNotFoundArtifacts().size()
+                                + result.getBuilds().stream().mapToInt(b -> b.getArtifacts().size()).sum())
+                .sum();
+        DeliverableAnalyzerReport report = self.createReportForCompletedAnalysis(
                 analysisResult.getDeliverableAnalyzerOperationId(),
-                analysisResult.isWasRunAsScratchAnalysis());
+                analysisResult.isWasRunAsScratchAnalysis(),
+                totalArtifacts);
+        DeliveredArtifactsWriter writer = new DeliveredArtifactsWriter(report.getId());
         for (FinderResult finderResult : analysisResult.getResults()) {
             processDeliverables(
                     report,
                     finderResult.getBuilds(),
                     finderResult.getUrl(),
-                    finderResult.getNotFoundArtifacts());
+                    finderResult.getNotFoundArtifacts(),
+                    writer);
         }
+        self.completeReport(report.getId());
+        log.info(
+                "Processed {} delivered artifacts of operation with id={}.",
+                writer.processedArtifacts,
+                analysisResult.getDeliverableAnalyzerOperationId());
     }
 
     private Artifact findDistributionUrlAssociatedArtifact(
@@ -281,13 +318,14 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
             DeliverableAnalyzerReport report,
             Collection<Build> builds,
             URL distributionUrl,
-            Collection<Artifact> notFoundArtifacts) {
+            Collection<Artifact> notFoundArtifacts,
+            DeliveredArtifactsWriter writer) {
 
         log.debug("Processing deliverables in {} builds. Distribution URL: {}", builds.size(), distributionUrl);
         User user = report.getOperation().getUser();
 
         ArtifactStats stats = new ArtifactStats();
-        ArtifactCache artifactCache = new ArtifactCache(builds, user);
+        ArtifactCache artifactCache = new ArtifactCache(builds, notFoundArtifacts, user);
 
         // Find the artifact associated with the deliverable URL
         Artifact urlAssociatedArtifact = findDistributionUrlAssociatedArtifact(
@@ -301,6 +339,7 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
         DeliverableAnalyzerDistribution distribution = getDistribution(
                 distributionUrl.toString(),
                 urlAssociatedArtifact);
+        writer.startDistribution(distribution.getId());
 
         for (Build build : builds) {
             log.debug("Processing build {}", build);
@@ -323,21 +362,22 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
                     // that we already have a PNC dependency from MRRC which is also found in Brew. In this case, we
                     // want to reuse the existing MRRC artifact. If the Brew build is an import, we want to still
                     // pioritize the existing PNC dependencies.
-                    artifactParser = art -> findOrCreateBrewArtifact(art, user, artifactCache, build);
+                    artifactParser = art -> artifactCache.findOrCreateBrewArtifact(art, build);
                     break;
                 default:
                     throw new UnsupportedOperationException("Unknown build system type " + build.getBuildSystemType());
             }
             build.getArtifacts().stream().peek(statCounter).forEach(artifactDto -> {
-                addDeliveredArtifact(
-                        artifactParser.apply(artifactDto),
-                        report,
-                        artifactDto.isBuiltFromSource(),
-                        build.getBrewId(),
-                        artifactDto.getArchiveFilenames(),
-                        artifactDto.getArchiveUnmatchedFilenames(),
-                        artifactDto.getLicenses(),
-                        distribution);
+                writer.add(
+                        (managedReport, managedDistribution) -> toDeliverableArtifact(
+                                artifactParser.apply(artifactDto),
+                                managedReport,
+                                artifactDto.isBuiltFromSource(),
+                                build.getBrewId(),
+                                artifactDto.getArchiveFilenames(),
+                                artifactDto.getArchiveUnmatchedFilenames(),
+                                artifactDto.getLicenses(),
+                                managedDistribution));
             });
         }
 
@@ -351,23 +391,69 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
             while (iterator.hasNext()) {
                 Artifact art = iterator.next();
                 stats.notFoundCounter().accept(art);
-                org.jboss.pnc.model.Artifact artifact = findOrCreateNotFoundArtifact(art, distributionRepository, user);
-                addDeliveredArtifact(
-                        artifact,
-                        report,
-                        false,
-                        null,
-                        art.getArchiveFilenames(),
-                        art.getArchiveUnmatchedFilenames(),
-                        art.getLicenses(),
-                        distribution);
+                writer.add(
+                        (managedReport, managedDistribution) -> toDeliverableArtifact(
+                                findOrCreateNotFoundArtifact(art, distributionRepository, user, artifactCache),
+                                managedReport,
+                                false,
+                                null,
+                                art.getArchiveFilenames(),
+                                art.getArchiveUnmatchedFilenames(),
+                                art.getLicenses(),
+                                managedDistribution));
             }
         }
+        writer.flush();
 
         stats.log(distributionUrl.toString());
     }
 
-    private void addDeliveredArtifact(
+    /**
+     * Stores a chunk of delivered artifacts of a distribution in a new transaction. The artifacts already delivered in
+     * the distribution are skipped, and the number of processed artifacts is recorded in the operation parameters.
+     *
+     * @param reportId id of the report
+     * @param distributionId id of the distribution
+     * @param deliveredArtifacts creates the delivered artifacts in the report and distribution managed by the
+     *        transaction
+     * @param deliveredArtifactIds ids of the artifacts already delivered in the distribution, updated with the stored
+     *        ones
+     * @param processedArtifacts number of processed artifacts including this chunk
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    // must be public (and not protected), otherwise Weld doesn't know how to create proxy properly
+    public void storeDeliveredArtifacts(
+            Base32LongID reportId,
+            Base32LongID distributionId,
+            List<DeliveredArtifactFactory> deliveredArtifacts,
+            Set<Integer> deliveredArtifactIds,
+            int processedArtifacts) {
+        // the report and distribution have to be managed, otherwise a select is issued to check each reference
+        DeliverableAnalyzerReport report = deliverableAnalyzerReportRepository.queryById(reportId);
+        DeliverableAnalyzerDistribution distribution = deliverableAnalyzerDistributionRepository
+                .queryById(distributionId);
+
+        List<DeliverableArtifact> newDeliverableArtifacts = new ArrayList<>(deliveredArtifacts.size());
+        for (DeliveredArtifactFactory deliveredArtifact : deliveredArtifacts) {
+            DeliverableArtifact deliverableArtifact = deliveredArtifact.create(report, distribution);
+            if (deliveredArtifactIds.add(deliverableArtifact.getArtifact().getId())) {
+                newDeliverableArtifacts.add(deliverableArtifact);
+            } else {
+                log.debug("Skipping artifact {} already delivered in the distribution.", deliverableArtifact);
+            }
+        }
+        deliverableArtifactRepository.persist(newDeliverableArtifacts);
+
+        report.getOperation()
+                .getOperationParameters()
+                .put(PROCESSED_ARTIFACTS_PARAMETER, Integer.toString(processedArtifacts));
+        log.debug(
+                "Stored {} delivered artifacts, {} artifacts processed.",
+                newDeliverableArtifacts.size(),
+                processedArtifacts);
+    }
+
+    private DeliverableArtifact toDeliverableArtifact(
             org.jboss.pnc.model.Artifact artifact,
             DeliverableAnalyzerReport report,
             boolean builtFromSource,
@@ -386,10 +472,6 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
                 .archiveUnmatchedFilenames(StringUtils.joinArray(archiveUnmatchedFilenames))
                 .distribution(distribution)
                 .build();
-        report.addDeliverableArtifact(deliverableArtifact);
-        // distribution.addDeliverableArtifact(deliverableArtifact);
-
-        deliverableArtifactRepository.save(deliverableArtifact);
 
         Set<DeliverableArtifactLicenseInfo> licenses = Optional.ofNullable(licenseInfo)
                 .orElse(Collections.emptySet())
@@ -399,12 +481,11 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
                 })
                 .collect(Collectors.toSet());
 
+        // the licenses are persisted by cascade with the delivered artifact
         for (DeliverableArtifactLicenseInfo licenseEntity : licenses) {
-            deliverableArtifactLicenseInfoRepository.save(licenseEntity);
             deliverableArtifact.addDeliverableArtifactLicenseInfo(licenseEntity);
         }
-
-        log.debug("Added delivered artifact {}", deliverableArtifact);
+        return deliverableArtifact;
     }
 
     private static DeliverableArtifactLicenseInfo toEntity(
@@ -423,13 +504,35 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
                 .build();
     }
 
-    private DeliverableAnalyzerReport createReportForCompletedAnalysis(
+    /**
+     * Creates the report of the analysis in a new transaction. If the report was already created by a previous
+     * processing of the analysis result, which failed, the existing report is returned.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    // must be public (and not protected), otherwise Weld doesn't know how to create proxy properly
+    public DeliverableAnalyzerReport createReportForCompletedAnalysis(
             Base32LongID operationId,
-            boolean wasRunAsScratchAnalysis) {
+            boolean wasRunAsScratchAnalysis,
+            int totalArtifacts) {
 
+        DeliverableAnalyzerReport existingReport = deliverableAnalyzerReportRepository.queryById(operationId);
+        if (existingReport != null) {
+            log.info(
+                    "Resuming processing of deliverables of operation with id={}, {} of {} artifacts were processed.",
+                    operationId,
+                    existingReport.getOperation().getOperationParameters().get(PROCESSED_ARTIFACTS_PARAMETER),
+                    totalArtifacts);
+            return existingReport;
+        }
+
+        org.jboss.pnc.model.DeliverableAnalyzerOperation operation = deliverableAnalyzerOperationRepository
+                .queryById(operationId);
+        operation.getOperationParameters().put(TOTAL_ARTIFACTS_PARAMETER, Integer.toString(totalArtifacts));
+        operation.getOperationParameters().put(PROCESSED_ARTIFACTS_PARAMETER, "0");
+        operation.getOperationParameters().put(INCOMPLETE_REPORT_PARAMETER, Boolean.TRUE.toString());
         var report = DeliverableAnalyzerReport.builder()
                 .id(operationId)
-                .operation(deliverableAnalyzerOperationRepository.queryById(operationId))
+                .operation(operation)
                 .labels(getReportLabels(wasRunAsScratchAnalysis))
                 .labelHistory(new ArrayList<>())
                 .artifacts(new HashSet<>(Set.of()))
@@ -441,6 +544,17 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
         return report;
     }
 
+    /**
+     * Marks the report complete in a new transaction once all its delivered artifacts are stored, which includes the
+     * report in the statistics.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    // must be public (and not protected), otherwise Weld doesn't know how to create proxy properly
+    public void completeReport(Base32LongID reportId) {
+        DeliverableAnalyzerReport report = deliverableAnalyzerReportRepository.queryById(reportId);
+        report.getOperation().getOperationParameters().remove(INCOMPLETE_REPORT_PARAMETER);
+    }
+
     private EnumSet<DeliverableAnalyzerReportLabel> getReportLabels(boolean wasRunAsScratchAnalysis) {
         return (wasRunAsScratchAnalysis) ? EnumSet.of(DeliverableAnalyzerReportLabel.SCRATCH)
                 : EnumSet.noneOf(DeliverableAnalyzerReportLabel.class);
@@ -471,7 +585,7 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
                 ? DeliverableAnalyzerManagerImpl::getNotBuiltArtifactRating
                 : DeliverableAnalyzerManagerImpl::getBuiltArtifactRating;
 
-        return artifacts.stream().sorted(Comparator.comparing(artifactRatingFunction).reversed()).findFirst();
+        return artifacts.stream().max(Comparator.comparing(artifactRatingFunction));
     }
 
     private static Integer getNotBuiltArtifactRating(org.jboss.pnc.model.Artifact artifact) {
@@ -524,22 +638,11 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
         }
     }
 
-    private org.jboss.pnc.model.Artifact findOrCreateBrewArtifact(
-            Artifact artifact,
-            User user,
-            ArtifactCache artifactCache,
-            Build build) {
-
-        // This is a Brew artifact, so let's convert it to get the identifier, filename etc initialized.
-        // The target repository can be left null for now, in case we need to create the artifact we will deal with it
-        org.jboss.pnc.model.Artifact brewArtifact = mapBrewArtifact(artifact, build.getBrewNVR(), null, user);
-        return artifactCache.findOrCreateBrewArtifact(brewArtifact, build);
-    }
-
     private org.jboss.pnc.model.Artifact findOrCreateNotFoundArtifact(
             Artifact artifact,
             TargetRepository targetRepo,
-            User user) {
+            User user,
+            ArtifactCache artifactCache) {
 
         // The artifact was not built from source, but could already be present as a dependency recorded in PNC system.
         // To avoid unnecessary artifact duplication (see NCLSUP-990), we will search for a best matching artifact.
@@ -548,11 +651,10 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
         Path path = Paths.get(artifact.getFilename());
         String filename = path.getFileName().toString();
 
-        // Search for artifacts with the same SHA-256 and filter for its name. If no matches are found, create the
-        // artifact. Yes, if an artifact was renamed in the ZIP, we will create a new entry in the DB.
-        List<org.jboss.pnc.model.Artifact> artifacts = artifactRepository
-                .withSha256In(Collections.singleton(artifact.getSha256()));
-        artifacts = artifacts.stream().filter(art -> art.getFilename().equals(filename)).collect(Collectors.toList());
+        // Search for artifacts with the same SHA-256 and name. If no matches are found, create the artifact. Yes, if an
+        // artifact was renamed in the ZIP, we will create a new entry in the DB.
+        List<org.jboss.pnc.model.Artifact> artifacts = artifactCache
+                .findNotFoundArtifacts(artifact.getSha256(), filename);
         if (artifacts.size() == 1) {
             return artifacts.iterator().next();
         }
@@ -576,7 +678,7 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
 
         // There was no artifact found with the same SHA-256, filename, target repo and identifier. We can create a new
         // one.
-        return createArtifact(mapNotFoundArtifact(artifact, user), targetRepo);
+        return artifactCache.addNotFoundArtifact(createArtifact(mapNotFoundArtifact(artifact, user), targetRepo));
     }
 
     private org.jboss.pnc.model.Artifact createArtifact(
@@ -584,9 +686,7 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
             TargetRepository targetRepo) {
         artifact.setTargetRepository(targetRepo);
         artifact.setPurl(createGenericPurl(artifact.getFilename(), artifact.getSha256()));
-        org.jboss.pnc.model.Artifact savedArtifact = artifactRepository.save(artifact);
-        targetRepo.getArtifacts().add(savedArtifact);
-        return savedArtifact;
+        return artifactRepository.save(artifact);
     }
 
     private org.jboss.pnc.model.Artifact mapNotFoundArtifact(Artifact artifact, User user) {
@@ -602,14 +702,16 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
 
     private org.jboss.pnc.model.Artifact mapBrewArtifact(
             Artifact artifact,
-            String nvr,
+            String brewBuildOriginUrl,
             TargetRepository targetRepository,
             User user) {
         org.jboss.pnc.model.Artifact.Builder builder = mapArtifact(artifact, user);
         builder.identifier(createIdentifier(artifact));
         builder.filename(createFileName(artifact));
         builder.deployPath(createDeployPath(artifact));
-        builder.originUrl(createBrewOriginURL(artifact, nvr));
+        builder.originUrl(
+                brewBuildOriginUrl + "/" + artifact.getArtifactType().name().toLowerCase(Locale.ENGLISH)
+                        + createDeployPath(artifact));
         builder.purl(createPURL(artifact));
         builder.targetRepository(targetRepository);
 
@@ -668,7 +770,10 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
         throw new IllegalArgumentException("Unsupported artifact type: " + artifact.getArtifactType());
     }
 
-    private String createBrewOriginURL(Artifact artifact, String nvr) {
+    /**
+     * @return the origin URL of the Brew build, the artifact origin URLs are relative to it
+     */
+    private String createBrewBuildOriginURL(String nvr) {
         String brewContentUrl = globalConfig.getBrewContentUrl();
         Matcher matcher = NVR_PATTERN.matcher(nvr);
         if (!matcher.matches()) {
@@ -677,8 +782,7 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
         String name = matcher.group(1);
         String version = matcher.group(2);
         String release = matcher.group(3);
-        return brewContentUrl + "/" + name + "/" + version + "/" + release + "/"
-                + artifact.getArtifactType().name().toLowerCase(Locale.ENGLISH) + createDeployPath(artifact);
+        return brewContentUrl + "/" + name + "/" + version + "/" + release;
     }
 
     private String createPURL(Artifact artifact) {
@@ -846,6 +950,56 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
         analysisStatusChangedEventNotifier.fireAsync(analysisStatusChanged);
     }
 
+    /**
+     * Creates a delivered artifact in the report and distribution managed by the current transaction.
+     */
+    @FunctionalInterface
+    // must be public (and not protected), otherwise Weld doesn't know how to create proxy properly
+    public interface DeliveredArtifactFactory {
+        DeliverableArtifact create(DeliverableAnalyzerReport report, DeliverableAnalyzerDistribution distribution);
+    }
+
+    /**
+     * Collects the delivered artifacts of a distribution and stores them in chunks of
+     * {@link #DELIVERED_ARTIFACTS_CHUNK_SIZE}. Each chunk is committed in its own transaction, so the persistence
+     * context is flushed and cleared after each chunk instead of growing with the size of the analysis.
+     */
+    private class DeliveredArtifactsWriter {
+        private final Base32LongID reportId;
+
+        private Base32LongID distributionId;
+        private Set<Integer> deliveredArtifactIds;
+        private List<DeliveredArtifactFactory> chunk = new ArrayList<>();
+        private int processedArtifacts = 0;
+
+        private DeliveredArtifactsWriter(Base32LongID reportId) {
+            this.reportId = reportId;
+        }
+
+        public void startDistribution(Base32LongID distributionId) {
+            flush();
+            this.distributionId = distributionId;
+            // artifacts stored by a previous processing of the same result
+            this.deliveredArtifactIds = deliverableArtifactRepository.getDeliveredArtifactIds(reportId, distributionId);
+        }
+
+        public void add(DeliveredArtifactFactory deliveredArtifact) {
+            chunk.add(deliveredArtifact);
+            if (chunk.size() >= DELIVERED_ARTIFACTS_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        public void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            processedArtifacts += chunk.size();
+            self.storeDeliveredArtifacts(reportId, distributionId, chunk, deliveredArtifactIds, processedArtifacts);
+            chunk = new ArrayList<>();
+        }
+    }
+
     private class ArtifactStats {
         int totalArtifacts = 0;
         int pncArtifactsCount = 0;
@@ -897,21 +1051,45 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
         }
     }
 
+    /**
+     * Artifacts and target repositories of a distribution, prefetched and indexed once per distribution, so that the
+     * delivered artifacts are matched in constant time.
+     */
     private class ArtifactCache {
 
         private Map<Integer, org.jboss.pnc.model.Artifact> pncCache = new HashMap<>();
 
         private Map<IdentifierSha256, org.jboss.pnc.model.Artifact> brewCache = new HashMap<>();
-        private Map<String, TargetRepository> targetRepositoryCache = new HashMap<>();
+
+        /**
+         * Not found artifacts stored in PNC, by SHA-256 and filename.
+         */
+        private Map<Sha256Filename, List<org.jboss.pnc.model.Artifact>> notFoundCache = new HashMap<>();
+
+        /**
+         * Identifiers and SHA-256 of the Brew artifacts, computed once per artifact.
+         */
+        private Map<Artifact, IdentifierSha256> brewArtifactKeys = new IdentityHashMap<>();
+
+        /**
+         * Target repositories of the Brew builds, by Brew build id.
+         */
+        private Map<Long, TargetRepository> targetRepositoryCache = new HashMap<>();
+
+        /**
+         * Origin URLs of the Brew builds, by Brew build id.
+         */
+        private Map<Long, String> brewBuildOriginUrls = new HashMap<>();
 
         private User user;
 
-        public ArtifactCache(Collection<Build> builds, User user) {
+        public ArtifactCache(Collection<Build> builds, Collection<Artifact> notFoundArtifacts, User user) {
             this.user = user;
             prefetchPNCArtifacts(builds);
             prefetchTargetRepos(builds);
             prefetchBrewArtifacts(builds);
             prefetchBrewImportedArtifacts(builds);
+            prefetchNotFoundArtifacts(notFoundArtifacts);
         }
 
         private void prefetchPNCArtifacts(Collection<Build> builds) {
@@ -935,9 +1113,14 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
         private void prefetchTargetRepos(Collection<Build> builds) {
             log.debug("Preloading target repos...");
 
-            Set<TargetRepository.IdentifierPath> queries = builds.stream()
+            Map<String, List<Long>> brewBuildIdsByPath = builds.stream()
                     .filter(b -> b.getBuildSystemType() == BuildSystemType.BREW)
-                    .map(this::getKojiPath)
+                    .collect(
+                            Collectors.groupingBy(
+                                    this::getKojiPath,
+                                    Collectors.mapping(Build::getBrewId, Collectors.toList())));
+            Set<TargetRepository.IdentifierPath> queries = brewBuildIdsByPath.keySet()
+                    .stream()
                     .map(path -> new TargetRepository.IdentifierPath(INDY_MAVEN, path))
                     .collect(Collectors.toSet());
 
@@ -945,8 +1128,8 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
                 List<TargetRepository> targetRepositories = targetRepositoryRepository
                         .queryByIdentifiersAndPaths(queries);
                 targetRepositories.forEach(
-                        targetRepository -> targetRepositoryCache
-                                .put(targetRepository.getRepositoryPath(), targetRepository));
+                        targetRepository -> brewBuildIdsByPath.get(targetRepository.getRepositoryPath())
+                                .forEach(brewId -> targetRepositoryCache.put(brewId, targetRepository)));
             }
             log.debug("Preloaded {} target repos to cache.", targetRepositoryCache.size());
         }
@@ -989,12 +1172,24 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
                     brewCache.size());
         }
 
+        private void prefetchNotFoundArtifacts(Collection<Artifact> notFoundArtifacts) {
+            log.debug("Preloading not found artifacts...");
+
+            Set<String> sha256s = notFoundArtifacts.stream().map(Artifact::getSha256).collect(Collectors.toSet());
+
+            if (!sha256s.isEmpty()) {
+                artifactRepository.withSha256In(sha256s).forEach(this::addNotFoundArtifact);
+            }
+            log.debug("Preloaded {} not found artifact candidates to cache.", notFoundCache.size());
+        }
+
         public Stream<IdentifierSha256> prefetchBrewBuild(Build build) {
-            return build.getArtifacts()
-                    .stream()
-                    .peek(this::assertBrewArtifacts)
-                    .map(a -> mapBrewArtifact(a, build.getBrewNVR(), null, user))
-                    .map(a -> a.getIdentifierSha256());
+            return build.getArtifacts().stream().peek(this::assertBrewArtifacts).map(this::getBrewArtifactKey);
+        }
+
+        private IdentifierSha256 getBrewArtifactKey(Artifact artifact) {
+            return brewArtifactKeys
+                    .computeIfAbsent(artifact, a -> new IdentifierSha256(createIdentifier(a), a.getSha256()));
         }
 
         private String getKojiPath(Build build) {
@@ -1027,28 +1222,51 @@ public class DeliverableAnalyzerManagerImpl implements org.jboss.pnc.facade.Deli
             return artifact;
         }
 
+        /**
+         * @return the stored artifacts with the SHA-256 and filename, including the ones created for this distribution
+         */
+        public List<org.jboss.pnc.model.Artifact> findNotFoundArtifacts(String sha256, String filename) {
+            return notFoundCache.getOrDefault(new Sha256Filename(sha256, filename), Collections.emptyList());
+        }
+
+        public org.jboss.pnc.model.Artifact addNotFoundArtifact(org.jboss.pnc.model.Artifact artifact) {
+            notFoundCache.computeIfAbsent(
+                    new Sha256Filename(artifact.getSha256(), artifact.getFilename()),
+                    key -> new ArrayList<>()).add(artifact);
+            return artifact;
+        }
+
         public TargetRepository findOrCreateTargetRepository(Build build) {
-            String path = getKojiPath(build);
-            return targetRepositoryCache
-                    .computeIfAbsent(path, p -> createRepository(p, INDY_MAVEN, RepositoryType.MAVEN));
+            return targetRepositoryCache.computeIfAbsent(
+                    build.getBrewId(),
+                    brewId -> createRepository(getKojiPath(build), INDY_MAVEN, RepositoryType.MAVEN));
         }
 
-        private org.jboss.pnc.model.Artifact findOrCreateBrewArtifact(
-                org.jboss.pnc.model.Artifact artifact,
-                Build build) {
-            org.jboss.pnc.model.Artifact cachedArtifact = brewCache.get(artifact.getIdentifierSha256());
+        public org.jboss.pnc.model.Artifact findOrCreateBrewArtifact(Artifact artifact, Build build) {
+            org.jboss.pnc.model.Artifact cachedArtifact = brewCache.get(getBrewArtifactKey(artifact));
             if (cachedArtifact != null) {
                 return cachedArtifact;
             }
 
             // Otherwise, we need to create this artifact.
+            String brewBuildOriginUrl = brewBuildOriginUrls
+                    .computeIfAbsent(build.getBrewId(), brewId -> createBrewBuildOriginURL(build.getBrewNVR()));
             TargetRepository brewRepository = findOrCreateTargetRepository(build);
-            artifact.setTargetRepository(brewRepository);
-            org.jboss.pnc.model.Artifact savedArtifact = artifactRepository.save(artifact);
-            brewRepository.getArtifacts().add(savedArtifact);
-            brewCache.put(artifact.getIdentifierSha256(), savedArtifact);
+            org.jboss.pnc.model.Artifact brewArtifact = mapBrewArtifact(
+                    artifact,
+                    brewBuildOriginUrl,
+                    brewRepository,
+                    user);
+            org.jboss.pnc.model.Artifact savedArtifact = artifactRepository.save(brewArtifact);
+            brewCache.put(brewArtifact.getIdentifierSha256(), savedArtifact);
             return savedArtifact;
         }
     }
 
+    @Value
+    private static class Sha256Filename {
+        String sha256;
+        String filename;
+    }
+
 }
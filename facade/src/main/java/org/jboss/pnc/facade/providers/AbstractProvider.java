@@ -20,27 +20,33 @@ package org.jboss.pnc.facade.providers;
 import com.google.common.collect.ObjectArrays;
 import org.jboss.pnc.dto.DTOEntity;
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.dto.response.Page.TotalHitsMode;
 import org.jboss.pnc.dto.validation.groups.WhenCreatingNew;
 import org.jboss.pnc.dto.validation.groups.WhenDeleting;
 import org.jboss.pnc.facade.providers.api.Provider;
 import org.jboss.pnc.facade.rsql.RSQLProducer;
 import org.jboss.pnc.facade.validation.DTOValidationException;
 import org.jboss.pnc.facade.validation.EmptyEntityException;
+import org.jboss.pnc.facade.validation.InvalidEntityException;
 import org.jboss.pnc.facade.validation.ValidationBuilder;
 import org.jboss.pnc.mapper.api.BuildMapper;
 import org.jboss.pnc.mapper.api.EntityMapper;
 import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.CursorPage;
+import org.jboss.pnc.spi.datastore.repositories.api.PageCursor;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.KeysetSortInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.security.PermitAll;
 import javax.inject.Inject;
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -123,8 +129,29 @@ public abstract class AbstractProvider<ID extends Serializable, DB extends Gener
         repository.delete(id);
     }
 
+    @Override
+    public Page<DTO> getAll(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            TotalHitsMode totalHitsMode) {
+        return queryForCollection(totalHitsMode, pageIndex, pageSize, sortingRsql, query);
+    }
+
+    @Override
+    public Page<DTO> queryForCollection(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Predicate<DB>... predicates) {
+        return queryForCollection(TotalHitsMode.EXACT, pageIndex, pageSize, sortingRsql, query, predicates);
+    }
+
     @Override
     public Page<DTO> queryForCollection(
+            TotalHitsMode totalHitsMode,
             int pageIndex,
             int pageSize,
             String sortingRsql,
@@ -133,14 +160,96 @@ public abstract class AbstractProvider<ID extends Serializable, DB extends Gener
         Predicate<DB> rsqlPredicate = rsqlPredicateProducer.getCriteriaPredicate(type, query);
         PageInfo pageInfo = pageInfoProducer.getPageInfo(pageIndex, pageSize);
         SortInfo<DB> sortInfo = rsqlPredicateProducer.getSortInfo(type, sortingRsql);
-        List<DB> collection = repository
-                .queryWithPredicates(pageInfo, sortInfo, ObjectArrays.concat(rsqlPredicate, predicates));
-        int totalHits = repository.count(ObjectArrays.concat(rsqlPredicate, predicates));
-        int totalPages = pageSize == 0 ? 0 : (totalHits + pageSize - 1) / pageSize;
+        Predicate<DB>[] allPredicates = ObjectArrays.concat(rsqlPredicate, predicates);
+        List<DB> collection = repository.queryWithPredicates(pageInfo, sortInfo, allPredicates);
+        int totalHits = countTotalHits(totalHitsMode, pageInfo, collection, query, predicates, allPredicates);
+        int totalPages = totalHits < 0 ? -1 : pageSize == 0 ? 0 : (totalHits + pageSize - 1) / pageSize;
+        if (collection != null) {
+            prefetchForMapping(collection);
+        }
         List<DTO> content = nullableStreamOf(collection).map(mapper::toDTO).collect(Collectors.toList());
         return new Page<>(pageIndex, pageSize, totalPages, totalHits, content);
     }
 
+    private int countTotalHits(
+            TotalHitsMode totalHitsMode,
+            PageInfo pageInfo,
+            List<DB> collection,
+            String query,
+            Predicate<DB>[] predicates,
+            Predicate<DB>[] allPredicates) {
+        int pageSize = pageInfo.getPageSize();
+        int loaded = collection == null ? 0 : collection.size();
+        if (pageSize > 0 && loaded < pageSize && (loaded > 0 || pageInfo.getPageOffset() == 0)) {
+            // the last page tells the count without querying it
+            return pageInfo.getElementOffset() + loaded;
+        }
+        switch (totalHitsMode == null ? TotalHitsMode.EXACT : totalHitsMode) {
+            case NONE:
+                return -1;
+            case ESTIMATED:
+                // the estimate is known only for the whole table
+                if ((query == null || query.isEmpty()) && predicates.length == 0) {
+                    int estimate = repository.estimateCount();
+                    if (estimate >= 0) {
+                        return Math.max(estimate, pageInfo.getElementOffset() + loaded);
+                    }
+                }
+                return repository.count(allPredicates);
+            case EXACT:
+            default:
+                return repository.count(allPredicates);
+        }
+    }
+
+    @Override
+    public Page<DTO> queryForCollectionAfter(
+            String pageCursor,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Predicate<DB>... predicates) {
+        PageCursor cursor;
+        try {
+            cursor = PageCursor.decode(pageCursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEntityException("Invalid page cursor.", "pageCursor", e);
+        }
+        Predicate<DB> rsqlPredicate = rsqlPredicateProducer.getCriteriaPredicate(type, query);
+        SortInfo<DB> sortInfo = new KeysetSortInfo<>(rsqlPredicateProducer.getSortInfo(type, sortingRsql));
+        if (!cursor.isFirst() && cursor.getValues().size() != sortInfo.orders().size()) {
+            throw new InvalidEntityException("Page cursor doesn't match the sorting.", "pageCursor");
+        }
+        Predicate<DB>[] allPredicates = ObjectArrays.concat(rsqlPredicate, predicates);
+        CursorPage<DB> collection = repository.queryWithPredicates(cursor, pageSize, sortInfo, allPredicates);
+
+        // counting is as expensive as the offset paging, so it's done only once
+        int pageIndex = -1;
+        int totalPages = -1;
+        int totalHits = -1;
+        if (cursor.isFirst()) {
+            pageIndex = 0;
+            totalHits = repository.count(allPredicates);
+            totalPages = pageSize == 0 ? 0 : (totalHits + pageSize - 1) / pageSize;
+        }
+        if (collection.getContent() != null) {
+            prefetchForMapping(collection.getContent());
+        }
+        List<DTO> content = nullableStreamOf(collection.getContent()).map(mapper::toDTO).collect(Collectors.toList());
+        Page<DTO> page = new Page<>(pageIndex, pageSize, totalPages, totalHits, content);
+        if (collection.getNextPageCursor() != null) {
+            page.setNextPageCursor(collection.getNextPageCursor().encode());
+        }
+        return page;
+    }
+
+    /**
+     * Called before a page of entities is mapped to DTOs. Override to fetch the data needed by the mapping with bulk
+     * queries instead of a query per entity.
+     */
+    protected void prefetchForMapping(Collection<DB> entities) {
+    }
+
     protected void validateBeforeSaving(DTO restEntity) {
         ValidationBuilder.validateObject(restEntity, WhenCreatingNew.class)
                 .validateNotEmptyArgument()
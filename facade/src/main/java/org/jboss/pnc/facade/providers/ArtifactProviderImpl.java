@@ -20,11 +20,13 @@ package org.jboss.pnc.facade.providers;
 import org.commonjava.atlas.maven.ident.ref.InvalidRefException;
 import org.jboss.pnc.common.maven.Gav;
 import org.jboss.pnc.coordinator.maintenance.BlacklistAsyncInvoker;
+import org.jboss.pnc.datastore.BuiltArtifactFilter;
 import org.jboss.pnc.dto.ArtifactRef;
 import org.jboss.pnc.dto.ArtifactRevision;
 import org.jboss.pnc.dto.User;
 import org.jboss.pnc.dto.response.ArtifactInfo;
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.dto.response.Page.TotalHitsMode;
 import org.jboss.pnc.enums.ArtifactQuality;
 import org.jboss.pnc.enums.BuildCategory;
 import org.jboss.pnc.enums.RepositoryType;
@@ -134,6 +136,8 @@ public class ArtifactProviderImpl
 
     private UserMapper userMapper;
 
+    private BuiltArtifactFilter builtArtifactFilter;
+
     @Inject
     private EntityManager em;
 
@@ -146,7 +150,8 @@ public class ArtifactProviderImpl
             ArtifactAuditedRepository artifactAuditedRepository,
             BlacklistAsyncInvoker blacklistAsyncInvoker,
             UserService userService,
-            UserMapper userMapper) {
+            UserMapper userMapper,
+            BuiltArtifactFilter builtArtifactFilter) {
         super(repository, mapper, Artifact.class);
         this.artifactRevisionMapper = artifactRevisionMapper;
         this.productMilestoneMapper = productMilestoneMapper;
@@ -154,6 +159,7 @@ public class ArtifactProviderImpl
         this.blacklistAsyncInvoker = blacklistAsyncInvoker;
         this.userService = userService;
         this.userMapper = userMapper;
+        this.builtArtifactFilter = builtArtifactFilter;
     }
 
     @Override
@@ -165,11 +171,47 @@ public class ArtifactProviderImpl
             Optional<String> sha256,
             Optional<String> md5,
             Optional<String> sha1) {
+        return getAll(pageIndex, pageSize, sortingRsql, query, sha256, md5, sha1, TotalHitsMode.EXACT);
+    }
+
+    @Override
+    public Page<org.jboss.pnc.dto.Artifact> getAll(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Optional<String> sha256,
+            Optional<String> md5,
+            Optional<String> sha1,
+            TotalHitsMode totalHitsMode) {
+        // only the present checksums filter, so that the unfiltered listing can use the estimated total hits
+        List<Predicate<Artifact>> predicates = new ArrayList<>();
+        sha256.ifPresent(checksum -> predicates.add(withSha256(sha256)));
+        md5.ifPresent(checksum -> predicates.add(withMd5(md5)));
+        sha1.ifPresent(checksum -> predicates.add(withSha1(sha1)));
         return queryForCollection(
+                totalHitsMode,
                 pageIndex,
                 pageSize,
                 sortingRsql,
                 query,
+                predicates.toArray(new Predicate[0]));
+    }
+
+    @Override
+    public Page<org.jboss.pnc.dto.Artifact> getAllAfter(
+            String pageCursor,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Optional<String> sha256,
+            Optional<String> md5,
+            Optional<String> sha1) {
+        return queryForCollectionAfter(
+                pageCursor,
+                pageSize,
+                sortingRsql,
+                query,
                 withSha256(sha256),
                 withMd5(md5),
                 withSha1(sha1));
@@ -209,13 +251,17 @@ public class ArtifactProviderImpl
         org.jboss.pnc.model.User currentUser = userService.currentUser();
         User user = userMapper.toDTO(currentUser);
         Instant now = Instant.now();
-        return super.store(
+        org.jboss.pnc.dto.Artifact stored = super.store(
                 restEntity.toBuilder()
                         .creationUser(user)
                         .modificationUser(user)
                         .creationTime(now)
                         .modificationTime(now)
                         .build());
+        if (stored.getBuild() != null) {
+            builtArtifactFilter.putAfterCommitAndDistribute(List.of(stored.getIdentifier()));
+        }
+        return stored;
     }
 
     @Override
@@ -228,6 +274,14 @@ public class ArtifactProviderImpl
         }
     }
 
+    @Override
+    protected void onUpdate(Artifact dbEntity) {
+        // the build can be set by the update, the identifier of a built artifact is added to the filter again otherwise
+        if (dbEntity.getBuildRecord() != null) {
+            builtArtifactFilter.putAfterCommitAndDistribute(List.of(dbEntity.getIdentifier()));
+        }
+    }
+
     private boolean equalAuditedValues(Artifact persisted, org.jboss.pnc.dto.Artifact toUpdate) {
         return Objects.equals(persisted.getArtifactQuality(), toUpdate.getArtifactQuality())
                 && Objects.equals(persisted.getQualityLevelReason(), toUpdate.getQualityLevelReason());
@@ -30,6 +30,7 @@ import org.jboss.pnc.dto.notification.BuildConfigurationCreation;
 import org.jboss.pnc.dto.requests.BuildConfigWithSCMRequest;
 import org.jboss.pnc.dto.response.BuildConfigCreationResponse;
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.dto.response.Page.TotalHitsMode;
 import org.jboss.pnc.dto.response.RepositoryCreationResponse;
 import org.jboss.pnc.dto.validation.groups.WhenCreatingNew;
 import org.jboss.pnc.dto.validation.groups.WhenUpdating;
@@ -80,6 +81,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -175,6 +177,16 @@ public class BuildConfigurationProviderImpl extends
         return queryForCollection(pageIndex, pageSize, sortingRsql, query, isNotArchived());
     }
 
+    @Override
+    public Page<BuildConfiguration> getAll(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            TotalHitsMode totalHitsMode) {
+        return queryForCollection(totalHitsMode, pageIndex, pageSize, sortingRsql, query, isNotArchived());
+    }
+
     @Override
     public BuildConfiguration store(BuildConfiguration restEntity) throws DTOValidationException {
         validateBeforeSaving(restEntity);
@@ -601,7 +613,8 @@ public class BuildConfigurationProviderImpl extends
         originalBC.setScmRevision(buildConfigurationAudited.getScmRevision());
         originalBC.setBuildType(buildConfigurationAudited.getBuildType());
         originalBC.setBuildEnvironment(buildConfigurationAudited.getBuildEnvironment());
-        originalBC.setGenericParameters(buildConfigurationAudited.getGenericParameters());
+        // the audited revision is shared from the cache, don't let the entity take over its parameters
+        originalBC.setGenericParameters(new HashMap<>(buildConfigurationAudited.getGenericParameters()));
         originalBC.setLastModificationUser(user);
 
         org.jboss.pnc.model.BuildConfiguration newBc = repository.save(originalBC);
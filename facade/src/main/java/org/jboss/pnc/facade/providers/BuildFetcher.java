@@ -22,19 +22,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.facade.util.MergeIterator;
 import org.jboss.pnc.facade.validation.CorruptedDataException;
+import org.jboss.pnc.mapper.BuildBCRevisionFetcher;
 import org.jboss.pnc.mapper.api.BuildMapper;
 import org.jboss.pnc.model.Base32LongID;
 import org.jboss.pnc.model.BuildConfigSetRecord;
-import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.BuildRecord;
-import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.spi.coordinator.BuildCoordinator;
 import org.jboss.pnc.spi.coordinator.BuildTask;
-import org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicates;
 import org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigSetRecordRepository;
-import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
-import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
@@ -84,10 +80,7 @@ public class BuildFetcher {
     private BuildConfigSetRecordRepository buildConfigSetRecordRepository;
 
     @Inject
-    private BuildConfigurationRepository buildConfigurationRepository;
-
-    @Inject
-    private BuildConfigurationAuditedRepository buildConfigurationAuditedRepository;
+    private BuildBCRevisionFetcher bcRevisionFetcher;
 
     private final Map<String, BuildTask> buildTaskCache = new HashMap<>();
     private final Map<Base32LongID, BuildRecord> buildRecordCache = new HashMap<>();
@@ -149,7 +142,8 @@ public class BuildFetcher {
                 .limit(pageSize)
                 .collect(Collectors.toList());
 
-        fetchBuildConfigAudited(builds.stream().flatMap(BuildWrapper::buildRecordStream).collect(Collectors.toSet()));
+        bcRevisionFetcher
+                .prefetch(builds.stream().flatMap(BuildWrapper::buildRecordStream).collect(Collectors.toSet()));
         return builds.stream().map(BuildWrapper::getBuild).collect(Collectors.toList());
     }
 
@@ -213,7 +207,7 @@ public class BuildFetcher {
     public void precacheAllBuildsDeps(Base32LongID buildId) {
         checkCacheForMissingDeps(buildId);
         fetchRemainingDeps();
-        fetchBuildConfigAudited(buildRecordCache.values());
+        bcRevisionFetcher.prefetch(buildRecordCache.values());
     }
 
     /**
@@ -224,7 +218,7 @@ public class BuildFetcher {
             checkCacheForMissingDeps(buildId);
         }
         fetchRemainingDeps();
-        fetchBuildConfigAudited(buildRecordCache.values());
+        bcRevisionFetcher.prefetch(buildRecordCache.values());
     }
 
     /**
@@ -298,32 +292,6 @@ public class BuildFetcher {
         }
     }
 
-    private void fetchBuildConfigAudited(Collection<BuildRecord> buildRecords) {
-        if (buildRecords.isEmpty()) {
-            return;
-        }
-        Set<IdRev> idRevs = buildRecords.stream()
-                .filter(buildRecord -> buildRecord.getBuildConfigurationAudited() == null)
-                .map(BuildRecord::getBuildConfigurationAuditedIdRev)
-                .collect(Collectors.toSet());
-        prefetchFieldsOfBuildConfigs(idRevs);
-        Map<IdRev, BuildConfigurationAudited> buildConfigRevisions = buildConfigurationAuditedRepository
-                .queryById(idRevs);
-        for (BuildRecord buildRecord : buildRecords) {
-            if (buildRecord.getBuildConfigurationAudited() != null) {
-                continue;
-            }
-            IdRev idRev = buildRecord.getBuildConfigurationAuditedIdRev();
-            BuildConfigurationAudited buildConfigurationAudited = buildConfigRevisions.get(idRev);
-            buildRecord.setBuildConfigurationAudited(buildConfigurationAudited);
-        }
-    }
-
-    private void prefetchFieldsOfBuildConfigs(Set<IdRev> idRevs) {
-        Set<Integer> buildConfigIDs = idRevs.stream().map(IdRev::getId).collect(Collectors.toSet());
-        buildConfigurationRepository.queryWithPredicates(BuildConfigurationPredicates.withIds(buildConfigIDs));
-    }
-
     /**
      * Wrapper around {@link Build} that has also sets of ids of its deps (dependencies and dependants).
      */
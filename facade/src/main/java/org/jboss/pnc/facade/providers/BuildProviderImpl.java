@@ -21,22 +21,23 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.jboss.pnc.auth.ServiceAccountClient;
 import org.jboss.pnc.common.graph.VertexNeighbor;
-import org.jboss.pnc.common.graph.WeightedGraphBuilder;
 import org.jboss.pnc.common.http.HttpUtils;
 import org.jboss.pnc.common.scm.ScmException;
+import org.jboss.pnc.common.graph.BatchedWeightedGraphBuilder;
 import org.jboss.pnc.common.graph.GraphBuilder;
 import org.jboss.pnc.common.graph.GraphUtils;
-import org.jboss.pnc.common.pnc.LongBase32IdConverter;
+import org.jboss.pnc.common.graph.IndexedGraph;
 import org.jboss.pnc.common.util.StringUtils;
-import org.jboss.pnc.common.util.TimeUtils;
 import org.jboss.pnc.constants.Attributes;
 import org.jboss.pnc.remotecoordinator.maintenance.TemporaryBuildsCleanerAsyncInvoker;
+import org.jboss.pnc.datastore.BuiltArtifactFilter;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.dto.BuildConfigurationRevision;
 import org.jboss.pnc.dto.BuildRef;
 import org.jboss.pnc.dto.insights.BuildRecordInsights;
 import org.jboss.pnc.dto.response.Graph;
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.dto.response.Page.TotalHitsMode;
 import org.jboss.pnc.dto.response.RunningBuildCount;
 import org.jboss.pnc.dto.response.SSHCredentials;
 import org.jboss.pnc.facade.providers.BuildFetcher.BuildWithDeps;
@@ -49,6 +50,7 @@ import org.jboss.pnc.facade.validation.DTOValidationException;
 import org.jboss.pnc.facade.validation.EmptyEntityException;
 import org.jboss.pnc.facade.validation.InvalidEntityException;
 import org.jboss.pnc.facade.validation.RepositoryViolationException;
+import org.jboss.pnc.mapper.BuildBCRevisionFetcher;
 import org.jboss.pnc.mapper.api.BuildConfigurationRevisionMapper;
 import org.jboss.pnc.mapper.api.BuildMapper;
 import org.jboss.pnc.mapper.api.GroupBuildMapper;
@@ -70,6 +72,7 @@ import org.jboss.pnc.spi.datastore.repositories.BuildConfigSetRecordRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
+import org.jboss.pnc.spi.datastore.repositories.api.PageCursor;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
@@ -89,13 +92,18 @@ import javax.ejb.EJBAccessException;
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 import javax.persistence.Tuple;
-import java.math.BigInteger;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -154,9 +162,12 @@ public class BuildProviderImpl extends AbstractUpdatableProvider<Base32LongID, B
     private ResultMapper resultMapper;
     private GroupBuildMapper groupBuildMapper;
     private BuildFetcher buildFetcher;
+    private BuildBCRevisionFetcher bcRevisionFetcher;
 
     private ServiceAccountClient serviceAccountClient;
 
+    private BuiltArtifactFilter builtArtifactFilter;
+
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     @Inject
@@ -174,7 +185,9 @@ public class BuildProviderImpl extends AbstractUpdatableProvider<Base32LongID, B
             ResultMapper resultMapper,
             GroupBuildMapper groupBuildMapper,
             BuildFetcher buildFetcher,
-            ServiceAccountClient serviceAccountClient) {
+            BuildBCRevisionFetcher bcRevisionFetcher,
+            ServiceAccountClient serviceAccountClient,
+            BuiltArtifactFilter builtArtifactFilter) {
         super(repository, mapper, BuildRecord.class);
 
         this.artifactRepository = artifactRepository;
@@ -190,7 +203,14 @@ public class BuildProviderImpl extends AbstractUpdatableProvider<Base32LongID, B
         this.resultMapper = resultMapper;
         this.groupBuildMapper = groupBuildMapper;
         this.buildFetcher = buildFetcher;
+        this.bcRevisionFetcher = bcRevisionFetcher;
         this.serviceAccountClient = serviceAccountClient;
+        this.builtArtifactFilter = builtArtifactFilter;
+    }
+
+    @Override
+    protected void prefetchForMapping(Collection<BuildRecord> buildRecords) {
+        bcRevisionFetcher.prefetch(buildRecords);
     }
 
     @Override
@@ -339,6 +359,14 @@ public class BuildProviderImpl extends AbstractUpdatableProvider<Base32LongID, B
         return getBuilds(pageInfo);
     }
 
+    /**
+     * The builds merge the running builds with the build records, so the total hits are always exact.
+     */
+    @Override
+    public Page<Build> getAll(int pageIndex, int pageSize, String sort, String query, TotalHitsMode totalHitsMode) {
+        return getAll(pageIndex, pageSize, sort, query);
+    }
+
     @Override
     public Page<Build> getBuilds(BuildPageInfo pageInfo) {
         try {
@@ -455,7 +483,7 @@ public class BuildProviderImpl extends AbstractUpdatableProvider<Base32LongID, B
         Set<Base32LongID> buildIDs = buildFetcher.getGroupBuildContent(id);
         buildFetcher.precacheAllBuildsDeps(buildIDs);
 
-        org.jboss.util.graph.Graph<BuildWithDeps> buildGraph = new org.jboss.util.graph.Graph<>();
+        org.jboss.util.graph.Graph<BuildWithDeps> buildGraph = new IndexedGraph<>();
         for (Base32LongID buildId : buildIDs) {
             org.jboss.util.graph.Graph<BuildWithDeps> dependencyGraph = createBuildDependencyGraph(buildId.getId());
             GraphUtils.merge(buildGraph, dependencyGraph);
@@ -482,7 +510,7 @@ public class BuildProviderImpl extends AbstractUpdatableProvider<Base32LongID, B
     }
 
     private org.jboss.util.graph.Graph<BuildWithDeps> createBuildDependencyGraph(String buildId) {
-        org.jboss.util.graph.Graph<BuildWithDeps> graph = new org.jboss.util.graph.Graph<>();
+        org.jboss.util.graph.Graph<BuildWithDeps> graph = new IndexedGraph<>();
         GraphBuilder<BuildWithDeps, String> graphBuilder = new GraphBuilder<>(
                 id -> buildFetcher.getBuildWithDeps(id),
                 BuildWithDeps::getDependencies,
@@ -539,16 +567,20 @@ public class BuildProviderImpl extends AbstractUpdatableProvider<Base32LongID, B
 
         // if build is not in DB, check running builds
         if (build == null) {
-            try {
-                build = buildCoordinator.getSubmittedBuildTask(buildId).map(buildMapper::fromBuildTask).orElse(null);
-            } catch (RemoteRequestException | MissingDataException e) {
-                throw new RuntimeException(e);
-            }
+            build = getSubmittedBuild(buildId);
         }
 
         return build;
     }
 
+    private Build getSubmittedBuild(String buildId) {
+        try {
+            return buildCoordinator.getSubmittedBuildTask(buildId).map(buildMapper::fromBuildTask).orElse(null);
+        } catch (RemoteRequestException | MissingDataException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @RolesAllowed({ USERS_BUILD_ADMIN, USERS_ADMIN })
     @Override
     public void setBuiltArtifacts(String buildId, List<String> artifactIds) {
@@ -571,6 +603,8 @@ public class BuildProviderImpl extends AbstractUpdatableProvider<Base32LongID, B
             }
             artifact.setBuildRecord(buildRecord);
         }
+        builtArtifactFilter.putAfterCommitAndDistribute(
+                artifacts.stream().map(Artifact::getIdentifier).collect(Collectors.toList()));
         HashSet<Artifact> oldBuiltArtifacts = new HashSet<>(buildRecord.getBuiltArtifacts());
         oldBuiltArtifacts.stream().filter(a -> !ids.contains(a.getId())).forEach(a -> a.setBuildRecord(null));
     }
@@ -668,83 +702,61 @@ public class BuildProviderImpl extends AbstractUpdatableProvider<Base32LongID, B
 
             logger.debug("offset: {}", offset);
 
-            List<Object[]> rawBuildInsights = buildRecordRepository
+            content = buildRecordRepository
                     .getAllBuildRecordInsightsNewerThanTimestamp(lastupdatetime, pageSize, offset);
-            for (Object[] rawBuildInsight : rawBuildInsights) {
-
-                Long buildRecordId = ((BigInteger) rawBuildInsight[0]).longValue();
-                String buildContentId = (String) rawBuildInsight[1];
-                buildContentId = StringUtils.isEmpty(buildContentId) ? LongBase32IdConverter.toString(buildRecordId)
-                        : buildContentId;
-                Date submitTime = (Date) rawBuildInsight[2];
-                Date startTime = (Date) rawBuildInsight[3];
-                Date endTime = (Date) rawBuildInsight[4];
-                Date lastTime = (Date) rawBuildInsight[5];
-                Integer submitYear = (Integer) rawBuildInsight[6];
-                Integer submitMonth = (Integer) rawBuildInsight[7];
-                Integer submitQuarter = (Integer) rawBuildInsight[8];
-                String status = (String) rawBuildInsight[9];
-                Boolean temporaryBuild = (Boolean) rawBuildInsight[10];
-                Boolean autoAlign = (Boolean) rawBuildInsight[11];
-                Boolean brewPullActive = (Boolean) rawBuildInsight[12];
-                String buildType = (String) rawBuildInsight[13];
-                String executionRootName = (String) rawBuildInsight[14];
-                String executionRootVersion = (String) rawBuildInsight[15];
-                Integer userId = (Integer) rawBuildInsight[16];
-                String username = (String) rawBuildInsight[17];
-                Integer buildConfigurationId = (Integer) rawBuildInsight[18];
-                Integer buildConfigurationRev = (Integer) rawBuildInsight[19];
-                String buildConfigurationName = (String) rawBuildInsight[20];
-                Long buildConfigSetRecordId = ((BigInteger) rawBuildInsight[21]).longValue();
-                Integer productMilestoneId = (Integer) rawBuildInsight[22];
-                String productMilestoneVersion = (String) rawBuildInsight[23];
-                Integer projectId = (Integer) rawBuildInsight[24];
-                String projectName = (String) rawBuildInsight[25];
-                Integer productVersionId = (Integer) rawBuildInsight[26];
-                String productVersion = (String) rawBuildInsight[27];
-                Integer productId = (Integer) rawBuildInsight[28];
-                String productName = (String) rawBuildInsight[29];
-
-                BuildRecordInsights buildRecordInsights = BuildRecordInsights.builder()
-                        .buildId(buildRecordId)
-                        .buildContentId(buildContentId)
-                        .submitTime(TimeUtils.toInstant(submitTime))
-                        .startTime(TimeUtils.toInstant(startTime))
-                        .endTime(TimeUtils.toInstant(endTime))
-                        .lastUpdateTime(TimeUtils.toInstant(lastTime))
-                        .submitYear(submitYear)
-                        .submitMonth(submitMonth)
-                        .submitQuarter(submitQuarter)
-                        .status(status)
-                        .temporarybuild(temporaryBuild)
-                        .autoalign(autoAlign)
-                        .brewpullactive(brewPullActive)
-                        .buildType(buildType)
-                        .executionRootName(executionRootName)
-                        .executionRootVersion(executionRootVersion)
-                        .userId(userId)
-                        .username(username)
-                        .buildConfigurationId(buildConfigurationId)
-                        .buildConfigurationRev(buildConfigurationRev)
-                        .buildConfigurationName(buildConfigurationName)
-                        .buildConfigSetRecordId(buildConfigSetRecordId)
-                        .productMilestoneId(productMilestoneId)
-                        .productMilestoneVersion(productMilestoneVersion)
-                        .projectId(projectId)
-                        .projectName(projectName)
-                        .productVersionId(productVersionId)
-                        .productVersionVersion(productVersion)
-                        .productId(productId)
-                        .productName(productName)
-                        .build();
-
-                content.add(buildRecordInsights);
-            }
         }
 
         return new Page<>(pageIndex, pageSize, totalPages, count, content);
     }
 
+    @Override
+    public Page<BuildRecordInsights> getBuildRecordInsightsNewerThanTimestamp(
+            String pageCursor,
+            int pageSize,
+            Date lastupdatetime) {
+        PageCursor cursor;
+        Date after = lastupdatetime;
+        Long afterBuildId = null;
+        try {
+            cursor = PageCursor.decode(pageCursor);
+            if (!cursor.isFirst()) {
+                if (cursor.getValues().size() != 2 || cursor.getValues().contains(null)) {
+                    throw new IllegalArgumentException("Expected last update time and build id: " + cursor);
+                }
+                after = Timestamp.from(Instant.parse(cursor.getValues().get(0)));
+                afterBuildId = Long.valueOf(cursor.getValues().get(1));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidEntityException("Invalid page cursor.", "pageCursor", e);
+        }
+
+        List<BuildRecordInsights> content = Collections.emptyList();
+        String nextPageCursor = null;
+        if (pageSize > 0) {
+            // one more row tells whether there is a next page
+            content = buildRecordRepository.getBuildRecordInsightsAfter(after, afterBuildId, pageSize + 1);
+            if (content.size() > pageSize) {
+                content = content.subList(0, pageSize);
+                BuildRecordInsights last = content.get(pageSize - 1);
+                nextPageCursor = PageCursor
+                        .after(Arrays.asList(last.getLastUpdateTime().toString(), last.getBuildId().toString()))
+                        .encode();
+            }
+        }
+
+        Page<BuildRecordInsights> page;
+        if (cursor.isFirst()) {
+            // count only once per export
+            int count = buildRecordRepository.countAllBuildRecordInsightsNewerThanTimestamp(lastupdatetime);
+            int totalPages = pageSize == 0 ? 0 : (int) Math.ceil(count / (double) pageSize);
+            page = new Page<>(0, pageSize, totalPages, count, content);
+        } else {
+            page = new Page<>(-1, pageSize, -1, -1, content);
+        }
+        page.setNextPageCursor(nextPageCursor);
+        return page;
+    }
+
     @Override
     public Graph<Build> getImplicitDependencyGraph(String buildId, Integer depthLimit) {
         org.jboss.util.graph.Graph<Build> implicitDependencyGraph = createImplicitDependencyGraph(buildId, depthLimit);
@@ -753,28 +765,52 @@ public class BuildProviderImpl extends AbstractUpdatableProvider<Base32LongID, B
     }
 
     private org.jboss.util.graph.Graph<Build> createImplicitDependencyGraph(String buildId, Integer depthLimit) {
-        var graph = new org.jboss.util.graph.Graph<Build>();
-        var graphBuilder = new WeightedGraphBuilder<Build, String>(this::getSpecific, node -> {
-            var tuples = buildRecordRepository
-                    .getImplicitDependencies(buildMapper.getIdMapper().toEntity(node.getId()));
-            return parseVertexNeighborsFromTuples(tuples);
-        }, node -> {
-            var tuples = buildRecordRepository.getImplicitDependants(buildMapper.getIdMapper().toEntity(node.getId()));
-            return parseVertexNeighborsFromTuples(tuples);
-        });
+        var graph = new IndexedGraph<Build>();
+        var graphBuilder = new BatchedWeightedGraphBuilder<Build, String>(
+                this::getBuildsByIds,
+                ids -> getVertexNeighbors(ids, buildRecordRepository::getImplicitDependencies),
+                ids -> getVertexNeighbors(ids, buildRecordRepository::getImplicitDependants));
 
         graphBuilder.buildGraph(graph, buildId, depthLimit);
         return graph;
     }
 
-    private List<VertexNeighbor<String>> parseVertexNeighborsFromTuples(List<Tuple> tuples) {
-        return tuples.stream()
-                .map(
-                        tuple -> VertexNeighbor.<String> builder()
-                                .neighborId(tuple.get(0, Base32LongID.class).toString())
-                                .cost(tuple.get(1, Integer.class))
-                                .build())
-                .collect(Collectors.toList());
+    /**
+     * Loads the builds of the given ids at once, builds which are not stored yet are looked up in the running builds.
+     */
+    private Map<String, Build> getBuildsByIds(Collection<String> buildIds) {
+        Map<Base32LongID, String> ids = buildIds.stream()
+                .collect(Collectors.toMap(this::parseId, Function.identity(), (id1, id2) -> id1));
+        Map<String, Build> builds = new HashMap<>();
+        for (BuildRecord buildRecord : buildRecordRepository.findByIdsFetchProperties(ids.keySet())) {
+            builds.put(ids.get(buildRecord.getId()), mapper.toDTO(buildRecord));
+        }
+        for (String buildId : buildIds) {
+            if (!builds.containsKey(buildId)) {
+                Build build = getSubmittedBuild(buildId);
+                if (build != null) {
+                    builds.put(buildId, build);
+                }
+            }
+        }
+        return builds;
+    }
+
+    private Map<String, Collection<VertexNeighbor<String>>> getVertexNeighbors(
+            Collection<String> buildIds,
+            Function<Collection<Base32LongID>, List<Tuple>> neighborsQuery) {
+        Map<Base32LongID, String> ids = buildIds.stream()
+                .collect(Collectors.toMap(this::parseId, Function.identity(), (id1, id2) -> id1));
+        Map<String, Collection<VertexNeighbor<String>>> neighbors = new HashMap<>();
+        for (Tuple tuple : neighborsQuery.apply(ids.keySet())) {
+            neighbors.computeIfAbsent(ids.get(tuple.get(0, Base32LongID.class)), id -> new ArrayList<>())
+                    .add(
+                            VertexNeighbor.<String> builder()
+                                    .neighborId(tuple.get(1, Base32LongID.class).toString())
+                                    .cost(tuple.get(2, Integer.class))
+                                    .build());
+        }
+        return neighbors;
     }
 
     private DefaultPageInfo toPageInfo(BuildPageInfo buildPageInfo) {
@@ -19,13 +19,18 @@ package org.jboss.pnc.facade.providers;
 
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.TreeMap;
 
 import javax.annotation.security.PermitAll;
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 
+import org.jboss.pnc.datastore.BuiltArtifactFilter;
 import org.jboss.pnc.facade.providers.api.CacheProvider;
+import org.jboss.pnc.facade.rsql.RSQLProducer;
+import org.jboss.pnc.facade.util.CurrentUserCache;
 import org.jboss.pnc.model.utils.HibernateMetric;
+import org.jboss.pnc.remotecoordinator.builder.RexFacade;
 import org.jboss.pnc.spi.datastore.repositories.CacheHandlerRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,9 +43,26 @@ public class CacheProviderImpl implements CacheProvider {
 
     private CacheHandlerRepository cacheHandlerRepository;
 
+    private RSQLProducer rsqlProducer;
+
+    private CurrentUserCache currentUserCache;
+
+    private BuiltArtifactFilter builtArtifactFilter;
+
+    private RexFacade rexFacade;
+
     @Inject
-    public CacheProviderImpl(CacheHandlerRepository cacheHandlerRepository) {
+    public CacheProviderImpl(
+            CacheHandlerRepository cacheHandlerRepository,
+            RSQLProducer rsqlProducer,
+            CurrentUserCache currentUserCache,
+            BuiltArtifactFilter builtArtifactFilter,
+            RexFacade rexFacade) {
         this.cacheHandlerRepository = cacheHandlerRepository;
+        this.rsqlProducer = rsqlProducer;
+        this.currentUserCache = currentUserCache;
+        this.builtArtifactFilter = builtArtifactFilter;
+        this.rexFacade = rexFacade;
     }
 
     @Override
@@ -63,8 +85,13 @@ public class CacheProviderImpl implements CacheProvider {
 
     @Override
     public SortedMap<String, HibernateMetric> getGenericStats() {
-        logger.debug("Get general statistics related to Hibernate.");
-        return cacheHandlerRepository.getGenericStats();
+        logger.debug("Get general statistics related to Hibernate and the application caches.");
+        SortedMap<String, HibernateMetric> stats = new TreeMap<>(cacheHandlerRepository.getGenericStats());
+        stats.putAll(rsqlProducer.getParseCacheStats());
+        stats.putAll(currentUserCache.getStats());
+        stats.putAll(builtArtifactFilter.getStats());
+        stats.putAll(rexFacade.getBuildMetaCacheStats());
+        return stats;
     }
 
     @Override
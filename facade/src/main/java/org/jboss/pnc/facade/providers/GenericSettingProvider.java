@@ -20,6 +20,8 @@ package org.jboss.pnc.facade.providers;
 import lombok.extern.slf4j.Slf4j;
 import org.jboss.pnc.dto.PncStatus;
 import org.jboss.pnc.dto.notification.GenericSettingNotification;
+import org.jboss.pnc.facade.util.GenericSettingCache;
+import org.jboss.pnc.facade.util.GenericSettingCache.SettingChangedEvent;
 import org.jboss.pnc.facade.util.UserService;
 import org.jboss.pnc.model.GenericSetting;
 import org.jboss.pnc.spi.datastore.repositories.GenericSettingRepository;
@@ -29,6 +31,7 @@ import org.jboss.util.Strings;
 import javax.annotation.security.PermitAll;
 import javax.annotation.security.RolesAllowed;
 import javax.ejb.Stateless;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import java.time.Instant;
 
@@ -52,6 +55,12 @@ public class GenericSettingProvider {
     @Inject
     private Notifier notifier;
 
+    @Inject
+    private GenericSettingCache genericSettingCache;
+
+    @Inject
+    private Event<SettingChangedEvent> settingChangedEvent;
+
     @Deprecated
     public GenericSettingProvider() {
     }
@@ -63,7 +72,7 @@ public class GenericSettingProvider {
         GenericSetting maintenanceMode = createGenericParameterIfNotFound(MAINTENANCE_MODE);
 
         maintenanceMode.setValue(Boolean.TRUE.toString());
-        genericSettingRepository.save(maintenanceMode);
+        save(maintenanceMode);
     }
 
     @RolesAllowed(USERS_ADMIN)
@@ -78,18 +87,11 @@ public class GenericSettingProvider {
         }
 
         maintenanceMode.setValue(Boolean.FALSE.toString());
-        genericSettingRepository.save(maintenanceMode);
+        save(maintenanceMode);
     }
 
     public boolean isInMaintenanceMode() {
-
-        GenericSetting maintenanceMode = genericSettingRepository.queryByKey(MAINTENANCE_MODE);
-
-        if (maintenanceMode == null) {
-            return false;
-        } else {
-            return Boolean.parseBoolean(maintenanceMode.getValue());
-        }
+        return Boolean.parseBoolean(genericSettingCache.get(MAINTENANCE_MODE));
     }
 
     public boolean isCurrentUserAllowedToTriggerBuilds() {
@@ -109,17 +111,17 @@ public class GenericSettingProvider {
         log.info("PNC System version set to: '{}'", version);
         GenericSetting pncVersion = createGenericParameterIfNotFound(PNC_VERSION);
         pncVersion.setValue(version);
-        genericSettingRepository.save(pncVersion);
+        save(pncVersion);
     }
 
     public String getPNCVersion() {
 
-        GenericSetting pncVersion = genericSettingRepository.queryByKey(PNC_VERSION);
+        String pncVersion = genericSettingCache.get(PNC_VERSION);
 
         if (pncVersion == null) {
             return Strings.EMPTY;
         } else {
-            return pncVersion.getValue();
+            return pncVersion;
         }
     }
 
@@ -129,17 +131,17 @@ public class GenericSettingProvider {
         log.info("Announcement banner set to: '{}'", banner);
         GenericSetting announcementBanner = createGenericParameterIfNotFound(ANNOUNCEMENT_BANNER);
         announcementBanner.setValue(banner);
-        genericSettingRepository.save(announcementBanner);
+        save(announcementBanner);
     }
 
     public String getAnnouncementBanner() {
 
-        GenericSetting announcementBanner = genericSettingRepository.queryByKey(ANNOUNCEMENT_BANNER);
+        String announcementBanner = genericSettingCache.get(ANNOUNCEMENT_BANNER);
 
         if (announcementBanner == null) {
             return Strings.EMPTY;
         } else {
-            return announcementBanner.getValue();
+            return announcementBanner;
         }
     }
 
@@ -149,12 +151,12 @@ public class GenericSettingProvider {
     }
 
     public PncStatus getPncStatus() {
-        GenericSetting banner = genericSettingRepository.queryByKey(ANNOUNCEMENT_BANNER);
-        GenericSetting eta = genericSettingRepository.queryByKey(ANNOUNCEMENT_ETA);
+        String banner = genericSettingCache.get(ANNOUNCEMENT_BANNER);
+        String eta = genericSettingCache.get(ANNOUNCEMENT_ETA);
 
         return PncStatus.builder()
-                .banner(banner == null ? null : banner.getValue())
-                .eta(eta == null ? null : Instant.parse(eta.getValue()))
+                .banner(banner)
+                .eta(eta == null ? null : Instant.parse(eta))
                 .isMaintenanceMode(isInMaintenanceMode())
                 .build();
     }
@@ -164,7 +166,7 @@ public class GenericSettingProvider {
         log.info("ETA set to: '{}'", eta);
         GenericSetting pncEta = createGenericParameterIfNotFound(ANNOUNCEMENT_ETA);
         pncEta.setValue(eta);
-        genericSettingRepository.save(pncEta);
+        save(pncEta);
     }
 
     @RolesAllowed(USERS_ADMIN)
@@ -172,6 +174,10 @@ public class GenericSettingProvider {
         clearByKey(ANNOUNCEMENT_ETA);
     }
 
+    /**
+     * Notifies the listeners about the changed PNC status. The notification also invalidates the settings cached on
+     * the other nodes, so it has to follow every change of the settings.
+     */
     public void notifyListeners() {
         notifier.sendMessage(GenericSettingNotification.pncStatusChanged(getPncStatus()));
     }
@@ -188,10 +194,16 @@ public class GenericSettingProvider {
         return genericSetting;
     }
 
+    private void save(GenericSetting genericSetting) {
+        genericSettingRepository.save(genericSetting);
+        settingChangedEvent.fire(new SettingChangedEvent(genericSetting.getKey(), genericSetting.getValue()));
+    }
+
     private void clearByKey(String key) {
         GenericSetting dbEntry = genericSettingRepository.queryByKey(key);
         if (dbEntry != null) {
             genericSettingRepository.delete(dbEntry.getId());
         }
+        settingChangedEvent.fire(new SettingChangedEvent(key, null));
     }
 }
@@ -20,6 +20,7 @@ package org.jboss.pnc.facade.providers;
 import org.jboss.pnc.dto.GroupConfiguration;
 import org.jboss.pnc.dto.GroupConfigurationRef;
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.dto.response.Page.TotalHitsMode;
 import org.jboss.pnc.dto.validation.groups.WhenCreatingNew;
 import org.jboss.pnc.dto.validation.groups.WhenUpdating;
 import org.jboss.pnc.facade.providers.api.GroupConfigurationProvider;
@@ -66,6 +67,16 @@ public class GroupConfigurationProviderImpl
         return queryForCollection(pageIndex, pageSize, sortingRsql, query, isNotArchived());
     }
 
+    @Override
+    public Page<GroupConfiguration> getAll(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            TotalHitsMode totalHitsMode) {
+        return queryForCollection(totalHitsMode, pageIndex, pageSize, sortingRsql, query, isNotArchived());
+    }
+
     @Override
     public GroupConfiguration getSpecific(String id) {
         BuildConfigurationSet dbEntity = repository.queryById(Integer.valueOf(id));
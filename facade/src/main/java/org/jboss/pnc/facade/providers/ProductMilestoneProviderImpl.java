@@ -22,6 +22,7 @@ import org.jboss.pnc.api.constants.Attributes;
 import org.jboss.pnc.api.constants.OperationParameters;
 import org.jboss.pnc.api.enums.OperationResult;
 import org.jboss.pnc.api.enums.ProgressStatus;
+import org.jboss.pnc.common.graph.IndexedGraph;
 import org.jboss.pnc.common.graph.UndirectedGraphBuilder;
 import org.jboss.pnc.common.graph.VertexNeighbor;
 import org.jboss.pnc.common.util.ArtifactCoordinatesUtils;
@@ -641,7 +642,7 @@ public class ProductMilestoneProviderImpl extends
     private org.jboss.util.graph.Graph<ProductMilestone> createMilestoneInterconnectionGraph(
             String milestoneId,
             Integer depthLimit) {
-        var graph = new org.jboss.util.graph.Graph<ProductMilestone>();
+        var graph = new IndexedGraph<ProductMilestone>();
         var graphBuilder = new UndirectedGraphBuilder<ProductMilestone, String>(id -> getSpecific(id), node -> {
             var tuples = milestoneRepository.getMilestonesSharingDeliveredArtifacts(Integer.valueOf(node.getId()));
             return parseVertexNeighborsFromTuples(tuples);
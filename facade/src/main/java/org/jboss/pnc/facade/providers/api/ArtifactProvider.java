@@ -22,6 +22,7 @@ import org.jboss.pnc.dto.ArtifactRef;
 import org.jboss.pnc.dto.ArtifactRevision;
 import org.jboss.pnc.dto.response.ArtifactInfo;
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.dto.response.Page.TotalHitsMode;
 import org.jboss.pnc.enums.ArtifactQuality;
 import org.jboss.pnc.enums.BuildCategory;
 import org.jboss.pnc.enums.RepositoryType;
@@ -41,6 +42,25 @@ public interface ArtifactProvider
             Optional<String> md5,
             Optional<String> sha1);
 
+    Page<Artifact> getAll(
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Optional<String> sha256,
+            Optional<String> md5,
+            Optional<String> sha1,
+            TotalHitsMode totalHitsMode);
+
+    Page<Artifact> getAllAfter(
+            String pageCursor,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Optional<String> sha256,
+            Optional<String> md5,
+            Optional<String> sha1);
+
     Page<ArtifactInfo> getAllFiltered(
             int pageIndex,
             int pageSize,
@@ -111,5 +111,19 @@ public interface BuildProvider extends Provider<Base32LongID, org.jboss.pnc.mode
             int pageSize,
             Date lastupdatetime);
 
+    /**
+     * Returns a page of the insights newer than the timestamp. The pages are selected by the cursor returned with the
+     * previous page, so walking through all the insights doesn't slow down with the growing offset. The total count is
+     * returned only with the first page.
+     *
+     * @param pageCursor {@link Page#getNextPageCursor()} of the previous page, null or empty for the first page
+     * @param pageSize maximum number of the insights in the page
+     * @param lastupdatetime lower bound of the last update time, used for the first page
+     */
+    Page<BuildRecordInsights> getBuildRecordInsightsNewerThanTimestamp(
+            String pageCursor,
+            int pageSize,
+            Date lastupdatetime);
+
     Graph<Build> getImplicitDependencyGraph(String buildId, Integer depthLimit);
 }
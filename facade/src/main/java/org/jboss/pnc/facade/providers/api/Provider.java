@@ -19,6 +19,7 @@ package org.jboss.pnc.facade.providers.api;
 
 import org.jboss.pnc.dto.DTOEntity;
 import org.jboss.pnc.dto.response.Page;
+import org.jboss.pnc.dto.response.Page.TotalHitsMode;
 import org.jboss.pnc.facade.validation.DTOValidationException;
 import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
@@ -40,6 +41,12 @@ public interface Provider<ID extends Serializable, DB extends GenericEntity<ID>,
 
     Page<DTO> getAll(int pageIndex, int pageSize, String sortingRsql, String query);
 
+    /**
+     * Same as {@link #getAll(int, int, String, String)}, with the total hits computed according to the totalHitsMode.
+     * Counting the hits of a big table can cost more than the page itself.
+     */
+    Page<DTO> getAll(int pageIndex, int pageSize, String sortingRsql, String query, TotalHitsMode totalHitsMode);
+
     DTO update(String id, DTO restEntity) throws DTOValidationException;
 
     void delete(String id) throws DTOValidationException;
@@ -51,4 +58,28 @@ public interface Provider<ID extends Serializable, DB extends GenericEntity<ID>,
             String query,
             Predicate<DB>... predicates);
 
+    /**
+     * @param totalHitsMode how the total hits are computed, null for {@link TotalHitsMode#EXACT}
+     */
+    Page<DTO> queryForCollection(
+            TotalHitsMode totalHitsMode,
+            int pageIndex,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Predicate<DB>... predicates);
+
+    /**
+     * Pages by the cursor instead of the page index, the cost of a page doesn't grow with its distance from the
+     * beginning. The total hits are counted only for the first page.
+     *
+     * @param pageCursor cursor from {@link Page#getNextPageCursor()} of the previous page, empty for the first page
+     */
+    Page<DTO> queryForCollectionAfter(
+            String pageCursor,
+            int pageSize,
+            String sortingRsql,
+            String query,
+            Predicate<DB>... predicates);
+
 }
@@ -0,0 +1,123 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.rsql;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import org.jboss.pnc.model.utils.HibernateMetric;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of parsed RSQL queries. The parsed {@link Node}s are immutable, so the same tree is shared by all
+ * the requests with the same query. Queries that fail to parse are not cached.
+ */
+class RSQLParseCache {
+
+    private final String name;
+
+    private final int maxSize;
+
+    private final Function<String, Node> parser;
+
+    private final Map<String, Node> cache;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param name name of the cache used in the statistics
+     * @param maxSize maximal number of cached queries, 0 disables the caching
+     * @param parser parses the query on a cache miss
+     */
+    RSQLParseCache(String name, int maxSize, Function<String, Node> parser) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.parser = parser;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Node> eldest) {
+                return size() > RSQLParseCache.this.maxSize;
+            }
+        };
+    }
+
+    Node parse(String rsql) {
+        synchronized (cache) {
+            Node cached = cache.get(rsql);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        Node parsed = parser.apply(rsql);
+        if (maxSize > 0) {
+            synchronized (cache) {
+                cache.put(rsql, parsed);
+            }
+        }
+        return parsed;
+    }
+
+    int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    void addStats(SortedMap<String, HibernateMetric> stats) {
+        String prefix = "rsql.parse-cache." + name;
+        stats.put(
+                prefix + ".size",
+                new HibernateMetric("size", "Number of parsed " + name + " queries in the cache.", size()));
+        stats.put(
+                prefix + ".hit.count",
+                new HibernateMetric("hitCount", "Number of " + name + " queries found in the cache.", getHits()));
+        stats.put(
+                prefix + ".miss.count",
+                new HibernateMetric(
+                        "missCount",
+                        "Number of " + name + " queries parsed on a cache miss.",
+                        getMisses()));
+        stats.put(
+                prefix + ".hit.ratio",
+                new HibernateMetric(
+                        "hitRatio",
+                        "Ratio of " + name + " queries found in the cache to all the parsed queries.",
+                        getHitRatio()));
+    }
+}
@@ -19,10 +19,12 @@ package org.jboss.pnc.facade.rsql;
 
 import org.jboss.pnc.facade.rsql.mapper.RSQLMapper;
 import org.jboss.pnc.model.GenericEntity;
+import org.jboss.pnc.model.utils.HibernateMetric;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
 import java.util.Comparator;
+import java.util.SortedMap;
 
 /**
  *
@@ -91,4 +93,11 @@ public interface RSQLProducer {
      * @throws IllegalArgumentException when the rsql query is null or empty.
      */
     <DTO> Comparator<DTO> getComparator(String rsql);
+
+    /**
+     * Gets statistics of the caches of parsed RSQL queries.
+     *
+     * @return a sorted map containing the hits, misses and hit ratio of the parse caches
+     */
+    SortedMap<String, HibernateMetric> getParseCacheStats();
 }
@@ -27,6 +27,7 @@ import org.jboss.pnc.spi.datastore.repositories.api.impl.StableEmptySortInfo;
 import org.jboss.pnc.datastore.predicates.rsql.EmptyRSQLPredicate;
 import org.jboss.pnc.facade.rsql.mapper.UniversalRSQLMapper;
 import org.jboss.pnc.model.GenericEntity;
+import org.jboss.pnc.model.utils.HibernateMetric;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 import org.slf4j.Logger;
@@ -37,6 +38,8 @@ import javax.inject.Inject;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -52,6 +55,14 @@ public class RSQLProducerImpl implements RSQLProducer {
     private final RSQLParser predicateParser;
     private final RSQLParser sortParser;
 
+    /**
+     * Maximal number of parsed queries cached, per parser.
+     */
+    private static final int PARSE_CACHE_SIZE = 512;
+
+    private final RSQLParseCache predicateCache;
+    private final RSQLParseCache sortCache;
+
     private final static Pattern likePattern = Pattern.compile("(%[a-zA-Z0-9\\s]+%)");
     /**
      * RSQL wildcard character to replace single character.
@@ -90,6 +101,12 @@ public class RSQLProducerImpl implements RSQLProducer {
         sortOperators.add(DESC);
 
         sortParser = new RSQLParser(sortOperators);
+
+        predicateCache = new RSQLParseCache(
+                "predicate",
+                PARSE_CACHE_SIZE,
+                rsql -> predicateParser.parse(preprocessRSQL(rsql)));
+        sortCache = new RSQLParseCache("sort", PARSE_CACHE_SIZE, rsql -> sortParser.parse(preprocessRSQL(rsql)));
     }
 
     @Override
@@ -103,7 +120,7 @@ public class RSQLProducerImpl implements RSQLProducer {
             return new EmptyRSQLPredicate();
         }
         try {
-            Node rootNode = predicateParser.parse(preprocessRSQL(rsql));
+            Node rootNode = predicateCache.parse(rsql);
             return getEntityPredicate(rootNode, mapper);
         } catch (RSQLParserException ex) {
             throw new RSQLException("failure parsing RSQL", ex);
@@ -116,7 +133,7 @@ public class RSQLProducerImpl implements RSQLProducer {
             return x -> true;
         }
         try {
-            Node rootNode = predicateParser.parse(preprocessRSQL(rsql));
+            Node rootNode = predicateCache.parse(rsql);
             return getStreamPredicate(rootNode);
         } catch (RSQLParserException ex) {
             throw new RSQLException("failure parsing RSQL", ex);
@@ -138,7 +155,7 @@ public class RSQLProducerImpl implements RSQLProducer {
             rsql = FIXED_START_OF_SORTING_EXPRESSION + rsql;
         }
 
-        Node rootNode = sortParser.parse(preprocessRSQL(rsql));
+        Node rootNode = sortCache.parse(rsql);
         return (SortInfo<DB>) rootNode.accept(new SortRSQLNodeTraveller(mapper));
     }
 
@@ -150,11 +167,19 @@ public class RSQLProducerImpl implements RSQLProducer {
         if (!rsql.startsWith(FIXED_START_OF_SORTING_EXPRESSION)) {
             rsql = FIXED_START_OF_SORTING_EXPRESSION + rsql;
         }
-        Node rootNode = sortParser.parse(preprocessRSQL(rsql));
+        Node rootNode = sortCache.parse(rsql);
 
         return rootNode.accept(new ComparatorRSQLNodeTraveller<>());
     }
 
+    @Override
+    public SortedMap<String, HibernateMetric> getParseCacheStats() {
+        SortedMap<String, HibernateMetric> stats = new TreeMap<>();
+        predicateCache.addStats(stats);
+        sortCache.addStats(stats);
+        return stats;
+    }
+
     private String preprocessRSQL(String rsql) {
         String result = rsql;
         Matcher matcher = likePattern.matcher(rsql);
@@ -176,11 +201,8 @@ public class RSQLProducerImpl implements RSQLProducer {
     }
 
     private <T> java.util.function.Predicate<T> getStreamPredicate(Node rootNode) {
-        return instance -> {
-            RSQLNodeTraveller<Boolean> visitor = new StreamRSQLNodeTraveller(instance);
-
-            return rootNode.accept(visitor);
-        };
+        java.util.function.Predicate<Object> compiled = rootNode.accept(new StreamRSQLNodeTraveller());
+        return compiled::test;
     }
 
 }
@@ -26,124 +26,203 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.InvocationTargetException;
 import java.text.NumberFormat;
 import java.text.ParseException;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import cz.jirutka.rsql.parser.ast.AndNode;
 import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
 import cz.jirutka.rsql.parser.ast.LogicalNode;
 import cz.jirutka.rsql.parser.ast.Node;
 import cz.jirutka.rsql.parser.ast.OrNode;
 import cz.jirutka.rsql.parser.ast.RSQLOperators;
 
 /**
+ * Compiles the RSQL query into a predicate tree, which is then reused for all the tested instances. The operators,
+ * arguments and like patterns are resolved once per query, the property types once per tested class.
  *
  * @author Honza Brázdil &lt;jbrazdil@redhat.com&gt;
  */
-class StreamRSQLNodeTraveller extends RSQLNodeTraveller<Boolean> {
+class StreamRSQLNodeTraveller extends RSQLNodeTraveller<Predicate<Object>> {
 
     private static final Logger logger = LoggerFactory.getLogger(StreamRSQLNodeTraveller.class);
 
-    private final Object instance;
-
-    public StreamRSQLNodeTraveller(Object instance) {
-        this.instance = instance;
-    }
-
     @Override
-    public Boolean visit(LogicalNode node) {
-        logger.trace("Parsing LogicalNode {}", node);
-        Iterator<Node> iterator = node.iterator();
+    public Predicate<Object> visit(LogicalNode node) {
+        logger.trace("Compiling LogicalNode {}", node);
+        List<Predicate<Object>> children = new ArrayList<>();
+        for (Node child : node) {
+            children.add(visit(child));
+        }
         if (node instanceof AndNode) {
-            boolean result = true;
-            while (iterator.hasNext()) {
-                Node next = iterator.next();
-                result &= visit(next);
-            }
-            return result;
+            return instance -> {
+                for (Predicate<Object> child : children) {
+                    if (!child.test(instance)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
         } else if (node instanceof OrNode) {
-            boolean result = false;
-            while (iterator.hasNext()) {
-                Node next = iterator.next();
-                result |= visit(next);
-            }
-            return result;
+            return instance -> {
+                for (Predicate<Object> child : children) {
+                    if (child.test(instance)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
         } else {
             throw new UnsupportedOperationException("Logical operation not supported");
         }
     }
 
     @Override
-    public Boolean visit(ComparisonNode node) {
-        logger.trace("Parsing ComparisonNode {}", node);
-        String fieldName = node.getSelector();
-        String argument = node.getArguments().get(0);
-        try {
-            String propertyValue = BeanUtils.getProperty(instance, fieldName);
-            Class<?> propertyType = PropertyUtils.getPropertyType(instance, fieldName);
-
-            if (node.getOperator().equals(RSQLProducerImpl.IS_NULL)) {
-                return Boolean.valueOf(propertyValue == null).equals(Boolean.valueOf(argument));
+    public Predicate<Object> visit(ComparisonNode node) {
+        logger.trace("Compiling ComparisonNode {}", node);
+        return new ComparisonPredicate(node);
+    }
+
+    private static String preprocessLikeOperatorArgument(String argument) {
+        return argument.replaceAll(Pattern.quote(RSQLProducerImpl.WILDCARD_MULTIPLE_CHARACTERS_DB), ".*")
+                .replaceAll(Pattern.quote(RSQLProducerImpl.WILDCARD_MULTIPLE_CHARACTERS), ".*")
+                .replaceAll(Pattern.quote(RSQLProducerImpl.WILDCARD_SINGLE_CHARACTER), ".");
+    }
+
+    private static class ComparisonPredicate implements Predicate<Object> {
+
+        private final String fieldName;
+
+        private final ComparisonOperator operator;
+
+        private final String argument;
+
+        private final Set<String> arguments;
+
+        private final Number argumentNumber;
+
+        private final ParseException argumentParseException;
+
+        private final Pattern likePattern;
+
+        /**
+         * Whether the compared property is boolean, by the class of the tested instance.
+         */
+        private final Map<Class<?>, Boolean> booleanProperty = new ConcurrentHashMap<>();
+
+        ComparisonPredicate(ComparisonNode node) {
+            this.fieldName = node.getSelector();
+            this.operator = node.getOperator();
+            this.argument = node.getArguments().get(0);
+            this.arguments = new HashSet<>(node.getArguments());
+
+            Number number = null;
+            ParseException parseException = null;
+            if (isNumericOperator(operator)) {
+                try {
+                    number = NumberFormat.getInstance().parse(argument);
+                } catch (ParseException e) {
+                    parseException = e;
+                }
             }
-            if (propertyValue == null) {
-                // Null values are considered not equal
-                return false;
+            this.argumentNumber = number;
+            this.argumentParseException = parseException;
+
+            if (operator.equals(RSQLProducerImpl.LIKE) || operator.equals(RSQLProducerImpl.NOT_LIKE)) {
+                this.likePattern = Pattern.compile(preprocessLikeOperatorArgument(argument));
+            } else {
+                this.likePattern = null;
             }
-            if (node.getOperator().equals(RSQLOperators.EQUAL)) {
-                if (propertyType == Boolean.class || propertyType == boolean.class) {
-                    return Boolean.valueOf(propertyValue).equals(Boolean.valueOf(argument));
+        }
+
+        @Override
+        public boolean test(Object instance) {
+            try {
+                String propertyValue = BeanUtils.getProperty(instance, fieldName);
+
+                if (operator.equals(RSQLProducerImpl.IS_NULL)) {
+                    return Boolean.valueOf(propertyValue == null).equals(Boolean.valueOf(argument));
+                }
+                if (propertyValue == null) {
+                    // Null values are considered not equal
+                    return false;
                 }
+                if (operator.equals(RSQLOperators.EQUAL)) {
+                    if (isBooleanProperty(instance)) {
+                        return Boolean.valueOf(propertyValue).equals(Boolean.valueOf(argument));
+                    }
 
-                return propertyValue.equals(argument);
-            } else if (node.getOperator().equals(RSQLOperators.NOT_EQUAL)) {
-                if (propertyType == Boolean.class || propertyType == boolean.class) {
-                    return !Boolean.valueOf(propertyValue).equals(Boolean.valueOf(argument));
+                    return propertyValue.equals(argument);
+                } else if (operator.equals(RSQLOperators.NOT_EQUAL)) {
+                    if (isBooleanProperty(instance)) {
+                        return !Boolean.valueOf(propertyValue).equals(Boolean.valueOf(argument));
+                    }
+
+                    return !propertyValue.equals(argument);
+                } else if (operator.equals(RSQLOperators.GREATER_THAN)) {
+                    return parseNumber(propertyValue) > argumentNumber().intValue();
+                } else if (operator.equals(RSQLOperators.GREATER_THAN_OR_EQUAL)) {
+                    return parseNumber(propertyValue) >= argumentNumber().intValue();
+                } else if (operator.equals(RSQLOperators.LESS_THAN)) {
+                    return parseNumber(propertyValue) < argumentNumber().intValue();
+                } else if (operator.equals(RSQLOperators.LESS_THAN_OR_EQUAL)) {
+                    return parseNumber(propertyValue) <= argumentNumber().intValue();
+                } else if (operator.equals(RSQLProducerImpl.LIKE)) {
+                    return likePattern.matcher(propertyValue).matches();
+                } else if (operator.equals(RSQLProducerImpl.NOT_LIKE)) {
+                    return !likePattern.matcher(propertyValue).matches();
+                } else if (operator.equals(RSQLOperators.IN)) {
+                    return arguments.contains(propertyValue);
+                } else if (operator.equals(RSQLOperators.NOT_IN)) {
+                    return !arguments.contains(propertyValue);
+                } else {
+                    throw new UnsupportedOperationException("Not Implemented yet!");
                 }
+            } catch (NestedNullException e) {
+                // If a nested property is null (i.e. idRev.id is null), it is considered a false equality
+                return false;
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(
+                        "RSQL selector " + fieldName + " not applicable on the type " + instance.getClass());
+            } catch (InvocationTargetException | IllegalAccessException e) {
+                throw new IllegalStateException("Reflections exception", e);
+            } catch (ParseException e) {
+                throw new IllegalStateException("RSQL parse exception", e);
+            }
+        }
 
-                return !propertyValue.equals(argument);
-            } else if (node.getOperator().equals(RSQLOperators.GREATER_THAN)) {
-                NumberFormat numberFormat = NumberFormat.getInstance();
-                Number argumentNumber = numberFormat.parse(argument);
-                return numberFormat.parse(propertyValue).intValue() > argumentNumber.intValue();
-            } else if (node.getOperator().equals(RSQLOperators.GREATER_THAN_OR_EQUAL)) {
-                NumberFormat numberFormat = NumberFormat.getInstance();
-                Number argumentNumber = numberFormat.parse(argument);
-                return numberFormat.parse(propertyValue).intValue() >= argumentNumber.intValue();
-            } else if (node.getOperator().equals(RSQLOperators.LESS_THAN)) {
-                NumberFormat numberFormat = NumberFormat.getInstance();
-                Number argumentNumber = numberFormat.parse(argument);
-                return numberFormat.parse(propertyValue).intValue() < argumentNumber.intValue();
-            } else if (node.getOperator().equals(RSQLOperators.LESS_THAN_OR_EQUAL)) {
-                NumberFormat numberFormat = NumberFormat.getInstance();
-                Number argumentNumber = numberFormat.parse(argument);
-                return numberFormat.parse(propertyValue).intValue() <= argumentNumber.intValue();
-            } else if (node.getOperator().equals(RSQLProducerImpl.LIKE)) {
-                return propertyValue.matches(preprocessLikeOperatorArgument(argument));
-            } else if (node.getOperator().equals(RSQLProducerImpl.NOT_LIKE)) {
-                return !propertyValue.matches(preprocessLikeOperatorArgument(argument));
-            } else if (node.getOperator().equals(RSQLOperators.IN)) {
-                return node.getArguments().contains(propertyValue);
-            } else if (node.getOperator().equals(RSQLOperators.NOT_IN)) {
-                return !node.getArguments().contains(propertyValue);
-            } else {
-                throw new UnsupportedOperationException("Not Implemented yet!");
+        private boolean isBooleanProperty(Object instance)
+                throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+            Boolean isBoolean = booleanProperty.get(instance.getClass());
+            if (isBoolean == null) {
+                Class<?> propertyType = PropertyUtils.getPropertyType(instance, fieldName);
+                isBoolean = propertyType == Boolean.class || propertyType == boolean.class;
+                booleanProperty.put(instance.getClass(), isBoolean);
             }
-        } catch (NestedNullException e) {
-            // If a nested property is null (i.e. idRev.id is null), it is considered a false equality
-            return false;
-        } catch (NoSuchMethodException e) {
-            throw new IllegalArgumentException(
-                    "RSQL selector " + fieldName + " not applicable on the type " + instance.getClass());
-        } catch (InvocationTargetException | IllegalAccessException e) {
-            throw new IllegalStateException("Reflections exception", e);
-        } catch (ParseException e) {
-            throw new IllegalStateException("RSQL parse exception", e);
+            return isBoolean;
         }
-    }
 
-    private String preprocessLikeOperatorArgument(String argument) {
-        return argument.replaceAll(Pattern.quote(RSQLProducerImpl.WILDCARD_MULTIPLE_CHARACTERS_DB), ".*")
-                .replaceAll(Pattern.quote(RSQLProducerImpl.WILDCARD_MULTIPLE_CHARACTERS), ".*")
-                .replaceAll(Pattern.quote(RSQLProducerImpl.WILDCARD_SINGLE_CHARACTER), ".");
+        private Number argumentNumber() throws ParseException {
+            if (argumentParseException != null) {
+                throw argumentParseException;
+            }
+            return argumentNumber;
+        }
+
+        private static int parseNumber(String value) throws ParseException {
+            // NumberFormat is not thread-safe, the predicate can be shared
+            return NumberFormat.getInstance().parse(value).intValue();
+        }
+
+        private static boolean isNumericOperator(ComparisonOperator operator) {
+            return operator.equals(RSQLOperators.GREATER_THAN) || operator.equals(RSQLOperators.GREATER_THAN_OR_EQUAL)
+                    || operator.equals(RSQLOperators.LESS_THAN) || operator.equals(RSQLOperators.LESS_THAN_OR_EQUAL);
+        }
     }
 }
@@ -0,0 +1,202 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jboss.pnc.common.concurrent.MDCExecutors;
+import org.jboss.pnc.common.json.JsonOutputConverterMapper;
+import org.jboss.pnc.datastore.BuiltArtifactFilter;
+import org.jboss.pnc.dto.notification.BuildChangedNotification;
+import org.jboss.pnc.enums.JobNotificationProgress;
+import org.jboss.pnc.model.Base32LongID;
+import org.jboss.pnc.notification.dist.DistributedEventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the artifacts built on any node of the cluster to the {@link BuiltArtifactFilter} of this node. Every node is
+ * notified about the finished builds by the {@link BuildChangedNotification} distributed across the cluster. The
+ * notification is sent before the transaction storing the build is committed, so the artifacts of a build that is not
+ * visible yet are looked up again later. The identifiers of the artifacts marked as built outside of a build (eg. by an
+ * admin) are distributed by this class once the transaction is committed, see {@link BuiltArtifactsMarked}.
+ *
+ * The filter is built in the background right after the startup and then rebuilt periodically, so that the
+ * identifiers missed by the updates are eventually added.
+ */
+@ApplicationScoped
+public class BuiltArtifactFilterUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(BuiltArtifactFilterUpdater.class);
+
+    private static final String BUILD_STATUS_CHANGED = "BUILD_STATUS_CHANGED";
+
+    private static final String BUILT_ARTIFACTS_MARKED = "BUILT_ARTIFACTS_MARKED";
+
+    private static final int MAX_LOOKUP_ATTEMPTS = 10;
+
+    private static final long LOOKUP_RETRY_DELAY_SECONDS = 30;
+
+    private static final long REBUILD_INTERVAL_HOURS = 24;
+
+    private BuiltArtifactFilter builtArtifactFilter;
+
+    private DistributedEventHandler distributedEventHandler;
+
+    private ScheduledExecutorService scheduler;
+
+    @Deprecated // CDI workaround
+    public BuiltArtifactFilterUpdater() {
+    }
+
+    @Inject
+    public BuiltArtifactFilterUpdater(
+            BuiltArtifactFilter builtArtifactFilter,
+            DistributedEventHandler distributedEventHandler) {
+        this(builtArtifactFilter, distributedEventHandler, MDCExecutors.newScheduledThreadPool(1));
+    }
+
+    BuiltArtifactFilterUpdater(
+            BuiltArtifactFilter builtArtifactFilter,
+            DistributedEventHandler distributedEventHandler,
+            ScheduledExecutorService scheduler) {
+        this.builtArtifactFilter = builtArtifactFilter;
+        this.distributedEventHandler = distributedEventHandler;
+        this.scheduler = scheduler;
+    }
+
+    void registerSubscriber(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        if (builtArtifactFilter.isEnabled()) {
+            distributedEventHandler.registerSubscriber(this::consume);
+            // the first build streams the whole artifact table, it must not hold up the startup
+            scheduler.scheduleWithFixedDelay(this::rebuild, 0, REBUILD_INTERVAL_HOURS, TimeUnit.HOURS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Distributes the identifiers of the artifacts marked as built outside of a build to all the nodes, including this
+     * one, once the transaction is committed.
+     */
+    void onBuiltIdentifiers(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) BuiltArtifactFilter.BuiltIdentifiers event) {
+        if (event.isDistribute()) {
+            distributedEventHandler.sendEvent(new BuiltArtifactsMarked(event.getIdentifiers()));
+        }
+    }
+
+    /**
+     * Consumes the events distributed across the cluster, which are the JSON serialized notifications. Only the build
+     * notifications and the marked built artifacts are parsed.
+     */
+    void consume(Object event) {
+        if (!(event instanceof String)) {
+            return;
+        }
+        String message = (String) event;
+        if (!message.contains(BUILD_STATUS_CHANGED) && !message.contains(BUILT_ARTIFACTS_MARKED)) {
+            return;
+        }
+        JsonNode notification;
+        try {
+            notification = JsonOutputConverterMapper.getMapper().readTree(message);
+        } catch (IOException e) {
+            log.warn("Cannot parse the build notification.", e);
+            return;
+        }
+        if (BUILT_ARTIFACTS_MARKED.equals(notification.path("notificationType").asText())) {
+            notification.path("identifiers").forEach(identifier -> builtArtifactFilter.put(identifier.asText()));
+            return;
+        }
+        if (!BUILD_STATUS_CHANGED.equals(notification.path("notificationType").asText())
+                || !JobNotificationProgress.FINISHED.name().equals(notification.path("progress").asText())) {
+            return;
+        }
+        String buildId = notification.path("build").path("id").asText(null);
+        if (buildId != null) {
+            Base32LongID buildRecordId = new Base32LongID(buildId);
+            scheduler.schedule(() -> putBuiltBy(buildRecordId, 1), 0, TimeUnit.SECONDS);
+        }
+    }
+
+    private void putBuiltBy(Base32LongID buildRecordId, int attempt) {
+        log.trace("Adding the artifacts built by build {} to the filter of built artifacts.", buildRecordId);
+        try {
+            if (builtArtifactFilter.putBuiltBy(buildRecordId)) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cannot add the artifacts built by build {} to the filter of built artifacts.", buildRecordId, e);
+        }
+        if (attempt < MAX_LOOKUP_ATTEMPTS) {
+            scheduler.schedule(
+                    () -> putBuiltBy(buildRecordId, attempt + 1),
+                    LOOKUP_RETRY_DELAY_SECONDS,
+                    TimeUnit.SECONDS);
+        } else {
+            log.warn(
+                    "Build {} is not stored, its artifacts will be added to the filter of built artifacts when it's"
+                            + " rebuilt.",
+                    buildRecordId);
+        }
+    }
+
+    private void rebuild() {
+        try {
+            builtArtifactFilter.rebuild();
+        } catch (RuntimeException e) {
+            // an exception would cancel the next rebuilds
+            log.error("Cannot rebuild the filter of built artifacts.", e);
+        }
+    }
+
+    /**
+     * Identifiers of the artifacts marked as built outside of a build, distributed across the cluster along with the
+     * notifications. The websocket clients receive it as well and ignore the unknown notification type.
+     */
+    public static class BuiltArtifactsMarked {
+
+        private final List<String> identifiers;
+
+        BuiltArtifactsMarked(List<String> identifiers) {
+            this.identifiers = identifiers;
+        }
+
+        public String getNotificationType() {
+            return BUILT_ARTIFACTS_MARKED;
+        }
+
+        public List<String> getIdentifiers() {
+            return identifiers;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.jboss.pnc.model.utils.HibernateMetric;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived Infinispan cache of the ids of the logged-in users keyed by their username. Only the id is cached, the
+ * {@link org.jboss.pnc.model.User} entity is loaded by the id in the current transaction, which is served by the
+ * second-level cache. The entries expire shortly, so a user deleted or recreated in the database is picked up on the
+ * next lookup.
+ */
+@ApplicationScoped
+public class CurrentUserCache {
+
+    private static final String CACHE_NAME = "current-user-ids";
+
+    private static final long MAX_ENTRIES = 10_000;
+
+    private static final long LIFESPAN_SECONDS = 60;
+
+    private EmbeddedCacheManager cacheManager;
+
+    private Cache<String, Integer> cache;
+
+    /**
+     * Lookups of the current user by username.
+     */
+    private final LongAdder lookups = new LongAdder();
+
+    /**
+     * Lookups served by the memo of the request.
+     */
+    private final LongAdder requestHits = new LongAdder();
+
+    /**
+     * Lookups served by this cache.
+     */
+    private final LongAdder cacheHits = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        start(MAX_ENTRIES, LIFESPAN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    void start(long maxEntries, long lifespan, TimeUnit unit) {
+        cacheManager = new DefaultCacheManager(new GlobalConfigurationBuilder().nonClusteredDefault().build());
+        cacheManager.defineConfiguration(
+                CACHE_NAME,
+                new ConfigurationBuilder().clustering()
+                        .cacheMode(CacheMode.LOCAL)
+                        .memory()
+                        .maxCount(maxEntries)
+                        .expiration()
+                        .lifespan(lifespan, unit)
+                        .build());
+        cache = cacheManager.getCache(CACHE_NAME, true);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (cacheManager != null) {
+            cacheManager.stop();
+        }
+    }
+
+    /**
+     * @return id of the user or null if not cached
+     */
+    public Integer getUserId(String username) {
+        lookups.increment();
+        Integer id = cache.get(username);
+        if (id != null) {
+            cacheHits.increment();
+        }
+        return id;
+    }
+
+    public void putUserId(String username, Integer id) {
+        cache.put(username, id);
+    }
+
+    public void evict(String username) {
+        cache.remove(username);
+    }
+
+    /**
+     * Records a lookup served by the memo of the request.
+     */
+    public void requestHit() {
+        lookups.increment();
+        requestHits.increment();
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * @return number of queries of the user by username saved by the memo of the request and by this cache
+     */
+    public long getSavedLookups() {
+        return requestHits.sum() + cacheHits.sum();
+    }
+
+    public SortedMap<String, HibernateMetric> getStats() {
+        SortedMap<String, HibernateMetric> stats = new TreeMap<>();
+        stats.put(
+                "user.current.lookup.count",
+                new HibernateMetric("lookupCount", "Number of lookups of the current user.", getLookups()));
+        stats.put(
+                "user.current.request-hit.count",
+                new HibernateMetric(
+                        "requestHitCount",
+                        "Number of lookups of the current user served by the memo of the request.",
+                        requestHits.sum()));
+        stats.put(
+                "user.current.cache-hit.count",
+                new HibernateMetric(
+                        "cacheHitCount",
+                        "Number of lookups of the current user served by the user id cache.",
+                        cacheHits.sum()));
+        stats.put(
+                "user.current.saved.count",
+                new HibernateMetric(
+                        "savedLookupCount",
+                        "Number of queries of the current user by username saved by the caching.",
+                        getSavedLookups()));
+        return stats;
+    }
+}
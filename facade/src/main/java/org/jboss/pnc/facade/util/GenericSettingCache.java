@@ -0,0 +1,176 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.jboss.pnc.dto.notification.GenericSettingNotification;
+import org.jboss.pnc.model.GenericSetting;
+import org.jboss.pnc.notification.dist.DistributedEventHandler;
+import org.jboss.pnc.spi.datastore.repositories.GenericSettingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-through cache of the values of {@link GenericSetting}s, so that the maintenance mode checks and the status
+ * polling don't hit the database. The values changed by this node are stored once the change is committed.
+ *
+ * The changes of the settings are distributed to the other nodes by the
+ * {@link GenericSettingNotification#PNC_STATUS_CHANGED} notification, every node drops its cached values when it
+ * receives one. The entries also expire after a while in case a change is not followed by the notification.
+ */
+@ApplicationScoped
+public class GenericSettingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GenericSettingCache.class);
+
+    private static final long MAX_AGE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private GenericSettingRepository repository;
+
+    private DistributedEventHandler distributedEventHandler;
+
+    private long maxAgeNanos;
+
+    private final Map<String, Entry> values = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on every change, a value loaded from the database while the settings changed is not cached as it
+     * could have been read before the change was committed.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Deprecated // CDI workaround
+    public GenericSettingCache() {
+    }
+
+    @Inject
+    public GenericSettingCache(GenericSettingRepository repository, DistributedEventHandler distributedEventHandler) {
+        this(repository, distributedEventHandler, MAX_AGE_MILLIS);
+    }
+
+    GenericSettingCache(
+            GenericSettingRepository repository,
+            DistributedEventHandler distributedEventHandler,
+            long maxAgeMillis) {
+        this.repository = repository;
+        this.distributedEventHandler = distributedEventHandler;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+    }
+
+    @PostConstruct
+    void registerSubscriber() {
+        distributedEventHandler.registerSubscriber(this::consume);
+    }
+
+    /**
+     * @return value of the setting, null if the setting doesn't exist
+     */
+    public String get(String key) {
+        Entry entry = values.get(key);
+        if (entry != null && System.nanoTime() - entry.loadedAt < maxAgeNanos) {
+            return entry.value;
+        }
+        long loadedGeneration = generation.get();
+        GenericSetting setting = repository.queryByKey(key);
+        String value = setting == null ? null : setting.getValue();
+        if (generation.get() == loadedGeneration) {
+            values.put(key, new Entry(value));
+        }
+        return value;
+    }
+
+    /**
+     * Stores the value written to the database by this node.
+     *
+     * @param value new value of the setting, null if the setting was removed
+     */
+    public void put(String key, String value) {
+        generation.incrementAndGet();
+        values.put(key, new Entry(value));
+    }
+
+    /**
+     * Stores the changed value only once the transaction that changed it is committed, so that a rolled back change is
+     * never served from the cache.
+     */
+    void onSettingChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) SettingChangedEvent event) {
+        put(event.getKey(), event.getValue());
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        values.clear();
+    }
+
+    /**
+     * Consumes the events distributed across the cluster, which are the JSON serialized notifications. The events are
+     * only matched by the notification type, so that all the other notifications don't have to be parsed.
+     */
+    void consume(Object event) {
+        if (event instanceof String && ((String) event).contains(GenericSettingNotification.PNC_STATUS_CHANGED)) {
+            log.debug("Generic settings changed, invalidating the cached values.");
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Fired when a setting is written to the database.
+     */
+    public static class SettingChangedEvent {
+
+        private final String key;
+
+        private final String value;
+
+        /**
+         * @param value new value of the setting, null if the setting was removed
+         */
+        public SettingChangedEvent(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    private static class Entry {
+
+        private final String value;
+
+        private final long loadedAt = System.nanoTime();
+
+        private Entry(String value) {
+            this.value = value;
+        }
+    }
+}
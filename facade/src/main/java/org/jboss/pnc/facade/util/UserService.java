@@ -49,6 +49,14 @@ public class UserService {
     @Inject
     private UserRepository repository;
 
+    @Inject
+    private CurrentUserCache currentUserCache;
+
+    /**
+     * The current user resolved in this request.
+     */
+    private User currentUser;
+
     public boolean isUserLoggedIn() {
         return httpServletRequest.getUserPrincipal() != null;
     }
@@ -77,7 +85,14 @@ public class UserService {
             return null;
         }
 
-        User user = getOrCreate(currentUser, username);
+        User user;
+        if (this.currentUser != null && username.equals(this.currentUser.getUsername())) {
+            currentUserCache.requestHit();
+            user = this.currentUser;
+        } else {
+            user = getOrCreate(currentUser, username);
+            this.currentUser = user;
+        }
         user.setLoginToken(currentUser.getTokenString());
         user.setRoles(currentUser.getRole());
         logger.trace("Returning user: {}.", user);
@@ -92,6 +107,14 @@ public class UserService {
     }
 
     private User getOrCreate(LoggedInUser loggedInUser, String username) {
+        Integer cachedId = currentUserCache.getUserId(username);
+        if (cachedId != null) {
+            User user = repository.queryById(cachedId);
+            if (user != null && username.equals(user.getUsername())) {
+                return user;
+            }
+            currentUserCache.evict(username);
+        }
         User user = repository.queryByPredicates(withUserName(username));
         if (user == null) {
             logger.info("Adding new user to the local database: {}.", loggedInUser);
@@ -105,10 +128,11 @@ public class UserService {
                             .lastName(loggedInUser.getLastName())
                             .email(loggedInUser.getEmail())
                             .build();
-                    repository.save(user);
+                    user = repository.save(user);
                 }
             }
         }
+        currentUserCache.putUserId(username, user.getId());
         return user;
     }
 }
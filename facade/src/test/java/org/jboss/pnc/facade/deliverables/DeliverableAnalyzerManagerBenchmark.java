@@ -0,0 +1,397 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.deliverables;
+
+import org.jboss.pnc.api.deliverablesanalyzer.dto.Artifact;
+import org.jboss.pnc.api.deliverablesanalyzer.dto.ArtifactType;
+import org.jboss.pnc.api.deliverablesanalyzer.dto.Build;
+import org.jboss.pnc.api.deliverablesanalyzer.dto.BuildSystemType;
+import org.jboss.pnc.api.deliverablesanalyzer.dto.FinderResult;
+import org.jboss.pnc.api.deliverablesanalyzer.dto.MavenArtifact;
+import org.jboss.pnc.api.enums.ProgressStatus;
+import org.jboss.pnc.common.json.GlobalModuleGroup;
+import org.jboss.pnc.enums.ArtifactQuality;
+import org.jboss.pnc.facade.deliverables.api.AnalysisResult;
+import org.jboss.pnc.mapper.api.ArtifactMapper;
+import org.jboss.pnc.model.Base32LongID;
+import org.jboss.pnc.model.DeliverableAnalyzerDistribution;
+import org.jboss.pnc.model.DeliverableAnalyzerOperation;
+import org.jboss.pnc.model.DeliverableAnalyzerReport;
+import org.jboss.pnc.model.DeliverableArtifact;
+import org.jboss.pnc.model.TargetRepository;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
+import org.jboss.pnc.spi.datastore.repositories.DeliverableAnalyzerDistributionRepository;
+import org.jboss.pnc.spi.datastore.repositories.DeliverableAnalyzerOperationRepository;
+import org.jboss.pnc.spi.datastore.repositories.DeliverableAnalyzerReportRepository;
+import org.jboss.pnc.spi.datastore.repositories.DeliverableArtifactRepository;
+import org.jboss.pnc.spi.datastore.repositories.TargetRepositoryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures storing the result of an analysis of one distribution: 40% of the artifacts were built in PNC, 40% in Brew
+ * and 20% were not found in any build system. Half of the Brew and not found artifacts are already stored in PNC. The
+ * repositories are stubbed and simulate the latency of each query and of each JDBC batch of inserts, the number of
+ * round trips per analysis is printed at the end of the trial.
+ *
+ * Not run as part of the test suite, run the {@link #main(String[])} method with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DeliverableAnalyzerManagerBenchmark {
+
+    private static final long ROUND_TRIP_MICROS = 200;
+
+    private static final int QUERY_PARTITION_SIZE = 1000;
+
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    private static final int ARTIFACTS_PER_BUILD = 100;
+
+    private static final Base32LongID OPERATION_ID = new Base32LongID(42);
+
+    private static final String DISTRIBUTION_URL = "https://example.com/distribution.zip";
+
+    @Param({ "5000", "50000" })
+    public int artifacts;
+
+    private final AtomicInteger ids = new AtomicInteger(1_000_000);
+
+    private DeliverableAnalyzerManagerImpl manager;
+
+    private AnalysisResult analysisResult;
+
+    private DeliverableAnalyzerReport report;
+
+    private long roundTrips;
+
+    private long analyses;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<org.jboss.pnc.model.Artifact> pncArtifacts = new ArrayList<>();
+        List<org.jboss.pnc.model.Artifact> storedBrewArtifacts = new ArrayList<>();
+        List<org.jboss.pnc.model.Artifact> storedNotFoundArtifacts = new ArrayList<>();
+        List<Artifact> pncBuildArtifacts = new ArrayList<>();
+        List<Artifact> brewBuildArtifacts = new ArrayList<>();
+        Set<Artifact> notFoundArtifacts = new LinkedHashSet<>();
+
+        for (int i = 0; i < artifacts; i++) {
+            boolean stored = (i / 5) % 2 == 0;
+            switch (i % 5) {
+                case 0:
+                case 1:
+                    MavenArtifact pncArtifact = mavenArtifact(i, BuildSystemType.PNC);
+                    pncBuildArtifacts.add(pncArtifact);
+                    pncArtifacts.add(storedArtifact(i, pncArtifact.getFilename(), identifier(pncArtifact)));
+                    break;
+                case 2:
+                case 3:
+                    MavenArtifact brewArtifact = mavenArtifact(i, BuildSystemType.BREW);
+                    brewBuildArtifacts.add(brewArtifact);
+                    if (stored) {
+                        storedBrewArtifacts
+                                .add(storedArtifact(i, brewArtifact.getFilename(), identifier(brewArtifact)));
+                    }
+                    break;
+                default:
+                    String path = "lib/file-" + i + ".jar";
+                    notFoundArtifacts.add(
+                            Artifact.builder()
+                                    .filename(path)
+                                    .sha256(sha256(i))
+                                    .size(100L)
+                                    .builtFromSource(false)
+                                    .build());
+                    if (stored) {
+                        storedNotFoundArtifacts.add(storedArtifact(i, "file-" + i + ".jar", path));
+                    }
+            }
+        }
+
+        Set<Build> builds = new LinkedHashSet<>();
+        for (int i = 0; i < pncBuildArtifacts.size(); i += ARTIFACTS_PER_BUILD) {
+            builds.add(
+                    Build.builder()
+                            .buildSystemType(BuildSystemType.PNC)
+                            .pncId(Integer.toString(i))
+                            .artifacts(new LinkedHashSet<>(subList(pncBuildArtifacts, i)))
+                            .build());
+        }
+        for (int i = 0; i < brewBuildArtifacts.size(); i += ARTIFACTS_PER_BUILD) {
+            builds.add(
+                    Build.builder()
+                            .buildSystemType(BuildSystemType.BREW)
+                            .brewId((long) i)
+                            .brewNVR("brew-build-" + i + "-1.0.0-1")
+                            .artifacts(new LinkedHashSet<>(subList(brewBuildArtifacts, i)))
+                            .build());
+        }
+        analysisResult = AnalysisResult.builder()
+                .deliverableAnalyzerOperationId(OPERATION_ID)
+                .results(
+                        Collections.singletonList(
+                                FinderResult.builder()
+                                        .builds(builds)
+                                        .notFoundArtifacts(notFoundArtifacts)
+                                        .url(new URL(DISTRIBUTION_URL))
+                                        .build()))
+                .wasRunAsScratchAnalysis(false)
+                .build();
+
+        manager = new DeliverableAnalyzerManagerImpl();
+        inject("self", manager);
+        inject("artifactRepository", artifactRepository(pncArtifacts, storedBrewArtifacts, storedNotFoundArtifacts));
+        inject("targetRepositoryRepository", targetRepositoryRepository());
+        inject("deliverableAnalyzerDistributionRepository", distributionRepository());
+        inject("deliverableAnalyzerOperationRepository", operationRepository());
+        inject("deliverableAnalyzerReportRepository", reportRepository());
+        inject("deliverableArtifactRepository", deliverableArtifactRepository());
+        ArtifactMapper artifactMapper = stub(ArtifactMapper.class);
+        when(artifactMapper.getIdMapper()).thenCallRealMethod();
+        inject("artifactMapper", artifactMapper);
+        GlobalModuleGroup globalConfig = stub(GlobalModuleGroup.class);
+        when(globalConfig.getBrewContentUrl()).thenReturn("https://example.com/brewroot/packages");
+        inject("globalConfig", globalConfig);
+    }
+
+    @Benchmark
+    public DeliverableAnalyzerReport completeAnalysis() {
+        report = null;
+        manager.completeAnalysis(analysisResult);
+        analyses++;
+        return report;
+    }
+
+    @TearDown(Level.Trial)
+    public void printRoundTrips() {
+        System.out.printf("%nRound trips per analysis of %d artifacts: %d%n", artifacts, roundTrips / analyses);
+    }
+
+    private ArtifactRepository artifactRepository(
+            List<org.jboss.pnc.model.Artifact> pncArtifacts,
+            List<org.jboss.pnc.model.Artifact> storedBrewArtifacts,
+            List<org.jboss.pnc.model.Artifact> storedNotFoundArtifacts) {
+        ArtifactRepository repository = stub(ArtifactRepository.class);
+        when(repository.queryWithPredicates(any())).thenAnswer(invocation -> {
+            roundTrip(1);
+            return pncArtifacts;
+        });
+        when(repository.withIdentifierAndSha256(anyCollection())).thenAnswer(invocation -> {
+            Collection<org.jboss.pnc.model.Artifact.IdentifierSha256> keys = new HashSet<>(invocation.getArgument(0));
+            roundTrip(partitions(keys.size(), QUERY_PARTITION_SIZE));
+            return storedBrewArtifacts.stream()
+                    .filter(artifact -> keys.contains(artifact.getIdentifierSha256()))
+                    .collect(Collectors.toSet());
+        });
+        when(repository.withSha256In(anySet())).thenAnswer(invocation -> {
+            Set<String> sha256s = invocation.getArgument(0);
+            roundTrip(partitions(sha256s.size(), QUERY_PARTITION_SIZE));
+            return storedNotFoundArtifacts.stream()
+                    .filter(artifact -> sha256s.contains(artifact.getSha256()))
+                    .collect(Collectors.toList());
+        });
+        when(repository.save(any())).thenAnswer(invocation -> {
+            org.jboss.pnc.model.Artifact artifact = invocation.getArgument(0);
+            artifact.setId(ids.incrementAndGet());
+            return artifact;
+        });
+        return repository;
+    }
+
+    private TargetRepositoryRepository targetRepositoryRepository() {
+        TargetRepositoryRepository repository = stub(TargetRepositoryRepository.class);
+        when(repository.queryByIdentifiersAndPaths(any())).thenAnswer(invocation -> {
+            roundTrip(1);
+            return Collections.emptyList();
+        });
+        when(repository.queryByIdentifierAndPath(anyString(), anyString())).thenAnswer(invocation -> {
+            roundTrip(1);
+            return null;
+        });
+        when(repository.save(any())).thenAnswer(invocation -> {
+            TargetRepository targetRepository = invocation.getArgument(0);
+            targetRepository.setId(ids.incrementAndGet());
+            return targetRepository;
+        });
+        return repository;
+    }
+
+    private DeliverableAnalyzerDistributionRepository distributionRepository() {
+        DeliverableAnalyzerDistribution distribution = DeliverableAnalyzerDistribution.builder()
+                .id(new Base32LongID(13))
+                .distributionUrl(DISTRIBUTION_URL)
+                .build();
+        DeliverableAnalyzerDistributionRepository repository = stub(DeliverableAnalyzerDistributionRepository.class);
+        when(repository.queryByUrl(anyString())).thenAnswer(invocation -> {
+            roundTrip(1);
+            return null;
+        });
+        when(repository.save(any())).thenReturn(distribution);
+        when(repository.queryById(any())).thenReturn(distribution);
+        return repository;
+    }
+
+    private DeliverableAnalyzerOperationRepository operationRepository() {
+        DeliverableAnalyzerOperation operation = DeliverableAnalyzerOperation.Builder.newBuilder()
+                .id(OPERATION_ID)
+                .user(User.Builder.newBuilder().id(42).username("user").build())
+                .progressStatus(ProgressStatus.IN_PROGRESS)
+                .build();
+        DeliverableAnalyzerOperationRepository repository = stub(DeliverableAnalyzerOperationRepository.class);
+        when(repository.queryById(any())).thenReturn(operation);
+        return repository;
+    }
+
+    private DeliverableAnalyzerReportRepository reportRepository() {
+        DeliverableAnalyzerReportRepository repository = stub(DeliverableAnalyzerReportRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            report = invocation.getArgument(0);
+            return report;
+        });
+        when(repository.queryById(any())).thenAnswer(invocation -> report);
+        return repository;
+    }
+
+    private DeliverableArtifactRepository deliverableArtifactRepository() {
+        DeliverableArtifactRepository repository = stub(DeliverableArtifactRepository.class);
+        when(repository.getDeliveredArtifactIds(any(), any())).thenAnswer(invocation -> {
+            roundTrip(1);
+            return new HashSet<>();
+        });
+        doAnswer(invocation -> {
+            Collection<DeliverableArtifact> deliverableArtifacts = invocation.getArgument(0);
+            int rows = deliverableArtifacts.size() + deliverableArtifacts.stream()
+                    .mapToInt(da -> da.getLicenses() == null ? 0 : da.getLicenses().size())
+                    .sum();
+            roundTrip(partitions(rows, JDBC_BATCH_SIZE));
+            return null;
+        }).when(repository).persist(anyCollection());
+        return repository;
+    }
+
+    private void roundTrip(int count) {
+        roundTrips += count;
+        try {
+            TimeUnit.MICROSECONDS.sleep(ROUND_TRIP_MICROS * count);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int partitions(int size, int partitionSize) {
+        return (size + partitionSize - 1) / partitionSize;
+    }
+
+    private static <T> List<T> subList(List<T> list, int from) {
+        return list.subList(from, Math.min(from + ARTIFACTS_PER_BUILD, list.size()));
+    }
+
+    private static MavenArtifact mavenArtifact(int i, BuildSystemType buildSystemType) {
+        String artifactId = "artifact-" + i;
+        return MavenArtifact.builder()
+                .groupId("org.jboss.pnc.synthetic")
+                .artifactId(artifactId)
+                .type("jar")
+                .version("1.0.0.redhat-00001")
+                .artifactType(ArtifactType.MAVEN)
+                .buildSystemType(buildSystemType)
+                .pncId(Integer.toString(i))
+                .brewId((long) i)
+                .builtFromSource(true)
+                .filename(artifactId + "-1.0.0.redhat-00001.jar")
+                .sha256(sha256(i))
+                .size(100L)
+                .build();
+    }
+
+    private static String identifier(MavenArtifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":jar:" + artifact.getVersion();
+    }
+
+    private static org.jboss.pnc.model.Artifact storedArtifact(int i, String filename, String identifier) {
+        return org.jboss.pnc.model.Artifact.builder()
+                .id(i)
+                .artifactQuality(i % 5 == 4 ? ArtifactQuality.IMPORTED : ArtifactQuality.NEW)
+                .filename(filename)
+                .identifier(identifier)
+                .sha256(sha256(i))
+                .size(100L)
+                .build();
+    }
+
+    private static String sha256(int i) {
+        return String.format("%064x", i);
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    private void inject(String field, Object value) throws ReflectiveOperationException {
+        Field declaredField = DeliverableAnalyzerManagerImpl.class.getDeclaredField(field);
+        declaredField.setAccessible(true);
+        declaredField.set(manager, value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DeliverableAnalyzerManagerBenchmark.class.getSimpleName()).build())
+                .run();
+    }
+}
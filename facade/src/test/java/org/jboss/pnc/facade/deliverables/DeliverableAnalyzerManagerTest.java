@@ -17,11 +17,13 @@
  */
 package org.jboss.pnc.facade.deliverables;
 
+import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import org.jboss.pnc.api.deliverablesanalyzer.dto.*;
 import org.jboss.pnc.api.enums.DeliverableAnalyzerReportLabel;
@@ -37,6 +39,7 @@ import org.jboss.pnc.model.Base32LongID;
 import org.jboss.pnc.model.DeliverableAnalyzerDistribution;
 import org.jboss.pnc.model.DeliverableAnalyzerOperation;
 import org.jboss.pnc.model.DeliverableAnalyzerReport;
+import org.jboss.pnc.model.DeliverableArtifact;
 import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.model.TargetRepository;
 import org.jboss.pnc.model.User;
@@ -50,6 +53,7 @@ import org.jboss.pnc.spi.datastore.repositories.TargetRepositoryRepository;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.invocation.InvocationOnMock;
@@ -57,10 +61,18 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
 import static org.jboss.pnc.constants.ReposiotryIdentifier.DISTRIBUTION_ARCHIVE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.jboss.pnc.constants.ReposiotryIdentifier.INDY_MAVEN;
+import static org.jboss.pnc.facade.deliverables.DeliverableAnalyzerManagerImpl.PROCESSED_ARTIFACTS_PARAMETER;
+import static org.jboss.pnc.facade.deliverables.DeliverableAnalyzerManagerImpl.TOTAL_ARTIFACTS_PARAMETER;
+import static org.jboss.pnc.model.DeliverableAnalyzerOperation.INCOMPLETE_REPORT_PARAMETER;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -96,6 +108,11 @@ public class DeliverableAnalyzerManagerTest {
     private DeliverableAnalyzerManagerImpl processor;
 
     private List<TargetRepository> repositories = new ArrayList<>();
+    private DeliverableAnalyzerReport report;
+    private DeliverableAnalyzerDistribution distribution = DeliverableAnalyzerDistribution.builder()
+            .id(DISTRIBUTION_ID)
+            .distributionUrl(distributionUrl)
+            .build();
     private List<org.jboss.pnc.model.Artifact> artifacts = new ArrayList<>();
     private final static User USER = User.Builder.newBuilder().id(42).username("TheUser").build();
     private DeliverableAnalyzerOperation deliverableAnalyzerOperation = DeliverableAnalyzerOperation.Builder
@@ -108,7 +125,12 @@ public class DeliverableAnalyzerManagerTest {
             .build();
 
     @Before
-    public void initMock() {
+    public void initMock() throws ReflectiveOperationException {
+        // the transactional methods are called through the CDI proxy
+        Field self = DeliverableAnalyzerManagerImpl.class.getDeclaredField("self");
+        self.setAccessible(true);
+        self.set(processor, processor);
+
         when(artifactMapper.getIdMapper()).thenCallRealMethod();
         repositories.clear();
         when(targetRepositoryRepository.save(any())).thenAnswer(new RepositorSave(repositories));
@@ -126,10 +148,13 @@ public class DeliverableAnalyzerManagerTest {
         when((userService.currentUser())).thenReturn(USER);
         when(globalConfig.getBrewContentUrl()).thenReturn("https://example.com/");
         when(deliverableAnalyzerOperationRepository.queryById(any())).thenReturn(deliverableAnalyzerOperation);
-        when(deliverableAnalyzerReportRepository.save(any()))
-                .thenReturn(DeliverableAnalyzerReport.builder().id(ID).build());
-        when(deliverableAnalyzerDistributionRepository.save(any())).thenReturn(
-                DeliverableAnalyzerDistribution.builder().id(DISTRIBUTION_ID).distributionUrl(distributionUrl).build());
+        when(deliverableAnalyzerReportRepository.save(any())).thenAnswer(invocation -> {
+            report = invocation.getArgument(0);
+            return report;
+        });
+        when(deliverableAnalyzerReportRepository.queryById(any())).thenAnswer(invocation -> report);
+        when(deliverableAnalyzerDistributionRepository.save(any())).thenReturn(distribution);
+        when(deliverableAnalyzerDistributionRepository.queryById(any())).thenReturn(distribution);
     }
 
     @Test
@@ -154,9 +179,11 @@ public class DeliverableAnalyzerManagerTest {
 
         // verify that:
         // all artifacts were set as distributed
-        verify(deliverableArtifactRepository, times(14)).save(argThat(da -> da.getReport().getId().equals(ID)));
+        List<DeliverableArtifact> deliveredArtifacts = persistedDeliverableArtifacts();
+        assertThat(deliveredArtifacts).hasSize(14)
+                .allMatch(da -> da.getReport().getId().equals(ID) && da.getDistribution().equals(distribution));
         // unknown artifacts were converted and set as distributed
-        verify(deliverableArtifactRepository, times(2)).save(argThat(da -> {
+        assertThat(deliveredArtifacts).filteredOn(da -> {
             return da.getArtifact().getArtifactQuality().equals(ArtifactQuality.IMPORTED)
                     && da.getArtifact().getTargetRepository().getIdentifier().equals(DISTRIBUTION_ARCHIVE)
                     && da.getArtifact()
@@ -165,29 +192,133 @@ public class DeliverableAnalyzerManagerTest {
                             .equals(RepositoryType.DISTRIBUTION_ARCHIVE)
                     && da.getArtifact().getTargetRepository().getRepositoryPath().equals(distributionUrl)
                     && !da.isBuiltFromSource() && da.getBrewBuildId() == null;
-        }));
+        }).hasSize(2);
         // brew unbuilt artifacts were converted and set as distributed
-        verify(deliverableArtifactRepository, times(2)).save(argThat(da -> {
+        assertThat(deliveredArtifacts).filteredOn(da -> {
             return da.getArtifact().getArtifactQuality().equals(ArtifactQuality.IMPORTED)
                     && da.getArtifact().getTargetRepository().getIdentifier().equals(INDY_MAVEN)
                     && da.getArtifact().getTargetRepository().getRepositoryType().equals(RepositoryType.MAVEN)
                     && !da.isBuiltFromSource() && da.getBrewBuildId() != null;
-        }));
+        }).hasSize(2);
         // brew built artifacts (in brew build "second-build-ever") were converted and set as distributed
-        verify(deliverableArtifactRepository, times(2)).save(argThat(da -> {
+        assertThat(deliveredArtifacts).filteredOn(da -> {
             return da.getArtifact().getArtifactQuality().equals(ArtifactQuality.NEW)
                     && da.getArtifact().getTargetRepository().getIdentifier().equals(INDY_MAVEN)
                     && da.getArtifact().getTargetRepository().getRepositoryType().equals(RepositoryType.MAVEN)
                     && da.getArtifact().getTargetRepository().getRepositoryPath().contains("second-build-ever")
                     && da.isBuiltFromSource() && da.getBrewBuildId() != null;
-        }));
+        }).hasSize(2);
         // PNC artifacts were set as distributed
-        verify(deliverableArtifactRepository, times(artifacts.size()))
-                .save(argThat(da -> artifacts.contains(da.getArtifact())));
-        verify(deliverableAnalyzerReportRepository).save(
-                argThat(
-                        r -> r.getArtifacts().size() == 14 && r.getLabels().isEmpty()
-                                && r.getLabelHistory().isEmpty()));
+        assertThat(deliveredArtifacts).filteredOn(da -> artifacts.contains(da.getArtifact()))
+                .hasSize(artifacts.size());
+        verify(deliverableAnalyzerReportRepository)
+                .save(argThat(r -> r.getLabels().isEmpty() && r.getLabelHistory().isEmpty()));
+        // the progress was recorded in the operation and the report was completed
+        assertThat(deliverableAnalyzerOperation.getOperationParameters())
+                .containsEntry(TOTAL_ARTIFACTS_PARAMETER, "14")
+                .containsEntry(PROCESSED_ARTIFACTS_PARAMETER, "14")
+                .doesNotContainKey(INCOMPLETE_REPORT_PARAMETER);
+    }
+
+    @Test
+    public void testReportIncompleteAfterFailure() throws MalformedURLException {
+        // with
+        FinderResult firstResult = FinderResult.builder()
+                .builds(prepareBuilds())
+                .notFoundArtifacts(Collections.emptySet())
+                .url(new URL(distributionUrl))
+                .build();
+        FinderResult secondResult = FinderResult.builder()
+                .builds(Collections.emptySet())
+                .notFoundArtifacts(prepareNotFoundArtifacts())
+                .url(new URL("https://example.com/second-distribution.zip"))
+                .build();
+        // the chunk of the first distribution is stored, storing the chunk of the second one fails
+        doNothing().doThrow(new IllegalStateException("Connection lost."))
+                .when(deliverableArtifactRepository)
+                .persist(any());
+
+        // when
+        assertThatThrownBy(
+                () -> processor.completeAnalysis(
+                        AnalysisResult.builder()
+                                .deliverableAnalyzerOperationId(ID)
+                                .results(List.of(firstResult, secondResult))
+                                .wasRunAsScratchAnalysis(false)
+                                .build()))
+                .isInstanceOf(IllegalStateException.class);
+
+        // then
+        // the report with the stored chunk stays incomplete, so the statistics exclude it
+        assertThat(deliverableAnalyzerOperation.getOperationParameters())
+                .containsEntry(TOTAL_ARTIFACTS_PARAMETER, "14")
+                .containsEntry(PROCESSED_ARTIFACTS_PARAMETER, "12")
+                .containsKey(INCOMPLETE_REPORT_PARAMETER);
+    }
+
+    @Test
+    public void testResumeStore() throws MalformedURLException {
+        // with
+        Set<Build> builds = prepareBuilds();
+        FinderResult result = FinderResult.builder()
+                .builds(builds)
+                .notFoundArtifacts(Collections.emptySet())
+                .url(new URL(distributionUrl))
+                .build();
+        // the report and the first PNC artifact were stored by a previous processing of the result
+        deliverableAnalyzerOperation.getOperationParameters().put(INCOMPLETE_REPORT_PARAMETER, "true");
+        report = DeliverableAnalyzerReport.builder().id(ID).operation(deliverableAnalyzerOperation).build();
+        org.jboss.pnc.model.Artifact storedArtifact = artifacts.get(0);
+        when(deliverableArtifactRepository.getDeliveredArtifactIds(eq(ID), eq(DISTRIBUTION_ID)))
+                .thenReturn(new HashSet<>(Set.of(storedArtifact.getId())));
+
+        // when
+        processor.completeAnalysis(
+                AnalysisResult.builder()
+                        .deliverableAnalyzerOperationId(ID)
+                        .results(Collections.singletonList(result))
+                        .wasRunAsScratchAnalysis(false)
+                        .build());
+
+        // then
+        verify(deliverableAnalyzerReportRepository, never()).save(any());
+        assertThat(persistedDeliverableArtifacts()).hasSize(11)
+                .noneMatch(da -> da.getArtifact().equals(storedArtifact));
+        assertThat(deliverableAnalyzerOperation.getOperationParameters())
+                .containsEntry(PROCESSED_ARTIFACTS_PARAMETER, "12")
+                .doesNotContainKey(INCOMPLETE_REPORT_PARAMETER);
+    }
+
+    @Test
+    public void testReuseStoredNotFoundArtifact() throws MalformedURLException {
+        // with
+        FinderResult result = FinderResult.builder()
+                .builds(Collections.emptySet())
+                .notFoundArtifacts(prepareNotFoundArtifacts())
+                .url(new URL(distributionUrl))
+                .build();
+        org.jboss.pnc.model.Artifact storedArtifact = org.jboss.pnc.model.Artifact.builder()
+                .id(7)
+                .artifactQuality(ArtifactQuality.IMPORTED)
+                .filename("foo-bar-baz.xml")
+                .identifier("foo-bar-baz.xml")
+                .sha256("8c26367dfoo-bar-baz.xml")
+                .build();
+        when(artifactRepository.withSha256In(any())).thenReturn(Collections.singletonList(storedArtifact));
+
+        // when
+        processor.completeAnalysis(
+                AnalysisResult.builder()
+                        .deliverableAnalyzerOperationId(ID)
+                        .results(Collections.singletonList(result))
+                        .wasRunAsScratchAnalysis(false)
+                        .build());
+
+        // then
+        // the stored artifacts of the whole distribution were fetched at once
+        verify(artifactRepository).withSha256In(argThat(sha256s -> sha256s.size() == 2));
+        verify(artifactRepository).save(argThat(artifact -> artifact.getFilename().equals("bazBarBoo.tar.gz")));
+        assertThat(persistedDeliverableArtifacts()).hasSize(2).anyMatch(da -> da.getArtifact() == storedArtifact);
     }
 
     @Test
@@ -212,6 +343,12 @@ public class DeliverableAnalyzerManagerTest {
                                 && entry.getChange().equals(LabelOperation.ADDED)));
     }
 
+    private List<DeliverableArtifact> persistedDeliverableArtifacts() {
+        ArgumentCaptor<Collection<DeliverableArtifact>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(deliverableArtifactRepository, atLeastOnce()).persist(captor.capture());
+        return captor.getAllValues().stream().flatMap(Collection::stream).collect(Collectors.toList());
+    }
+
     private Set<Build> prepareBuilds() {
         Set<Build> ret = new HashSet<>();
         ret.add(preparePncBuild("1"));
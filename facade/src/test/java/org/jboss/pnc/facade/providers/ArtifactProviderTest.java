@@ -18,6 +18,7 @@
 package org.jboss.pnc.facade.providers;
 
 import org.assertj.core.api.Condition;
+import org.jboss.pnc.datastore.BuiltArtifactFilter;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.ArtifactRevision;
 import org.jboss.pnc.dto.TargetRepository;
@@ -50,6 +51,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -79,6 +81,9 @@ public class ArtifactProviderTest extends AbstractIntIdProviderTest<org.jboss.pn
     @Mock
     private UserService userService;
 
+    @Mock
+    private BuiltArtifactFilter builtArtifactFilter;
+
     @Spy
     @InjectMocks
     private ArtifactProviderImpl provider;
@@ -194,6 +199,41 @@ public class ArtifactProviderTest extends AbstractIntIdProviderTest<org.jboss.pn
                         new Condition<>(a -> artifact1.getIdentifier().equals(a.getIdentifier()), "Artifact present"));
     }
 
+    @Test
+    public void testGetAllWithoutTotalHits() {
+        fillRepository(artifacts);
+
+        Page<Artifact> first = getAll(0, 2, Optional.empty(), Page.TotalHitsMode.NONE);
+        Page<Artifact> last = getAll(1, 3, Optional.empty(), Page.TotalHitsMode.NONE);
+
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(first.getTotalHits()).isEqualTo(-1);
+        assertThat(first.getTotalPages()).isEqualTo(-1);
+        // the short last page tells the count
+        assertThat(last.getTotalHits()).isEqualTo(4);
+        assertThat(last.getTotalPages()).isEqualTo(2);
+        Mockito.verify(repository, Mockito.never()).count(any(Predicate[].class));
+    }
+
+    @Test
+    public void testGetAllWithEstimatedTotalHits() {
+        fillRepository(artifacts);
+        when(repository.estimateCount()).thenReturn(1000);
+
+        Page<Artifact> unfiltered = getAll(0, 2, Optional.empty(), Page.TotalHitsMode.ESTIMATED);
+        assertThat(unfiltered.getTotalHits()).isEqualTo(1000);
+        Mockito.verify(repository, Mockito.never()).count(any(Predicate[].class));
+
+        // the estimate is not known for the filtered queries
+        Page<Artifact> filtered = getAll(0, 2, Optional.of(artifact1.getSha256()), Page.TotalHitsMode.ESTIMATED);
+        assertThat(filtered.getTotalHits()).isEqualTo(4);
+        Mockito.verify(repository).count(any(Predicate[].class));
+    }
+
+    private Page<Artifact> getAll(int pageIndex, int pageSize, Optional<String> sha256, Page.TotalHitsMode mode) {
+        return provider.getAll(pageIndex, pageSize, null, null, sha256, Optional.empty(), Optional.empty(), mode);
+    }
+
     @Test
     public void testUpdate() {
         fillRepository(artifacts);
@@ -22,6 +22,7 @@ import org.assertj.core.api.Condition;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.dto.BuildRef;
 import org.jboss.pnc.facade.validation.CorruptedDataException;
+import org.jboss.pnc.mapper.BuildBCRevisionFetcher;
 import org.jboss.pnc.mapper.api.BuildMapper;
 import org.jboss.pnc.model.Base32LongID;
 import org.jboss.pnc.model.BuildConfigSetRecord;
@@ -56,6 +57,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
+import java.lang.reflect.Field;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -109,7 +111,19 @@ public class BuildFetcherTest {
     }
 
     @Before
-    public void beforeTest() throws RemoteRequestException, MissingDataException {
+    public void beforeTest() throws RemoteRequestException, MissingDataException, ReflectiveOperationException {
+        Field bcRevisionFetcher = BuildFetcher.class.getDeclaredField("bcRevisionFetcher");
+        bcRevisionFetcher.setAccessible(true);
+        bcRevisionFetcher.set(
+                buildFetcher,
+                new BuildBCRevisionFetcher(
+                        null,
+                        null,
+                        null,
+                        null,
+                        buildConfigurationAuditedRepository,
+                        buildConfigurationRepository));
+
         buildRecordPredicatesMockedStatic = Mockito.mockStatic(BuildRecordPredicates.class);
         buildRecordPredicatesMockedStatic.when(() -> BuildRecordPredicates.withIds(Mockito.any()))
                 .thenAnswer(FakePredicate::new);
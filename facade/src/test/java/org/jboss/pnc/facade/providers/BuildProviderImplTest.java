@@ -31,6 +31,7 @@ import org.jboss.pnc.dto.response.Vertex;
 import org.jboss.pnc.enums.ResultStatus;
 import org.jboss.pnc.facade.providers.api.BuildPageInfo;
 import org.jboss.pnc.facade.validation.CorruptedDataException;
+import org.jboss.pnc.facade.validation.InvalidEntityException;
 import org.jboss.pnc.mapper.api.BuildMapper;
 import org.jboss.pnc.model.Base32LongID;
 import org.jboss.pnc.model.BuildConfigSetRecord;
@@ -60,7 +61,6 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigInteger;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.temporal.IsoFields;
@@ -78,12 +78,15 @@ import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.jboss.pnc.common.util.RandomUtils.randInt;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -158,30 +161,27 @@ public class BuildProviderImplTest extends AbstractBase32LongIDProviderTest<Buil
         when(repository.getAllBuildRecordInsightsNewerThanTimestamp(any(), anyInt(), anyInt())).thenAnswer(inv -> {
             return repositoryList.stream()
                     .findFirst()
-                    .map(
-                            a -> Collections.singletonList(
-                                    new Object[] { BigInteger.valueOf(a.getId().getLongId()), a.getBuildContentId(),
-                                            a.getSubmitTime(), a.getStartTime(), a.getEndTime(), a.getLastUpdateTime(),
-                                            a.getSubmitTime().getYear(), a.getSubmitTime().getMonth(),
-                                            a.getSubmitTime()
-                                                    .toInstant()
-                                                    .atZone(ZoneId.systemDefault())
-                                                    .toLocalDate()
-                                                    .get(IsoFields.QUARTER_OF_YEAR),
-                                            a.getStatus(), a.isTemporaryBuild(), false, false, "",
-                                            a.getExecutionRootName(), a.getExecutionRootVersion(), 0, "username",
-                                            a.getBuildConfigurationId(), a.getBuildConfigurationAuditedIdRev().getId(),
-                                            a.getBuildConfigurationAudited().getName(),
-                                            BigInteger.valueOf(a.getBuildConfigSetRecord().getId().getLongId()), 0, // productMilestone
-                                            "", // milestoneVersion
-                                            0, "", // projectName
-                                            0, // productVersionId
-                                            "", // productVersion
-                                            0, // productId
-                                            "" }))
+                    .map(a -> Collections.singletonList(toInsights(a)))
                     .get();
         });
 
+        when(repository.getBuildRecordInsightsAfter(any(), any(), anyInt())).thenAnswer(inv -> {
+            Date after = inv.getArgument(0);
+            Long afterId = inv.getArgument(1);
+            int limit = inv.getArgument(2);
+            return repositoryList.stream()
+                    .map(BuildProviderImplTest::toInsights)
+                    .sorted(
+                            Comparator.comparing(BuildRecordInsights::getLastUpdateTime)
+                                    .thenComparing(BuildRecordInsights::getBuildId))
+                    .filter(i -> {
+                        int compared = i.getLastUpdateTime().compareTo(after.toInstant());
+                        return compared > 0 || compared == 0 && afterId != null && i.getBuildId() > afterId;
+                    })
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        });
+
         when(buildCoordinator.getSubmittedBuildTasks()).thenReturn(runningBuilds);
         when(buildCoordinator.getSubmittedBuildTasksBySetId(any())).thenAnswer(inv -> {
             Base32LongID bcsrid = inv.getArgument(0);
@@ -289,6 +289,32 @@ public class BuildProviderImplTest extends AbstractBase32LongIDProviderTest<Buil
         return br;
     }
 
+    private static BuildRecordInsights toInsights(BuildRecord a) {
+        return BuildRecordInsights.builder()
+                .buildId(a.getId().getLongId())
+                .buildContentId(a.getBuildContentId())
+                .submitTime(a.getSubmitTime().toInstant())
+                .lastUpdateTime(a.getLastUpdateTime() == null ? null : a.getLastUpdateTime().toInstant())
+                .submitYear(a.getSubmitTime().getYear())
+                .submitMonth(a.getSubmitTime().getMonth())
+                .submitQuarter(
+                        a.getSubmitTime()
+                                .toInstant()
+                                .atZone(ZoneId.systemDefault())
+                                .toLocalDate()
+                                .get(IsoFields.QUARTER_OF_YEAR))
+                .status(String.valueOf(a.getStatus()))
+                .temporarybuild(a.isTemporaryBuild())
+                .executionRootName(a.getExecutionRootName())
+                .executionRootVersion(a.getExecutionRootVersion())
+                .username("username")
+                .buildConfigurationId(a.getBuildConfigurationId())
+                .buildConfigurationRev(a.getBuildConfigurationAuditedIdRev().getId())
+                .buildConfigurationName(a.getBuildConfigurationAudited().getName())
+                .buildConfigSetRecordId(a.getBuildConfigSetRecord().getId().getLongId())
+                .build();
+    }
+
     @Test
     public void testGetLatestRunningBuild() {
         // Prepare
@@ -341,6 +367,42 @@ public class BuildProviderImplTest extends AbstractBase32LongIDProviderTest<Buil
         assertEquals(1, builds.getTotalHits());
     }
 
+    @Test
+    public void testGetBuildRecordInsightsByCursor() {
+        // Prepare
+        for (int i = 0; i < 5; i++) {
+            mockBuildRecord();
+        }
+        for (int i = 0; i < repositoryList.size(); i++) {
+            // builds sharing the last update time are ordered by id
+            repositoryList.get(i).setLastUpdateTime(new Date(1000L + 1000L * (i / 2)));
+        }
+        Date since = new Date(0);
+
+        // When
+        List<BuildRecordInsights> collected = new ArrayList<>();
+        Page<BuildRecordInsights> page = provider.getBuildRecordInsightsNewerThanTimestamp(null, 2, since);
+        assertEquals(5, page.getTotalHits());
+        collected.addAll(page.getContent());
+        while (page.getNextPageCursor() != null) {
+            page = provider.getBuildRecordInsightsNewerThanTimestamp(page.getNextPageCursor(), 2, since);
+            assertEquals(-1, page.getTotalHits());
+            collected.addAll(page.getContent());
+        }
+
+        // Verify
+        assertThat(collected).extracting(BuildRecordInsights::getBuildId)
+                .containsExactlyInAnyOrderElementsOf(
+                        repositoryList.stream().map(b -> b.getId().getLongId()).collect(Collectors.toList()));
+        verify(repository, times(1)).countAllBuildRecordInsightsNewerThanTimestamp(any());
+    }
+
+    @Test
+    public void testGetBuildRecordInsightsRejectsInvalidCursor() {
+        assertThatThrownBy(() -> provider.getBuildRecordInsightsNewerThanTimestamp("x", 2, new Date(0)))
+                .isInstanceOf(InvalidEntityException.class);
+    }
+
     @Test
     public void testGetRunningBuilds() {
         // Prepare
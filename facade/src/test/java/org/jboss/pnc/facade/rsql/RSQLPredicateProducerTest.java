@@ -30,6 +30,7 @@ import org.jboss.pnc.facade.rsql.mapper.BuildRSQLMapper;
 import org.jboss.pnc.facade.rsql.mapper.RSQLMapper;
 import org.jboss.pnc.facade.rsql.mapper.UniversalRSQLMapper;
 import org.jboss.pnc.model.*;
+import org.jboss.pnc.model.utils.HibernateMetric;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -49,6 +50,7 @@ import javax.persistence.metamodel.SingularAttribute;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.SortedMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -476,6 +478,40 @@ public class RSQLPredicateProducerTest {
         assertEquals(BuildType.GRADLE, filtered.get(1).getBuildType());
     }
 
+    @Test
+    public void testStreamPredicateOr() {
+        Predicate<BuildConfiguration> streamPredicate = producer
+                .getStreamPredicate("name==\"FooBar\",buildType=in=(MVN,SBT)");
+
+        BuildConfiguration fooBarG = BuildConfiguration.builder().name("FooBar").buildType(BuildType.GRADLE).build();
+        BuildConfiguration fooBazG = BuildConfiguration.builder().name("FooBaz").buildType(BuildType.GRADLE).build();
+        BuildConfiguration fooBazM = BuildConfiguration.builder().name("FooBaz").buildType(BuildType.MVN).build();
+
+        List<BuildConfiguration> filtered = Arrays.asList(fooBarG, fooBazG, fooBazM)
+                .stream()
+                .filter(streamPredicate)
+                .collect(Collectors.toList());
+
+        assertEquals(2, filtered.size());
+        assertEquals(BuildType.GRADLE, filtered.get(0).getBuildType());
+        assertEquals(BuildType.MVN, filtered.get(1).getBuildType());
+    }
+
+    @Test
+    public void testParseCache() {
+        producer.getStreamPredicate("name==\"FooBar\"");
+        producer.getStreamPredicate("name==\"FooBar\"");
+        producer.getStreamPredicate("name==\"FooBaz\"");
+        producer.getComparator("=desc=id");
+
+        SortedMap<String, HibernateMetric> stats = producer.getParseCacheStats();
+
+        assertEquals("1.0", stats.get("rsql.parse-cache.predicate.hit.count").getValue());
+        assertEquals("2.0", stats.get("rsql.parse-cache.predicate.miss.count").getValue());
+        assertEquals("2.0", stats.get("rsql.parse-cache.predicate.size").getValue());
+        assertEquals("1.0", stats.get("rsql.parse-cache.sort.miss.count").getValue());
+    }
+
     private Answer<Path<?>> callBuildRecordPath() {
         return invocation -> toPath(invocation.getArgument(0), invocation.getArgument(1));
     }
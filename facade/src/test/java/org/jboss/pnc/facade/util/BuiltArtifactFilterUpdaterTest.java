@@ -0,0 +1,174 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.jboss.pnc.datastore.BuiltArtifactFilter;
+import org.jboss.pnc.datastore.BuiltArtifactFilter.BuiltIdentifiers;
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.PncStatus;
+import org.jboss.pnc.dto.notification.BuildChangedNotification;
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.model.Base32LongID;
+import org.jboss.pnc.notification.dist.LocalEventHandler;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BuiltArtifactFilterUpdaterTest {
+
+    private static final Base32LongID BUILD_ID = new Base32LongID(100L);
+
+    @Mock
+    private BuiltArtifactFilter filter;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private final LocalEventHandler eventHandler = new LocalEventHandler();
+
+    private BuiltArtifactFilterUpdater updater;
+
+    @Before
+    public void setUp() {
+        updater = new BuiltArtifactFilterUpdater(filter, eventHandler, scheduler);
+        // the lookups of the built artifacts run right away
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return null;
+        });
+    }
+
+    @Test
+    public void shouldAddArtifactsOfFinishedBuild() {
+        when(filter.isEnabled()).thenReturn(true);
+        when(filter.putBuiltBy(BUILD_ID)).thenReturn(true);
+        updater.registerSubscriber(new Object());
+
+        eventHandler.sendEvent(new BuildChangedNotification(BuildStatus.BUILDING, build(BuildStatus.SUCCESS)));
+
+        verify(filter).putBuiltBy(BUILD_ID);
+    }
+
+    @Test
+    public void shouldRetryUntilBuildIsCommitted() {
+        when(filter.isEnabled()).thenReturn(true);
+        when(filter.putBuiltBy(BUILD_ID)).thenReturn(false, false, true);
+        updater.registerSubscriber(new Object());
+
+        eventHandler.sendEvent(new BuildChangedNotification(BuildStatus.BUILDING, build(BuildStatus.SUCCESS)));
+
+        verify(filter, times(3)).putBuiltBy(BUILD_ID);
+    }
+
+    @Test
+    public void shouldGiveUpOnBuildThatIsNeverCommitted() {
+        when(filter.isEnabled()).thenReturn(true);
+        when(filter.putBuiltBy(BUILD_ID)).thenReturn(false);
+        updater.registerSubscriber(new Object());
+
+        eventHandler.sendEvent(new BuildChangedNotification(BuildStatus.BUILDING, build(BuildStatus.SUCCESS)));
+
+        verify(filter, times(10)).putBuiltBy(BUILD_ID);
+    }
+
+    @Test
+    public void shouldRebuildPeriodically() {
+        when(filter.isEnabled()).thenReturn(true);
+        updater.registerSubscriber(new Object());
+
+        ArgumentCaptor<Runnable> rebuild = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(rebuild.capture(), anyLong(), anyLong(), eq(TimeUnit.HOURS));
+        doThrow(new IllegalStateException("database is down")).when(filter).rebuild();
+        rebuild.getValue().run();
+        rebuild.getValue().run();
+
+        verify(filter, times(2)).rebuild();
+    }
+
+    @Test
+    public void shouldBuildFilterInBackgroundAfterStartup() {
+        when(filter.isEnabled()).thenReturn(true);
+
+        updater.registerSubscriber(new Object());
+
+        verify(scheduler).scheduleWithFixedDelay(any(Runnable.class), eq(0L), eq(24L), eq(TimeUnit.HOURS));
+        verify(filter, never()).rebuild();
+    }
+
+    @Test
+    public void shouldDistributeArtifactsMarkedAsBuilt() {
+        when(filter.isEnabled()).thenReturn(true);
+        updater.registerSubscriber(new Object());
+
+        updater.onBuiltIdentifiers(new BuiltIdentifiers(List.of("foo:bar:1.0", "foo:baz:1.0"), true));
+
+        verify(filter).put("foo:bar:1.0");
+        verify(filter).put("foo:baz:1.0");
+    }
+
+    @Test
+    public void shouldNotDistributeArtifactsOfBuild() {
+        when(filter.isEnabled()).thenReturn(true);
+        updater.registerSubscriber(new Object());
+
+        updater.onBuiltIdentifiers(new BuiltIdentifiers(List.of("foo:bar:1.0"), false));
+
+        verify(filter, never()).put(any());
+    }
+
+    @Test
+    public void shouldIgnoreOtherNotifications() {
+        when(filter.isEnabled()).thenReturn(true);
+        updater.registerSubscriber(new Object());
+
+        eventHandler.sendEvent(new BuildChangedNotification(BuildStatus.ENQUEUED, build(BuildStatus.BUILDING)));
+        eventHandler.sendEvent(PncStatus.builder().banner("unrelated").build());
+
+        verify(filter, never()).putBuiltBy(any());
+    }
+
+    @Test
+    public void shouldNotSubscribeWhenFilterIsDisabled() {
+        updater.registerSubscriber(new Object());
+
+        eventHandler.sendEvent(new BuildChangedNotification(BuildStatus.BUILDING, build(BuildStatus.SUCCESS)));
+
+        verify(filter, never()).putBuiltBy(any());
+    }
+
+    private static Build build(BuildStatus status) {
+        return Build.builder().id(BUILD_ID.getId()).status(status).build();
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.jboss.pnc.dto.PncStatus;
+import org.jboss.pnc.dto.notification.GenericSettingNotification;
+import org.jboss.pnc.model.GenericSetting;
+import org.jboss.pnc.notification.dist.LocalEventHandler;
+import org.jboss.pnc.spi.datastore.repositories.GenericSettingRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jboss.pnc.api.constants.GenericSettingsKeys.ANNOUNCEMENT_BANNER;
+import static org.jboss.pnc.api.constants.GenericSettingsKeys.MAINTENANCE_MODE;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GenericSettingCacheTest {
+
+    @Mock
+    private GenericSettingRepository repository;
+
+    private final LocalEventHandler eventHandler = new LocalEventHandler();
+
+    private GenericSettingCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new GenericSettingCache(repository, eventHandler, 60_000);
+        cache.registerSubscriber();
+        when(repository.queryByKey(MAINTENANCE_MODE)).thenReturn(setting(MAINTENANCE_MODE, "true"));
+    }
+
+    @Test
+    public void shouldReadSettingFromDatabaseOnce() {
+        assertThat(cache.get(MAINTENANCE_MODE)).isEqualTo("true");
+        assertThat(cache.get(MAINTENANCE_MODE)).isEqualTo("true");
+        assertThat(cache.get(ANNOUNCEMENT_BANNER)).isNull();
+        assertThat(cache.get(ANNOUNCEMENT_BANNER)).isNull();
+
+        verify(repository, times(1)).queryByKey(MAINTENANCE_MODE);
+        verify(repository, times(1)).queryByKey(ANNOUNCEMENT_BANNER);
+    }
+
+    @Test
+    public void shouldServeWrittenValue() {
+        cache.get(MAINTENANCE_MODE);
+
+        cache.onSettingChanged(new GenericSettingCache.SettingChangedEvent(MAINTENANCE_MODE, "false"));
+
+        assertThat(cache.get(MAINTENANCE_MODE)).isEqualTo("false");
+        verify(repository, times(1)).queryByKey(MAINTENANCE_MODE);
+    }
+
+    @Test
+    public void shouldInvalidateOnStatusChangedNotification() {
+        cache.get(MAINTENANCE_MODE);
+
+        eventHandler.sendEvent(
+                GenericSettingNotification.pncStatusChanged(PncStatus.builder().isMaintenanceMode(false).build()));
+        when(repository.queryByKey(MAINTENANCE_MODE)).thenReturn(setting(MAINTENANCE_MODE, "false"));
+
+        assertThat(cache.get(MAINTENANCE_MODE)).isEqualTo("false");
+        verify(repository, times(2)).queryByKey(MAINTENANCE_MODE);
+    }
+
+    @Test
+    public void shouldIgnoreOtherEvents() {
+        cache.get(MAINTENANCE_MODE);
+
+        eventHandler.sendEvent(PncStatus.builder().banner("unrelated").build());
+
+        cache.get(MAINTENANCE_MODE);
+        verify(repository, times(1)).queryByKey(MAINTENANCE_MODE);
+    }
+
+    @Test
+    public void shouldExpireEntries() {
+        cache = new GenericSettingCache(repository, eventHandler, 0);
+
+        cache.get(MAINTENANCE_MODE);
+        cache.get(MAINTENANCE_MODE);
+
+        verify(repository, times(2)).queryByKey(MAINTENANCE_MODE);
+    }
+
+    private static GenericSetting setting(String key, String value) {
+        GenericSetting setting = new GenericSetting();
+        setting.setKey(key);
+        setting.setValue(value);
+        return setting;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.facade.util;
+
+import org.jboss.pnc.auth.AuthenticationProvider;
+import org.jboss.pnc.auth.LoggedInUser;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.repositories.UserRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class UserServiceTest {
+
+    private static final String USERNAME = "demo-user";
+
+    @Mock
+    private AuthenticationProvider authenticationProvider;
+
+    @Mock
+    private HttpServletRequest httpServletRequest;
+
+    @Mock
+    private UserRepository repository;
+
+    @Mock
+    private LoggedInUser loggedInUser;
+
+    @Spy
+    private CurrentUserCache currentUserCache = new CurrentUserCache();
+
+    @InjectMocks
+    private UserService userService;
+
+    @InjectMocks
+    private UserService nextRequestUserService;
+
+    private final User user = User.Builder.newBuilder().id(7).username(USERNAME).build();
+
+    @Before
+    public void setUp() {
+        currentUserCache.start(10, 1, TimeUnit.MINUTES);
+        when(authenticationProvider.getLoggedInUser(httpServletRequest)).thenReturn(loggedInUser);
+        when(loggedInUser.getUserName()).thenReturn(USERNAME);
+        when(loggedInUser.getRole()).thenReturn(Collections.singleton("user"));
+        when(repository.queryByPredicates(any())).thenReturn(user);
+        when(repository.queryById(7)).thenReturn(user);
+    }
+
+    @After
+    public void tearDown() {
+        currentUserCache.stop();
+    }
+
+    @Test
+    public void shouldResolveUserOncePerRequest() {
+        assertThat(userService.currentUser()).isSameAs(user);
+        assertThat(userService.currentUser()).isSameAs(user);
+
+        verify(repository, times(1)).queryByPredicates(any());
+        verify(repository, never()).queryById(any());
+        assertThat(currentUserCache.getLookups()).isEqualTo(2);
+        assertThat(currentUserCache.getSavedLookups()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldResolveUserByCachedIdInNextRequest() {
+        userService.currentUser();
+
+        assertThat(nextRequestUserService.currentUser()).isSameAs(user);
+
+        verify(repository, times(1)).queryByPredicates(any());
+        verify(repository, times(1)).queryById(7);
+        assertThat(currentUserCache.getSavedLookups()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCacheIdOfCreatedUser() {
+        when(repository.queryByPredicates(any())).thenReturn(null);
+        when(repository.save(any())).thenReturn(user);
+
+        userService.currentUser();
+
+        assertThat(currentUserCache.getUserId(USERNAME)).isEqualTo(7);
+    }
+
+    @Test
+    public void shouldEvictIdOfRenamedUser() {
+        currentUserCache.putUserId(USERNAME, 8);
+        when(repository.queryById(8)).thenReturn(User.Builder.newBuilder().id(8).username("other").build());
+
+        assertThat(userService.currentUser()).isSameAs(user);
+        assertThat(currentUserCache.getUserId(USERNAME)).isEqualTo(7);
+    }
+}
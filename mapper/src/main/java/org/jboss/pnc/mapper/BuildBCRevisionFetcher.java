@@ -29,13 +29,19 @@ import org.jboss.pnc.mapper.api.SCMRepositoryMapper;
 import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.BuildRecord;
 import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicates;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationAuditedRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 import org.mapstruct.BeforeMapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Workaround for NCL-4889 and NCL-5257. This class will fetch the audited Build Config from DB if it is missing from
@@ -56,6 +62,8 @@ public class BuildBCRevisionFetcher {
 
     private BuildConfigurationAuditedRepository bcAuditedRepository;
 
+    private BuildConfigurationRepository bcRepository;
+
     // CDI
     public BuildBCRevisionFetcher() {
     }
@@ -66,12 +74,40 @@ public class BuildBCRevisionFetcher {
             ProjectMapper projectMapper,
             EnvironmentMapper environmentMapper,
             SCMRepositoryMapper scmRepositoryMapper,
-            BuildConfigurationAuditedRepository bcAuditedRepository) {
+            BuildConfigurationAuditedRepository bcAuditedRepository,
+            BuildConfigurationRepository bcRepository) {
         this.bcRevisionMapper = bcRevisionMapper;
         this.projectMapper = projectMapper;
         this.environmentMapper = environmentMapper;
         this.scmRepositoryMapper = scmRepositoryMapper;
         this.bcAuditedRepository = bcAuditedRepository;
+        this.bcRepository = bcRepository;
+    }
+
+    /**
+     * Fetches the audited Build Configs of all the builds with a single query and sets them to the builds, so that
+     * mapping a collection of builds doesn't query them one by one.
+     */
+    public void prefetch(Collection<BuildRecord> builds) {
+        Set<IdRev> idRevs = builds.stream()
+                .filter(build -> build.getBuildConfigurationAudited() == null)
+                .map(BuildRecord::getBuildConfigurationAuditedIdRev)
+                .collect(Collectors.toSet());
+        if (idRevs.isEmpty()) {
+            return;
+        }
+        prefetchFieldsOfBuildConfigs(idRevs);
+        Map<IdRev, BuildConfigurationAudited> bcas = bcAuditedRepository.queryById(idRevs);
+        for (BuildRecord build : builds) {
+            if (build.getBuildConfigurationAudited() == null) {
+                build.setBuildConfigurationAudited(bcas.get(build.getBuildConfigurationAuditedIdRev()));
+            }
+        }
+    }
+
+    private void prefetchFieldsOfBuildConfigs(Set<IdRev> idRevs) {
+        Set<Integer> buildConfigIDs = idRevs.stream().map(IdRev::getId).collect(Collectors.toSet());
+        bcRepository.queryWithPredicates(BuildConfigurationPredicates.withIds(buildConfigIDs));
     }
 
     @BeforeMapping
@@ -24,8 +24,16 @@ import org.jboss.pnc.spi.datastore.repositories.UserRepository;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.jboss.pnc.spi.datastore.predicates.UserPredicates.withUserName;
+import static org.jboss.pnc.spi.datastore.predicates.UserPredicates.withUserNames;
 
 @ApplicationScoped
 @Transactional
@@ -33,6 +41,11 @@ public class UserFetcher {
 
     private UserRepository userRepository;
 
+    /**
+     * Users prefetched for the mapping on the current thread, null values for the usernames that don't exist.
+     */
+    private final ThreadLocal<Map<String, User>> prefetched = new ThreadLocal<>();
+
     // CDI
     public UserFetcher() {
     }
@@ -44,6 +57,38 @@ public class UserFetcher {
 
     @ByUsername
     public User toUserReference(String username) {
+        Map<String, User> users = prefetched.get();
+        if (users != null && users.containsKey(username)) {
+            return users.get(username);
+        }
         return userRepository.queryByPredicates(withUserName(username));
     }
+
+    /**
+     * Resolves the users with a single query, so that mapping a collection doesn't query the users one by one. The
+     * users are used by {@link #toUserReference(String)} on the current thread until the returned context is closed.
+     *
+     * @param usernames usernames of the users to be mapped, nulls are ignored
+     */
+    public MappingContext prefetch(Collection<String> usernames) {
+        Set<String> toFetch = usernames.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        Map<String, User> previous = prefetched.get();
+        Map<String, User> users = previous == null ? new HashMap<>() : new HashMap<>(previous);
+        toFetch.removeAll(users.keySet());
+        if (!toFetch.isEmpty()) {
+            toFetch.forEach(username -> users.put(username, null));
+            userRepository.queryWithPredicates(withUserNames(toFetch))
+                    .forEach(user -> users.put(user.getUsername(), user));
+        }
+        prefetched.set(users);
+        return () -> {
+            if (previous == null) {
+                prefetched.remove();
+            } else {
+                prefetched.set(previous);
+            }
+        };
+    }
 }
@@ -0,0 +1,101 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mapper;
+
+import org.jboss.pnc.mock.repository.UserRepositoryMock;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserFetcherTest {
+
+    private final CountingUserRepository userRepository = new CountingUserRepository();
+
+    private final UserFetcher userFetcher = new UserFetcher(userRepository);
+
+    @Test
+    public void shouldResolvePrefetchedUsersWithoutQuerying() {
+        try (MappingContext ctx = userFetcher.prefetch(Arrays.asList("alice", "bob", "alice", null, "missing"))) {
+            assertThat(userFetcher.toUserReference("alice").getUsername()).isEqualTo("alice");
+            assertThat(userFetcher.toUserReference("bob").getUsername()).isEqualTo("bob");
+            assertThat(userFetcher.toUserReference("missing")).isNull();
+        }
+
+        assertThat(userRepository.bulkQueries.get()).isEqualTo(1);
+        assertThat(userRepository.singleQueries.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldQueryAfterContextIsClosed() {
+        try (MappingContext ctx = userFetcher.prefetch(List.of("alice"))) {
+            userFetcher.toUserReference("alice");
+            // not prefetched
+            userFetcher.toUserReference("bob");
+        }
+        userFetcher.toUserReference("alice");
+
+        assertThat(userRepository.singleQueries.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldKeepOuterContextInNestedPrefetch() {
+        try (MappingContext outer = userFetcher.prefetch(List.of("alice"))) {
+            try (MappingContext inner = userFetcher.prefetch(List.of("alice", "bob"))) {
+                userFetcher.toUserReference("bob");
+            }
+            userFetcher.toUserReference("alice");
+        }
+
+        assertThat(userRepository.bulkQueries.get()).isEqualTo(2);
+        assertThat(userRepository.singleQueries.get()).isEqualTo(0);
+    }
+
+    private static class CountingUserRepository extends UserRepositoryMock {
+
+        private static final List<String> EXISTING = List.of("alice", "bob");
+
+        private final AtomicInteger bulkQueries = new AtomicInteger();
+
+        private final AtomicInteger singleQueries = new AtomicInteger();
+
+        @Override
+        public List<User> queryWithPredicates(Predicate<User>... predicates) {
+            bulkQueries.incrementAndGet();
+            // the predicate can't be evaluated without a database, all the existing users are returned
+            return Arrays.asList(user(EXISTING.get(0)), user(EXISTING.get(1)));
+        }
+
+        @Override
+        public User queryByPredicates(Predicate<User>... predicates) {
+            singleQueries.incrementAndGet();
+            return null;
+        }
+
+        private static User user(String username) {
+            User user = new User();
+            user.setUsername(username);
+            return user;
+        }
+    }
+}
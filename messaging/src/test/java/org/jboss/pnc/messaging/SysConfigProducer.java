@@ -66,6 +66,7 @@ public class SysConfigProducer {
                 null,
                 null,
                 null,
+                null,
                 null);
     }
 }
@@ -36,6 +36,11 @@ public class DeliverableAnalyzerOperation extends Operation {
 
     private static final long serialVersionUID = 4972591927855499338L;
 
+    /**
+     * Operation parameter present while the delivered artifacts of the report are still being stored.
+     */
+    public static final String INCOMPLETE_REPORT_PARAMETER = "incomplete-report";
+
     /**
      * The product milestone for which this deliverable analyzer operation was performed.
      */
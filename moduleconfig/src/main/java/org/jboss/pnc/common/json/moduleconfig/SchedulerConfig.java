@@ -33,18 +33,36 @@ public class SchedulerConfig extends AbstractModuleConfig {
     private final String maxScheduleRetries;
     private final String queueNameForBuilds;
 
+    /**
+     * Number of concurrent rebuild checks of a build graph, 1 (the default) checks the whole graph at once on the
+     * submitting thread.
+     */
+    private final int rebuildCheckParallelism;
+
+    /**
+     * Maximal age in milliseconds of the in-memory mirror of the unfinished Rex tasks served to the read paths, 0 (the
+     * default) disables the mirror and every read goes to Rex.
+     */
+    private final long taskMirrorMaxStalenessMillis;
+
     public SchedulerConfig(
             @JsonProperty("schedulerBaseUrl") String schedulerBaseUrl,
             @JsonProperty("connectTimeout") String connectTimeout,
             @JsonProperty("readTimeout") String readTimeout,
             @JsonProperty("followRedirects") String followRedirects,
             @JsonProperty("maxScheduleRetries") String maxScheduleRetries,
-            @JsonProperty("queueNameForBuilds") String queueNameForBuilds) {
+            @JsonProperty("queueNameForBuilds") String queueNameForBuilds,
+            @JsonProperty("rebuildCheckParallelism") String rebuildCheckParallelism,
+            @JsonProperty("taskMirrorMaxStalenessMillis") String taskMirrorMaxStalenessMillis) {
         this.schedulerBaseUrl = schedulerBaseUrl;
         this.connectTimeout = connectTimeout;
         this.readTimeout = readTimeout;
         this.followRedirects = followRedirects;
         this.maxScheduleRetries = maxScheduleRetries;
         this.queueNameForBuilds = queueNameForBuilds;
+        this.rebuildCheckParallelism = Math
+                .max(1, toIntWithDefault("rebuildCheckParallelism", rebuildCheckParallelism, 1));
+        this.taskMirrorMaxStalenessMillis = Math
+                .max(0, toLongWithDefault("taskMirrorMaxStalenessMillis", taskMirrorMaxStalenessMillis, 0));
     }
 }
@@ -19,8 +19,6 @@ package org.jboss.pnc.common.json.moduleconfig;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.jboss.pnc.common.json.AbstractModuleConfig;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -32,8 +30,6 @@ public class SystemConfig extends AbstractModuleConfig {
 
     public static final String MODULE_NAME = "system-config";
 
-    private final static Logger log = LoggerFactory.getLogger(SystemConfig.class);
-
     private final String authenticationProviderId;
 
     /**
@@ -113,6 +109,12 @@ public class SystemConfig extends AbstractModuleConfig {
 
     private final boolean requirePncUsersRoleForMutating;
 
+    /**
+     * Keeps a node-local filter of the identifiers of the built artifacts, so that the check for already built
+     * artifacts queries the database only for the possible duplicates; optional, disabled by default.
+     */
+    private final boolean builtArtifactFilterEnabled;
+
     public SystemConfig(
             @JsonProperty("authenticationProviderId") String authenticationProviderId,
             @JsonProperty("coordinatorThreadPoolSize") String coordinatorThreadPoolSize,
@@ -145,7 +147,8 @@ public class SystemConfig extends AbstractModuleConfig {
             @JsonProperty("recordUpdateJobEnabled") String recordUpdateJobEnabled,
             @JsonProperty("bifrostLogUploadMaxRetries") String bifrostLogUploadMaxRetries,
             @JsonProperty("bifrostLogUploadRetryDelay") String bifrostLogUploadRetryDelay,
-            @JsonProperty("requirePncUsersRoleForMutating") String requirePncUsersRoleForMutating) {
+            @JsonProperty("requirePncUsersRoleForMutating") String requirePncUsersRoleForMutating,
+            @JsonProperty("builtArtifactFilterEnabled") String builtArtifactFilterEnabled) {
         this.authenticationProviderId = authenticationProviderId;
         this.coordinatorThreadPoolSize = toIntWithDefault("coordinatorThreadPoolSize", coordinatorThreadPoolSize, 1);
         this.coordinatorMaxConcurrentBuilds = toIntWithDefault(
@@ -193,6 +196,7 @@ public class SystemConfig extends AbstractModuleConfig {
         this.bifrostLogUploadRetryDelay = toIntWithDefault("bifrostLogUploadRetryDelay", bifrostLogUploadRetryDelay, 2);
         this.requirePncUsersRoleForMutating = requirePncUsersRoleForMutating != null
                 && Boolean.parseBoolean(requirePncUsersRoleForMutating);
+        this.builtArtifactFilterEnabled = Boolean.parseBoolean(builtArtifactFilterEnabled);
     }
 
     public static Properties readProperties(String file) {
@@ -327,44 +331,6 @@ public class SystemConfig extends AbstractModuleConfig {
         return bifrostLogUploadRetryDelay;
     }
 
-    private int toIntWithDefault(String fieldName, String numberAsString, int defaultValue) {
-        int result = defaultValue;
-        if (numberAsString == null) {
-            log.warn("Value in field: " + fieldName + " not set. Will use default value: {}", defaultValue);
-        } else {
-            try {
-                result = Integer.parseInt(numberAsString);
-            } catch (NumberFormatException nfe) {
-                log.warn(
-                        "Invalid value in field: " + fieldName
-                                + ". Expected an integer, got: {}. Will use default value: {}",
-                        numberAsString,
-                        defaultValue,
-                        nfe);
-            }
-        }
-        return result;
-    }
-
-    private long toLongWithDefault(String fieldName, String numberAsString, long defaultValue) {
-        long result = defaultValue;
-        if (numberAsString == null) {
-            log.warn("Value in field: " + fieldName + " not set. Will use default value: {}", defaultValue);
-        } else {
-            try {
-                result = Long.parseLong(numberAsString);
-            } catch (NumberFormatException nfe) {
-                log.warn(
-                        "Invalid value in field: " + fieldName
-                                + ". Expected an long, got: {}. Will use default value: {}",
-                        numberAsString,
-                        defaultValue,
-                        nfe);
-            }
-        }
-        return result;
-    }
-
     @Override
     public String toString() {
         return "SystemConfig{" + "authenticationProviderId='" + authenticationProviderId + '\''
@@ -396,4 +362,8 @@ public class SystemConfig extends AbstractModuleConfig {
     public boolean isRecordUpdateJobEnabled() {
         return recordUpdateJobEnabled;
     }
+
+    public boolean isBuiltArtifactFilterEnabled() {
+        return builtArtifactFilterEnabled;
+    }
 }
@@ -110,6 +110,7 @@ public class DefaultObserverTest {
                 "false",
                 null,
                 null,
+                null,
                 null);
     }
 
@@ -146,6 +147,7 @@ public class DefaultObserverTest {
                 "false",
                 null,
                 null,
+                null,
                 null);
     }
 
@@ -182,6 +184,7 @@ public class DefaultObserverTest {
                 "false",
                 null,
                 null,
+                null,
                 null);
     }
 
@@ -71,6 +71,7 @@ public class SystemConfigMock {
                 "false",
                 null,
                 null,
+                null,
                 null);
     }
 }
@@ -217,6 +217,22 @@ public class DatastoreMock implements Datastore {
         }
     }
 
+    @Override
+    public Map<IdRev, BuildRecord> requiresRebuild(
+            Map<IdRev, Set<Integer>> dependencyIds,
+            boolean checkImplicitDependencies,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference) {
+        Map<IdRev, BuildRecord> noRebuildCauses = new HashMap<>();
+        for (IdRev idRev : dependencyIds.keySet()) {
+            if (noRebuildRequiresIdRevs.contains(idRev)) {
+                noRebuildCauses
+                        .put(idRev, BuildRecord.Builder.newBuilder().id(new Base32LongID(Sequence.nextId())).build());
+            }
+        }
+        return noRebuildCauses;
+    }
+
     public BuildConfiguration save(BuildConfiguration buildConfig) {
         return saveBCA(buildConfig).getBuildConfiguration();
     }
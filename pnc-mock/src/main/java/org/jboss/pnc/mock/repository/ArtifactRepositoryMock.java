@@ -21,7 +21,9 @@ import org.jboss.pnc.model.Artifact;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -53,4 +55,17 @@ public class ArtifactRepositoryMock extends IntIdRepositoryMock<Artifact> implem
     public List<Artifact> withSha256In(Set<String> sha256) {
         throw new UnsupportedOperationException("Unimplemented method 'withSha256In'");
     }
+
+    @Override
+    public Map<Artifact.IdentifierSha256TargetRepository, Artifact> getOrSave(Collection<Artifact> artifacts) {
+        Map<Artifact.IdentifierSha256TargetRepository, Artifact> stored = new HashMap<>();
+        data.forEach(artifact -> stored.put(artifact.getIdentifierSha256TargetRepository(), artifact));
+        Map<Artifact.IdentifierSha256TargetRepository, Artifact> result = new HashMap<>();
+        for (Artifact artifact : artifacts) {
+            result.put(
+                    artifact.getIdentifierSha256TargetRepository(),
+                    stored.computeIfAbsent(artifact.getIdentifierSha256TargetRepository(), key -> save(artifact)));
+        }
+        return result;
+    }
 }
@@ -18,6 +18,7 @@
 package org.jboss.pnc.mock.repository;
 
 import org.jboss.pnc.api.enums.AlignmentPreference;
+import org.jboss.pnc.dto.insights.BuildRecordInsights;
 import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.model.Artifact;
 import org.jboss.pnc.model.Base32LongID;
@@ -27,12 +28,18 @@ import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 
 import javax.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BinaryOperator;
 import java.util.stream.Collectors;
 
 import static org.jboss.pnc.common.util.CollectionUtils.ofNullableCollection;
@@ -52,6 +59,11 @@ public class BuildRecordRepositoryMock extends Base32LongIdRepositoryMock<BuildR
         return queryById(id);
     }
 
+    @Override
+    public List<BuildRecord> findByIdsFetchProperties(Collection<Base32LongID> ids) {
+        return ids.stream().map(this::queryById).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     @Override
     public BuildRecord getLatestSuccessfulBuildRecord(Integer configurationId, boolean temporaryBuild) {
         List<BuildRecord> buildRecords = queryAll();
@@ -236,6 +248,39 @@ public class BuildRecordRepositoryMock extends Base32LongIdRepositoryMock<BuildR
         return super.queryAll();
     }
 
+    @Override
+    public List<BuildRecord> getLatestSuccessfulBuildRecordsOfRevisions(Collection<Integer> configurationIds) {
+        Map<List<Object>, BuildRecord> latest = new HashMap<>();
+        data.stream()
+                .filter(br -> configurationIds.contains(br.getBuildConfigurationId()))
+                .filter(br -> br.getStatus().equals(BuildStatus.SUCCESS))
+                .forEach(
+                        br -> latest.merge(
+                                List.of(br.getBuildConfigurationAuditedIdRev(), br.isTemporaryBuild()),
+                                br,
+                                BinaryOperator.maxBy(Comparator.comparing(BuildRecord::getSubmitTime))));
+        return new ArrayList<>(latest.values());
+    }
+
+    @Override
+    public Map<Base32LongID, Set<BuildRecord>> getBuildsProducingDependencies(Collection<Base32LongID> buildIds) {
+        Map<Base32LongID, Set<BuildRecord>> producers = new HashMap<>();
+        for (Base32LongID buildId : buildIds) {
+            BuildRecord buildRecord = queryById(buildId);
+            if (buildRecord == null) {
+                continue;
+            }
+            Set<Integer> dependencyIds = ofNullableCollection(buildRecord.getDependencies()).stream()
+                    .map(Artifact::getId)
+                    .collect(Collectors.toSet());
+            Set<BuildRecord> buildProducers = findByBuiltArtifacts(dependencyIds);
+            if (!buildProducers.isEmpty()) {
+                producers.put(buildId, buildProducers);
+            }
+        }
+        return producers;
+    }
+
     @Override
     public Set<BuildRecord> findByBuiltArtifacts(Set<Integer> artifactsId) {
 
@@ -255,7 +300,15 @@ public class BuildRecordRepositoryMock extends Base32LongIdRepositoryMock<BuildR
     }
 
     @Override
-    public List<Object[]> getAllBuildRecordInsightsNewerThanTimestamp(Date lastupdatetime, int pageSize, int offset) {
+    public List<BuildRecordInsights> getAllBuildRecordInsightsNewerThanTimestamp(
+            Date lastupdatetime,
+            int pageSize,
+            int offset) {
+        return null;
+    }
+
+    @Override
+    public List<BuildRecordInsights> getBuildRecordInsightsAfter(Date lastupdatetime, Long buildId, int limit) {
         return null;
     }
 
@@ -277,4 +330,14 @@ public class BuildRecordRepositoryMock extends Base32LongIdRepositoryMock<BuildR
     public List<Tuple> getImplicitDependants(Base32LongID buildId) {
         return List.of();
     }
+
+    @Override
+    public List<Tuple> getImplicitDependencies(Collection<Base32LongID> buildIds) {
+        return List.of();
+    }
+
+    @Override
+    public List<Tuple> getImplicitDependants(Collection<Base32LongID> buildIds) {
+        return List.of();
+    }
 }
@@ -18,6 +18,8 @@
 package org.jboss.pnc.mock.repository;
 
 import org.jboss.pnc.model.GenericEntity;
+import org.jboss.pnc.spi.datastore.repositories.api.CursorPage;
+import org.jboss.pnc.spi.datastore.repositories.api.PageCursor;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
@@ -78,6 +80,15 @@ public abstract class RepositoryMock<ID extends Serializable, EntityType extends
         return Collections.emptyList();
     }
 
+    @Override
+    public CursorPage<EntityType> queryWithPredicates(
+            PageCursor pageCursor,
+            int pageSize,
+            SortInfo<EntityType> sortInfo,
+            Predicate<EntityType>... predicates) {
+        return new CursorPage<>(Collections.emptyList(), null);
+    }
+
     @Override
     public int count(Predicate<EntityType>... predicates) {
         return 0;
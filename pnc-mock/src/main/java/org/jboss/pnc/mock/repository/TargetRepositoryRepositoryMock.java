@@ -20,7 +20,10 @@ package org.jboss.pnc.mock.repository;
 import org.jboss.pnc.model.TargetRepository;
 import org.jboss.pnc.spi.datastore.repositories.TargetRepositoryRepository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -45,4 +48,17 @@ public class TargetRepositoryRepositoryMock extends IntIdRepositoryMock<TargetRe
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<TargetRepository.IdentifierPath, TargetRepository> getOrSave(
+            Collection<TargetRepository> targetRepositories) {
+        Map<TargetRepository.IdentifierPath, TargetRepository> stored = new HashMap<>();
+        data.forEach(targetRepository -> stored.put(targetRepository.getIdentifierPath(), targetRepository));
+        Map<TargetRepository.IdentifierPath, TargetRepository> result = new HashMap<>();
+        for (TargetRepository targetRepository : targetRepositories) {
+            result.put(
+                    targetRepository.getIdentifierPath(),
+                    stored.computeIfAbsent(targetRepository.getIdentifierPath(), key -> save(targetRepository)));
+        }
+        return result;
+    }
 }
@@ -18,7 +18,9 @@
 package org.jboss.pnc.remotecoordinator;
 
 import lombok.extern.slf4j.Slf4j;
+import org.jboss.pnc.common.json.moduleconfig.SchedulerConfig;
 import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
+import org.jboss.pnc.remotecoordinator.builder.RexTaskMirror;
 import org.jboss.pnc.remotecoordinator.builder.SetRecordTasks;
 
 import javax.annotation.PostConstruct;
@@ -33,6 +35,8 @@ public class RegularPeriodicJobs {
     private SetRecordTasks setRecordUpdateService;
     private SystemConfig config;
     private ManagedScheduledExecutorService service;
+    private RexTaskMirror taskMirror;
+    private SchedulerConfig schedulerConfig;
 
     @Deprecated // CDI
     public RegularPeriodicJobs() {
@@ -42,10 +46,14 @@ public class RegularPeriodicJobs {
     public RegularPeriodicJobs(
             SetRecordTasks setRecordUpdateService,
             SystemConfig config,
-            ManagedScheduledExecutorService service) {
+            ManagedScheduledExecutorService service,
+            RexTaskMirror taskMirror,
+            SchedulerConfig schedulerConfig) {
         this.setRecordUpdateService = setRecordUpdateService;
         this.config = config;
         this.service = service;
+        this.taskMirror = taskMirror;
+        this.schedulerConfig = schedulerConfig;
     }
 
     @PostConstruct
@@ -58,6 +66,22 @@ public class RegularPeriodicJobs {
                     config.getRecordUpdateJobMillisDelay(),
                     TimeUnit.MILLISECONDS);
         }
+        // Reconcile the mirror before it gets stale, so that the reads don't have to go to Rex
+        if (!config.isLegacyBuildCoordinator() && taskMirror.isEnabled()) {
+            service.scheduleWithFixedDelay(
+                    this::refreshTaskMirror,
+                    0,
+                    Math.max(1, schedulerConfig.getTaskMirrorMaxStalenessMillis() / 2),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refreshTaskMirror() {
+        try {
+            taskMirror.refresh();
+        } catch (Exception e) { // Fail silently, the reads go to Rex until the next successful refresh
+            log.warn("Exception happened while refreshing the mirror of Rex tasks", e);
+        }
     }
 
     private void pokeSetRecordTask() {
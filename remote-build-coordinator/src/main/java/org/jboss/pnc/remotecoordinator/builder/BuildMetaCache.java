@@ -0,0 +1,160 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.remotecoordinator.builder;
+
+import lombok.Value;
+import org.jboss.pnc.model.utils.HibernateMetric;
+import org.jboss.pnc.spi.coordinator.BuildMeta;
+import org.jboss.pnc.spi.exception.MissingDataException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of the {@link BuildMeta} decoded from the Rex task attachments. The attachment of a task doesn't
+ * change, so it's decoded only once per task. Tasks are identified by their name and the attachment payload, which
+ * stays the same during all the transitions of the task and differs if a name is reused.
+ */
+class BuildMetaCache {
+
+    interface Decoder {
+        BuildMeta decode() throws MissingDataException;
+    }
+
+    private final int maxSize;
+
+    private final Map<Key, BuildMeta> cache;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder decodeNanos = new LongAdder();
+
+    BuildMetaCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, BuildMeta> eldest) {
+                return size() > BuildMetaCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param taskName name of the Rex task
+     * @param payload attachment of the task deserialized from JSON, compared by its content
+     * @param decoder decodes the metadata on a cache miss, failures are not cached
+     */
+    BuildMeta get(String taskName, Object payload, Decoder decoder) throws MissingDataException {
+        Key key = new Key(taskName, payload);
+        synchronized (cache) {
+            BuildMeta cached = cache.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        long start = System.nanoTime();
+        BuildMeta decoded = decoder.decode();
+        decodeNanos.add(System.nanoTime() - start);
+        synchronized (cache) {
+            cache.put(key, decoded);
+        }
+        return decoded;
+    }
+
+    int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return average time of decoding on a cache miss in microseconds
+     */
+    double getAverageDecodeMicros() {
+        long missCount = misses.sum();
+        return missCount == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(decodeNanos.sum()) / missCount;
+    }
+
+    SortedMap<String, HibernateMetric> getStats() {
+        SortedMap<String, HibernateMetric> stats = new TreeMap<>();
+        stats.put(
+                "rex.build-meta-cache.size",
+                new HibernateMetric("size", "Number of decoded metadata of Rex tasks in the cache.", size()));
+        stats.put(
+                "rex.build-meta-cache.hit.count",
+                new HibernateMetric("hitCount", "Number of metadata of Rex tasks found in the cache.", getHits()));
+        stats.put(
+                "rex.build-meta-cache.miss.count",
+                new HibernateMetric(
+                        "missCount",
+                        "Number of metadata of Rex tasks decoded on a cache miss.",
+                        getMisses()));
+        stats.put(
+                "rex.build-meta-cache.hit.ratio",
+                new HibernateMetric(
+                        "hitRatio",
+                        "Ratio of metadata of Rex tasks found in the cache to all the lookups.",
+                        getHitRate()));
+        stats.put(
+                "rex.build-meta-cache.decode.avg-micros",
+                new HibernateMetric(
+                        "averageDecodeMicros",
+                        "Average time in microseconds of decoding the metadata of a Rex task on a cache miss.",
+                        getAverageDecodeMicros()));
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "BuildMetaCache{size=%d, hits=%d, misses=%d, hitRate=%.2f, avgDecodeMicros=%.1f}",
+                size(),
+                getHits(),
+                getMisses(),
+                getHitRate(),
+                getAverageDecodeMicros());
+    }
+
+    @Value
+    private static class Key {
+        String taskName;
+        Object payload;
+    }
+}
@@ -19,10 +19,12 @@
 package org.jboss.pnc.remotecoordinator.builder;
 
 import org.apache.commons.collections.CollectionUtils;
-import org.jboss.pnc.api.enums.AlignmentPreference;
+import org.jboss.pnc.common.concurrent.MDCWrappers;
 import org.jboss.pnc.common.concurrent.Sequence;
 import org.jboss.pnc.common.graph.GraphUtils;
-import org.jboss.pnc.common.util.Quicksort;
+import org.jboss.pnc.common.graph.IndexedGraph;
+import org.jboss.pnc.common.graph.TopologicalOrder;
+import org.jboss.pnc.common.json.moduleconfig.SchedulerConfig;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.BuildRecord;
@@ -40,6 +42,7 @@ import org.jboss.util.graph.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.enterprise.context.Dependent;
 import javax.inject.Inject;
 import java.time.Instant;
@@ -51,8 +54,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
+import static org.jboss.pnc.common.util.CollectionUtils.nullSafeCollection;
 import static org.jboss.pnc.enums.BuildType.RPM;
 
 /**
@@ -63,11 +71,41 @@ public class BuildTasksInitializer {
 
     private final Logger log = LoggerFactory.getLogger(BuildTasksInitializer.class);
 
+    /**
+     * Minimal number of configurations checked by one of the parallel rebuild checks.
+     */
+    private static final int MIN_REBUILD_CHECK_CHUNK = 100;
+
     private final DatastoreAdapter datastoreAdapter;
 
-    @Inject
+    private final ExecutorService executor;
+
+    private final int rebuildCheckParallelism;
+
     public BuildTasksInitializer(DatastoreAdapter datastoreAdapter) {
+        this(datastoreAdapter, null, 1);
+    }
+
+    @Inject
+    public BuildTasksInitializer(
+            DatastoreAdapter datastoreAdapter,
+            SchedulerConfig schedulerConfig,
+            ManagedScheduledExecutorService executor) {
+        this(datastoreAdapter, executor, schedulerConfig.getRebuildCheckParallelism());
+    }
+
+    /**
+     * @param executor executor of the parallel rebuild checks
+     * @param rebuildCheckParallelism maximal number of the parallel rebuild checks of one build graph, 1 to check the
+     *        whole graph on the calling thread
+     */
+    public BuildTasksInitializer(
+            DatastoreAdapter datastoreAdapter,
+            ExecutorService executor,
+            int rebuildCheckParallelism) {
         this.datastoreAdapter = datastoreAdapter;
+        this.executor = executor;
+        this.rebuildCheckParallelism = rebuildCheckParallelism;
     }
 
     public Graph<RemoteBuildTask> createBuildGraph(
@@ -82,22 +120,18 @@ public class BuildTasksInitializer {
                 buildConfigurationAudited);
 
         Set<BuildConfigurationAudited> collectedConfigurations = new HashSet<>();
-        Map<IdRev, BuildRecord> noRebuildRequiredCauses = new HashMap<>();
         Set<BuildConfiguration> visited = new HashSet<>();
 
-        Set<Integer> processedDependenciesCache = new HashSet<>();
         collectConfigurations(
                 buildConfigurationAudited.getBuildConfiguration(),
                 buildConfigurationAudited,
                 collectedConfigurations,
-                noRebuildRequiredCauses,
                 visited,
-                buildOptions.isBuildDependencies(),
-                buildOptions.isImplicitDependenciesCheck(),
-                buildOptions.isForceRebuild(),
-                buildOptions.isTemporaryBuild(),
-                buildOptions.getAlignmentPreference(),
-                processedDependenciesCache);
+                buildOptions.isBuildDependencies());
+
+        Map<IdRev, BuildRecord> noRebuildRequiredCauses = getNoRebuildRequiredCauses(
+                collectedConfigurations,
+                buildOptions);
 
         log.debug(
                 "Collected build tasks for the BuildConfigurationAudited: {}. Collected: {}.",
@@ -143,77 +177,122 @@ public class BuildTasksInitializer {
     }
 
     /**
-     * Collects all BuildConfigurationAudited entities. If no-rebuild is required for a
-     * {@link BuildConfigurationAudited}, its IdRev is added to the map, where key is IdRev of BCA not requiring a
-     * rebuild and a value is a {@link BuildRecord} that satisfies no-rebuild required condition.
+     * Collects all BuildConfigurationAudited entities.
      *
      * @param buildConfiguration Current BuildConfiguration used to resolve dependencies.
      * @param buildConfigurationAudited Specific revision of a BuildConfiguration (passed as first parameter) to be
      *        potentially built
      * @param collectedConfigurations Set of BuildConfigurationAudited entities planned to be built
-     * @param noRebuildRequiredCauses
-     * @param visited Set of BuildConfigurations, which were already evaluated, if should be built
-     * @param buildDependencies
-     * @param checkImplicitDependencies if implicit check of dependencies needs to be done
-     * @param forceRebuild if force build is required
-     * @param temporaryBuild if build is temporary
-     * @param processedDependenciesCache list containing any dependency which was already processed in previous
-     *        iterations
-     * @return Returns true, if the buildConfiguration should be rebuilt, otherwise returns false.
+     * @param visited Set of BuildConfigurations, which were already collected
+     * @param buildDependencies if the dependencies should be collected
      */
-    private boolean collectConfigurations(
+    private void collectConfigurations(
             BuildConfiguration buildConfiguration,
             BuildConfigurationAudited buildConfigurationAudited,
             Set<BuildConfigurationAudited> collectedConfigurations,
-            Map<IdRev, BuildRecord> noRebuildRequiredCauses,
             Set<BuildConfiguration> visited,
-            boolean buildDependencies,
-            boolean checkImplicitDependencies,
-            boolean forceRebuild,
-            boolean temporaryBuild,
-            AlignmentPreference alignmentPreference,
-            Set<Integer> processedDependenciesCache) {
-        if (visited.contains(buildConfiguration)) {
-            return !noRebuildRequiredCauses.containsKey(buildConfigurationAudited.getIdRev());
-        }
-        visited.add(buildConfiguration);
-
-        Optional<BuildRecord> noRebuildCause;
-        if (!forceRebuild) {
-            noRebuildCause = datastoreAdapter.requiresRebuild(
-                    buildConfigurationAudited,
-                    checkImplicitDependencies,
-                    temporaryBuild,
-                    alignmentPreference,
-                    processedDependenciesCache);
-            noRebuildCause.ifPresent(br -> noRebuildRequiredCauses.put(buildConfigurationAudited.getIdRev(), br));
-        } else {
-            noRebuildCause = Optional.empty();
+            boolean buildDependencies) {
+        if (!visited.add(buildConfiguration)) {
+            return;
         }
 
-        boolean requiresRebuild = noRebuildCause.isEmpty();
-
         if (buildDependencies) {
             for (BuildConfiguration dependency : buildConfiguration.getDependencies()) {
-                boolean dependencyRequiresRebuild = collectConfigurations(
+                collectConfigurations(
                         dependency,
                         datastoreAdapter.getLatestBuildConfigurationAuditedInitializeBCDependencies(dependency.getId()),
                         collectedConfigurations,
-                        noRebuildRequiredCauses,
                         visited,
-                        buildDependencies,
-                        checkImplicitDependencies,
-                        forceRebuild,
-                        temporaryBuild,
-                        alignmentPreference,
-                        processedDependenciesCache);
-                requiresRebuild = requiresRebuild || dependencyRequiresRebuild;
+                        buildDependencies);
             }
         }
-        log.debug("Configuration {} requires rebuild: {}", buildConfiguration.getId(), requiresRebuild);
         collectedConfigurations.add(buildConfigurationAudited);
+    }
+
+    /**
+     * Checks all the configurations at once. If no-rebuild is required for a {@link BuildConfigurationAudited}, its
+     * IdRev is added to the map, where key is IdRev of BCA not requiring a rebuild and a value is a {@link BuildRecord}
+     * that satisfies no-rebuild required condition.
+     */
+    private Map<IdRev, BuildRecord> getNoRebuildRequiredCauses(
+            Collection<BuildConfigurationAudited> buildConfigurationAuditeds,
+            BuildOptions buildOptions) {
+        if (buildOptions.isForceRebuild()) {
+            return new HashMap<>();
+        }
+        int chunks = Math.min(
+                rebuildCheckParallelism,
+                (buildConfigurationAuditeds.size() + MIN_REBUILD_CHECK_CHUNK - 1) / MIN_REBUILD_CHECK_CHUNK);
+        Map<IdRev, BuildRecord> noRebuildRequiredCauses;
+        if (executor == null || chunks <= 1) {
+            noRebuildRequiredCauses = requiresRebuild(buildConfigurationAuditeds, buildOptions);
+        } else {
+            noRebuildRequiredCauses = requiresRebuildInParallel(buildConfigurationAuditeds, buildOptions, chunks);
+        }
+        log.debug(
+                "Configurations not requiring a rebuild: {}.",
+                noRebuildRequiredCauses.keySet().stream().map(IdRev::toString).collect(Collectors.joining(", ")));
+        return noRebuildRequiredCauses;
+    }
 
-        return requiresRebuild;
+    private Map<IdRev, BuildRecord> requiresRebuild(
+            Collection<BuildConfigurationAudited> buildConfigurationAuditeds,
+            BuildOptions buildOptions) {
+        return datastoreAdapter.requiresRebuild(
+                buildConfigurationAuditeds,
+                buildOptions.isImplicitDependenciesCheck(),
+                buildOptions.isTemporaryBuild(),
+                buildOptions.getAlignmentPreference());
+    }
+
+    /**
+     * The rebuild of a configuration is checked independently of the other configurations, so the configurations are
+     * split to chunks checked concurrently, each in its own transaction. The ids of the configurations and their
+     * dependencies are collected on the calling thread, the lazy collections of its session are not touched by the
+     * pool threads.
+     */
+    private Map<IdRev, BuildRecord> requiresRebuildInParallel(
+            Collection<BuildConfigurationAudited> buildConfigurationAuditeds,
+            BuildOptions buildOptions,
+            int chunks) {
+        List<Map<IdRev, Set<Integer>>> partitions = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+            partitions.add(new HashMap<>());
+        }
+        int i = 0;
+        for (BuildConfigurationAudited buildConfigurationAudited : buildConfigurationAuditeds) {
+            Set<Integer> dependencyIds = buildConfigurationAudited.getBuildConfiguration()
+                    .getDependencies()
+                    .stream()
+                    .map(BuildConfiguration::getId)
+                    .collect(Collectors.toSet());
+            partitions.get(i++ % chunks).put(buildConfigurationAudited.getIdRev(), dependencyIds);
+        }
+        log.debug("Checking rebuild of {} configurations in {} chunks.", buildConfigurationAuditeds.size(), chunks);
+
+        List<Callable<Map<IdRev, BuildRecord>>> checks = partitions.stream()
+                .map(
+                        partition -> (Callable<Map<IdRev, BuildRecord>>) () -> datastoreAdapter.requiresRebuild(
+                                partition,
+                                buildOptions.isImplicitDependenciesCheck(),
+                                buildOptions.isTemporaryBuild(),
+                                buildOptions.getAlignmentPreference()))
+                .collect(Collectors.toList());
+        Map<IdRev, BuildRecord> noRebuildRequiredCauses = new HashMap<>();
+        try {
+            for (Future<Map<IdRev, BuildRecord>> check : executor.invokeAll(MDCWrappers.wrapCollection(checks))) {
+                noRebuildRequiredCauses.putAll(check.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking the rebuild of configurations.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to check the rebuild of configurations.", e.getCause());
+        }
+        return noRebuildRequiredCauses;
     }
 
     /**
@@ -235,8 +314,6 @@ public class BuildTasksInitializer {
             Collection<BuildTaskRef> submittedBuildTasks,
             ProductMilestone currentProductMilestone) throws BuildRequestException {
 
-        Map<IdRev, BuildRecord> noRebuildRequiredCauses = new HashMap<>();
-        Set<Integer> processedDependenciesCache = new HashSet<>();
         Collection<BuildConfigurationAudited> buildConfigurationAuditeds = buildConfigurationAuditedsMap.values();
 
         Set<BuildConfiguration> buildConfigurations = buildConfigurationAuditedsMap.values()
@@ -244,9 +321,12 @@ public class BuildTasksInitializer {
                 .map(BuildConfigurationAudited::getBuildConfiguration)
                 .collect(Collectors.toSet());
 
-        List<BuildConfiguration> dependenciesFirst = new ArrayList<>(buildConfigurations);
-        Quicksort.quicksort(dependenciesFirst, this::dependenciesFirst);
+        List<BuildConfiguration> dependenciesFirst = TopologicalOrder
+                .of(buildConfigurations, BuildConfiguration::getDependencies)
+                .dependenciesFirst();
 
+        Map<IdRev, BuildRecord> noRebuildCauses = getNoRebuildRequiredCauses(buildConfigurationAuditeds, buildOptions);
+        Map<IdRev, BuildRecord> noRebuildRequiredCauses = new HashMap<>();
         Set<BuildConfiguration> toBuild = new HashSet<>();
 
         for (BuildConfiguration buildConfiguration : dependenciesFirst) {
@@ -255,19 +335,10 @@ public class BuildTasksInitializer {
 
             boolean anyDependencyRequiresRebuild = CollectionUtils
                     .containsAny(buildConfiguration.getDependencies(), toBuild);
+            BuildRecord noRebuildCause = noRebuildCauses.get(buildConfigurationAudited.getIdRev());
 
-            if (!buildOptions.isForceRebuild() && !anyDependencyRequiresRebuild) {
-                Optional<BuildRecord> noRebuildCause = datastoreAdapter.requiresRebuild(
-                        buildConfigurationAudited,
-                        buildOptions.isImplicitDependenciesCheck(),
-                        buildOptions.isTemporaryBuild(),
-                        buildOptions.getAlignmentPreference(),
-                        processedDependenciesCache);
-                if (noRebuildCause.isPresent()) {
-                    noRebuildRequiredCauses.put(buildConfigurationAudited.getIdRev(), noRebuildCause.get());
-                } else {
-                    toBuild.add(buildConfiguration);
-                }
+            if (noRebuildCause != null && !anyDependencyRequiresRebuild) {
+                noRebuildRequiredCauses.put(buildConfigurationAudited.getIdRev(), noRebuildCause);
             } else {
                 toBuild.add(buildConfiguration);
             }
@@ -295,16 +366,6 @@ public class BuildTasksInitializer {
         return buildTaskGraph;
     }
 
-    private int dependenciesFirst(BuildConfiguration configuration1, BuildConfiguration configuration2) {
-        if (configuration1.getDependencies().contains(configuration2)) {
-            return 1;
-        }
-        if (configuration2.getDependencies().contains(configuration1)) {
-            return -1;
-        }
-        return 0;
-    }
-
     private Graph<RemoteBuildTask> doCreateBuildGraph(
             User user,
             BuildOptions buildOptions,
@@ -313,12 +374,17 @@ public class BuildTasksInitializer {
             Map<IdRev, BuildRecord> noRebuildRequiredCauses,
             ProductMilestone currentProductMilestone) {
 
-        Graph<RemoteBuildTask> graph = new Graph<>();
+        Graph<RemoteBuildTask> graph = new IndexedGraph<>();
+
+        Map<IdRev, BuildTaskRef> unfinishedTasksByIdRev = new HashMap<>();
+        for (BuildTaskRef unfinishedTask : unfinishedTasks) {
+            unfinishedTasksByIdRev.putIfAbsent(unfinishedTask.getIdRev(), unfinishedTask);
+        }
+        Map<Integer, Vertex<RemoteBuildTask>> verticesByConfigId = new HashMap<>();
 
         for (BuildConfigurationAudited buildConfigAudited : collectedConfigurations) {
-            Optional<BuildTaskRef> unfinishedTask = unfinishedTasks.stream()
-                    .filter(bt -> bt.getIdRev().equals(buildConfigAudited.getIdRev()))
-                    .findAny();
+            Optional<BuildTaskRef> unfinishedTask = Optional
+                    .ofNullable(unfinishedTasksByIdRev.get(buildConfigAudited.getIdRev()));
             BuildRecord noRebuildRequired = noRebuildRequiredCauses.get(buildConfigAudited.getIdRev());
             RemoteBuildTask remoteBuildTask;
             ProductMilestone milestone = null;
@@ -353,22 +419,29 @@ public class BuildTasksInitializer {
             }
             Vertex<RemoteBuildTask> remoteBuildTaskVertex = new Vertex<>(remoteBuildTask.getId(), remoteBuildTask);
             graph.addVertex(remoteBuildTaskVertex);
+            verticesByConfigId.put(buildConfigAudited.getId(), remoteBuildTaskVertex);
         }
-        List<Vertex<RemoteBuildTask>> verticies = graph.getVerticies();
 
-        for (Vertex<RemoteBuildTask> parentVertex : verticies) {
-            for (Vertex<RemoteBuildTask> childVertex : verticies) {
-                if (hasDirectConfigDependencyOn(
-                        parentVertex.getData().getBuildConfigurationAudited(),
-                        childVertex.getData().getBuildConfigurationAudited())) {
-                    var parent = parentVertex.getData();
-                    var child = childVertex.getData();
+        // edges are created from the dependencies of each configuration, not by checking every pair of vertices
+        for (Vertex<RemoteBuildTask> parentVertex : graph.getVerticies()) {
+            BuildConfiguration buildConfiguration = parentVertex.getData()
+                    .getBuildConfigurationAudited()
+                    .getBuildConfiguration();
+            if (buildConfiguration == null) {
+                continue;
+            }
+            for (BuildConfiguration dependency : nullSafeCollection(buildConfiguration.getDependencies())) {
+                Vertex<RemoteBuildTask> childVertex = verticesByConfigId.get(dependency.getId());
+                if (childVertex == null || childVertex == parentVertex) {
+                    continue;
+                }
+                var parent = parentVertex.getData();
+                var child = childVertex.getData();
 
-                    parent.getDependencies().add(child.getId());
-                    child.getDependants().add(parent.getId());
+                parent.getDependencies().add(child.getId());
+                child.getDependants().add(parent.getId());
 
-                    graph.addEdge(parentVertex, childVertex, 1);
-                }
+                graph.addEdge(parentVertex, childVertex, 1);
             }
         }
         return graph;
@@ -118,6 +118,8 @@ public class RemoteBuildCoordinator implements BuildCoordinator {
 
     private BuildTaskRepository taskRepository;
 
+    private RexTaskMirror taskMirror;
+
     private BuildTasksInitializer buildTasksInitializer;
 
     private GroupBuildMapper groupBuildMapper;
@@ -140,6 +142,7 @@ public class RemoteBuildCoordinator implements BuildCoordinator {
             Event<BuildSetStatusChangedEvent> buildSetStatusChangedEventNotifier,
             RexBuildScheduler buildScheduler,
             BuildTaskRepository taskRepository,
+            RexTaskMirror taskMirror,
             BuildConfigurationAuditedRepository bcaRepository,
             BuildConfigSetRecordRepository groupBuildRepository,
             SystemConfig systemConfig,
@@ -155,6 +158,7 @@ public class RemoteBuildCoordinator implements BuildCoordinator {
         this.buildScheduler = buildScheduler;
         this.systemConfig = systemConfig;
         this.taskRepository = taskRepository;
+        this.taskMirror = taskMirror;
         this.bcaRepository = bcaRepository;
         this.groupBuildRepository = groupBuildRepository;
         this.buildTasksInitializer = buildTasksInitializer;
@@ -208,6 +212,7 @@ public class RemoteBuildCoordinator implements BuildCoordinator {
             BuildOptions buildOptions) throws BuildRequestException, BuildConflictException, CoreException {
 
         try {
+            // checked against Rex, the mirror can lag behind the tasks submitted by the other nodes
             Collection<BuildTaskRef> unfinishedTasks = taskRepository.getUnfinishedTasks();
             verifyAllBCAsAreNotRunning(Collections.singleton(buildConfigurationAudited), unfinishedTasks);
 
@@ -278,6 +283,7 @@ public class RemoteBuildCoordinator implements BuildCoordinator {
             Map<Integer, BuildConfigurationAudited> resolvedBCAs = getBCAs(
                     buildConfigurationSet,
                     buildConfigurationAuditedsMap);
+            // checked against Rex, the mirror can lag behind the tasks submitted by the other nodes
             Collection<BuildTaskRef> unfinishedTasks = taskRepository.getUnfinishedTasks();
 
             verifyAllBCAsAreNotRunning(resolvedBCAs.values(), unfinishedTasks);
@@ -387,7 +393,12 @@ public class RemoteBuildCoordinator implements BuildCoordinator {
                             .stream()
                             .map(RemoteBuildTask::toString)
                             .collect(Collectors.toList()));
-            buildScheduler.startBuilding(buildGraphCopy, user, buildConfigSetRecordId);
+            try {
+                buildScheduler.startBuilding(buildGraphCopy, user, buildConfigSetRecordId);
+            } finally {
+                // the scheduled tasks are not mirrored until notified, make the next reads go to Rex
+                taskMirror.invalidate();
+            }
             buildStatusWithDescription = new BuildStatusWithDescription(BuildStatus.BUILDING, null);
             coordinationStatus = BuildCoordinationStatus.ENQUEUED;
         }
@@ -421,13 +432,13 @@ public class RemoteBuildCoordinator implements BuildCoordinator {
     @Override
     public Optional<BuildTask> getSubmittedBuildTask(String buildId)
             throws RemoteRequestException, MissingDataException {
-        return taskRepository.getSpecific(buildId).map(taskMappers::toBuildTask);
+        return taskMirror.getSpecific(buildId).map(taskMappers::toBuildTask);
     }
 
     @Override
     public boolean cancel(String buildTaskId) throws CoreException {
         // Logging MDC must be set before calling
-        Optional<BuildTaskRef> taskOptional = taskRepository.getSpecific(buildTaskId);
+        Optional<BuildTaskRef> taskOptional = taskMirror.getSpecific(buildTaskId);
 
         if (taskOptional.isPresent()) {
             log.debug("Cancelling task {}.", taskOptional.get());
@@ -452,7 +463,7 @@ public class RemoteBuildCoordinator implements BuildCoordinator {
             throw new CoreException("Cannot cancel the build: buildConfigSetRecord not found.");
         }
         log.debug("Cancelling Build Configuration Set: {}", buildConfigSetRecordId);
-        Collection<BuildTaskRef> buildTasks = taskRepository.getBuildTasksByBCSRId(buildConfigSetRecordId);
+        Collection<BuildTaskRef> buildTasks = taskMirror.getBuildTasksByBCSRId(buildConfigSetRecordId);
         for (BuildTaskRef buildTask : buildTasks) {
             try {
                 MDC.put(MDCKeys.PROCESS_CONTEXT_KEY, ContentIdentityManager.getBuildContentId(buildTask.getId()));
@@ -769,13 +780,13 @@ public class RemoteBuildCoordinator implements BuildCoordinator {
     }
 
     public List<BuildTask> getSubmittedBuildTasks() throws RemoteRequestException, MissingDataException {
-        return taskRepository.getUnfinishedTasks().stream().map(taskMappers::toBuildTask).collect(Collectors.toList());
+        return taskMirror.getUnfinishedTasks().stream().map(taskMappers::toBuildTask).collect(Collectors.toList());
     }
 
     @Override
     public List<BuildTask> getSubmittedBuildTasksBySetId(Base32LongID buildConfigSetRecordId)
             throws RemoteRequestException, MissingDataException {
-        return taskRepository.getBuildTasksByBCSRId(buildConfigSetRecordId)
+        return taskMirror.getBuildTasksByBCSRId(buildConfigSetRecordId)
                 .stream()
                 .map(taskMappers::toBuildTask)
                 .collect(Collectors.toList());
@@ -35,10 +35,13 @@ import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
 import org.jboss.pnc.common.log.MDCUtils;
 import org.jboss.pnc.dingroguclient.DingroguClient;
 import org.jboss.pnc.enums.BuildCoordinationStatus;
+import org.jboss.pnc.mapper.MappingContext;
+import org.jboss.pnc.mapper.UserFetcher;
 import org.jboss.pnc.mapper.api.BuildTaskMappers;
 import org.jboss.pnc.model.Base32LongID;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.model.utils.ContentIdentityManager;
+import org.jboss.pnc.model.utils.HibernateMetric;
 import org.jboss.pnc.remotecoordinator.BpmEndpointUrlFactory;
 import org.jboss.pnc.remotecoordinator.rexclient.RexHttpClient;
 import org.jboss.pnc.remotecoordinator.rexclient.RexQueueHttpClient;
@@ -91,6 +94,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -133,10 +137,15 @@ public class RexFacade implements RexBuildScheduler, BuildTaskRepository {
 
     private static final String INIT_DATA = "initData";
 
+    private static final int BUILD_META_CACHE_SIZE = 10_000;
+
+    private final BuildMetaCache buildMetaCache = new BuildMetaCache(BUILD_META_CACHE_SIZE);
+
     private SystemConfig systemConfig;
     private GlobalModuleGroup globalConfig;
     private BpmModuleConfig bpmConfig;
     private BuildTaskMappers mappers;
+    private UserFetcher userFetcher;
     private RexHttpClient rexClient;
     private RexQueueHttpClient rexQueueClient;
     private DingroguClient dingroguClient;
@@ -152,6 +161,7 @@ public class RexFacade implements RexBuildScheduler, BuildTaskRepository {
             GlobalModuleGroup globalConfig,
             BpmModuleConfig bpmConfig,
             BuildTaskMappers mappers,
+            UserFetcher userFetcher,
             RexHttpClient rexClient,
             RexQueueHttpClient rexQueueClient,
             DingroguClient dingroguClient,
@@ -160,6 +170,7 @@ public class RexFacade implements RexBuildScheduler, BuildTaskRepository {
         this.globalConfig = globalConfig;
         this.bpmConfig = bpmConfig;
         this.mappers = mappers;
+        this.userFetcher = userFetcher;
         this.rexClient = rexClient;
         this.rexQueueClient = rexQueueClient;
         this.dingroguClient = dingroguClient;
@@ -273,7 +284,44 @@ public class RexFacade implements RexBuildScheduler, BuildTaskRepository {
         }
     }
 
-    private static BuildMeta getBuildMetadata(TaskDTO taskDTO) throws MissingDataException {
+    /**
+     * Maps the tasks, the users of all the tasks are resolved at once.
+     */
+    private List<BuildTaskRef> toBuildTaskRefs(Collection<TaskDTO> tasks) throws MissingDataException {
+        List<TaskDTO> taskDTOs = new ArrayList<>(tasks.size());
+        List<BuildMeta> metas = new ArrayList<>(tasks.size());
+        for (TaskDTO task : tasks) {
+            if (task == null) {
+                continue;
+            }
+            taskDTOs.add(task);
+            metas.add(getBuildMetadata(task));
+        }
+
+        List<BuildTaskRef> buildTaskRefs = new ArrayList<>(taskDTOs.size());
+        List<String> usernames = metas.stream().map(BuildMeta::getUsername).collect(Collectors.toList());
+        try (MappingContext ctx = userFetcher.prefetch(usernames)) {
+            for (int i = 0; i < taskDTOs.size(); i++) {
+                buildTaskRefs.add(mappers.toBuildTaskRef(taskDTOs.get(i), metas.get(i)));
+            }
+        }
+        return buildTaskRefs;
+    }
+
+    private BuildMeta getBuildMetadata(TaskDTO taskDTO) throws MissingDataException {
+        Object payload = taskDTO.getCallerNotifications() == null ? null
+                : taskDTO.getCallerNotifications().getAttachment();
+        return buildMetaCache.get(taskDTO.name, payload, () -> decodeBuildMetadata(taskDTO));
+    }
+
+    /**
+     * @return statistics of the cache of the metadata decoded from the Rex tasks
+     */
+    public SortedMap<String, HibernateMetric> getBuildMetaCacheStats() {
+        return buildMetaCache.getStats();
+    }
+
+    private static BuildMeta decodeBuildMetadata(TaskDTO taskDTO) throws MissingDataException {
         if (taskDTO.getCallerNotifications() == null) {
             throw new MissingDataException("BuildMeta metadata missing for Build " + taskDTO.name);
         }
@@ -290,13 +338,9 @@ public class RexFacade implements RexBuildScheduler, BuildTaskRepository {
     public List<BuildTaskRef> getBuildTasksByBCSRId(Base32LongID buildConfigSetRecordId)
             throws RemoteRequestException, MissingDataException {
         try {
-            ArrayList<BuildTaskRef> toReturn = new ArrayList<>();
-
-            for (var task : rexClient.byCorrelation(Objects.toString(buildConfigSetRecordId, null))) {
-                if (task == null)
-                    continue;
-                toReturn.add(mappers.toBuildTaskRef(task, getBuildMetadata(task)));
-            }
+            List<BuildTaskRef> toReturn = toBuildTaskRefs(
+                    rexClient.byCorrelation(Objects.toString(buildConfigSetRecordId, null)));
+            log.debug("Decoded metadata of {} tasks, {}.", toReturn.size(), buildMetaCache);
 
             return toReturn;
         } catch (MissingDataException e) {
@@ -321,14 +365,12 @@ public class RexFacade implements RexBuildScheduler, BuildTaskRepository {
     private Set<BuildTaskRef> getBuildTasksInState(EnumSet<BuildCoordinationStatus> states)
             throws RemoteRequestException, MissingDataException {
         try {
-            Set<BuildTaskRef> set = new HashSet<>();
             TaskFilterParameters taskFilterParameters = toTaskFilterParameters(states);
 
-            for (TaskDTO task : rexClient
-                    .getAll(taskFilterParameters, List.of(schedulerConfig.getQueueNameForBuilds()))) {
-                BuildTaskRef buildTaskRef = mappers.toBuildTaskRef(task, getBuildMetadata(task));
-                set.add(buildTaskRef);
-            }
+            Set<BuildTaskRef> set = new HashSet<>(
+                    toBuildTaskRefs(
+                            rexClient.getAll(taskFilterParameters, List.of(schedulerConfig.getQueueNameForBuilds()))));
+            log.debug("Decoded metadata of {} tasks, {}.", set.size(), buildMetaCache);
 
             return set;
         } catch (MissingDataException e) {
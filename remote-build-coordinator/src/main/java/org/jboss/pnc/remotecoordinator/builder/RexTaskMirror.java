@@ -0,0 +1,269 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.remotecoordinator.builder;
+
+import org.jboss.pnc.common.json.moduleconfig.SchedulerConfig;
+import org.jboss.pnc.model.Base32LongID;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.spi.coordinator.BuildTaskRef;
+import org.jboss.pnc.spi.datastore.BuildTaskRepository;
+import org.jboss.pnc.spi.exception.MissingDataException;
+import org.jboss.pnc.spi.exception.RemoteRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory mirror of the unfinished Rex tasks, indexed by build id, IdRev and group build (BCSR) id. It is fed by the
+ * Rex transition notifications once their handling is committed and reconciled by periodic full fetches from Rex.
+ *
+ * The mirror serves reads only while the last full fetch is not older than the configured staleness bound, otherwise
+ * the reads go to Rex and refresh the mirror. Tasks not found in the mirror are looked up in Rex, as the mirror doesn't
+ * hold the finished tasks. A notification is delivered to one node only, so the mirrors of the other nodes lag behind
+ * Rex up to the staleness bound. The checks sensitive to conflicts, like whether a configuration is already being
+ * built, must read Rex directly.
+ */
+@ApplicationScoped
+public class RexTaskMirror {
+
+    private static final Logger log = LoggerFactory.getLogger(RexTaskMirror.class);
+
+    private BuildTaskRepository taskRepository;
+
+    private long maxStalenessNanos;
+
+    private final Map<String, BuildTaskRef> tasks = new ConcurrentHashMap<>();
+
+    private final Map<IdRev, Set<String>> tasksByIdRev = new ConcurrentHashMap<>();
+
+    private final Map<Base32LongID, Set<String>> tasksByBCSRId = new ConcurrentHashMap<>();
+
+    /**
+     * Time of the last notification of a task, guarded by this. A full fetch started before it doesn't override the
+     * notified state.
+     */
+    private final Map<String, Long> notifiedAt = new HashMap<>();
+
+    private volatile boolean reconciled;
+
+    private volatile long reconciledAt;
+
+    @Deprecated // CDI workaround
+    public RexTaskMirror() {
+    }
+
+    @Inject
+    public RexTaskMirror(BuildTaskRepository taskRepository, SchedulerConfig schedulerConfig) {
+        this(taskRepository, schedulerConfig.getTaskMirrorMaxStalenessMillis());
+    }
+
+    public RexTaskMirror(BuildTaskRepository taskRepository, long maxStalenessMillis) {
+        this.taskRepository = taskRepository;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+    }
+
+    public boolean isEnabled() {
+        return maxStalenessNanos > 0;
+    }
+
+    /**
+     * @return true if the mirror can serve the reads
+     */
+    public boolean isFresh() {
+        return isEnabled() && reconciled && System.nanoTime() - reconciledAt <= maxStalenessNanos;
+    }
+
+    /**
+     * Makes the next read go to Rex, eg. after scheduling new tasks.
+     */
+    public void invalidate() {
+        reconciled = false;
+    }
+
+    public Collection<BuildTaskRef> getUnfinishedTasks() throws RemoteRequestException, MissingDataException {
+        if (isFresh()) {
+            return new ArrayList<>(tasks.values());
+        }
+        return refresh();
+    }
+
+    public Optional<BuildTaskRef> getSpecific(String taskId) throws RemoteRequestException, MissingDataException {
+        if (isFresh()) {
+            BuildTaskRef task = tasks.get(taskId);
+            if (task != null) {
+                return Optional.of(task);
+            }
+        }
+        return taskRepository.getSpecific(taskId);
+    }
+
+    public List<BuildTaskRef> getBuildTasksByBCSRId(Base32LongID buildConfigSetRecordId)
+            throws RemoteRequestException, MissingDataException {
+        if (isFresh()) {
+            return lookup(tasksByBCSRId.get(buildConfigSetRecordId));
+        }
+        return taskRepository.getBuildTasksByBCSRId(buildConfigSetRecordId);
+    }
+
+    public List<BuildTaskRef> getUnfinishedTasks(IdRev idRev) throws RemoteRequestException, MissingDataException {
+        if (isFresh()) {
+            return lookup(tasksByIdRev.get(idRev));
+        }
+        List<BuildTaskRef> unfinished = new ArrayList<>();
+        for (BuildTaskRef task : refresh()) {
+            if (idRev.equals(task.getIdRev())) {
+                unfinished.add(task);
+            }
+        }
+        return unfinished;
+    }
+
+    /**
+     * Fetches all the unfinished tasks from Rex and replaces the content of the mirror, except for the tasks notified
+     * during the fetch.
+     *
+     * @return the fetched tasks
+     */
+    public Collection<BuildTaskRef> refresh() throws RemoteRequestException, MissingDataException {
+        long fetchStartedAt = System.nanoTime();
+        Collection<BuildTaskRef> unfinishedTasks = taskRepository.getUnfinishedTasks();
+        if (isEnabled()) {
+            reconcile(unfinishedTasks, fetchStartedAt);
+        }
+        return unfinishedTasks;
+    }
+
+    /**
+     * Applies a transition notified by Rex.
+     */
+    public synchronized void update(BuildTaskRef task) {
+        if (!isEnabled()) {
+            return;
+        }
+        notifiedAt.put(task.getId(), System.nanoTime());
+        if (RexFacade.UNFINISHED_STATES.contains(task.getStatus())) {
+            put(task);
+        } else {
+            remove(task.getId());
+        }
+    }
+
+    /**
+     * Applies the notified transition only once the transaction handling it is committed, so that a rolled back
+     * transition is never served from the mirror.
+     */
+    void onTaskNotified(@Observes(during = TransactionPhase.AFTER_SUCCESS) TaskNotifiedEvent event) {
+        update(event.getTask());
+    }
+
+    synchronized void reconcile(Collection<BuildTaskRef> unfinishedTasks, long fetchStartedAt) {
+        Set<String> fetched = new HashSet<>();
+        for (BuildTaskRef task : unfinishedTasks) {
+            fetched.add(task.getId());
+            if (!isNotifiedAfter(task.getId(), fetchStartedAt)) {
+                put(task);
+            }
+        }
+        for (String taskId : new ArrayList<>(tasks.keySet())) {
+            if (!fetched.contains(taskId) && !isNotifiedAfter(taskId, fetchStartedAt)) {
+                remove(taskId);
+            }
+        }
+        notifiedAt.values().removeIf(time -> time - fetchStartedAt < 0);
+
+        reconciledAt = fetchStartedAt;
+        reconciled = true;
+        log.debug("Reconciled the mirror of Rex tasks, {} unfinished tasks.", tasks.size());
+    }
+
+    private boolean isNotifiedAfter(String taskId, long time) {
+        Long notified = notifiedAt.get(taskId);
+        return notified != null && notified - time >= 0;
+    }
+
+    private void put(BuildTaskRef task) {
+        remove(task.getId());
+        tasks.put(task.getId(), task);
+        if (task.getIdRev() != null) {
+            tasksByIdRev.computeIfAbsent(task.getIdRev(), idRev -> ConcurrentHashMap.newKeySet()).add(task.getId());
+        }
+        if (task.getBuildConfigSetRecordId() != null) {
+            tasksByBCSRId.computeIfAbsent(task.getBuildConfigSetRecordId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(task.getId());
+        }
+    }
+
+    private void remove(String taskId) {
+        BuildTaskRef task = tasks.remove(taskId);
+        if (task == null) {
+            return;
+        }
+        if (task.getIdRev() != null) {
+            removeFromIndex(tasksByIdRev, task.getIdRev(), taskId);
+        }
+        if (task.getBuildConfigSetRecordId() != null) {
+            removeFromIndex(tasksByBCSRId, task.getBuildConfigSetRecordId(), taskId);
+        }
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<String>> index, K key, String taskId) {
+        index.computeIfPresent(key, (k, taskIds) -> {
+            taskIds.remove(taskId);
+            return taskIds.isEmpty() ? null : taskIds;
+        });
+    }
+
+    private List<BuildTaskRef> lookup(Set<String> taskIds) {
+        List<BuildTaskRef> found = new ArrayList<>();
+        if (taskIds != null) {
+            taskIds.stream().map(tasks::get).filter(Objects::nonNull).forEach(found::add);
+        }
+        return found;
+    }
+
+    /**
+     * Fired when a transition of a task is notified by Rex.
+     */
+    public static class TaskNotifiedEvent {
+
+        private final BuildTaskRef task;
+
+        public TaskNotifiedEvent(BuildTaskRef task) {
+            this.task = task;
+        }
+
+        public BuildTaskRef getTask() {
+            return task;
+        }
+    }
+}
@@ -37,6 +37,7 @@ import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.BuildConfigurationSet;
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.model.Project;
 import org.jboss.pnc.remotecoordinator.BuildCoordinationException;
 import org.jboss.pnc.spi.BuildResult;
@@ -46,6 +47,7 @@ import org.jboss.pnc.spi.coordinator.BuildTaskRef;
 import org.jboss.pnc.api.enums.orch.CompletionStatus;
 import org.jboss.pnc.spi.datastore.Datastore;
 import org.jboss.pnc.spi.datastore.DatastoreException;
+import org.jboss.pnc.spi.datastore.RebuildCheckCache;
 import org.jboss.pnc.spi.environment.EnvironmentDriverResult;
 import org.jboss.pnc.spi.executor.BuildExecutionConfiguration;
 import org.jboss.pnc.spi.repositorymanager.RepositoryManagerResult;
@@ -61,6 +63,7 @@ import java.io.StringWriter;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -620,7 +623,7 @@ public class DatastoreAdapter {
             boolean checkImplicitDependencies,
             boolean temporaryBuild,
             AlignmentPreference alignmentPreference,
-            Set<Integer> processedDependenciesCache) {
+            RebuildCheckCache rebuildCheckCache) {
 
         ObjectWrapper<BuildRecord> rebuildCause = new ObjectWrapper<>();
         datastore.requiresRebuild(
@@ -628,11 +631,39 @@ public class DatastoreAdapter {
                 checkImplicitDependencies,
                 temporaryBuild,
                 alignmentPreference,
-                processedDependenciesCache,
+                rebuildCheckCache,
                 rebuildCause::set);
         return Optional.ofNullable(rebuildCause.get());
     }
 
+    /**
+     * @return causes for no rebuild by IdRev, the configurations missing in the map require a rebuild.
+     */
+    public Map<IdRev, BuildRecord> requiresRebuild(
+            Collection<BuildConfigurationAudited> buildConfigurationAuditeds,
+            boolean checkImplicitDependencies,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference) {
+        return datastore.requiresRebuild(
+                buildConfigurationAuditeds,
+                checkImplicitDependencies,
+                temporaryBuild,
+                alignmentPreference);
+    }
+
+    /**
+     * @param dependencyIds ids of the explicit dependencies by IdRev of the configurations to check
+     * @return causes for no rebuild by IdRev, the configurations missing in the map require a rebuild.
+     */
+    public Map<IdRev, BuildRecord> requiresRebuild(
+            Map<IdRev, Set<Integer>> dependencyIds,
+            boolean checkImplicitDependencies,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference) {
+        return datastore
+                .requiresRebuild(dependencyIds, checkImplicitDependencies, temporaryBuild, alignmentPreference);
+    }
+
     @Deprecated
     public boolean requiresRebuild(BuildTask task, Set<Integer> processedDependenciesCache) {
         return datastore.requiresRebuild(
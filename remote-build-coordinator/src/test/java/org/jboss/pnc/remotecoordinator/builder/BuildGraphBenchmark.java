@@ -0,0 +1,136 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.remotecoordinator.builder;
+
+import org.jboss.pnc.enums.BuildType;
+import org.jboss.pnc.mock.datastore.DatastoreMock;
+import org.jboss.pnc.mock.model.MockUser;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.remotecoordinator.builder.datastore.DatastoreAdapter;
+import org.jboss.pnc.spi.BuildOptions;
+import org.jboss.pnc.spi.coordinator.RemoteBuildTask;
+import org.jboss.pnc.spi.exception.BuildRequestException;
+import org.jboss.util.graph.Graph;
+import org.jboss.util.graph.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of the build graph of a synthetic layered configuration graph, where every configuration
+ * depends on a few configurations of the previous layer. The pairwise benchmark is the previous edge construction,
+ * checking every pair of vertices for a dependency.
+ *
+ * Not run as part of the test suite, run the {@link #main(String[])} method with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuildGraphBenchmark {
+
+    private static final int LAYER_WIDTH = 100;
+
+    private static final int DEPENDENCIES_PER_CONFIGURATION = 3;
+
+    private static final User USER = MockUser.newTestUser(1);
+
+    private static final BuildOptions BUILD_OPTIONS = new BuildOptions();
+
+    @Param({ "500", "3000" })
+    public int configurations;
+
+    private Map<Integer, BuildConfigurationAudited> buildConfigurationAuditeds;
+
+    private BuildTasksInitializer buildTasksInitializer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<BuildConfiguration> buildConfigurations = new ArrayList<>();
+        buildConfigurationAuditeds = new HashMap<>();
+        for (int i = 0; i < configurations; i++) {
+            BuildConfiguration.Builder builder = BuildConfiguration.Builder.newBuilder()
+                    .id(i)
+                    .name("configuration-" + i)
+                    .buildType(BuildType.MVN);
+            int previousLayer = i / LAYER_WIDTH - 1;
+            if (previousLayer >= 0) {
+                for (int d = 0; d < DEPENDENCIES_PER_CONFIGURATION; d++) {
+                    int dependency = previousLayer * LAYER_WIDTH + (i * 7 + d * 31) % LAYER_WIDTH;
+                    builder.dependency(buildConfigurations.get(dependency));
+                }
+            }
+            BuildConfiguration buildConfiguration = builder.build();
+            buildConfigurations.add(buildConfiguration);
+            buildConfigurationAuditeds.put(i, BuildConfigurationAudited.fromBuildConfiguration(buildConfiguration, 1));
+        }
+
+        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(new DatastoreMock(), new BifrostLogUploaderMock());
+        buildTasksInitializer = new BuildTasksInitializer(datastoreAdapter);
+    }
+
+    @Benchmark
+    public Graph<RemoteBuildTask> createBuildGraph() throws BuildRequestException {
+        return buildTasksInitializer
+                .createBuildGraph(buildConfigurationAuditeds, USER, BUILD_OPTIONS, Collections.emptyList(), null);
+    }
+
+    @Benchmark
+    public int pairwiseDependencyChecks() {
+        List<Vertex<BuildConfigurationAudited>> vertices = new ArrayList<>();
+        for (BuildConfigurationAudited buildConfigurationAudited : buildConfigurationAuditeds.values()) {
+            vertices.add(new Vertex<>(buildConfigurationAudited.getName(), buildConfigurationAudited));
+        }
+        int edges = 0;
+        for (Vertex<BuildConfigurationAudited> parent : vertices) {
+            for (Vertex<BuildConfigurationAudited> child : vertices) {
+                if (buildTasksInitializer.hasDirectConfigDependencyOn(parent.getData(), child.getData())) {
+                    edges++;
+                }
+            }
+        }
+        return edges;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BuildGraphBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.remotecoordinator.builder;
+
+import org.jboss.pnc.spi.coordinator.BuildMeta;
+import org.jboss.pnc.spi.exception.MissingDataException;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BuildMetaCacheTest {
+
+    private static final Map<String, Object> PAYLOAD = Map.of("id", "1", "username", "user");
+
+    private final AtomicInteger decodes = new AtomicInteger();
+
+    @Test
+    public void shouldDecodeOncePerTask() throws Exception {
+        BuildMetaCache cache = new BuildMetaCache(10);
+
+        BuildMeta first = cache.get("task", PAYLOAD, this::decode);
+        BuildMeta second = cache.get("task", PAYLOAD, this::decode);
+
+        assertThat(second).isSameAs(first);
+        assertThat(decodes.get()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void shouldDecodeOnceAcrossTransitions() throws Exception {
+        BuildMetaCache cache = new BuildMetaCache(10);
+
+        // every fetch of the task deserializes a new, equal payload
+        cache.get("task", Map.of("id", "1", "username", "user"), this::decode);
+        cache.get("task", Map.of("id", "1", "username", "user"), this::decode);
+
+        assertThat(decodes.get()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDecodeAgainForRecreatedTask() throws Exception {
+        BuildMetaCache cache = new BuildMetaCache(10);
+
+        cache.get("task", PAYLOAD, this::decode);
+        cache.get("task", Map.of("id", "2", "username", "user"), this::decode);
+
+        assertThat(decodes.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldExportStatistics() throws Exception {
+        BuildMetaCache cache = new BuildMetaCache(10);
+
+        cache.get("task", PAYLOAD, this::decode);
+        cache.get("task", PAYLOAD, this::decode);
+
+        assertThat(cache.getStats().get("rex.build-meta-cache.hit.count").getValue()).isEqualTo("1.0");
+        assertThat(cache.getStats().get("rex.build-meta-cache.miss.count").getValue()).isEqualTo("1.0");
+        assertThat(cache.getStats())
+                .containsKeys("rex.build-meta-cache.size", "rex.build-meta-cache.decode.avg-micros");
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() throws Exception {
+        BuildMetaCache cache = new BuildMetaCache(2);
+
+        cache.get("a", PAYLOAD, this::decode);
+        cache.get("b", PAYLOAD, this::decode);
+        cache.get("a", PAYLOAD, this::decode);
+        cache.get("c", PAYLOAD, this::decode);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(decodes.get()).isEqualTo(3);
+
+        cache.get("a", PAYLOAD, this::decode);
+        assertThat(decodes.get()).isEqualTo(3);
+        cache.get("b", PAYLOAD, this::decode);
+        assertThat(decodes.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldNotCacheFailures() {
+        BuildMetaCache cache = new BuildMetaCache(10);
+
+        assertThatThrownBy(() -> cache.get("task", PAYLOAD, () -> {
+            throw new MissingDataException("missing");
+        })).isInstanceOf(MissingDataException.class);
+
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    private BuildMeta decode() {
+        decodes.incrementAndGet();
+        return BuildMeta.builder().id(Integer.toString(decodes.get())).build();
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.remotecoordinator.builder;
+
+import org.jboss.pnc.api.enums.AlignmentPreference;
+import org.jboss.pnc.enums.BuildType;
+import org.jboss.pnc.mock.datastore.DatastoreMock;
+import org.jboss.pnc.mock.model.MockUser;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.remotecoordinator.builder.datastore.DatastoreAdapter;
+import org.jboss.pnc.spi.BuildOptions;
+import org.jboss.pnc.spi.coordinator.RemoteBuildTask;
+import org.jboss.pnc.spi.exception.BuildRequestException;
+import org.jboss.util.graph.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the rebuild check of a wide build graph done at once on the submitting thread with the check split to
+ * concurrent chunks. The datastore simulates the latency of the bulk queries: a fixed round trip plus a cost per
+ * checked configuration.
+ *
+ * Not run as part of the test suite, run the {@link #main(String[])} method with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RebuildCheckBenchmark {
+
+    private static final int ROOT_CONFIGURATIONS = 10;
+
+    private static final long ROUND_TRIP_MICROS = 2_000;
+
+    private static final long PER_CONFIGURATION_MICROS = 50;
+
+    private static final User USER = MockUser.newTestUser(1);
+
+    private static final BuildOptions BUILD_OPTIONS = new BuildOptions();
+
+    @Param({ "500", "2000" })
+    public int configurations;
+
+    @Param({ "1", "4", "8" })
+    public int parallelism;
+
+    private Map<Integer, BuildConfigurationAudited> buildConfigurationAuditeds;
+
+    private ExecutorService executor;
+
+    private BuildTasksInitializer buildTasksInitializer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // every configuration depends on one of a few root configurations, the rest of the graph is independent
+        BuildConfiguration[] roots = new BuildConfiguration[ROOT_CONFIGURATIONS];
+        buildConfigurationAuditeds = new HashMap<>();
+        for (int i = 0; i < configurations; i++) {
+            BuildConfiguration.Builder builder = BuildConfiguration.Builder.newBuilder()
+                    .id(i)
+                    .name("configuration-" + i)
+                    .buildType(BuildType.MVN);
+            if (i >= ROOT_CONFIGURATIONS) {
+                builder.dependency(roots[i % ROOT_CONFIGURATIONS]);
+            }
+            BuildConfiguration buildConfiguration = builder.build();
+            if (i < ROOT_CONFIGURATIONS) {
+                roots[i] = buildConfiguration;
+            }
+            buildConfigurationAuditeds.put(i, BuildConfigurationAudited.fromBuildConfiguration(buildConfiguration, 1));
+        }
+
+        executor = Executors.newFixedThreadPool(parallelism);
+        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(
+                new SlowBulkQueryDatastore(),
+                new BifrostLogUploaderMock());
+        buildTasksInitializer = new BuildTasksInitializer(datastoreAdapter, executor, parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Graph<RemoteBuildTask> createBuildGraph() throws BuildRequestException {
+        return buildTasksInitializer
+                .createBuildGraph(buildConfigurationAuditeds, USER, BUILD_OPTIONS, Collections.emptyList(), null);
+    }
+
+    private static class SlowBulkQueryDatastore extends DatastoreMock {
+
+        @Override
+        public Map<IdRev, BuildRecord> requiresRebuild(
+                Collection<BuildConfigurationAudited> buildConfigurationAuditeds,
+                boolean checkImplicitDependencies,
+                boolean temporaryBuild,
+                AlignmentPreference alignmentPreference) {
+            return query(buildConfigurationAuditeds.size());
+        }
+
+        @Override
+        public Map<IdRev, BuildRecord> requiresRebuild(
+                Map<IdRev, Set<Integer>> dependencyIds,
+                boolean checkImplicitDependencies,
+                boolean temporaryBuild,
+                AlignmentPreference alignmentPreference) {
+            return query(dependencyIds.size());
+        }
+
+        private Map<IdRev, BuildRecord> query(int checkedConfigurations) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(ROUND_TRIP_MICROS + PER_CONFIGURATION_MICROS * checkedConfigurations);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.emptyMap();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RebuildCheckBenchmark.class.getSimpleName()).build()).run();
+    }
+}
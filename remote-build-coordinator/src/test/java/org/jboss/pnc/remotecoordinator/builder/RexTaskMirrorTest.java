@@ -0,0 +1,141 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.remotecoordinator.builder;
+
+import org.jboss.pnc.enums.BuildCoordinationStatus;
+import org.jboss.pnc.mock.datastore.BuildTaskRepositoryMock;
+import org.jboss.pnc.model.Base32LongID;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.spi.coordinator.BuildTaskRef;
+import org.jboss.pnc.spi.coordinator.DefaultBuildTaskRef;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RexTaskMirrorTest {
+
+    private static final Base32LongID GROUP_ID = new Base32LongID(100L);
+
+    private final CountingTaskRepository taskRepository = new CountingTaskRepository();
+
+    @Test
+    public void shouldServeReadsFromMirrorWhileFresh() throws Exception {
+        taskRepository.addTask(task("1", 1, BuildCoordinationStatus.BUILDING));
+        taskRepository.addTask(task("2", 2, BuildCoordinationStatus.ENQUEUED));
+        RexTaskMirror mirror = new RexTaskMirror(taskRepository, 60_000);
+
+        assertThat(mirror.isFresh()).isFalse();
+        assertThat(mirror.getUnfinishedTasks()).hasSize(2);
+        assertThat(mirror.isFresh()).isTrue();
+
+        assertThat(mirror.getUnfinishedTasks()).extracting(BuildTaskRef::getId).containsExactlyInAnyOrder("1", "2");
+        assertThat(mirror.getSpecific("2")).map(BuildTaskRef::getId).contains("2");
+        assertThat(mirror.getBuildTasksByBCSRId(GROUP_ID)).hasSize(2);
+        assertThat(mirror.getUnfinishedTasks(new IdRev(1, 1))).extracting(BuildTaskRef::getId).containsExactly("1");
+        assertThat(taskRepository.fetches.get()).isEqualTo(1);
+        assertThat(taskRepository.lookups.get()).isEqualTo(0);
+
+        mirror.invalidate();
+        mirror.getUnfinishedTasks();
+        assertThat(taskRepository.fetches.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldApplyNotifiedTransitions() throws Exception {
+        taskRepository.addTask(task("1", 1, BuildCoordinationStatus.BUILDING));
+        RexTaskMirror mirror = new RexTaskMirror(taskRepository, 60_000);
+        mirror.refresh();
+
+        mirror.update(task("2", 2, BuildCoordinationStatus.ENQUEUED));
+        mirror.update(task("1", 1, BuildCoordinationStatus.DONE));
+
+        assertThat(mirror.getUnfinishedTasks()).extracting(BuildTaskRef::getId).containsExactly("2");
+        assertThat(mirror.getUnfinishedTasks(new IdRev(1, 1))).isEmpty();
+        assertThat(mirror.getBuildTasksByBCSRId(GROUP_ID)).extracting(BuildTaskRef::getId).containsExactly("2");
+
+        // finished tasks are looked up in Rex
+        mirror.getSpecific("1");
+        assertThat(taskRepository.lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepTasksNotifiedDuringFetch() throws Exception {
+        RexTaskMirror mirror = new RexTaskMirror(taskRepository, 60_000);
+        long fetchStartedAt = System.nanoTime();
+        Collection<BuildTaskRef> fetched = Collections.singletonList(task("1", 1, BuildCoordinationStatus.ENQUEUED));
+
+        // the transition arrives while the fetch is in flight
+        mirror.update(task("1", 1, BuildCoordinationStatus.BUILDING));
+        mirror.update(task("2", 2, BuildCoordinationStatus.ENQUEUED));
+        mirror.reconcile(fetched, fetchStartedAt);
+
+        assertThat(mirror.getSpecific("1")).map(BuildTaskRef::getStatus).contains(BuildCoordinationStatus.BUILDING);
+        assertThat(mirror.getUnfinishedTasks()).extracting(BuildTaskRef::getId).containsExactlyInAnyOrder("1", "2");
+
+        // a later fetch is authoritative
+        mirror.reconcile(fetched, System.nanoTime());
+        assertThat(mirror.getUnfinishedTasks()).extracting(BuildTaskRef::getStatus)
+                .containsExactly(BuildCoordinationStatus.ENQUEUED);
+    }
+
+    @Test
+    public void shouldPassThroughWhenDisabled() throws Exception {
+        taskRepository.addTask(task("1", 1, BuildCoordinationStatus.BUILDING));
+        RexTaskMirror mirror = new RexTaskMirror(taskRepository, 0);
+
+        mirror.getUnfinishedTasks();
+        mirror.update(task("2", 2, BuildCoordinationStatus.ENQUEUED));
+
+        assertThat(mirror.isFresh()).isFalse();
+        assertThat(mirror.getUnfinishedTasks()).extracting(BuildTaskRef::getId).containsExactly("1");
+        assertThat(taskRepository.fetches.get()).isEqualTo(2);
+    }
+
+    private static BuildTaskRef task(String id, int configId, BuildCoordinationStatus status) {
+        return DefaultBuildTaskRef.builder()
+                .id(id)
+                .idRev(new IdRev(configId, 1))
+                .buildConfigSetRecordId(GROUP_ID)
+                .status(status)
+                .build();
+    }
+
+    private static class CountingTaskRepository extends BuildTaskRepositoryMock {
+
+        private final AtomicInteger fetches = new AtomicInteger();
+
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        @Override
+        public Collection<BuildTaskRef> getUnfinishedTasks() {
+            fetches.incrementAndGet();
+            return super.getUnfinishedTasks();
+        }
+
+        @Override
+        public Optional<BuildTaskRef> getSpecific(String taskId) {
+            lookups.incrementAndGet();
+            return Optional.ofNullable(getTask(taskId));
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.jboss.pnc.common.graph.GraphUtils;
 import org.jboss.pnc.common.json.ConfigurationParseException;
 import org.jboss.pnc.common.json.moduleconfig.SchedulerConfig;
 import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
+import org.jboss.pnc.datastore.BuiltArtifactFilter;
 import org.jboss.pnc.datastore.DefaultDatastore;
 import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.mapper.api.BuildMapper;
@@ -53,6 +54,7 @@ import org.jboss.pnc.model.User;
 import org.jboss.pnc.remotecoordinator.builder.BifrostLogUploaderMock;
 import org.jboss.pnc.remotecoordinator.builder.BuildTasksInitializer;
 import org.jboss.pnc.remotecoordinator.builder.RemoteBuildCoordinator;
+import org.jboss.pnc.remotecoordinator.builder.RexTaskMirror;
 import org.jboss.pnc.remotecoordinator.builder.SetRecordTasks;
 import org.jboss.pnc.remotecoordinator.builder.datastore.DatastoreAdapter;
 import org.jboss.pnc.remotecoordinator.test.mock.MockBuildScheduler;
@@ -168,7 +170,8 @@ public abstract class AbstractDependentBuildTest {
                 buildConfigSetRecordRepository,
                 new UserRepositoryMock(),
                 targetRepositoryRepository,
-                new AttachmentRepositoryMock());
+                new AttachmentRepositoryMock(),
+                new BuiltArtifactFilter());
         datastoreAdapter = new DatastoreAdapter(datastore, new BifrostLogUploaderMock());
 
         if (buildScheduler == null) {
@@ -183,6 +186,7 @@ public abstract class AbstractDependentBuildTest {
                 mock(Event.class),
                 buildScheduler,
                 taskRepository,
+                new RexTaskMirror(taskRepository, 0),
                 buildConfigurationAuditedRepository,
                 buildConfigSetRecordRepository,
                 systemConfig,
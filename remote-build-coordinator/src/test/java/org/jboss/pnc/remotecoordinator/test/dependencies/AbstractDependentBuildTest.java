@@ -25,6 +25,7 @@ import org.jboss.pnc.common.graph.GraphStructureException;
 import org.jboss.pnc.common.graph.GraphUtils;
 import org.jboss.pnc.common.json.ConfigurationParseException;
 import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
+import org.jboss.pnc.datastore.BuiltArtifactFilter;
 import org.jboss.pnc.datastore.DefaultDatastore;
 import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.mock.datastore.BuildTaskRepositoryMock;
@@ -142,7 +143,8 @@ public abstract class AbstractDependentBuildTest {
                 buildConfigSetRecordRepository,
                 new UserRepositoryMock(),
                 targetRepositoryRepository,
-                new AttachmentRepositoryMock());
+                new AttachmentRepositoryMock(),
+                new BuiltArtifactFilter());
         datastoreAdapter = new DatastoreAdapter(datastore, new BifrostLogUploaderMock());
 
         if (buildScheduler == null) {
@@ -22,6 +22,8 @@ import org.jboss.pnc.model.GenericSetting;
 
 import org.jboss.pnc.spi.datastore.repositories.GenericSettingRepository;
 
+import org.jboss.pnc.spi.datastore.repositories.api.CursorPage;
+import org.jboss.pnc.spi.datastore.repositories.api.PageCursor;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
@@ -56,6 +58,15 @@ public class GenericSettingsRepositoryMock implements GenericSettingRepository {
         return List.of();
     }
 
+    @Override
+    public CursorPage<GenericSetting> queryWithPredicates(
+            PageCursor pageCursor,
+            int pageSize,
+            SortInfo<GenericSetting> sortInfo,
+            Predicate<GenericSetting>... predicates) {
+        return new CursorPage<>(List.of(), null);
+    }
+
     @Override
     public List<GenericSetting> queryWithPredicates(Predicate<GenericSetting>... predicates) {
         return List.of();
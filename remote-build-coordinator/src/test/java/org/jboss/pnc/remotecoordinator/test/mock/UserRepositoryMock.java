@@ -20,6 +20,8 @@ package org.jboss.pnc.remotecoordinator.test.mock;
 import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.datastore.repositories.UserRepository;
+import org.jboss.pnc.spi.datastore.repositories.api.CursorPage;
+import org.jboss.pnc.spi.datastore.repositories.api.PageCursor;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
@@ -67,7 +69,7 @@ public class UserRepositoryMock implements UserRepository {
 
     @Override
     public List<User> queryWithPredicates(Predicate<User>... predicates) {
-        return null;
+        return List.of();
     }
 
     @Override
@@ -75,6 +77,15 @@ public class UserRepositoryMock implements UserRepository {
         return null;
     }
 
+    @Override
+    public CursorPage<User> queryWithPredicates(
+            PageCursor pageCursor,
+            int pageSize,
+            SortInfo<User> sortInfo,
+            Predicate<User>... predicates) {
+        return new CursorPage<>(List.of(), null);
+    }
+
     @Override
     public User save(User entity) {
         return null;
@@ -161,7 +161,11 @@ public abstract class ClientBase<T> implements Closeable {
         if (pageSize < 1) {
             pageSize = 100;
         }
-        return new RemoteCollectionConfig(pageSize);
+        return RemoteCollectionConfig.builder()
+                .pageSize(pageSize)
+                .cursorPaging(configuration.isCursorPaging())
+                .totalHits(configuration.getTotalHits())
+                .build();
     }
 
     protected void setSortAndQuery(PageParameters pageParameters, Optional<String> sort, Optional<String> q) {
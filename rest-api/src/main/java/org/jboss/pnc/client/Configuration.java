@@ -22,6 +22,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.Getter;
 import org.jboss.pnc.common.logging.MDCUtils;
+import org.jboss.pnc.dto.response.Page.TotalHitsMode;
 
 import java.util.Base64;
 import java.util.HashMap;
@@ -62,6 +63,17 @@ public class Configuration {
      */
     private final int pageSize;
 
+    /**
+     * Fetch the pages by the cursor instead of the page index, where the endpoint supports it
+     */
+    @Builder.Default
+    private final boolean cursorPaging = false;
+
+    /**
+     * How the server computes the total hits of the fetched pages, null for the server default
+     */
+    private final TotalHitsMode totalHits;
+
     @Builder.Default
     private final long connectTimeoutMillis = 30_000L;
 
@@ -49,6 +49,10 @@ public class DefaultRemoteCollection<T> implements RemoteCollection<T> {
         PageParameters intialPageParameters = new PageParameters();
         intialPageParameters.setPageIndex(0);
         intialPageParameters.setPageSize(config.getPageSize());
+        intialPageParameters.setTotalHits(config.getTotalHits());
+        if (config.isCursorPaging()) {
+            intialPageParameters.setPageCursor("");
+        }
         logger.debug("Loading first page.");
         currentPage = endpoint.apply(intialPageParameters);
     }
@@ -78,12 +82,21 @@ public class DefaultRemoteCollection<T> implements RemoteCollection<T> {
         }
     }
 
+    private Page<T> loadNextPageByCursor(Function<PageParameters, Page<T>> endpoint, Page<T> currentPage) {
+        logger.debug("Loading new page. Cursor {}", currentPage.getNextPageCursor());
+        PageParameters pageParametersNext = new PageParameters();
+        pageParametersNext.setPageSize(currentPage.getPageSize());
+        pageParametersNext.setPageCursor(currentPage.getNextPageCursor());
+        return endpoint.apply(pageParametersNext);
+    }
+
     private Page<T> loadNextPage(Function<PageParameters, Page<T>> endpoint, Page<T> currentPage) {
         int newPageIndex = currentPage.getPageIndex() + 1;
         logger.debug("Loading new page. Index {}", newPageIndex);
         PageParameters pageParametersNext = new PageParameters();
         pageParametersNext.setPageSize(currentPage.getPageSize());
         pageParametersNext.setPageIndex(newPageIndex);
+        pageParametersNext.setTotalHits(config.getTotalHits());
         return endpoint.apply(pageParametersNext);
     }
 
@@ -99,7 +112,11 @@ public class DefaultRemoteCollection<T> implements RemoteCollection<T> {
         public boolean hasNext() {
             if (iterator.hasNext()) {
                 return true;
-            } else if (currentPage.getPageIndex() < currentPage.getTotalPages() - 1) {
+            } else if (currentPage.getNextPageCursor() != null) {
+                currentPage = loadNextPageByCursor(endpoint, currentPage);
+                iterator = currentPage.getContent().iterator();
+                return iterator.hasNext();
+            } else if (currentPage.getPageIndex() < currentPage.getTotalPages() - 1 || isFullPageOfUnknownTotal()) {
                 currentPage = loadNextPage(endpoint, currentPage);
                 iterator = currentPage.getContent().iterator();
                 return iterator.hasNext();
@@ -108,6 +125,14 @@ public class DefaultRemoteCollection<T> implements RemoteCollection<T> {
             }
         }
 
+        /**
+         * Without the total hits the pages are loaded until a page is not full.
+         */
+        private boolean isFullPageOfUnknownTotal() {
+            return currentPage.getTotalPages() < 0 && currentPage.getPageIndex() >= 0 && currentPage.getPageSize() > 0
+                    && currentPage.getContent().size() >= currentPage.getPageSize();
+        }
+
         @Override
         public T next() {
             if (hasNext()) {
@@ -26,6 +26,9 @@ import java.util.NoSuchElementException;
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
 public interface RemoteCollection<T> extends Iterable<T> {
+    /**
+     * Total number of the elements, -1 if the server didn't count them.
+     */
     int size();
 
     /**
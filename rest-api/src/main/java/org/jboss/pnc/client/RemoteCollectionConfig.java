@@ -19,6 +19,7 @@ package org.jboss.pnc.client;
 
 import lombok.Builder;
 import lombok.Getter;
+import org.jboss.pnc.dto.response.Page.TotalHitsMode;
 
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
@@ -29,4 +30,14 @@ public class RemoteCollectionConfig {
 
     private int pageSize;
 
+    /**
+     * Load the pages by the cursor instead of the page index, if the endpoint supports it.
+     */
+    private boolean cursorPaging;
+
+    /**
+     * How the server computes the total hits, null for the server default.
+     */
+    private TotalHitsMode totalHits;
+
 }
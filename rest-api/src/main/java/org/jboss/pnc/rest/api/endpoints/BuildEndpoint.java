@@ -853,6 +853,7 @@ public interface BuildEndpoint {
      * @param pageSize {@value SwaggerConstants#PAGE_SIZE_DESCRIPTION}
      * @param pageIndex {@value SwaggerConstants#PAGE_INDEX_DESCRIPTION}
      * @param timestamp {@value TIMESTAMP_PARAM}
+     * @param pageCursor {@value SwaggerConstants#PAGE_CURSOR_DESCRIPTION}
      * @return
      */
     @Operation(
@@ -877,7 +878,9 @@ public interface BuildEndpoint {
     Page<BuildRecordInsights> getAllBuildRecordInsightsNewerThanTimestamp(
             @Parameter(description = SwaggerConstants.PAGE_SIZE_DESCRIPTION) @QueryParam("pageSize") int pageSize,
             @Parameter(description = SwaggerConstants.PAGE_INDEX_DESCRIPTION) @QueryParam("pageIndex") int pageIndex,
-            @Parameter(description = TIMESTAMP_PARAM) @QueryParam("timestamp") long timestamp);
+            @Parameter(description = TIMESTAMP_PARAM) @QueryParam("timestamp") long timestamp,
+            @Parameter(description = SwaggerConstants.PAGE_CURSOR_DESCRIPTION) @QueryParam(
+                    SwaggerConstants.PAGE_CURSOR_QUERY_PARAM) String pageCursor);
 
     static final String GET_IMPLICIT_DEPENDENCY_GRAPH = "Finds Builds which produced implicit Artifact dependencies and Builds which depend on produced Artifacts of a requested Build, and recursively so for those Builds to create a graph of build-time artifact dependencies. Maximum depth limit is 5.";
 
@@ -52,7 +52,7 @@ import java.util.Map;
 @Client
 public interface CacheEndpoint {
 
-    static final String GET_GENERIC_STATS_DESC = "Get general statistics related to Hibernate.";
+    static final String GET_GENERIC_STATS_DESC = "Get general statistics related to Hibernate and the application caches.";
 
     interface MapOfMaps extends Map<String, Map<String, Object>> {
     }
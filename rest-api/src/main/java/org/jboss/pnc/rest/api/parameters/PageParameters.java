@@ -22,6 +22,7 @@ import javax.ws.rs.QueryParam;
 import io.swagger.v3.oas.annotations.Parameter;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.jboss.pnc.dto.response.Page.TotalHitsMode;
 import org.jboss.pnc.rest.configuration.SwaggerConstants;
 
 /**
@@ -47,4 +48,18 @@ public class PageParameters extends PaginationParameters {
     @QueryParam(SwaggerConstants.QUERY_QUERY_PARAM)
     private String q;
 
+    /**
+     * {@value SwaggerConstants#PAGE_CURSOR_DESCRIPTION}
+     */
+    @Parameter(description = SwaggerConstants.PAGE_CURSOR_DESCRIPTION)
+    @QueryParam(SwaggerConstants.PAGE_CURSOR_QUERY_PARAM)
+    private String pageCursor;
+
+    /**
+     * {@value SwaggerConstants#TOTAL_HITS_DESCRIPTION}
+     */
+    @Parameter(description = SwaggerConstants.TOTAL_HITS_DESCRIPTION)
+    @QueryParam(SwaggerConstants.TOTAL_HITS_QUERY_PARAM)
+    private TotalHitsMode totalHits;
+
 }
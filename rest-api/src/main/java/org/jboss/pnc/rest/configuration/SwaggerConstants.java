@@ -65,6 +65,14 @@ public interface SwaggerConstants {
     public static final String SORTING_QUERY_PARAM = "sort";
     public static final String QUERY_DESCRIPTION = "RSQL Query.";
     public static final String QUERY_QUERY_PARAM = "q";
+    public static final String PAGE_CURSOR_DESCRIPTION = "Opaque cursor of the page to return, taken from the "
+            + "'nextPageCursor' of the previous page. Empty value returns the first page. When set, the page index is "
+            + "ignored and the total hits are counted only for the first page. Supported only by some endpoints.";
+    public static final String PAGE_CURSOR_QUERY_PARAM = "pageCursor";
+    public static final String TOTAL_HITS_DESCRIPTION = "How the total hits are computed: EXACT counts them (default), "
+            + "ESTIMATED uses the database estimate for unfiltered queries, NONE doesn't count them and returns -1 "
+            + "unless the page is the last one. Supported only by some endpoints.";
+    public static final String TOTAL_HITS_QUERY_PARAM = "totalHits";
     public static final String SEARCH_QUERY_PARAM = "search-url";
     public static final String MATCH_QUERY_PARAM = "url";
     public static final String SEARCH_DEFAULT_VALUE = "";
@@ -61,6 +61,70 @@ public class RemoteCollectionTest {
         Assert.assertEquals(5, collected.get(5).id);
     }
 
+    @Test
+    public void shouldIterateOverPagesByCursor() throws Exception {
+        AtomicInteger index = new AtomicInteger();
+        List<String> requestedCursors = new ArrayList<>();
+        Function<PageParameters, Page<Entity>> endpoint = (parameters) -> {
+            requestedCursors.add(parameters.getPageCursor());
+            Collection<Entity> collection = new ArrayList();
+            collection.add(new Entity(index.getAndIncrement()));
+            collection.add(new Entity(index.getAndIncrement()));
+            Page<Entity> page = new Page<>(-1, parameters.getPageSize(), -1, -1, collection);
+            if (index.get() < 6) {
+                page.setNextPageCursor("c" + index.get());
+            }
+            return page;
+        };
+        RemoteCollectionConfig config = RemoteCollectionConfig.builder().pageSize(2).cursorPaging(true).build();
+        RemoteCollection<Entity> collection = new DefaultRemoteCollection<>(endpoint, config);
+
+        List<Entity> collected = new ArrayList<>(collection.getAll());
+
+        Assert.assertEquals(6, collected.size());
+        Assert.assertEquals(5, collected.get(5).id);
+        Assert.assertEquals(List.of("", "c2", "c4"), requestedCursors);
+    }
+
+    @Test
+    public void shouldFallBackToPageIndexWhenCursorIsNotSupported() throws Exception {
+        AtomicInteger index = new AtomicInteger();
+        Function<PageParameters, Page<Entity>> endpoint = (parameters) -> {
+            Collection<Entity> collection = new ArrayList();
+            collection.add(new Entity(index.getAndIncrement()));
+            collection.add(new Entity(index.getAndIncrement()));
+            return new Page<>(parameters.getPageIndex(), parameters.getPageSize(), 2, 4, collection);
+        };
+        RemoteCollectionConfig config = RemoteCollectionConfig.builder().pageSize(2).cursorPaging(true).build();
+        RemoteCollection<Entity> collection = new DefaultRemoteCollection<>(endpoint, config);
+
+        Assert.assertEquals(4, collection.getAll().size());
+    }
+
+    @Test
+    public void shouldIterateUntilShortPageWhenTotalIsUnknown() throws Exception {
+        AtomicInteger index = new AtomicInteger();
+        List<Page.TotalHitsMode> requestedModes = new ArrayList<>();
+        Function<PageParameters, Page<Entity>> endpoint = (parameters) -> {
+            requestedModes.add(parameters.getTotalHits());
+            Collection<Entity> collection = new ArrayList();
+            for (int i = 0; i < parameters.getPageSize() && index.get() < 5; i++) {
+                collection.add(new Entity(index.getAndIncrement()));
+            }
+            return new Page<>(parameters.getPageIndex(), parameters.getPageSize(), -1, -1, collection);
+        };
+        RemoteCollectionConfig config = RemoteCollectionConfig.builder()
+                .pageSize(2)
+                .totalHits(Page.TotalHitsMode.NONE)
+                .build();
+        RemoteCollection<Entity> collection = new DefaultRemoteCollection<>(endpoint, config);
+
+        Assert.assertEquals(5, collection.getAll().size());
+        Assert.assertEquals(
+                List.of(Page.TotalHitsMode.NONE, Page.TotalHitsMode.NONE, Page.TotalHitsMode.NONE),
+                requestedModes);
+    }
+
     class Entity {
         int id;
 
@@ -72,6 +72,16 @@ public class ArtifactEndpointImpl implements ArtifactEndpoint {
                 "Retrieving Artifacts with these " + pageParams.toString() + "and checksums:"
                         + ((sha256 == null) ? "" : " Sha256: " + sha256) + ((md5 == null) ? "" : " Md5: " + md5)
                         + ((sha1 == null) ? "" : " Sha1: " + sha1));
+        if (pageParams.getPageCursor() != null) {
+            return artifactProvider.getAllAfter(
+                    pageParams.getPageCursor(),
+                    pageParams.getPageSize(),
+                    pageParams.getSort(),
+                    pageParams.getQ(),
+                    Optional.ofNullable(sha256),
+                    Optional.ofNullable(md5),
+                    Optional.ofNullable(sha1));
+        }
         return artifactProvider.getAll(
                 pageParams.getPageIndex(),
                 pageParams.getPageSize(),
@@ -79,7 +89,8 @@ public class ArtifactEndpointImpl implements ArtifactEndpoint {
                 pageParams.getQ(),
                 Optional.ofNullable(sha256),
                 Optional.ofNullable(md5),
-                Optional.ofNullable(sha1));
+                Optional.ofNullable(sha1),
+                pageParams.getTotalHits());
     }
 
     @Override
@@ -467,8 +467,12 @@ public class BuildEndpointImpl implements BuildEndpoint {
     public Page<BuildRecordInsights> getAllBuildRecordInsightsNewerThanTimestamp(
             int pageSize,
             int pageIndex,
-            long timestamp) {
+            long timestamp,
+            String pageCursor) {
 
+        if (pageCursor != null) {
+            return provider.getBuildRecordInsightsNewerThanTimestamp(pageCursor, pageSize, new Date(timestamp));
+        }
         return provider.getAllBuildRecordInsightsNewerThanTimestamp(pageIndex, pageSize, new Date(timestamp));
     }
 
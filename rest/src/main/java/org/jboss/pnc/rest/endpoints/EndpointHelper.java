@@ -64,7 +64,8 @@ public class EndpointHelper<DBEntityID extends Serializable, DTO extends REF, RE
                 pageParameters.getPageIndex(),
                 pageParameters.getPageSize(),
                 pageParameters.getSort(),
-                pageParameters.getQ());
+                pageParameters.getQ(),
+                pageParameters.getTotalHits());
     }
 
     protected DTO update(String id, DTO dto) {
@@ -51,6 +51,7 @@ import org.jboss.pnc.model.BuildRecord;
 import org.jboss.pnc.model.BuildRecordAttribute;
 import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.remotecoordinator.builder.RexTaskMirror.TaskNotifiedEvent;
 import org.jboss.pnc.remotecoordinator.builder.SetRecordTasks;
 import org.jboss.pnc.rest.endpoints.internal.api.BuildTaskEndpoint;
 import org.jboss.pnc.rest.jackson.JacksonProvider;
@@ -79,6 +80,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.Dependent;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 import javax.validation.constraints.NotBlank;
@@ -165,6 +167,9 @@ public class BuildTaskEndpointImpl implements BuildTaskEndpoint {
     @Inject
     private SetRecordTasks setRecordTasks;
 
+    @Inject
+    private Event<TaskNotifiedEvent> taskNotifiedEvent;
+
     @Override
     public Response buildTaskCompleted(String buildId, BuildResultRest buildResult) throws InvalidEntityException {
 
@@ -767,6 +772,8 @@ public class BuildTaskEndpointImpl implements BuildTaskEndpoint {
         } else if (!shouldSkip(previousState, newState, stopFlag)) {
             handleRegularTransition(notification.getTask(), buildMeta, newState, previousState, stopFlag);
         }
+        // the mirror is updated only once the transition is committed
+        taskNotifiedEvent.fire(new TaskNotifiedEvent(taskMapper.toBuildTaskRef(notification.getTask(), buildMeta)));
 
         logger.debug("Completed notification for build '{}'.", buildId);
         return Response.ok().build();
@@ -31,6 +31,7 @@ import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.coordinator.BuildTask;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -145,6 +146,58 @@ public interface Datastore {
                 ign -> {});
     }
 
+    /**
+     * Check if a build configuration should be rebuilt (if some of its dependencies were rebuild or configuration was
+     * modified)
+     *
+     * @param buildConfigurationAudited
+     * @param checkImplicitDependencies when true check also automatically captured dependencies.
+     * @param temporaryBuild true if requested build is going to be temporary
+     * @param rebuildCheckCache lookups shared by the checks of one build submission
+     * @return
+     */
+    default boolean requiresRebuild(
+            BuildConfigurationAudited buildConfigurationAudited,
+            boolean checkImplicitDependencies,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference,
+            RebuildCheckCache rebuildCheckCache) {
+        return requiresRebuild(
+                buildConfigurationAudited,
+                checkImplicitDependencies,
+                temporaryBuild,
+                alignmentPreference,
+                rebuildCheckCache,
+                ign -> {});
+    }
+
+    /**
+     * Check if a build configuration should be rebuilt (if some of its dependencies were rebuild or configuration was
+     * modified)
+     *
+     * @param buildConfigurationAudited
+     * @param checkImplicitDependencies when true check also automatically captured dependencies.
+     * @param temporaryBuild true if requested build is going to be temporary
+     * @param rebuildCheckCache lookups shared by the checks of one build submission
+     * @param nonRebuildCauseSetter this Consumer is used for setting a reference of BuildRecord causing not rebuilding
+     * @return
+     */
+    default boolean requiresRebuild(
+            BuildConfigurationAudited buildConfigurationAudited,
+            boolean checkImplicitDependencies,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference,
+            RebuildCheckCache rebuildCheckCache,
+            Consumer<BuildRecord> nonRebuildCauseSetter) {
+        return requiresRebuild(
+                buildConfigurationAudited,
+                checkImplicitDependencies,
+                temporaryBuild,
+                alignmentPreference,
+                rebuildCheckCache.getProcessedDependencies(),
+                nonRebuildCauseSetter);
+    }
+
     /**
      * Check if a build configuration should be rebuilt (if some of its dependencies were rebuild or configuration was
      * modified)
@@ -163,6 +216,53 @@ public interface Datastore {
             Set<Integer> processedDependenciesCache,
             Consumer<BuildRecord> nonRebuildCauseSetter);
 
+    /**
+     * Check which of the build configurations should be rebuilt (if some of their dependencies were rebuild or
+     * configurations were modified). All the configurations are evaluated together, so the implementations can fetch
+     * the needed BuildRecords in bulk.
+     *
+     * @param buildConfigurationAuditeds configurations to check
+     * @param checkImplicitDependencies when true check also automatically captured dependencies.
+     * @param temporaryBuild true if requested build is going to be temporary
+     * @return map of IdRevs not requiring a rebuild to the BuildRecords causing not rebuilding them. The configurations
+     *         which are not in the map require a rebuild.
+     */
+    default Map<IdRev, BuildRecord> requiresRebuild(
+            Collection<BuildConfigurationAudited> buildConfigurationAuditeds,
+            boolean checkImplicitDependencies,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference) {
+        Map<IdRev, BuildRecord> noRebuildCauses = new HashMap<>();
+        RebuildCheckCache rebuildCheckCache = new RebuildCheckCache();
+        for (BuildConfigurationAudited buildConfigurationAudited : buildConfigurationAuditeds) {
+            requiresRebuild(
+                    buildConfigurationAudited,
+                    checkImplicitDependencies,
+                    temporaryBuild,
+                    alignmentPreference,
+                    rebuildCheckCache,
+                    buildRecord -> noRebuildCauses.put(buildConfigurationAudited.getIdRev(), buildRecord));
+        }
+        return noRebuildCauses;
+    }
+
+    /**
+     * Same check as {@link #requiresRebuild(Collection, boolean, boolean, AlignmentPreference)}, but the configurations
+     * are given by their IdRevs and the ids of their explicit dependencies. The check doesn't touch the entities loaded
+     * by the caller, so it can run on another thread than the one which loaded them.
+     *
+     * @param dependencyIds ids of the explicit dependencies by IdRev of the configurations to check
+     * @param checkImplicitDependencies when true check also automatically captured dependencies.
+     * @param temporaryBuild true if requested build is going to be temporary
+     * @return map of IdRevs not requiring a rebuild to the BuildRecords causing not rebuilding them. The configurations
+     *         which are not in the map require a rebuild.
+     */
+    Map<IdRev, BuildRecord> requiresRebuild(
+            Map<IdRev, Set<Integer>> dependencyIds,
+            boolean checkImplicitDependencies,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference);
+
     @Deprecated
     boolean requiresRebuild(BuildTask task, Set<Integer> processedDependenciesCache);
 
@@ -0,0 +1,135 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore;
+
+import lombok.Value;
+import org.jboss.pnc.api.enums.AlignmentPreference;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.IdRev;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Memoized lookups of the latest successful BuildRecords done while checking if the configurations of a single build
+ * submission require a rebuild, so that each lookup hits the database at most once per submission. It also holds the
+ * ids of the captured dependencies which were already checked.
+ *
+ * Create a new instance for every submission, the cached records get stale as soon as other builds finish.
+ */
+public class RebuildCheckCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RebuildCheckCache.class);
+
+    private final Set<Integer> processedDependencies;
+
+    private final Map<LookupKey, Optional<BuildRecord>> lookups = new ConcurrentHashMap<>();
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public RebuildCheckCache() {
+        this(ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * @param processedDependencies ids of the captured dependencies which were already checked
+     */
+    public RebuildCheckCache(Set<Integer> processedDependencies) {
+        this.processedDependencies = processedDependencies;
+    }
+
+    public Set<Integer> getProcessedDependencies() {
+        return processedDependencies;
+    }
+
+    public BuildRecord getAnyLatestSuccessfulWithRevision(
+            IdRev idRev,
+            boolean temporaryBuild,
+            Supplier<BuildRecord> lookup) {
+        return get(new LookupKey(LookupType.ANY_WITH_REVISION, idRev, temporaryBuild, null), lookup);
+    }
+
+    public BuildRecord getAnyLatestSuccessfulWithBuildConfig(
+            Integer configurationId,
+            boolean temporaryBuild,
+            Supplier<BuildRecord> lookup) {
+        return get(new LookupKey(LookupType.ANY_WITH_BUILD_CONFIG, configurationId, temporaryBuild, null), lookup);
+    }
+
+    public BuildRecord getPreferredLatestSuccessfulWithBuildConfig(
+            Integer configurationId,
+            boolean temporaryBuild,
+            AlignmentPreference alignmentPreference,
+            Supplier<BuildRecord> lookup) {
+        LookupKey key = new LookupKey(
+                LookupType.PREFERRED_WITH_BUILD_CONFIG,
+                configurationId,
+                temporaryBuild,
+                alignmentPreference);
+        return get(key, lookup);
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Logs the hit and miss counts of the lookups.
+     *
+     * @param scope description of the submission the cache was used for
+     */
+    public void logStatistics(Object scope) {
+        logger.debug("Latest BuildRecord lookups for {}: {} hits, {} misses.", scope, hits.get(), misses.get());
+    }
+
+    private BuildRecord get(LookupKey key, Supplier<BuildRecord> lookup) {
+        Optional<BuildRecord> cached = lookups.get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached.orElse(null);
+        }
+        misses.incrementAndGet();
+        Optional<BuildRecord> buildRecord = Optional.ofNullable(lookup.get());
+        lookups.putIfAbsent(key, buildRecord);
+        return buildRecord.orElse(null);
+    }
+
+    private enum LookupType {
+        ANY_WITH_REVISION, ANY_WITH_BUILD_CONFIG, PREFERRED_WITH_BUILD_CONFIG
+    }
+
+    @Value
+    private static class LookupKey {
+        LookupType type;
+        Object id;
+        boolean temporaryBuild;
+        AlignmentPreference alignmentPreference;
+    }
+}
@@ -49,6 +49,7 @@ import java.util.Optional;
 import java.util.Set;
 
 import static org.jboss.pnc.spi.datastore.predicates.DeliverableAnalyzerReportPredicates.notFromDeletedAnalysis;
+import static org.jboss.pnc.spi.datastore.predicates.DeliverableAnalyzerReportPredicates.notFromIncompleteAnalysis;
 import static org.jboss.pnc.spi.datastore.predicates.DeliverableAnalyzerReportPredicates.notFromScratchAnalysis;
 
 /**
@@ -92,6 +93,8 @@ public class ArtifactPredicates {
             subquery.where(
                     cb.and(
                             DeliverableAnalyzerReportPredicates.notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                            DeliverableAnalyzerReportPredicates
+                                    .notFromIncompleteAnalysis(cb, subquery, deliverableAnalyzerReports),
                             DeliverableAnalyzerReportPredicates.notFromScratchAnalysis(cb, deliverableAnalyzerReports),
                             cb.equal(
                                     deliverableAnalyzerOperations.get(DeliverableAnalyzerOperation_.productMilestone)
@@ -247,7 +250,8 @@ public class ArtifactPredicates {
                     cb.and(
                             productMilestones.get(ProductMilestone_.id).in(List.of(milestone1Id, milestone2Id)),
                             notFromScratchAnalysis(cb, deliverableAnalyzerReports),
-                            notFromDeletedAnalysis(cb, deliverableAnalyzerReports)));
+                            notFromDeletedAnalysis(cb, deliverableAnalyzerReports),
+                            notFromIncompleteAnalysis(cb, subquery, deliverableAnalyzerReports)));
             subquery.groupBy(artifacts);
             // delivered in both milestones
             subquery.having(cb.equal(cb.countDistinct(productMilestones.get(ProductMilestone_.id)), cb.literal(2L)));
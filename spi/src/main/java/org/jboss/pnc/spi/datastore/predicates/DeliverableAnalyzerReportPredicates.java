@@ -18,13 +18,20 @@
 package org.jboss.pnc.spi.datastore.predicates;
 
 import org.jboss.pnc.api.enums.DeliverableAnalyzerReportLabel;
+import org.jboss.pnc.model.Base32LongID;
+import org.jboss.pnc.model.DeliverableAnalyzerOperation;
 import org.jboss.pnc.model.DeliverableAnalyzerReport;
 import org.jboss.pnc.model.DeliverableAnalyzerReport_;
+import org.jboss.pnc.model.Operation_;
 
+import javax.persistence.criteria.AbstractQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.MapJoin;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 
 /**
  * Predicates for {@link org.jboss.pnc.model.DeliverableAnalyzerReport} entity.
@@ -49,6 +56,27 @@ public class DeliverableAnalyzerReportPredicates {
                 DeliverableAnalyzerReportLabel.DELETED);
     }
 
+    /**
+     * The delivered artifacts of an analysis are stored in several transactions, so a report is complete only once the
+     * last chunk is committed and the {@link DeliverableAnalyzerOperation#INCOMPLETE_REPORT_PARAMETER} marker is
+     * removed from its operation.
+     */
+    public static Predicate notFromIncompleteAnalysis(
+            CriteriaBuilder cb,
+            AbstractQuery<?> query,
+            Path<DeliverableAnalyzerReport> deliverableAnalyzerReports) {
+        Subquery<Base32LongID> incompleteOperationIds = query.subquery(Base32LongID.class);
+        Root<DeliverableAnalyzerOperation> operations = incompleteOperationIds.from(DeliverableAnalyzerOperation.class);
+        MapJoin<DeliverableAnalyzerOperation, String, String> operationParameters = operations
+                .join(Operation_.operationParameters);
+
+        incompleteOperationIds.select(operations.get(Operation_.id));
+        incompleteOperationIds.where(
+                cb.equal(operationParameters.key(), DeliverableAnalyzerOperation.INCOMPLETE_REPORT_PARAMETER));
+
+        return cb.not(deliverableAnalyzerReports.get(DeliverableAnalyzerReport_.id).in(incompleteOperationIds));
+    }
+
     private static Predicate getNotFromReportLabelAnalysisPredicate(
             CriteriaBuilder cb,
             Path<DeliverableAnalyzerReport> deliverableAnalyzerReports,
@@ -21,6 +21,8 @@ import org.jboss.pnc.model.User;
 import org.jboss.pnc.model.User_;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 
+import java.util.Collection;
+
 /**
  * Predicates for {@link org.jboss.pnc.model.User} entity.
  */
@@ -30,4 +32,8 @@ public class UserPredicates {
         return (root, query, cb) -> cb.equal(root.get(User_.username), name);
     }
 
+    public static Predicate<User> withUserNames(Collection<String> names) {
+        return (root, query, cb) -> root.get(User_.username).in(names);
+    }
+
 }
@@ -22,6 +22,7 @@ import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -40,4 +41,17 @@ public interface ArtifactRepository extends Repository<Artifact, Integer> {
 
     List<Artifact> withSha256In(Set<String> sha256);
 
+    /**
+     * Stores the artifacts, which are not stored yet. The artifacts are identified by their identifier, sha256 and
+     * target repository, which must be already stored. An artifact stored concurrently by another transaction is not
+     * stored again. The build record relations of the artifacts are not stored, they have to be set on the returned
+     * entities.
+     *
+     * The artifacts downloaded through the generic proxy repositories are deduplicated the same way, an already stored
+     * artifact is reused instead of inserting a new one for every build that downloads it.
+     *
+     * @return stored artifacts by their identifier, sha256 and target repository
+     */
+    Map<Artifact.IdentifierSha256TargetRepository, Artifact> getOrSave(Collection<Artifact> artifacts);
+
 }
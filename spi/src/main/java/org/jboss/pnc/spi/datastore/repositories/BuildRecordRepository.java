@@ -18,6 +18,7 @@
 package org.jboss.pnc.spi.datastore.repositories;
 
 import org.jboss.pnc.api.enums.AlignmentPreference;
+import org.jboss.pnc.dto.insights.BuildRecordInsights;
 import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.model.Base32LongID;
 import org.jboss.pnc.model.BuildRecord;
@@ -26,9 +27,11 @@ import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 
 import javax.persistence.Tuple;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -43,6 +46,11 @@ public interface BuildRecordRepository extends Repository<BuildRecord, Base32Lon
      */
     BuildRecord findByIdFetchProperties(Base32LongID id);
 
+    /**
+     * Bulk version of {@link #findByIdFetchProperties(Base32LongID)}, Builds which don't exist are left out.
+     */
+    List<BuildRecord> findByIdsFetchProperties(Collection<Base32LongID> ids);
+
     BuildRecord getLatestSuccessfulBuildRecord(Integer configurationId, boolean buildTemporary);
 
     default BuildRecord getLatestSuccessfulBuildRecord(List<BuildRecord> buildRecords, boolean buildTemporary) {
@@ -95,11 +103,37 @@ public interface BuildRecordRepository extends Repository<BuildRecord, Base32Lon
 
     List<BuildRecord> getLatestBuildsForBuildConfigs(List<Integer> configIds);
 
+    /**
+     * Fetches the latest successful Build of every revision of the specified BuildConfigurations, separately for
+     * temporary and persistent Builds. Used to evaluate the rebuild of whole build graphs in DefaultDataStore ->
+     * requiresRebuild.
+     */
+    List<BuildRecord> getLatestSuccessfulBuildRecordsOfRevisions(Collection<Integer> configurationIds);
+
+    /**
+     * Fetches Builds which produced Artifact Dependencies of the specified Builds (buildIds), mapped by the ID of the
+     * specified Build.
+     */
+    Map<Base32LongID, Set<BuildRecord>> getBuildsProducingDependencies(Collection<Base32LongID> buildIds);
+
     Set<BuildRecord> findByBuiltArtifacts(Set<Integer> artifactsId);
 
     List<BuildRecord> getBuildByCausingRecord(Base32LongID causingRecordId);
 
-    List<Object[]> getAllBuildRecordInsightsNewerThanTimestamp(Date lastupdatetime, int pageSize, int offset);
+    List<BuildRecordInsights> getAllBuildRecordInsightsNewerThanTimestamp(
+            Date lastupdatetime,
+            int pageSize,
+            int offset);
+
+    /**
+     * Fetches the insights sorted by the last update time and the build id, starting right after the given position.
+     * Unlike the offset variant, the cost of a page doesn't grow with the number of the preceding rows.
+     *
+     * @param lastupdatetime last update time of the last fetched build, or the lower bound of the export
+     * @param buildId id of the last fetched build, null to start with the builds updated after lastupdatetime
+     * @param limit maximum number of the returned insights
+     */
+    List<BuildRecordInsights> getBuildRecordInsightsAfter(Date lastupdatetime, Long buildId, int limit);
 
     int countAllBuildRecordInsightsNewerThanTimestamp(Date lastupdatetime);
 
@@ -118,4 +152,20 @@ public interface BuildRecordRepository extends Repository<BuildRecord, Base32Lon
      * Returned tuple format: 0) Build ID (Base32LongID); 1) Count of produced Artifacts (Integer)
      */
     List<Tuple> getImplicitDependants(Base32LongID buildId);
+
+    /**
+     * Fetches Builds which produced Artifact Dependencies of any of the specified Builds (buildIds).
+     *
+     * Returned tuple format: 0) ID of the specified Build (Base32LongID); 1) Build ID (Base32LongID); 2) Count of
+     * produced Artifacts (Integer)
+     */
+    List<Tuple> getImplicitDependencies(Collection<Base32LongID> buildIds);
+
+    /**
+     * Fetches Builds which depend on Artifacts produced in any of the specified Builds (buildIds).
+     *
+     * Returned tuple format: 0) ID of the specified Build (Base32LongID); 1) Build ID (Base32LongID); 2) Count of
+     * produced Artifacts (Integer)
+     */
+    List<Tuple> getImplicitDependants(Collection<Base32LongID> buildIds);
 }
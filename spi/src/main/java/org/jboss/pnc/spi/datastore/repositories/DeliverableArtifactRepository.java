@@ -19,11 +19,13 @@ package org.jboss.pnc.spi.datastore.repositories;
 
 import org.jboss.pnc.enums.ArtifactQuality;
 import org.jboss.pnc.enums.RepositoryType;
+import org.jboss.pnc.model.Base32LongID;
 import org.jboss.pnc.model.DeliverableArtifact;
 import org.jboss.pnc.model.DeliverableArtifactPK;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 
 import javax.persistence.Tuple;
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Set;
@@ -128,4 +130,15 @@ public interface DeliverableArtifactRepository extends Repository<DeliverableArt
      *         milestoneId-repositoryType pair>), e.g. [(42, MAVEN, 3), (100, DISTRIBUTION_ARCHIVE, 3)]
      */
     List<Tuple> getRepositoryTypesStatistics(Set<Integer> milestoneIds);
+
+    /**
+     * Ids of the artifacts delivered in the distribution given by id and stored in the report given by id.
+     */
+    Set<Integer> getDeliveredArtifactIds(Base32LongID reportId, Base32LongID distributionId);
+
+    /**
+     * Persists new delivered artifacts together with their licenses. Unlike {@link #save(Object)}, the delivered
+     * artifacts are not merged, so there is no select per delivered artifact and the inserts are sent in JDBC batches.
+     */
+    void persist(Collection<DeliverableArtifact> deliverableArtifacts);
 }
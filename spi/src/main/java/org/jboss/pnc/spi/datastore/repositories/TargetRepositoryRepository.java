@@ -20,7 +20,9 @@ package org.jboss.pnc.spi.datastore.repositories;
 import org.jboss.pnc.model.TargetRepository;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -31,4 +33,12 @@ public interface TargetRepositoryRepository extends Repository<TargetRepository,
     TargetRepository queryByIdentifierAndPath(String identifier, String repositoryPath);
 
     List<TargetRepository> queryByIdentifiersAndPaths(Set<TargetRepository.IdentifierPath> identifiersAndPaths);
+
+    /**
+     * Stores the target repositories, which are not stored yet. The target repositories are identified by their
+     * identifier and path. A target repository stored concurrently by another transaction is not stored again.
+     *
+     * @return stored target repositories by their identifier and path
+     */
+    Map<TargetRepository.IdentifierPath, TargetRepository> getOrSave(Collection<TargetRepository> targetRepositories);
 }
@@ -0,0 +1,109 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories.api;
+
+import lombok.EqualsAndHashCode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Position in a sorted result used for the keyset (seek) pagination. It holds the values of the sort keys of the last
+ * row of a page, the next page starts after them. The cursor of the first page has no values.
+ *
+ * The cursor is passed to the clients as an opaque URL safe token, see {@link #encode()} and {@link #decode(String)}.
+ */
+@EqualsAndHashCode
+public class PageCursor {
+
+    private static final String SEPARATOR = ".";
+
+    private static final String NULL_VALUE = "~";
+
+    private static final String VALUE_PREFIX = "v";
+
+    private final List<String> values;
+
+    private PageCursor(List<String> values) {
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    public static PageCursor first() {
+        return new PageCursor(Collections.emptyList());
+    }
+
+    /**
+     * @param values string representation of the sort key values of the last row, the values can be null
+     */
+    public static PageCursor after(List<String> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Cursor needs at least one sort key value.");
+        }
+        return new PageCursor(values);
+    }
+
+    public boolean isFirst() {
+        return values.isEmpty();
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public String encode() {
+        List<String> encoded = new ArrayList<>(values.size());
+        for (String value : values) {
+            encoded.add(
+                    value == null ? NULL_VALUE
+                            : VALUE_PREFIX + Base64.getUrlEncoder()
+                                    .withoutPadding()
+                                    .encodeToString(value.getBytes(StandardCharsets.UTF_8)));
+        }
+        return String.join(SEPARATOR, encoded);
+    }
+
+    /**
+     * @param token token created by {@link #encode()}, empty token is the cursor of the first page
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return first();
+        }
+        List<String> values = new ArrayList<>();
+        for (String encoded : token.split("\\" + SEPARATOR, -1)) {
+            if (encoded.equals(NULL_VALUE)) {
+                values.add(null);
+            } else if (encoded.startsWith(VALUE_PREFIX)) {
+                byte[] decoded = Base64.getUrlDecoder().decode(encoded.substring(VALUE_PREFIX.length()));
+                values.add(new String(decoded, StandardCharsets.UTF_8));
+            } else {
+                throw new IllegalArgumentException("Malformed page cursor: " + token);
+            }
+        }
+        return new PageCursor(values);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -41,7 +41,33 @@ public interface ReadOnlyRepository<T extends GenericEntity<ID>, ID extends Seri
 
     int count(Collection<Predicate<T>> andPredicates, Collection<Predicate<T>> orPredicates);
 
+    /**
+     * Estimates the number of all the rows from the database statistics, which is much cheaper than counting them on
+     * big tables.
+     *
+     * @return the estimate or -1 if the database doesn't provide it
+     */
+    default int estimateCount() {
+        return -1;
+    }
+
     List<T> queryWithPredicates(Predicate<T>... predicates);
 
     List<T> queryWithPredicates(PageInfo pageInfo, SortInfo<T> sortInfo, Predicate<T>... predicates);
+
+    /**
+     * Keyset (seek) pagination: returns the rows following the cursor position instead of skipping the rows of the
+     * previous pages, so the cost of a page doesn't grow with its distance from the beginning. The rows are ordered by
+     * the sortInfo and then by the id.
+     *
+     * @param pageCursor position after which the page starts, {@link PageCursor#first()} for the first page
+     * @param pageSize maximal number of rows of the page
+     * @param sortInfo ordering of the rows, has to be the same for all the pages
+     * @throws IllegalArgumentException if the cursor doesn't match the ordering
+     */
+    CursorPage<T> queryWithPredicates(
+            PageCursor pageCursor,
+            int pageSize,
+            SortInfo<T> sortInfo,
+            Predicate<T>... predicates);
 }
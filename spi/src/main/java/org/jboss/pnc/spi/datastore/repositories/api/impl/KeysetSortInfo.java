@@ -0,0 +1,67 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014-2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories.api.impl;
+
+import org.jboss.pnc.model.Base32LongID;
+import org.jboss.pnc.spi.datastore.repositories.api.OrderInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link SortInfo} for the keyset pagination. The keyset pagination needs a total ordering, so the id is added as the
+ * last order to break the ties of the wrapped ordering.
+ *
+ * @param <T>
+ */
+public class KeysetSortInfo<T> implements SortInfo<T> {
+    private final List<OrderInfo<T>> order; // immutable list
+
+    public KeysetSortInfo(SortInfo<T> sortInfo) {
+        List<OrderInfo<T>> orders = new ArrayList<>();
+        if (sortInfo != null && !(sortInfo instanceof StableEmptySortInfo)) {
+            orders.addAll(sortInfo.orders());
+        }
+        orders.add(new DefaultOrderInfo<>(OrderInfo.SortingDirection.ASC, KeysetSortInfo::idOrder));
+        this.order = List.copyOf(orders);
+    }
+
+    @Override
+    public List<OrderInfo<T>> orders() {
+        return order;
+    }
+
+    @Override
+    public SortInfo<T> thenOrderBy(OrderInfo<T> order) {
+        ArrayList<OrderInfo<T>> arrayList = new ArrayList<>(this.orders());
+        arrayList.add(order);
+        return new DefaultSortInfo<>(arrayList);
+    }
+
+    private static <T> Expression<?> idOrder(Root<T> root) {
+        Path<?> id = root.get("id");
+        if (Base32LongID.class.equals(id.getJavaType())) {
+            return id.get("id");
+        }
+        return id;
+    }
+}